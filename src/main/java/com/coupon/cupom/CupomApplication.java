@@ -1,9 +1,12 @@
 package com.coupon.cupom;
 
+import com.coupon.cupom.util.NativeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
 
 @SpringBootApplication
+@ImportRuntimeHints(NativeHints.class)
 public class CupomApplication {
 
 	public static void main(String[] args) {
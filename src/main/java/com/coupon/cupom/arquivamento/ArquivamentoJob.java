@@ -0,0 +1,166 @@
+package com.coupon.cupom.arquivamento;
+
+import com.coupon.cupom.event.CuponsArquivadosEvent;
+import com.coupon.cupom.event.CuponsArquivadosEvent.Arquivado;
+import com.coupon.cupom.lideranca.GerenciadorLeases;
+import com.coupon.cupom.lideranca.LeaseAtiva;
+import com.coupon.cupom.lideranca.LeasePerdidaException;
+import com.coupon.cupom.tempo.Relogio;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Move cupons resgatados, deletados ou expirados há muito tempo de cupons para cupons_arquivados,
+ * mantendo a tabela principal e o índice único de code pequenos.
+ * Cada lote é copiado e removido na mesma transação, então um cupom nunca fica nas duas tabelas.
+ * Com várias instâncias, só a dona da lease "arquivamento" executa; cada lote confirma a lease
+ * na própria transação. Após o commit de cada lote, {@link CuponsArquivadosEvent} tira os cupons movidos dos caches.
+ */
+@Component
+@EnableScheduling
+@EnableConfigurationProperties(ArquivamentoProperties.class)
+@ConditionalOnProperty(prefix = "cupom.arquivamento", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ArquivamentoJob {
+
+    private static final Logger log = LoggerFactory.getLogger(ArquivamentoJob.class);
+
+    static final String LEASE = "arquivamento";
+
+    private static final String COLUNAS = """
+            id, code, description, discount_value, expiration_date, status, published, redeemed,
+            redeemed_at, deleted_at, created_at, updated_at""";
+
+    /**
+     * Um critério por consulta, cada uma servida pelo seu índice (V10); um OR entre eles levaria a uma varredura
+     */
+    private static final List<String> CANDIDATOS = List.of(
+            """
+            SELECT id, code, version FROM cupons
+            WHERE redeemed = TRUE AND updated_at < :limiteCarencia
+            LIMIT :tamanho
+            """,
+            """
+            SELECT id, code, version FROM cupons
+            WHERE deleted_at IS NOT NULL AND updated_at < :limiteCarencia
+            LIMIT :tamanho
+            """,
+            """
+            SELECT id, code, version FROM cupons
+            WHERE expiration_date < :limiteExpirados
+            LIMIT :tamanho
+            """);
+    private static final String COPIAR = "INSERT INTO cupons_arquivados (" + COLUNAS + ", archived_at) SELECT "
+            + COLUNAS + ", :agora FROM cupons WHERE id IN (:ids)";
+    private static final String REMOVER = "DELETE FROM cupons WHERE id IN (:ids)";
+
+    private final ArquivamentoProperties properties;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transacao;
+    private final Relogio relogio;
+    private final GerenciadorLeases leases;
+    private final ApplicationEventPublisher eventos;
+
+    public ArquivamentoJob(ArquivamentoProperties properties, NamedParameterJdbcTemplate jdbcTemplate,
+                           PlatformTransactionManager transactionManager, Relogio relogio,
+                           GerenciadorLeases leases, ApplicationEventPublisher eventos) {
+        this.properties = properties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transacao = new TransactionTemplate(transactionManager);
+        this.relogio = relogio;
+        this.leases = leases;
+        this.eventos = eventos;
+    }
+
+    @Scheduled(fixedDelayString = "${cupom.arquivamento.intervalo:PT1M}",
+            initialDelayString = "${cupom.arquivamento.intervalo:PT1M}")
+    public void executar() {
+        long inicio = System.nanoTime();
+        int arquivados = arquivar(relogio.agora());
+        if (arquivados > 0) {
+            log.info("Arquivamento: {} cupons movidos em {} ms", arquivados, (System.nanoTime() - inicio) / 1_000_000);
+        }
+    }
+
+    /**
+     * Arquiva em lotes até não sobrar candidato ou atingir o limite de lotes da execução.
+     * Não faz nada se outra instância tiver a lease.
+     * @param agora instante de referência para carência e retenção
+     * @return quantidade de cupons arquivados
+     */
+    public int arquivar(LocalDateTime agora) {
+        Optional<LeaseAtiva> lease = leases.adquirir(LEASE);
+        if (lease.isEmpty()) {
+            return 0;
+        }
+        Map<String, Object> criterios = Map.of(
+                "limiteCarencia", agora.minus(properties.carencia()),
+                "limiteExpirados", agora.minus(properties.retencaoExpirados()));
+        int total = 0;
+        try {
+            for (int lote = 0; lote < properties.maxLotesPorExecucao(); lote++) {
+                Integer movidos = transacao.execute(status -> {
+                    leases.verificar(lease.get());
+                    return arquivarLote(criterios, agora);
+                });
+                total += movidos;
+                if (movidos < properties.tamanhoLote()) {
+                    break;
+                }
+            }
+        } catch (LeasePerdidaException e) {
+            log.warn("Arquivamento interrompido após {} cupons: {}", total, e.getMessage());
+        }
+        return total;
+    }
+
+    private int arquivarLote(Map<String, Object> criterios, LocalDateTime agora) {
+        List<Arquivado> candidatos = candidatos(criterios);
+        if (candidatos.isEmpty()) {
+            return 0;
+        }
+        List<UUID> ids = candidatos.stream().map(Arquivado::id).toList();
+        Map<String, Object> parametros = Map.of("ids", ids, "agora", agora);
+        jdbcTemplate.update(COPIAR, parametros);
+        int removidos = jdbcTemplate.update(REMOVER, parametros);
+        eventos.publishEvent(new CuponsArquivadosEvent(candidatos));
+        return removidos;
+    }
+
+    /**
+     * Junta os candidatos de cada critério até completar o lote; um cupom que atende a mais de um critério conta uma vez
+     */
+    private List<Arquivado> candidatos(Map<String, Object> criterios) {
+        int tamanho = properties.tamanhoLote();
+        Map<UUID, Arquivado> candidatos = new LinkedHashMap<>();
+        for (String consulta : CANDIDATOS) {
+            Map<String, Object> parametros = new HashMap<>(criterios);
+            parametros.put("tamanho", tamanho - candidatos.size());
+            jdbcTemplate.query(consulta, parametros, rs -> {
+                UUID id = rs.getObject(1, UUID.class);
+                candidatos.putIfAbsent(id, new Arquivado(id, rs.getString(2), rs.getLong(3)));
+            });
+            if (candidatos.size() >= tamanho) {
+                break;
+            }
+        }
+        return new ArrayList<>(candidatos.values());
+    }
+}
@@ -0,0 +1,25 @@
+package com.coupon.cupom.arquivamento;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuração do arquivamento de cupons (prefixo cupom.arquivamento).
+ * O intervalo entre execuções fica em cupom.arquivamento.intervalo.
+ * @param enabled liga o job de arquivamento
+ * @param tamanhoLote cupons movidos por transação
+ * @param maxLotesPorExecucao limite de lotes por execução, para não segurar o banco
+ * @param carencia tempo após o resgate ou a deleção até o cupom ser arquivado
+ * @param retencaoExpirados tempo após a expiração até o cupom ser arquivado
+ */
+@ConfigurationProperties(prefix = "cupom.arquivamento")
+public record ArquivamentoProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("1000") int tamanhoLote,
+        @DefaultValue("100") int maxLotesPorExecucao,
+        @DefaultValue("1d") Duration carencia,
+        @DefaultValue("30d") Duration retencaoExpirados
+) {
+}
@@ -0,0 +1,91 @@
+package com.coupon.cupom.auditoria;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fila circular limitada, sem locks, para vários produtores e um único consumidor.
+ * Cada posição tem um número de sequência: o produtor reserva a posição com um CAS na cauda
+ * e publica o elemento avançando a sequência; o consumidor só lê posições já publicadas.
+ * Com a fila cheia, {@link #oferecer} devolve false na hora em vez de esperar.
+ */
+public class AnelLimitado<T> {
+
+    private final AtomicReferenceArray<T> elementos;
+    private final AtomicLongArray sequencias;
+    private final int mascara;
+    private final AtomicLong cauda = new AtomicLong();
+    private volatile long cabeca;
+
+    /**
+     * @param capacidade arredondada para a próxima potência de 2
+     */
+    public AnelLimitado(int capacidade) {
+        int tamanho = Integer.highestOneBit(Math.max(2, capacidade - 1)) << 1;
+        this.elementos = new AtomicReferenceArray<>(tamanho);
+        this.sequencias = new AtomicLongArray(tamanho);
+        this.mascara = tamanho - 1;
+        for (int i = 0; i < tamanho; i++) {
+            sequencias.set(i, i);
+        }
+    }
+
+    public int capacidade() {
+        return mascara + 1;
+    }
+
+    /**
+     * Pode ser chamado por qualquer thread
+     * @return false se a fila estiver cheia
+     */
+    public boolean oferecer(T elemento) {
+        long posicao = cauda.get();
+        while (true) {
+            int indice = (int) posicao & mascara;
+            long diferenca = sequencias.get(indice) - posicao;
+            if (diferenca == 0) {
+                if (cauda.compareAndSet(posicao, posicao + 1)) {
+                    elementos.set(indice, elemento);
+                    sequencias.set(indice, posicao + 1);
+                    return true;
+                }
+                posicao = cauda.get();
+            } else if (diferenca < 0) {
+                return false;
+            } else {
+                posicao = cauda.get();
+            }
+        }
+    }
+
+    /**
+     * Retira até {@code maximo} elementos, na ordem de publicação. Só a thread consumidora chama.
+     * @return quantidade retirada
+     */
+    public int drenar(List<T> destino, int maximo) {
+        long posicao = cabeca;
+        int retirados = 0;
+        while (retirados < maximo) {
+            int indice = (int) posicao & mascara;
+            if (sequencias.get(indice) != posicao + 1) {
+                break;
+            }
+            destino.add(elementos.get(indice));
+            elementos.set(indice, null);
+            sequencias.set(indice, posicao + mascara + 1);
+            posicao++;
+            retirados++;
+        }
+        cabeca = posicao;
+        return retirados;
+    }
+
+    /**
+     * Quantidade aproximada de elementos na fila
+     */
+    public int tamanho() {
+        return (int) Math.max(0, cauda.get() - cabeca);
+    }
+}
@@ -0,0 +1,250 @@
+package com.coupon.cupom.auditoria;
+
+import com.coupon.cupom.auditoria.AuditoriaProperties.PoliticaEstouro;
+import com.coupon.cupom.entity.AuditoriaCupom;
+import com.coupon.cupom.entity.EstadoCupom;
+import com.coupon.cupom.event.CupomAlteradoEvent.Operacao;
+import com.coupon.cupom.grpc.EnderecoRemotoInterceptor;
+import com.coupon.cupom.repository.AuditoriaCupomRepository;
+import com.coupon.cupom.tempo.Relogio;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Histórico de alterações de cupons sem custo de banco na requisição.
+ * O serviço entrega o estado antes e depois de cada alteração; após o commit o registro entra numa
+ * {@link AnelLimitado} e uma thread gravadora calcula as diferenças e grava em lote em auditoria_cupons.
+ * Alterações desfeitas por rollback não são registradas. Com a fila cheia vale a {@link PoliticaEstouro}.
+ */
+@Component
+@EnableConfigurationProperties(AuditoriaProperties.class)
+public class AuditoriaCupons {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditoriaCupons.class);
+
+    private static final String INSERIR = """
+            INSERT INTO auditoria_cupons (cupom_id, operacao, ator, origem, ator_informado, ocorrido_em, alteracoes)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private record Registro(UUID cupomId, Operacao operacao, Ator ator, LocalDateTime ocorridoEm,
+                            EstadoCupom antes, EstadoCupom depois) {
+    }
+
+    /**
+     * @param ator usuário autenticado ou, sem autenticação, o endereço remoto
+     * @param origem endereço remoto da requisição
+     * @param informado valor do header de ator, enviado pelo cliente e não verificado
+     */
+    private record Ator(String ator, String origem, String informado) {
+
+        private static final Ator SISTEMA = new Ator("sistema", null, null);
+    }
+
+    private record Alteracao(Object antes, Object depois) {
+    }
+
+    private final AnelLimitado<Registro> fila;
+    private final AuditoriaCupomRepository repository;
+    private final JdbcTemplate jdbcTemplate;
+    private final Relogio relogio;
+    private final ObjectMapper json = JsonMapper.builder().build();
+    private final boolean enabled;
+    private final int tamanhoLote;
+    private final long intervaloNanos;
+    private final PoliticaEstouro estouro;
+    private final String headerAtor;
+    private final Counter enfileirados;
+    private final Counter descartados;
+    private final Counter sincronos;
+    private final Counter gravados;
+    private final Counter erros;
+    private final Thread gravador;
+    private volatile boolean ativo = true;
+
+    public AuditoriaCupons(AuditoriaProperties properties, AuditoriaCupomRepository repository,
+                           JdbcTemplate jdbcTemplate, Relogio relogio, MeterRegistry registry) {
+        this.fila = new AnelLimitado<>(properties.capacidade());
+        this.repository = repository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.relogio = relogio;
+        this.enabled = properties.enabled();
+        this.tamanhoLote = properties.tamanhoLote();
+        this.intervaloNanos = properties.intervalo().toNanos();
+        this.estouro = properties.estouro();
+        this.headerAtor = properties.headerAtor();
+        this.enfileirados = registry.counter("cupom.auditoria.registros", "resultado", "enfileirado");
+        this.descartados = registry.counter("cupom.auditoria.registros", "resultado", "descartado");
+        this.sincronos = registry.counter("cupom.auditoria.registros", "resultado", "sincrono");
+        this.gravados = registry.counter("cupom.auditoria.gravados");
+        this.erros = registry.counter("cupom.auditoria.erros");
+        registry.gauge("cupom.auditoria.fila", fila, AnelLimitado::tamanho);
+        this.gravador = enabled
+                ? Thread.ofPlatform().daemon().name("auditoria").start(this::gravarContinuamente)
+                : null;
+    }
+
+    /**
+     * Registra uma alteração. Dentro de uma transação o registro só é enfileirado após o commit.
+     * @param antes estado anterior; null na criação
+     * @param depois estado após a alteração
+     */
+    public void registrar(Operacao operacao, UUID cupomId, EstadoCupom antes, EstadoCupom depois) {
+        if (!enabled) {
+            return;
+        }
+        Registro registro = new Registro(cupomId, operacao, ator(), relogio.agora(), antes, depois);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            enfileirar(registro);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                enfileirar(registro);
+            }
+        });
+    }
+
+    /**
+     * Histórico de um cupom, do mais antigo ao mais recente. Alterações dos últimos instantes
+     * podem ainda estar na fila.
+     */
+    public List<AuditoriaCupom> historico(UUID cupomId) {
+        return repository.findByCupomIdOrderByOcorridoEmAscIdAsc(cupomId);
+    }
+
+    /**
+     * Registros aguardando gravação
+     */
+    public int pendentes() {
+        return fila.tamanho();
+    }
+
+    private void enfileirar(Registro registro) {
+        if (fila.oferecer(registro)) {
+            enfileirados.increment();
+        } else if (estouro == PoliticaEstouro.SINCRONO) {
+            sincronos.increment();
+            gravar(List.of(registro));
+        } else {
+            descartados.increment();
+        }
+    }
+
+    /**
+     * O header de ator vem do cliente e pode ser qualquer coisa, então não ocupa o campo ator: fica
+     * em ator_informado, ao lado do endereço remoto, que é sempre gravado.
+     * Uma chamada gRPC não tem requisição servlet: o ator é o endereço remoto guardado no contexto do gRPC.
+     */
+    private Ator ator() {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes atributos)) {
+            String enderecoGrpc = EnderecoRemotoInterceptor.atual();
+            return enderecoGrpc == null ? Ator.SISTEMA : new Ator(limitar(enderecoGrpc), limitar(enderecoGrpc), null);
+        }
+        HttpServletRequest request = atributos.getRequest();
+        String origem = request.getRemoteAddr();
+        String autenticado = request.getRemoteUser();
+        String informado = headerAtor.isEmpty() ? null : request.getHeader(headerAtor);
+        return new Ator(
+                limitar(autenticado != null ? autenticado : origem),
+                limitar(origem),
+                informado == null || informado.isBlank() ? null : limitar(informado));
+    }
+
+    private static String limitar(String valor) {
+        return valor.length() > 100 ? valor.substring(0, 100) : valor;
+    }
+
+    private void gravarContinuamente() {
+        List<Registro> lote = new ArrayList<>(tamanhoLote);
+        while (ativo || fila.tamanho() > 0) {
+            if (fila.drenar(lote, tamanhoLote) == 0) {
+                LockSupport.parkNanos(intervaloNanos);
+                continue;
+            }
+            gravar(lote);
+            lote.clear();
+        }
+    }
+
+    private void gravar(List<Registro> lote) {
+        try {
+            List<Object[]> linhas = new ArrayList<>(lote.size());
+            for (Registro registro : lote) {
+                Ator ator = registro.ator();
+                linhas.add(new Object[]{registro.cupomId(), registro.operacao().name(), ator.ator(), ator.origem(),
+                        ator.informado(), registro.ocorridoEm(),
+                        json.writeValueAsString(alteracoes(registro.antes(), registro.depois()))});
+            }
+            jdbcTemplate.batchUpdate(INSERIR, linhas);
+            gravados.increment(lote.size());
+        } catch (RuntimeException e) {
+            erros.increment(lote.size());
+            log.error("Falha ao gravar {} registros de auditoria", lote.size(), e);
+        }
+    }
+
+    /**
+     * Campos que mudaram, com o valor anterior e o novo
+     */
+    static Map<String, Object> alteracoes(EstadoCupom antes, EstadoCupom depois) {
+        Map<String, Object> alteracoes = new LinkedHashMap<>();
+        comparar(alteracoes, "code", antes == null ? null : antes.code(), depois.code());
+        comparar(alteracoes, "description", antes == null ? null : antes.description(), depois.description());
+        comparar(alteracoes, "discountValue", antes == null ? null : antes.discountValue(), depois.discountValue());
+        comparar(alteracoes, "expirationDate", antes == null ? null : antes.expirationDate(), depois.expirationDate());
+        comparar(alteracoes, "status", antes == null ? null : antes.status(), depois.status());
+        comparar(alteracoes, "published", antes == null ? null : antes.published(), depois.published());
+        comparar(alteracoes, "redeemed", antes == null ? null : antes.redeemed(), depois.redeemed());
+        comparar(alteracoes, "deletedAt", antes == null ? null : antes.deletedAt(), depois.deletedAt());
+        return alteracoes;
+    }
+
+    private static void comparar(Map<String, Object> alteracoes, String campo, Object antes, Object depois) {
+        // compareTo para BigDecimal: 10.0 e 10.00 não são alteração
+        boolean igual = antes instanceof BigDecimal a && depois instanceof BigDecimal d
+                ? a.compareTo(d) == 0
+                : Objects.equals(antes, depois);
+        if (!igual) {
+            alteracoes.put(campo, new Alteracao(antes, depois));
+        }
+    }
+
+    /**
+     * Para o gravador depois de gravar o que ainda estiver na fila
+     */
+    @PreDestroy
+    public void encerrar() throws InterruptedException {
+        if (gravador == null) {
+            return;
+        }
+        ativo = false;
+        LockSupport.unpark(gravador);
+        gravador.join(TimeUnit.SECONDS.toMillis(10));
+    }
+}
@@ -0,0 +1,37 @@
+package com.coupon.cupom.auditoria;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuração da auditoria de cupons (prefixo cupom.auditoria)
+ * @param enabled liga a auditoria
+ * @param capacidade registros aguardando gravação, arredondada para potência de 2
+ * @param tamanhoLote registros gravados por INSERT em lote
+ * @param intervalo espera do gravador quando a fila está vazia
+ * @param estouro o que fazer com um registro quando a fila está cheia
+ * @param headerAtor header com quem diz ter feito a alteração, gravado à parte como ator informado (não verificado)
+ */
+@ConfigurationProperties(prefix = "cupom.auditoria")
+public record AuditoriaProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("8192") int capacidade,
+        @DefaultValue("500") int tamanhoLote,
+        @DefaultValue("100ms") Duration intervalo,
+        @DefaultValue("SINCRONO") PoliticaEstouro estouro,
+        @DefaultValue("X-Usuario") String headerAtor
+) {
+
+    public enum PoliticaEstouro {
+        /**
+         * Grava o registro na própria thread da requisição: nada se perde, mas a requisição espera o banco
+         */
+        SINCRONO,
+        /**
+         * Descarta o registro e conta em cupom.auditoria.registros{resultado=descartado}
+         */
+        DESCARTAR
+    }
+}
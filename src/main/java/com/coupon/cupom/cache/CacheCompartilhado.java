@@ -0,0 +1,74 @@
+package com.coupon.cupom.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Armazenamento chave/valor compartilhado entre as instâncias, com a semântica do Redis
+ * (GET, SET com expiração, SET condicional, DEL, PUBLISH e SUBSCRIBE). As implementações podem falhar com
+ * RuntimeException; quem usa trata a falha como ausência no cache.
+ */
+public interface CacheCompartilhado extends AutoCloseable {
+
+    /**
+     * @return valor da chave ou null se não existir ou tiver expirado
+     */
+    byte[] get(String chave);
+
+    void set(String chave, byte[] valor, Duration ttl);
+
+    /**
+     * Grava o valor somente se a chave não existir ou guardar uma ordem menor, em uma única operação.
+     * O valor fica gravado como {@code "<ordem>:" + valor}, e é assim que {@link #get} o devolve.
+     * @return se o valor foi gravado
+     */
+    boolean setSeMaisNovo(String chave, long ordem, byte[] valor, Duration ttl);
+
+    void remover(String chave);
+
+    /**
+     * Envia a mensagem a todos os assinantes do canal, inclusive os desta instância
+     */
+    void publicar(String canal, String mensagem);
+
+    void assinar(String canal, Consumer<String> ouvinte);
+
+    /**
+     * Valor no formato gravado por {@link #setSeMaisNovo}
+     */
+    static byte[] comOrdem(long ordem, byte[] valor) {
+        byte[] prefixo = (ordem + ":").getBytes(StandardCharsets.US_ASCII);
+        byte[] resultado = Arrays.copyOf(prefixo, prefixo.length + valor.length);
+        System.arraycopy(valor, 0, resultado, prefixo.length, valor.length);
+        return resultado;
+    }
+
+    /**
+     * @return ordem de um valor gravado por {@link #setSeMaisNovo}
+     */
+    static long ordem(byte[] gravado) {
+        return Long.parseLong(new String(gravado, 0, separador(gravado), StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * @return valor gravado por {@link #setSeMaisNovo}, sem a ordem
+     */
+    static byte[] semOrdem(byte[] gravado) {
+        return Arrays.copyOfRange(gravado, separador(gravado) + 1, gravado.length);
+    }
+
+    private static int separador(byte[] gravado) {
+        for (int i = 0; i < gravado.length; i++) {
+            if (gravado[i] == ':') {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Valor sem ordem");
+    }
+
+    @Override
+    default void close() {
+    }
+}
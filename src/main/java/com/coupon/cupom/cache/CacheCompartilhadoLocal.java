@@ -0,0 +1,83 @@
+package com.coupon.cupom.cache;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Substituto em processo do cache compartilhado, para uma única instância e para os testes.
+ * As mensagens são entregues aos assinantes na própria thread de quem publica.
+ */
+public class CacheCompartilhadoLocal implements CacheCompartilhado {
+
+    private record Entrada(byte[] valor, long expiraEm) {
+    }
+
+    private final Map<String, Entrada> entradas = new ConcurrentHashMap<>();
+    private final Map<String, List<Consumer<String>>> assinantes = new ConcurrentHashMap<>();
+    private final int maxEntradas;
+
+    public CacheCompartilhadoLocal(int maxEntradas) {
+        this.maxEntradas = maxEntradas;
+    }
+
+    @Override
+    public byte[] get(String chave) {
+        Entrada entrada = entradas.get(chave);
+        if (entrada == null) {
+            return null;
+        }
+        if (System.nanoTime() - entrada.expiraEm() >= 0) {
+            entradas.remove(chave, entrada);
+            return null;
+        }
+        return entrada.valor();
+    }
+
+    @Override
+    public void set(String chave, byte[] valor, Duration ttl) {
+        long agora = System.nanoTime();
+        if (entradas.size() >= maxEntradas) {
+            entradas.values().removeIf(entrada -> agora - entrada.expiraEm() >= 0);
+            if (entradas.size() >= maxEntradas) {
+                return;
+            }
+        }
+        entradas.put(chave, new Entrada(valor, agora + ttl.toNanos()));
+    }
+
+    @Override
+    public boolean setSeMaisNovo(String chave, long ordem, byte[] valor, Duration ttl) {
+        long agora = System.nanoTime();
+        if (!entradas.containsKey(chave) && entradas.size() >= maxEntradas) {
+            entradas.values().removeIf(entrada -> agora - entrada.expiraEm() >= 0);
+            if (entradas.size() >= maxEntradas) {
+                return false;
+            }
+        }
+        Entrada nova = new Entrada(CacheCompartilhado.comOrdem(ordem, valor), agora + ttl.toNanos());
+        return entradas.compute(chave, (c, atual) ->
+                atual == null || agora - atual.expiraEm() >= 0 || CacheCompartilhado.ordem(atual.valor()) < ordem
+                        ? nova : atual) == nova;
+    }
+
+    @Override
+    public void remover(String chave) {
+        entradas.remove(chave);
+    }
+
+    @Override
+    public void publicar(String canal, String mensagem) {
+        for (Consumer<String> ouvinte : assinantes.getOrDefault(canal, List.of())) {
+            ouvinte.accept(mensagem);
+        }
+    }
+
+    @Override
+    public void assinar(String canal, Consumer<String> ouvinte) {
+        assinantes.computeIfAbsent(canal, c -> new CopyOnWriteArrayList<>()).add(ouvinte);
+    }
+}
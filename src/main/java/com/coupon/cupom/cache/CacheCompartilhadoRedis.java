@@ -0,0 +1,109 @@
+package com.coupon.cupom.cache;
+
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.ScriptOutputType;
+import io.lettuce.core.SetArgs;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.sync.RedisCommands;
+import io.lettuce.core.codec.ByteArrayCodec;
+import io.lettuce.core.codec.RedisCodec;
+import io.lettuce.core.codec.StringCodec;
+import io.lettuce.core.pubsub.RedisPubSubAdapter;
+import io.lettuce.core.pubsub.StatefulRedisPubSubConnection;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Cache compartilhado em um Redis (ou servidor compatível), via Lettuce.
+ * Usa uma conexão para os comandos e outra para as assinaturas; o Lettuce reconecta
+ * e refaz as assinaturas sozinho.
+ */
+public class CacheCompartilhadoRedis implements CacheCompartilhado {
+
+    private static final CopyOnWriteArrayList<Consumer<String>> VAZIA = new CopyOnWriteArrayList<>();
+
+    /**
+     * KEYS[1] chave; ARGV[1] ordem; ARGV[2] valor já com a ordem; ARGV[3] validade em ms
+     */
+    private static final String SET_SE_MAIS_NOVO = """
+            local atual = redis.call('GET', KEYS[1])
+            if atual then
+                local fim = string.find(atual, ':', 1, true)
+                if fim and tonumber(string.sub(atual, 1, fim - 1)) >= tonumber(ARGV[1]) then
+                    return 0
+                end
+            end
+            redis.call('SET', KEYS[1], ARGV[2], 'PX', ARGV[3])
+            return 1
+            """;
+
+    private final RedisClient cliente;
+    private final StatefulRedisConnection<String, byte[]> conexao;
+    private final RedisCommands<String, byte[]> comandos;
+    private final StatefulRedisPubSubConnection<String, String> assinaturas;
+    private final Map<String, CopyOnWriteArrayList<Consumer<String>>> assinantes = new ConcurrentHashMap<>();
+
+    public CacheCompartilhadoRedis(String url, Duration timeout) {
+        this.cliente = RedisClient.create(url);
+        cliente.setDefaultTimeout(timeout);
+        this.conexao = cliente.connect(RedisCodec.of(StringCodec.UTF8, ByteArrayCodec.INSTANCE));
+        this.comandos = conexao.sync();
+        this.assinaturas = cliente.connectPubSub();
+        assinaturas.addListener(new RedisPubSubAdapter<>() {
+            @Override
+            public void message(String canal, String mensagem) {
+                for (Consumer<String> ouvinte : assinantes.getOrDefault(canal, VAZIA)) {
+                    ouvinte.accept(mensagem);
+                }
+            }
+        });
+    }
+
+    @Override
+    public byte[] get(String chave) {
+        return comandos.get(chave);
+    }
+
+    @Override
+    public void set(String chave, byte[] valor, Duration ttl) {
+        comandos.set(chave, valor, SetArgs.Builder.px(ttl.toMillis()));
+    }
+
+    @Override
+    public boolean setSeMaisNovo(String chave, long ordem, byte[] valor, Duration ttl) {
+        Long gravou = comandos.eval(SET_SE_MAIS_NOVO, ScriptOutputType.INTEGER, new String[]{chave},
+                Long.toString(ordem).getBytes(StandardCharsets.US_ASCII),
+                CacheCompartilhado.comOrdem(ordem, valor),
+                Long.toString(ttl.toMillis()).getBytes(StandardCharsets.US_ASCII));
+        return gravou != null && gravou == 1;
+    }
+
+    @Override
+    public void remover(String chave) {
+        comandos.del(chave);
+    }
+
+    @Override
+    public void publicar(String canal, String mensagem) {
+        comandos.publish(canal, mensagem.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void assinar(String canal, Consumer<String> ouvinte) {
+        assinantes.computeIfAbsent(canal, c -> new CopyOnWriteArrayList<>()).add(ouvinte);
+        // SUBSCRIBE repetido no mesmo canal não tem efeito
+        assinaturas.sync().subscribe(canal);
+    }
+
+    @Override
+    public void close() {
+        assinaturas.close();
+        conexao.close();
+        cliente.shutdown();
+    }
+}
@@ -0,0 +1,278 @@
+package com.coupon.cupom.cache;
+
+import com.coupon.cupom.event.CupomAlteradoEvent;
+import com.coupon.cupom.event.CuponsArquivadosEvent;
+import com.coupon.cupom.request.CupomResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache de cupons em dois níveis: um mapa local em cada instância na frente de um
+ * {@link CacheCompartilhado}. O snapshot fica na chave do ID; a chave do código guarda só o ID,
+ * então uma alteração invalida apenas o ID e uma troca de código é detectada na leitura.
+ * No nível compartilhado cada snapshot leva a versão do cupom e só substitui um valor mais antigo;
+ * cada alteração grava no lugar uma lápide com a nova versão, que recusa os snapshots anteriores
+ * gravados com atraso por qualquer instância, e avisa todas as instâncias pelo canal de invalidação.
+ * Uma mensagem perdida fica limitada à validade das entradas locais.
+ */
+@Component
+public class CupomCache {
+
+    private static final Logger log = LoggerFactory.getLogger(CupomCache.class);
+
+    private static final String PREFIXO_ID = "cupom:id:";
+    private static final String PREFIXO_CODE = "cupom:code:";
+
+    private static final byte[] LAPIDE = new byte[0];
+
+    private record Local<T>(T valor, long expiraEm) {
+    }
+
+    private final Map<UUID, Local<CupomResponse>> porId = new ConcurrentHashMap<>();
+    private final Map<String, Local<UUID>> porCode = new ConcurrentHashMap<>();
+    private final AtomicLong geracao = new AtomicLong();
+    private final AtomicBoolean limpando = new AtomicBoolean();
+    private final ObjectMapper cbor = CBORMapper.builder().build();
+    private final CacheCompartilhado compartilhado;
+    private final boolean enabled;
+    private final long ttlLocalNanos;
+    private final Duration ttlCompartilhado;
+    private final int maxEntradasLocal;
+    private final String canal;
+    private final Counter acertosLocais;
+    private final Counter acertosCompartilhados;
+    private final Counter faltas;
+    private final Counter erros;
+
+    public CupomCache(CupomCacheProperties properties, CacheCompartilhado compartilhado, MeterRegistry registry) {
+        this.compartilhado = compartilhado;
+        this.enabled = properties.enabled();
+        this.ttlLocalNanos = properties.ttlLocal().toNanos();
+        this.ttlCompartilhado = properties.ttlCompartilhado();
+        this.maxEntradasLocal = properties.maxEntradasLocal();
+        this.canal = properties.canal();
+        this.acertosLocais = registry.counter("cupom.cache.buscas", "resultado", "acerto-local");
+        this.acertosCompartilhados = registry.counter("cupom.cache.buscas", "resultado", "acerto-compartilhado");
+        this.faltas = registry.counter("cupom.cache.buscas", "resultado", "falta");
+        this.erros = registry.counter("cupom.cache.erros");
+        if (enabled) {
+            compartilhado.assinar(canal, this::aoReceberInvalidacao);
+        }
+    }
+
+    /**
+     * Geração atual das invalidações. Deve ser lida antes de consultar o banco e repassada a
+     * {@link #guardar}: se algum cupom for alterado no meio da consulta, o resultado não é guardado.
+     */
+    public long geracao() {
+        return geracao.get();
+    }
+
+    /**
+     * @return snapshot do cupom ou null se não estiver em nenhum dos níveis
+     */
+    public CupomResponse obterPorId(UUID id) {
+        if (!enabled) {
+            return null;
+        }
+        CupomResponse cupom = buscar(id);
+        if (cupom == null) {
+            faltas.increment();
+        }
+        return cupom;
+    }
+
+    /**
+     * @param code código já normalizado
+     * @return snapshot do cupom ou null se não estiver em nenhum dos níveis
+     */
+    public CupomResponse obterPorCode(String code) {
+        if (!enabled) {
+            return null;
+        }
+        UUID id = valorLocal(porCode, code);
+        if (id == null) {
+            byte[] valor = lerCompartilhado(PREFIXO_CODE + code);
+            if (valor != null) {
+                id = UUID.fromString(new String(valor, StandardCharsets.UTF_8));
+                colocar(porCode, code, id);
+            }
+        }
+        CupomResponse cupom = id == null ? null : buscar(id);
+        if (cupom != null && !code.equals(cupom.getCode())) {
+            // O cupom trocou de código depois que a chave foi guardada
+            porCode.remove(code);
+            cupom = null;
+        }
+        if (cupom == null) {
+            faltas.increment();
+        }
+        return cupom;
+    }
+
+    /**
+     * Guarda o snapshot lido do banco nos dois níveis, a menos que tenha havido invalidação
+     * desde {@code geracaoLida} nesta instância ou que o cache compartilhado já tenha uma versão
+     * mais nova (ou a lápide dela)
+     */
+    public void guardar(CupomResponse cupom, long geracaoLida) {
+        if (!enabled || geracao.get() != geracaoLida) {
+            return;
+        }
+        colocar(porId, cupom.getId(), cupom);
+        colocar(porCode, cupom.getCode(), cupom.getId());
+        try {
+            compartilhado.setSeMaisNovo(PREFIXO_ID + cupom.getId(), ordemSnapshot(cupom.getVersion()),
+                    cbor.writeValueAsBytes(cupom), ttlCompartilhado);
+            compartilhado.set(PREFIXO_CODE + cupom.getCode(),
+                    cupom.getId().toString().getBytes(StandardCharsets.UTF_8), ttlCompartilhado);
+        } catch (RuntimeException e) {
+            falhou(e);
+        }
+    }
+
+    /**
+     * Remove o cupom dos dois níveis e avisa as demais instâncias
+     * @param versao versão gravada pela alteração; snapshots de versões anteriores deixam de ser aceitos
+     */
+    public void invalidar(UUID id, long versao) {
+        if (!enabled) {
+            return;
+        }
+        removerLocal(id);
+        try {
+            compartilhado.setSeMaisNovo(PREFIXO_ID + id, ordemSnapshot(versao) - 1, LAPIDE, ttlCompartilhado);
+            compartilhado.publicar(canal, id.toString());
+        } catch (RuntimeException e) {
+            falhou(e);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarCupom(CupomAlteradoEvent evento) {
+        invalidar(evento.id(), evento.version());
+    }
+
+    /**
+     * Descarta o snapshot da tabela principal; a lápide da versão seguinte recusa uma leitura dela
+     * ainda em andamento, e a leitura pelo arquivo volta a ser guardada quando a lápide expirar
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoArquivarCupons(CuponsArquivadosEvent evento) {
+        for (CuponsArquivadosEvent.Arquivado cupom : evento.cupons()) {
+            invalidar(cupom.id(), cupom.version() + 1);
+        }
+    }
+
+    /**
+     * A lápide da versão n fica entre os snapshots n - 1 e n
+     */
+    private static long ordemSnapshot(long versao) {
+        return versao * 2;
+    }
+
+    private void aoReceberInvalidacao(String mensagem) {
+        try {
+            removerLocal(UUID.fromString(mensagem));
+        } catch (IllegalArgumentException e) {
+            log.warn("Mensagem de invalidação ignorada: {}", mensagem);
+        }
+    }
+
+    private void removerLocal(UUID id) {
+        geracao.incrementAndGet();
+        porId.remove(id);
+    }
+
+    private CupomResponse buscar(UUID id) {
+        CupomResponse cupom = valorLocal(porId, id);
+        if (cupom != null) {
+            acertosLocais.increment();
+            return cupom;
+        }
+        long geracaoLida = geracao.get();
+        byte[] valor = lerCompartilhado(PREFIXO_ID + id);
+        if (valor == null) {
+            return null;
+        }
+        try {
+            long ordem = CacheCompartilhado.ordem(valor);
+            if (ordem % 2 != 0) {
+                // Lápide: o cupom foi alterado e ainda não foi lido de novo
+                return null;
+            }
+            cupom = cbor.readValue(CacheCompartilhado.semOrdem(valor), CupomResponse.class);
+            cupom.setVersion(ordem / 2);
+        } catch (RuntimeException e) {
+            falhou(e);
+            return null;
+        }
+        if (geracao.get() == geracaoLida) {
+            colocar(porId, id, cupom);
+        }
+        acertosCompartilhados.increment();
+        return cupom;
+    }
+
+    private byte[] lerCompartilhado(String chave) {
+        try {
+            return compartilhado.get(chave);
+        } catch (RuntimeException e) {
+            falhou(e);
+            return null;
+        }
+    }
+
+    private void falhou(RuntimeException e) {
+        erros.increment();
+        log.debug("Falha no cache compartilhado; a busca segue pelo banco", e);
+    }
+
+    private <K, V> void colocar(Map<K, Local<V>> mapa, K chave, V valor) {
+        long agora = System.nanoTime();
+        if (mapa.size() >= maxEntradasLocal) {
+            removerExpirados(mapa, agora);
+            if (mapa.size() >= maxEntradasLocal) {
+                return;
+            }
+        }
+        mapa.put(chave, new Local<>(valor, agora + ttlLocalNanos));
+    }
+
+    private static <K, V> V valorLocal(Map<K, Local<V>> mapa, K chave) {
+        Local<V> local = mapa.get(chave);
+        if (local == null) {
+            return null;
+        }
+        if (System.nanoTime() - local.expiraEm() >= 0) {
+            mapa.remove(chave, local);
+            return null;
+        }
+        return local.valor();
+    }
+
+    private void removerExpirados(Map<?, ? extends Local<?>> mapa, long agora) {
+        if (!limpando.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            mapa.values().removeIf(local -> agora - local.expiraEm() >= 0);
+        } finally {
+            limpando.set(false);
+        }
+    }
+}
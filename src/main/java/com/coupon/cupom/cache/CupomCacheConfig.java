@@ -0,0 +1,18 @@
+package com.coupon.cupom.cache;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(CupomCacheProperties.class)
+public class CupomCacheConfig {
+
+    @Bean
+    public CacheCompartilhado cacheCompartilhado(CupomCacheProperties properties) {
+        if (properties.enabled() && properties.tipo() == CupomCacheProperties.Tipo.REDIS) {
+            return new CacheCompartilhadoRedis(properties.redisUrl(), properties.redisTimeout());
+        }
+        return new CacheCompartilhadoLocal(properties.maxEntradasLocal());
+    }
+}
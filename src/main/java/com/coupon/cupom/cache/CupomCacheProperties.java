@@ -0,0 +1,35 @@
+package com.coupon.cupom.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuração do cache de cupons em dois níveis (prefixo cupom.cache)
+ * @param enabled liga/desliga o cache
+ * @param tipo onde fica o nível compartilhado: LOCAL (em processo, uma instância) ou REDIS
+ * @param redisUrl endereço do Redis, ex: redis://localhost:6379
+ * @param redisTimeout tempo máximo de um comando; acima disso a busca segue pelo banco
+ * @param ttlLocal validade de uma entrada no cache local de cada instância
+ * @param ttlCompartilhado validade de uma entrada no cache compartilhado
+ * @param maxEntradasLocal quantidade máxima de cupons no cache local
+ * @param canal canal das mensagens de invalidação
+ */
+@ConfigurationProperties(prefix = "cupom.cache")
+public record CupomCacheProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("LOCAL") Tipo tipo,
+        @DefaultValue("redis://localhost:6379") String redisUrl,
+        @DefaultValue("200ms") Duration redisTimeout,
+        @DefaultValue("5s") Duration ttlLocal,
+        @DefaultValue("60s") Duration ttlCompartilhado,
+        @DefaultValue("100000") int maxEntradasLocal,
+        @DefaultValue("cupom:invalidacao") String canal
+) {
+
+    public enum Tipo {
+        LOCAL,
+        REDIS
+    }
+}
@@ -0,0 +1,18 @@
+package com.coupon.cupom.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuração do cache negativo de buscas (prefixo cupom.negative-cache)
+ * @param ttl por quanto tempo uma busca sem resultado é lembrada
+ * @param maxEntradas quantidade máxima de chaves em memória
+ */
+@ConfigurationProperties(prefix = "cupom.negative-cache")
+public record NegativeCacheProperties(
+        @DefaultValue("5s") Duration ttl,
+        @DefaultValue("100000") int maxEntradas
+) {
+}
@@ -0,0 +1,93 @@
+package com.coupon.cupom.cache;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Cache de curta duração para IDs e códigos que não existem.
+ * Evita que buscas repetidas por cupons inexistentes cheguem ao banco.
+ */
+@Component
+@EnableConfigurationProperties(NegativeCacheProperties.class)
+public class NegativeLookupCache {
+
+    private final ConcurrentHashMap<Object, Long> ausentes = new ConcurrentHashMap<>();
+    private final AtomicBoolean limpando = new AtomicBoolean();
+    private final long ttlNanos;
+    private final int maxEntradas;
+
+    public NegativeLookupCache(NegativeCacheProperties properties) {
+        this.ttlNanos = properties.ttl().toNanos();
+        this.maxEntradas = properties.maxEntradas();
+    }
+
+    /**
+     * Verifica se a chave foi registrada como ausente e ainda não expirou
+     */
+    public boolean isAusente(Object chave) {
+        Long expiraEm = ausentes.get(chave);
+        if (expiraEm == null) {
+            return false;
+        }
+        if (System.nanoTime() - expiraEm < 0) {
+            return true;
+        }
+        ausentes.remove(chave, expiraEm);
+        return false;
+    }
+
+    /**
+     * Registra uma busca sem resultado
+     */
+    public void registrarAusente(Object chave) {
+        if (ttlNanos <= 0) {
+            return;
+        }
+        long agora = System.nanoTime();
+        if (ausentes.size() >= maxEntradas) {
+            removerExpirados(agora);
+            if (ausentes.size() >= maxEntradas) {
+                return;
+            }
+        }
+        ausentes.put(chave, agora + ttlNanos);
+    }
+
+    /**
+     * Remove as chaves do cache; dentro de uma transação, remove também após o commit,
+     * para que uma busca concorrente antes do commit não deixe a chave marcada como ausente
+     */
+    public void invalidar(Object... chaves) {
+        remover(chaves);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    remover(chaves);
+                }
+            });
+        }
+    }
+
+    private void remover(Object[] chaves) {
+        for (Object chave : chaves) {
+            ausentes.remove(chave);
+        }
+    }
+
+    private void removerExpirados(long agora) {
+        if (!limpando.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            ausentes.values().removeIf(expiraEm -> agora - expiraEm >= 0);
+        } finally {
+            limpando.set(false);
+        }
+    }
+}
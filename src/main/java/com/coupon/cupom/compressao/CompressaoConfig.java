@@ -0,0 +1,40 @@
+package com.coupon.cupom.compressao;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+@EnableConfigurationProperties(CompressaoProperties.class)
+public class CompressaoConfig {
+
+    /**
+     * Só nos endpoints em lote, onde os corpos são grandes o bastante para compensar.
+     * Roda depois do rate limit, para não descomprimir requisições que serão rejeitadas.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "cupom.compressao", name = "request-gzip-enabled", havingValue = "true", matchIfMissing = true)
+    public FilterRegistrationBean<GzipRequestFilter> gzipRequestFilter(CompressaoProperties properties) {
+        FilterRegistrationBean<GzipRequestFilter> registration =
+                new FilterRegistrationBean<>(new GzipRequestFilter(properties));
+        registration.addUrlPatterns("/coupon/lookup", "/coupon/apply", "/coupon/bulk/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+
+    /**
+     * Em todas as rotas, para que toda resposta saia com Content-Length e respeite
+     * server.compression.min-response-size. As rejeições do rate limit, que roda antes, já informam o tamanho.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "server.compression", name = "enabled", havingValue = "true")
+    public FilterRegistrationBean<TamanhoRespostaFilter> tamanhoRespostaFilter() {
+        FilterRegistrationBean<TamanhoRespostaFilter> registration =
+                new FilterRegistrationBean<>(new TamanhoRespostaFilter());
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 5);
+        return registration;
+    }
+}
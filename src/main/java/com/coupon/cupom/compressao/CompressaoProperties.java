@@ -0,0 +1,18 @@
+package com.coupon.cupom.compressao;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Configuração dos corpos de requisição comprimidos (prefixo cupom.compressao).
+ * A compressão das respostas é a do servidor embarcado (server.compression.*).
+ * @param requestGzipEnabled aceita Content-Encoding: gzip nos endpoints em lote
+ * @param maxCorpoDescomprimido tamanho máximo do corpo depois de descomprimido
+ */
+@ConfigurationProperties(prefix = "cupom.compressao")
+public record CompressaoProperties(
+        @DefaultValue("true") boolean requestGzipEnabled,
+        @DefaultValue("1MB") DataSize maxCorpoDescomprimido
+) {
+}
@@ -0,0 +1,190 @@
+package com.coupon.cupom.compressao;
+
+import com.coupon.cupom.exception.TipoErro;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipException;
+
+/**
+ * Descomprime corpos com Content-Encoding: gzip antes de chegar ao controller.
+ * O corpo descomprimido é limitado (proteção contra zip bomb); acima do limite responde 413.
+ */
+public class GzipRequestFilter extends OncePerRequestFilter {
+
+    private static final byte[] CORPO_413 =
+            TipoErro.CORPO_MUITO_GRANDE.serializar("Corpo descomprimido acima do limite");
+    private static final byte[] CORPO_GZIP_INVALIDO =
+            TipoErro.VALIDACAO.serializar("Corpo gzip inválido");
+
+    private final long maxBytes;
+
+    public GzipRequestFilter(CompressaoProperties properties) {
+        this.maxBytes = properties.maxCorpoDescomprimido().toBytes();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String encoding = request.getHeader(HttpHeaders.CONTENT_ENCODING);
+        if (encoding == null || !"gzip".equalsIgnoreCase(encoding.trim())) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        byte[] corpo;
+        try {
+            corpo = descomprimir(request.getInputStream());
+        } catch (ZipException e) {
+            rejeitar(response, TipoErro.VALIDACAO, CORPO_GZIP_INVALIDO);
+            return;
+        }
+        if (corpo == null) {
+            rejeitar(response, TipoErro.CORPO_MUITO_GRANDE, CORPO_413);
+            return;
+        }
+        chain.doFilter(new RequisicaoDescomprimida(request, corpo), response);
+    }
+
+    /**
+     * @return o corpo descomprimido ou null se passar de maxBytes
+     */
+    private byte[] descomprimir(InputStream comprimido) throws IOException {
+        try (GZIPInputStream gzip = new GZIPInputStream(comprimido)) {
+            ByteArrayOutputStream saida = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            long total = 0;
+            int lidos;
+            while ((lidos = gzip.read(buffer)) != -1) {
+                total += lidos;
+                if (total > maxBytes) {
+                    return null;
+                }
+                saida.write(buffer, 0, lidos);
+            }
+            return saida.toByteArray();
+        }
+    }
+
+    private static void rejeitar(HttpServletResponse response, TipoErro tipo, byte[] corpo) throws IOException {
+        response.setStatus(tipo.getStatus().value());
+        response.setContentType(MediaType.APPLICATION_PROBLEM_JSON_VALUE);
+        response.setContentLength(corpo.length);
+        response.getOutputStream().write(corpo);
+    }
+
+    /**
+     * Requisição com o corpo já descomprimido e sem o header Content-Encoding
+     */
+    private static final class RequisicaoDescomprimida extends HttpServletRequestWrapper {
+
+        private final byte[] corpo;
+
+        RequisicaoDescomprimida(HttpServletRequest request, byte[] corpo) {
+            super(request);
+            this.corpo = corpo;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream entrada = new ByteArrayInputStream(corpo);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return entrada.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return entrada.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return entrada.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                /**
+                 * O corpo já está todo em memória: avisa na hora que há dados e, lidos, que terminou
+                 */
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    try {
+                        if (!isFinished()) {
+                            listener.onDataAvailable();
+                        }
+                        if (isFinished()) {
+                            listener.onAllDataRead();
+                        }
+                    } catch (IOException | RuntimeException e) {
+                        listener.onError(e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding == null ? StandardCharsets.UTF_8 : Charset.forName(encoding);
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+
+        @Override
+        public int getContentLength() {
+            return corpo.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return corpo.length;
+        }
+
+        @Override
+        public String getHeader(String name) {
+            if (HttpHeaders.CONTENT_ENCODING.equalsIgnoreCase(name)) {
+                return null;
+            }
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                return String.valueOf(corpo.length);
+            }
+            return super.getHeader(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            if (HttpHeaders.CONTENT_ENCODING.equalsIgnoreCase(name)) {
+                return Collections.emptyEnumeration();
+            }
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                return Collections.enumeration(List.of(String.valueOf(corpo.length)));
+            }
+            return super.getHeaders(name);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.coupon.cupom.compressao;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+
+/**
+ * Guarda o corpo da resposta e o envia com Content-Length.
+ * O Tomcat só aplica server.compression.min-response-size quando conhece o tamanho; as respostas do Jackson
+ * saem em chunks, sem Content-Length, e seriam comprimidas mesmo com poucos bytes.
+ * As respostas da API são DTOs já montados em memória, então guardar o corpo não muda o pico de memória.
+ */
+public class TamanhoRespostaFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        ContentCachingResponseWrapper guardada = new ContentCachingResponseWrapper(response);
+        try {
+            chain.doFilter(request, guardada);
+        } finally {
+            guardada.copyBodyToResponse();
+        }
+    }
+}
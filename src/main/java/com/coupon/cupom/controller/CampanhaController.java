@@ -0,0 +1,147 @@
+package com.coupon.cupom.controller;
+
+import com.coupon.cupom.entity.Campanha;
+import com.coupon.cupom.request.CampanhaResponse;
+import com.coupon.cupom.request.CreateCampanhaRequest;
+import com.coupon.cupom.request.CupomResponse;
+import com.coupon.cupom.service.CampanhaService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import io.swagger.v3.oas.annotations.parameters.RequestBody;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/campaign")
+@Tag(name = "Campanha", description = "Endpoints de campanhas com códigos gerados em lote")
+public class CampanhaController {
+
+    private final CampanhaService service;
+
+    public CampanhaController(CampanhaService service) {
+        this.service = service;
+    }
+
+    @Operation(
+            summary = "Criar campanha",
+            description = "Cria uma campanha e gera a quantidade informada de códigos únicos"
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "201", description = "Campanha criada com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Dados inválidos ou faltando")
+    })
+    @PostMapping
+    public ResponseEntity<CampanhaResponse> criarCampanha(
+            @RequestBody(
+                    required = true,
+                    description = "Dados da campanha",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = CreateCampanhaRequest.class)
+                    )
+            )
+            @org.springframework.web.bind.annotation.RequestBody @Valid CreateCampanhaRequest request) {
+        Campanha campanha = service.criarCampanha(request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(paraResponse(campanha));
+    }
+
+    @Operation(summary = "Buscar campanha por ID")
+    @GetMapping("/{id}")
+    public ResponseEntity<CampanhaResponse> buscarPorId(@Parameter(description = "ID da campanha") @PathVariable UUID id) {
+        return ResponseEntity.ok(paraResponse(service.buscarPorId(id)));
+    }
+
+    @Operation(summary = "Publicar campanha", description = "Libera o resgate dos códigos da campanha")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Campanha publicada"),
+            @ApiResponse(responseCode = "404", description = "Campanha não encontrada"),
+            @ApiResponse(responseCode = "409", description = "Campanha já publicada ou deletada")
+    })
+    @PostMapping("/{id}/publish")
+    public ResponseEntity<CampanhaResponse> publicarCampanha(@Parameter(description = "ID da campanha") @PathVariable UUID id) {
+        return ResponseEntity.ok(paraResponse(service.publicarCampanha(id)));
+    }
+
+    @Operation(summary = "Desativar campanha", description = "Suspende o resgate dos códigos da campanha")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Campanha desativada"),
+            @ApiResponse(responseCode = "404", description = "Campanha não encontrada"),
+            @ApiResponse(responseCode = "409", description = "Campanha não publicada ou já desativada")
+    })
+    @PostMapping("/{id}/deactivate")
+    public ResponseEntity<CampanhaResponse> desativarCampanha(@Parameter(description = "ID da campanha") @PathVariable UUID id) {
+        return ResponseEntity.ok(paraResponse(service.desativarCampanha(id)));
+    }
+
+    @Operation(
+            summary = "Deletar campanha",
+            description = "Deleta logicamente a campanha e os códigos ainda não resgatados"
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Campanha deletada"),
+            @ApiResponse(responseCode = "404", description = "Campanha não encontrada"),
+            @ApiResponse(responseCode = "409", description = "Campanha já deletada")
+    })
+    @DeleteMapping("/{id}")
+    public ResponseEntity<CampanhaResponse> deletarCampanha(@Parameter(description = "ID da campanha") @PathVariable UUID id) {
+        return ResponseEntity.ok(paraResponse(service.deletarCampanha(id)));
+    }
+
+    @Operation(
+            summary = "Listar códigos da campanha",
+            description = "Códigos no formato de cupom; códigos de campanha não têm ID próprio, então id vem nulo"
+    )
+    @GetMapping("/{id}/codes")
+    public ResponseEntity<List<CupomResponse>> listarCodigos(
+            @Parameter(description = "ID da campanha") @PathVariable UUID id,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "100") int size) {
+        return ResponseEntity.ok(service.listarCodigos(id, Math.max(page, 0), Math.clamp(size, 1, 1000)));
+    }
+
+    @Operation(summary = "Buscar código de campanha", description = "Código no formato de cupom, com id nulo")
+    @GetMapping("/code/{code}")
+    public ResponseEntity<CupomResponse> buscarCodigo(@Parameter(description = "Código do cupom") @PathVariable String code) {
+        return ResponseEntity.ok(service.buscarCodigo(code));
+    }
+
+    @Operation(summary = "Resgatar código de campanha")
+    @PostMapping("/code/{code}/redeem")
+    public ResponseEntity<CupomResponse> resgatarCodigo(@Parameter(description = "Código do cupom") @PathVariable String code) {
+        return ResponseEntity.ok(service.resgatarCodigo(code));
+    }
+
+    @Operation(summary = "Deletar código de campanha", description = "Deleta logicamente um código ainda não resgatado")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Código deletado"),
+            @ApiResponse(responseCode = "404", description = "Código não encontrado"),
+            @ApiResponse(responseCode = "409", description = "Código já resgatado ou deletado")
+    })
+    @DeleteMapping("/code/{code}")
+    public ResponseEntity<CupomResponse> deletarCodigo(@Parameter(description = "Código do cupom") @PathVariable String code) {
+        return ResponseEntity.ok(service.deletarCodigo(code));
+    }
+
+    private static CampanhaResponse paraResponse(Campanha campanha) {
+        return new CampanhaResponse(
+                campanha.getId(),
+                campanha.getDescription(),
+                campanha.getDiscountValue(),
+                campanha.getExpirationDate(),
+                campanha.getStatus(),
+                campanha.isPublished(),
+                campanha.getQuantidade(),
+                campanha.isDeleted()
+        );
+    }
+}
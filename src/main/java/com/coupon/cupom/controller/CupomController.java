@@ -1,10 +1,22 @@
 package com.coupon.cupom.controller;
 
+import com.coupon.cupom.auditoria.AuditoriaCupons;
+import com.coupon.cupom.entity.AuditoriaCupom;
 import com.coupon.cupom.entity.Cupom;
+import com.coupon.cupom.entity.Cupom.Transicao;
 import com.coupon.cupom.mapper.CupomMapper;
+import com.coupon.cupom.request.AplicarCupomRequest;
+import com.coupon.cupom.request.AplicarCupomResponse;
+import com.coupon.cupom.request.AtualizarCupomRequest;
 import com.coupon.cupom.request.CreateCupomRequest;
 import com.coupon.cupom.request.CupomResponse;
+import com.coupon.cupom.request.LookupCupomRequest;
+import com.coupon.cupom.request.OperacaoEmLoteRequest;
+import com.coupon.cupom.request.OperacaoEmLoteResponse;
+import com.coupon.cupom.service.AplicacaoCupomService;
+import com.coupon.cupom.service.CupomLoteService;
 import com.coupon.cupom.service.CupomService;
+import io.micrometer.observation.annotation.Observed;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -18,25 +30,53 @@ import org.springframework.http.ResponseEntity;
 import io.swagger.v3.oas.annotations.parameters.RequestBody;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.UUID;
 
 @RestController
+@Observed(name = "cupom.controller")
 @RequestMapping("/coupon")
 @Tag(name = "Cupom", description = "Endpoints de gerenciamento de cupons")
 public class CupomController {
 
     private final CupomService service;
-    private CupomMapper mapper;
+    private final AplicacaoCupomService aplicacaoService;
+    private final CupomMapper mapper;
+    private final AuditoriaCupons auditoria;
+    private final CupomLoteService loteService;
 
-    public CupomController(CupomService service) {
+    public CupomController(CupomService service, AplicacaoCupomService aplicacaoService, CupomMapper mapper,
+                           AuditoriaCupons auditoria, CupomLoteService loteService) {
         this.service = service;
+        this.aplicacaoService = aplicacaoService;
+        this.mapper = mapper;
+        this.auditoria = auditoria;
+        this.loteService = loteService;
     }
 
-    @Operation(summary = "Buscar cupom por ID")
+    @Operation(summary = "Buscar cupom por ID", description = "Servido pelo cache de cupons quando habilitado")
     @GetMapping("/{id}")
-    public ResponseEntity<Cupom> buscarPorId(@Parameter(description = "ID do cupom") @PathVariable UUID id) {
-        Cupom cupom = service.buscarPorId(id);
-        return ResponseEntity.ok(cupom);
+    public ResponseEntity<CupomResponse> buscarPorId(@Parameter(description = "ID do cupom") @PathVariable UUID id) {
+        return ResponseEntity.ok(service.consultarPorId(id));
+    }
+
+    @Operation(
+            summary = "Buscar cupom por código",
+            description = "Servido pelo cache de cupons quando habilitado; também encontra códigos de campanha, com id nulo"
+    )
+    @GetMapping("/code/{code}")
+    public ResponseEntity<CupomResponse> buscarPorCode(@Parameter(description = "Código do cupom") @PathVariable String code) {
+        return ResponseEntity.ok(service.consultarPorCode(code));
+    }
+
+    @Operation(
+            summary = "Histórico de alterações do cupom",
+            description = "Quem alterou, quando e os campos alterados. A gravação é assíncrona: "
+                    + "alterações dos últimos instantes podem ainda não aparecer."
+    )
+    @GetMapping("/{id}/auditoria")
+    public ResponseEntity<List<AuditoriaCupom>> historico(@Parameter(description = "ID do cupom") @PathVariable UUID id) {
+        return ResponseEntity.ok(auditoria.historico(id));
     }
 
     @Operation(
@@ -57,12 +97,129 @@ public class CupomController {
                             schema = @Schema(implementation = CreateCupomRequest.class)
                     )
             )
-            @Valid CreateCupomRequest request) {
+            @org.springframework.web.bind.annotation.RequestBody @Valid CreateCupomRequest request) {
         Cupom cupom = service.salvarCupom(request);
         CupomResponse response = mapper.toResponse(cupom);
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    @Operation(summary = "Resgatar cupom por ID")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Cupom resgatado"),
+            @ApiResponse(responseCode = "400", description = "Cupom não pode ser resgatado")
+    })
+    @PostMapping("/{id}/redeem")
+    public ResponseEntity<CupomResponse> resgatarCupom(@Parameter(description = "ID do cupom") @PathVariable UUID id) {
+        return ResponseEntity.ok(mapper.toResponse(service.resgatarCupom(id)));
+    }
+
+    @Operation(summary = "Publicar cupom")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Cupom publicado"),
+            @ApiResponse(responseCode = "409", description = "Cupom já publicado ou deletado")
+    })
+    @PostMapping("/{id}/publish")
+    public ResponseEntity<CupomResponse> publicarCupom(@Parameter(description = "ID do cupom") @PathVariable UUID id) {
+        return ResponseEntity.ok(mapper.toResponse(service.publicarCupom(id)));
+    }
+
+    @Operation(summary = "Desativar cupom")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Cupom desativado"),
+            @ApiResponse(responseCode = "409", description = "Cupom não está publicado")
+    })
+    @PostMapping("/{id}/deactivate")
+    public ResponseEntity<CupomResponse> desativarCupom(@Parameter(description = "ID do cupom") @PathVariable UUID id) {
+        return ResponseEntity.ok(mapper.toResponse(service.desativarCupom(id)));
+    }
+
+    @Operation(
+            summary = "Publicar cupons em lote",
+            description = "Publica os cupons pelos IDs ou pelo prefixo do código, com o desfecho de cada cupom"
+    )
+    @PostMapping("/bulk/publish")
+    public ResponseEntity<OperacaoEmLoteResponse> publicarEmLote(
+            @org.springframework.web.bind.annotation.RequestBody @Valid OperacaoEmLoteRequest request) {
+        return ResponseEntity.ok(aplicarEmLote(Transicao.PUBLICAR, request));
+    }
+
+    @Operation(
+            summary = "Desativar cupons em lote",
+            description = "Desativa os cupons pelos IDs ou pelo prefixo do código, com o desfecho de cada cupom"
+    )
+    @PostMapping("/bulk/deactivate")
+    public ResponseEntity<OperacaoEmLoteResponse> desativarEmLote(
+            @org.springframework.web.bind.annotation.RequestBody @Valid OperacaoEmLoteRequest request) {
+        return ResponseEntity.ok(aplicarEmLote(Transicao.DESATIVAR, request));
+    }
+
+    @Operation(
+            summary = "Deletar cupons em lote",
+            description = "Deleta logicamente os cupons pelos IDs ou pelo prefixo do código, com o desfecho de cada cupom"
+    )
+    @PostMapping("/bulk/delete")
+    public ResponseEntity<OperacaoEmLoteResponse> deletarEmLote(
+            @org.springframework.web.bind.annotation.RequestBody @Valid OperacaoEmLoteRequest request) {
+        return ResponseEntity.ok(aplicarEmLote(Transicao.DELETAR, request));
+    }
+
+    private OperacaoEmLoteResponse aplicarEmLote(Transicao transicao, OperacaoEmLoteRequest request) {
+        return request.getCodePrefixo() == null
+                ? loteService.aplicar(transicao, request.getIds())
+                : loteService.aplicarPorPrefixo(transicao, request.getCodePrefixo());
+    }
+
+    @Operation(summary = "Resgatar cupom por código")
+    @PostMapping("/code/{code}/redeem")
+    public ResponseEntity<Cupom> resgatarPorCode(@Parameter(description = "Código do cupom") @PathVariable String code) {
+        Cupom cupom = service.resgatarPorCode(code);
+        return ResponseEntity.ok(cupom);
+    }
+
+    @Operation(
+            summary = "Buscar cupons em lote",
+            description = "Busca vários cupons por ID e/ou código em uma única requisição"
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Cupons encontrados"),
+            @ApiResponse(responseCode = "400", description = "Quantidade acima do limite")
+    })
+    @PostMapping("/lookup")
+    public ResponseEntity<List<CupomResponse>> buscarEmLote(
+            @RequestBody(
+                    required = true,
+                    description = "IDs e códigos dos cupons",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = LookupCupomRequest.class)
+                    )
+            )
+            @org.springframework.web.bind.annotation.RequestBody @Valid LookupCupomRequest request) {
+        return ResponseEntity.ok(service.buscarEmLote(request.getIds(), request.getCodes()));
+    }
+
+    @Operation(
+            summary = "Aplicar cupons a um carrinho",
+            description = "Calcula o desconto dos cupons sobre os itens do carrinho sem resgatá-los"
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Descontos calculados"),
+            @ApiResponse(responseCode = "400", description = "Dados inválidos ou faltando")
+    })
+    @PostMapping("/apply")
+    public ResponseEntity<AplicarCupomResponse> aplicarCupons(
+            @RequestBody(
+                    required = true,
+                    description = "Itens do carrinho e códigos dos cupons",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = AplicarCupomRequest.class)
+                    )
+            )
+            @org.springframework.web.bind.annotation.RequestBody @Valid AplicarCupomRequest request) {
+        return ResponseEntity.ok(aplicacaoService.aplicar(request));
+    }
+
     @Operation(summary = "Deletar cupom por ID")
     @DeleteMapping("/{id}")
     public ResponseEntity<CupomResponse> deleteCupom(@Parameter(description = "ID do cupom") @PathVariable UUID id) {
@@ -90,9 +247,33 @@ public class CupomController {
                             schema = @Schema(implementation = CreateCupomRequest.class)
                     )
             )
-            @Valid CreateCupomRequest request) {
+            @org.springframework.web.bind.annotation.RequestBody @Valid CreateCupomRequest request) {
         Cupom cupom = service.atualizarCupom(id, request);
         CupomResponse response = mapper.toResponse(cupom);
         return ResponseEntity.ok(response);
     }
+
+    @Operation(
+            summary = "Atualizar cupom parcialmente",
+            description = "Altera só os campos informados (código, descrição, desconto e/ou expiração)"
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Cupom atualizado"),
+            @ApiResponse(responseCode = "400", description = "Dados inválidos ou código já existente")
+    })
+    @PatchMapping("/{id}")
+    public ResponseEntity<CupomResponse> atualizarParcialmente(
+            @PathVariable UUID id,
+            @RequestBody(
+                    required = true,
+                    description = "Campos a alterar",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = AtualizarCupomRequest.class)
+                    )
+            )
+            @org.springframework.web.bind.annotation.RequestBody @Valid AtualizarCupomRequest request) {
+        Cupom cupom = service.atualizarParcialmente(id, request);
+        return ResponseEntity.ok(mapper.toResponse(cupom));
+    }
 }
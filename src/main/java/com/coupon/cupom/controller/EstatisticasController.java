@@ -0,0 +1,61 @@
+package com.coupon.cupom.controller;
+
+import com.coupon.cupom.estatisticas.EstatisticasUso;
+import com.coupon.cupom.estatisticas.Granularidade;
+import com.coupon.cupom.quentes.DetectorQuentes;
+import com.coupon.cupom.request.ChaveQuenteResponse;
+import com.coupon.cupom.request.UsoAgregadoResponse;
+import com.coupon.cupom.tempo.Relogio;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/analytics")
+@Tag(name = "Estatísticas", description = "Contagens de uso pré-agregadas por minuto e por hora")
+public class EstatisticasController {
+
+    private final EstatisticasUso estatisticas;
+    private final Relogio relogio;
+    private final DetectorQuentes detector;
+
+    public EstatisticasController(EstatisticasUso estatisticas, Relogio relogio, DetectorQuentes detector) {
+        this.estatisticas = estatisticas;
+        this.relogio = relogio;
+        this.detector = detector;
+    }
+
+    @Operation(
+            summary = "Uso por período",
+            description = "Criações, resgates e resgates recusados por bucket e por origem "
+                    + "(\"cupons\" para cupons avulsos ou o ID da campanha). Sem período, traz os últimos 60 buckets."
+    )
+    @GetMapping("/uso")
+    public ResponseEntity<List<UsoAgregadoResponse>> uso(
+            @Parameter(description = "MINUTO ou HORA") @RequestParam(defaultValue = "MINUTO") Granularidade granularidade,
+            @Parameter(description = "Início do período") @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime de,
+            @Parameter(description = "Fim do período") @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime ate,
+            @Parameter(description = "Filtra por origem") @RequestParam(required = false) String origem) {
+        LocalDateTime fim = ate == null ? relogio.agora() : ate;
+        LocalDateTime inicio = de == null ? fim.minus(59, granularidade.getUnidade()) : de;
+        return ResponseEntity.ok(estatisticas.consultar(granularidade, inicio, fim, origem));
+    }
+
+    @Operation(
+            summary = "Cupons quentes",
+            description = "IDs e códigos mais acessados na janela atual, por amostragem. Os marcados como protegidos "
+                    + "têm as leituras guardadas por alguns instantes e as buscas simultâneas coalescidas."
+    )
+    @GetMapping("/quentes")
+    public ResponseEntity<List<ChaveQuenteResponse>> quentes() {
+        return ResponseEntity.ok(detector.topo());
+    }
+}
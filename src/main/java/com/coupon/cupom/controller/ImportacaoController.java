@@ -0,0 +1,94 @@
+package com.coupon.cupom.controller;
+
+import com.coupon.cupom.exception.CupomNotFoundException;
+import com.coupon.cupom.importacao.Importacao;
+import com.coupon.cupom.importacao.ImportacaoCupons;
+import com.coupon.cupom.request.ImportacaoResponse;
+import com.coupon.cupom.request.ImportacaoResponse.Erro;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/coupon/import")
+@Tag(name = "Importação", description = "Criação de cupons a partir de arquivos CSV ou NDJSON")
+public class ImportacaoController {
+
+    private final ImportacaoCupons importacao;
+
+    public ImportacaoController(ImportacaoCupons importacao) {
+        this.importacao = importacao;
+    }
+
+    @Operation(
+            summary = "Importar arquivo",
+            description = "CSV com cabeçalho code,description,discountValue,expirationDate[,published] ou NDJSON "
+                    + "com um cupom por linha. A importação segue em segundo plano; acompanhe pelo endereço em Location."
+    )
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ImportacaoResponse> importar(
+            @RequestParam("arquivo") MultipartFile arquivo,
+            @Parameter(description = "CSV ou NDJSON; sem ele, deduzido pela extensão")
+            @RequestParam(required = false) Importacao.Formato formato) throws IOException {
+        return aceita(importacao.importar(arquivo.getInputStream(), arquivo.getOriginalFilename(), formato));
+    }
+
+    @Operation(
+            summary = "Importar arquivo do servidor",
+            description = "Importa um arquivo do diretório configurado em cupom.importacao.diretorio"
+    )
+    @PostMapping("/local")
+    public ResponseEntity<ImportacaoResponse> importarLocal(
+            @Parameter(description = "Caminho relativo ao diretório de importação") @RequestParam String caminho,
+            @Parameter(description = "CSV ou NDJSON; sem ele, deduzido pela extensão")
+            @RequestParam(required = false) Importacao.Formato formato) {
+        return aceita(importacao.importarLocal(caminho, formato));
+    }
+
+    @Operation(summary = "Andamento da importação", description = "Contagens, status e os primeiros erros")
+    @GetMapping("/{id}")
+    public ResponseEntity<ImportacaoResponse> andamento(@Parameter(description = "ID da importação") @PathVariable UUID id) {
+        return ResponseEntity.ok(buscar(id).andamento());
+    }
+
+    @Operation(summary = "Relatório de erros", description = "Linhas rejeitadas em CSV: linha, código e motivo")
+    @GetMapping(value = "/{id}/erros", produces = "text/csv")
+    public ResponseEntity<String> erros(@Parameter(description = "ID da importação") @PathVariable UUID id) {
+        StringBuilder csv = new StringBuilder("linha,code,motivo\n");
+        for (Erro erro : buscar(id).erros()) {
+            csv.append(erro.linha()).append(',')
+                    .append(campoCsv(erro.code())).append(',')
+                    .append(campoCsv(erro.motivo())).append('\n');
+        }
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"erros-" + id + ".csv\"")
+                .body(csv.toString());
+    }
+
+    private Importacao buscar(UUID id) {
+        return importacao.buscar(id).orElseThrow(
+                () -> CupomNotFoundException.semStackTrace("Importação com ID " + id + " não encontrada"));
+    }
+
+    private static ResponseEntity<ImportacaoResponse> aceita(Importacao importacao) {
+        return ResponseEntity.accepted()
+                .location(URI.create("/coupon/import/" + importacao.getId()))
+                .body(importacao.andamento());
+    }
+
+    private static String campoCsv(String valor) {
+        if (valor == null) {
+            return "";
+        }
+        return "\"" + valor.replace("\"", "\"\"").replace("\n", " ") + "\"";
+    }
+}
@@ -0,0 +1,63 @@
+package com.coupon.cupom.entity;
+
+import com.coupon.cupom.event.CupomAlteradoEvent.Operacao;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Registro do histórico de alterações de um cupom: quem alterou, de onde, quando e os campos que mudaram.
+ * Somente inclusão: as linhas são escritas em lote pela auditoria, nunca alteradas.
+ */
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Entity
+@Immutable
+@Table(name = "auditoria_cupons", indexes = @Index(name = "idx_auditoria_cupons_cupom", columnList = "cupom_id"))
+public class AuditoriaCupom {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "cupom_id", nullable = false)
+    private UUID cupomId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Operacao operacao;
+
+    /**
+     * Usuário autenticado ou, sem autenticação, o endereço remoto; "sistema" fora de uma requisição
+     */
+    @Column(nullable = false, length = 100)
+    private String ator;
+
+    /**
+     * Endereço remoto da requisição
+     */
+    @Column(length = 100)
+    private String origem;
+
+    /**
+     * Header de ator enviado pelo cliente (X-Usuario); não é verificado
+     */
+    @Column(name = "ator_informado", length = 100)
+    private String atorInformado;
+
+    @Column(nullable = false)
+    private LocalDateTime ocorridoEm;
+
+    /**
+     * JSON com o valor anterior e o novo de cada campo alterado
+     */
+    @JsonRawValue
+    @Column(nullable = false, length = 4000)
+    private String alteracoes;
+}
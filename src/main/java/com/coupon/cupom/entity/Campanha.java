@@ -0,0 +1,143 @@
+package com.coupon.cupom.entity;
+
+import com.coupon.cupom.exception.TransicaoInvalidaException;
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Entidade que representa uma campanha: o modelo compartilhado por muitos códigos de cupom.
+ * Os códigos ficam em {@link CampanhaCodigo}, guardando apenas o código e o estado.
+ */
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Entity
+@Table(name = "campanhas")
+public class Campanha {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(nullable = false, length = 255)
+    private String description;
+
+    @Column(nullable = false, precision = 10, scale = 2)
+    private BigDecimal discountValue;
+
+    @Column(nullable = false)
+    private LocalDateTime expirationDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private CupomStatus status;
+
+    @Column(nullable = false)
+    private boolean published;
+
+    @Column(nullable = false)
+    private int quantidade;
+
+    @Column(nullable = true)
+    private LocalDateTime deletedAt;
+
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    /**
+     * Factory Method - Cria uma nova campanha com as mesmas validações do cupom
+     * @param agora instante de referência para validar a expiração
+     */
+    public static Campanha criar(
+            String description,
+            BigDecimal discountValue,
+            LocalDateTime expirationDate,
+            boolean published,
+            int quantidade,
+            LocalDateTime agora
+    ) {
+        Cupom.validarExpirationDate(expirationDate, agora);
+        Cupom.validarDiscountValue(discountValue);
+        Cupom.validarDescription(description);
+
+        Campanha campanha = new Campanha();
+        campanha.description = description.trim();
+        campanha.discountValue = discountValue;
+        campanha.expirationDate = expirationDate;
+        campanha.published = published;
+        campanha.status = published ? CupomStatus.ACTIVE : CupomStatus.INACTIVE;
+        campanha.quantidade = quantidade;
+        return campanha;
+    }
+
+    /**
+     * Verifica se está expirada no instante informado
+     */
+    public boolean isExpirada(LocalDateTime agora) {
+        return agora.isAfter(this.expirationDate);
+    }
+
+    /**
+     * Verifica se foi deletada (soft delete)
+     */
+    public boolean isDeleted() {
+        return this.deletedAt != null;
+    }
+
+    /**
+     * Verifica se os códigos da campanha podem ser resgatados
+     */
+    public boolean permiteResgate(LocalDateTime agora) {
+        return this.published && this.status == CupomStatus.ACTIVE && !this.isDeleted() && !this.isExpirada(agora);
+    }
+
+    /**
+     * Publica uma campanha ainda não publicada, liberando o resgate dos códigos
+     */
+    public void publicar() {
+        if (this.published) {
+            throw new TransicaoInvalidaException("Campanha já foi publicada");
+        }
+        if (this.isDeleted()) {
+            throw new TransicaoInvalidaException("Não é possível publicar uma campanha deletada");
+        }
+        this.published = true;
+        this.status = CupomStatus.ACTIVE;
+    }
+
+    /**
+     * Desativa uma campanha publicada e ativa, suspendendo o resgate dos códigos
+     */
+    public void desativar() {
+        if (!this.published) {
+            throw new TransicaoInvalidaException("Campanha não está publicada");
+        }
+        if (this.status == CupomStatus.INACTIVE) {
+            throw new TransicaoInvalidaException("Campanha já está desativada");
+        }
+        this.status = CupomStatus.INACTIVE;
+    }
+
+    /**
+     * Deleta logicamente a campanha (soft delete); os códigos livres são marcados à parte
+     */
+    public void deletar(LocalDateTime agora) {
+        if (this.isDeleted()) {
+            throw new TransicaoInvalidaException("Campanha já foi deletada");
+        }
+        this.deletedAt = agora;
+        this.status = CupomStatus.INACTIVE;
+    }
+}
@@ -0,0 +1,40 @@
+package com.coupon.cupom.entity;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Código individual de uma {@link Campanha}: apenas o código e os bits de estado.
+ * Descrição, desconto e expiração vêm da campanha.
+ */
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Entity
+@Table(name = "campanha_codigos", indexes = @Index(name = "idx_campanha_codigos_campanha", columnList = "campanha_id"))
+public class CampanhaCodigo {
+
+    public static final short RESGATADO = 1;
+    public static final short DELETADO = 1 << 1;
+
+    @Id
+    @Column(length = 6)
+    private String code;
+
+    @Column(name = "campanha_id", nullable = false)
+    private UUID campanhaId;
+
+    @Column(nullable = false)
+    private short estado;
+
+    public boolean isRedeemed() {
+        return (estado & RESGATADO) != 0;
+    }
+
+    public boolean isDeleted() {
+        return (estado & DELETADO) != 0;
+    }
+}
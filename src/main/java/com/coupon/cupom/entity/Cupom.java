@@ -1,11 +1,13 @@
 package com.coupon.cupom.entity;
 
 import com.coupon.cupom.exception.CupomInvalidoException;
+import com.coupon.cupom.exception.TransicaoInvalidaException;
 import jakarta.persistence.*;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.math.BigDecimal;
@@ -18,7 +20,11 @@ import java.util.UUID;
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @Entity
-@Table(name = "cupons")
+@DynamicUpdate
+@Table(name = "cupons", indexes = {
+        @Index(name = "idx_cupons_redeemed_updated_at", columnList = "redeemed, updated_at"),
+        @Index(name = "idx_cupons_deleted_at_updated_at", columnList = "deleted_at, updated_at"),
+        @Index(name = "idx_cupons_expiration_date", columnList = "expiration_date")})
 public class Cupom {
 
     @Id
@@ -61,18 +67,34 @@ public class Cupom {
     @Column(nullable = false)
     private LocalDateTime updatedAt;
 
+    /**
+     * Controle de concorrência otimista: duas transições simultâneas no mesmo cupom
+     * não podem ser aceitas, a segunda falha no commit
+     */
+    @Version
+    @Column(nullable = false)
+    private long version;
+
+    /**
+     * Cupom lido da tabela de arquivo: não pode ser alterado
+     */
+    @Transient
+    private boolean arquivado;
+
     /**
      * Factory Method - Cria um novo cupom com validações
+     * @param agora instante de referência para validar a expiração
      */
     public static Cupom criar(
             String code,
             String description,
             BigDecimal discountValue,
             LocalDateTime expirationDate,
-            boolean published
+            boolean published,
+            LocalDateTime agora
     ) {
         validarCode(code);
-        validarExpirationDate(expirationDate);
+        validarExpirationDate(expirationDate, agora);
         validarDiscountValue(discountValue);
         validarDescription(description);
 
@@ -88,59 +110,145 @@ public class Cupom {
         return cupom;
     }
 
+    /**
+     * Reconstrói um cupom arquivado, marcado como {@link #isArquivado()}
+     */
+    static Cupom deArquivo(CupomArquivado arquivado) {
+        Cupom cupom = new Cupom();
+        cupom.id = arquivado.getId();
+        cupom.code = arquivado.getCode();
+        cupom.description = arquivado.getDescription();
+        cupom.discountValue = arquivado.getDiscountValue();
+        cupom.expirationDate = arquivado.getExpirationDate();
+        cupom.status = arquivado.getStatus();
+        cupom.published = arquivado.isPublished();
+        cupom.redeemed = arquivado.isRedeemed();
+        cupom.redeemedAt = arquivado.getRedeemedAt();
+        cupom.deletedAt = arquivado.getDeletedAt();
+        cupom.createdAt = arquivado.getCreatedAt();
+        cupom.updatedAt = arquivado.getUpdatedAt();
+        cupom.arquivado = true;
+        return cupom;
+    }
+
+    /**
+     * Cópia fora de qualquer contexto de persistência, para uma leitura ser compartilhada entre requisições
+     * sem expor a instância gerenciada pela sessão de uma delas
+     */
+    public Cupom copia() {
+        Cupom copia = new Cupom();
+        copia.id = this.id;
+        copia.code = this.code;
+        copia.description = this.description;
+        copia.discountValue = this.discountValue;
+        copia.expirationDate = this.expirationDate;
+        copia.status = this.status;
+        copia.published = this.published;
+        copia.redeemed = this.redeemed;
+        copia.redeemedAt = this.redeemedAt;
+        copia.deletedAt = this.deletedAt;
+        copia.createdAt = this.createdAt;
+        copia.updatedAt = this.updatedAt;
+        copia.version = this.version;
+        copia.arquivado = this.arquivado;
+        return copia;
+    }
+
+    /**
+     * Transições de estado que também podem ser aplicadas em lote, direto no banco
+     */
+    public enum Transicao {
+        PUBLICAR,
+        DESATIVAR,
+        DELETAR
+    }
+
+    /**
+     * Regras das transições, usadas pelos métodos da entidade e pelas operações em lote
+     * @return motivo pelo qual a transição não é permitida no estado informado, ou null se for permitida
+     */
+    public static String impedimento(Transicao transicao, EstadoCupom estado) {
+        boolean deletado = estado.deletedAt() != null;
+        return switch (transicao) {
+            case PUBLICAR -> estado.published() ? "Cupom já foi publicado"
+                    : deletado ? "Não é possível publicar um cupom deletado" : null;
+            case DESATIVAR -> !estado.published() ? "Cupom não está publicado"
+                    : estado.status() == CupomStatus.INACTIVE ? "Cupom já está desativado" : null;
+            case DELETAR -> deletado ? "Cupom já foi deletado"
+                    : estado.redeemed() ? "Não é possível deletar um cupom já resgatado" : null;
+        };
+    }
+
+    /**
+     * Estado resultante de uma transição permitida
+     */
+    public static EstadoCupom aplicar(Transicao transicao, EstadoCupom estado, LocalDateTime agora) {
+        return switch (transicao) {
+            case PUBLICAR -> new EstadoCupom(estado.code(), estado.description(), estado.discountValue(),
+                    estado.expirationDate(), CupomStatus.ACTIVE, true, estado.redeemed(), estado.deletedAt());
+            case DESATIVAR -> new EstadoCupom(estado.code(), estado.description(), estado.discountValue(),
+                    estado.expirationDate(), CupomStatus.INACTIVE, estado.published(), estado.redeemed(), estado.deletedAt());
+            case DELETAR -> new EstadoCupom(estado.code(), estado.description(), estado.discountValue(),
+                    estado.expirationDate(), CupomStatus.INACTIVE, estado.published(), estado.redeemed(), agora);
+        };
+    }
+
     /**
      * Publica um cupom inativo
      */
     public void publicar() {
-        if (this.published) {
-            throw new IllegalStateException("Cupom já foi publicado");
-        }
-        if (this.isDeleted()) {
-            throw new IllegalStateException("Não é possível publicar um cupom deletado");
-        }
+        validarTransicao(Transicao.PUBLICAR);
         this.published = true;
         this.status = CupomStatus.ACTIVE;
     }
 
     /**
-     * Desativa um cupom publicado
+     * Desativa um cupom publicado e ativo
      */
     public void desativar() {
-        if (!this.published) {
-            throw new IllegalStateException("Cupom não está publicado");
-        }
+        validarTransicao(Transicao.DESATIVAR);
         this.status = CupomStatus.INACTIVE;
     }
 
     /**
      * Resgate o cupom (soft delete lógico)
      */
-    public void resgatar() {
-        validarPodeSerResgatado();
+    public void resgatar(LocalDateTime agora) {
+        validarPodeSerResgatado(agora);
         this.redeemed = true;
-        this.redeemedAt = LocalDateTime.now();
+        this.redeemedAt = agora;
         this.status = CupomStatus.INACTIVE;
     }
 
     /**
      * Deleta logicamente um cupom (soft delete)
      */
-    public void deletar() {
-        if (this.isDeleted()) {
-            throw new IllegalStateException("Cupom já foi deletado");
-        }
-        if (this.redeemed) {
-            throw new IllegalStateException("Não é possível deletar um cupom já resgatado");
-        }
-        this.deletedAt = LocalDateTime.now();
+    public void deletar(LocalDateTime agora) {
+        validarTransicao(Transicao.DELETAR);
+        this.deletedAt = agora;
         this.status = CupomStatus.INACTIVE;
     }
 
+    private void validarTransicao(Transicao transicao) {
+        String impedimento = impedimento(transicao, estado());
+        if (impedimento != null) {
+            throw new TransicaoInvalidaException(impedimento);
+        }
+    }
+
     /**
-     * Verifica se está expirado
+     * Verifica se está expirado no instante informado
+     */
+    public boolean isExpirado(LocalDateTime agora) {
+        return agora.isAfter(this.expirationDate);
+    }
+
+    /**
+     * Campo expirado da entidade serializada, pela hora do sistema.
+     * As regras de negócio usam {@link #isExpirado(LocalDateTime)} com o relógio da aplicação.
      */
     public boolean isExpirado() {
-        return LocalDateTime.now().isAfter(this.expirationDate);
+        return isExpirado(LocalDateTime.now());
     }
 
     /**
@@ -150,29 +258,54 @@ public class Cupom {
         return this.deletedAt != null;
     }
 
+    /**
+     * Estado atual dos campos alteráveis, para auditoria
+     */
+    public EstadoCupom estado() {
+        return new EstadoCupom(code, description, discountValue, expirationDate, status, published, redeemed, deletedAt);
+    }
+
     /**
      * Verifica se pode ser resgatado
      */
-    public boolean podeSerResgatado() {
-        return !this.redeemed && !this.isDeleted() && !this.isExpirado() && this.published;
+    public boolean podeSerResgatado(LocalDateTime agora) {
+        return !this.redeemed && !this.isDeleted() && !this.isExpirado(agora) && this.published;
     }
 
     /**
-     * Atualiza as informações do cupom
+     * Atualiza as informações do cupom; campos nulos são mantidos.
+     * Tudo é validado antes de alterar, então uma falha não deixa o cupom pela metade.
      */
-    public void atualizar(String description, BigDecimal discountValue) {
+    public void atualizar(String code, String description, BigDecimal discountValue, LocalDateTime expirationDate,
+                          LocalDateTime agora) {
         if (this.isDeleted()) {
-            throw new IllegalStateException("Não é possível atualizar um cupom deletado");
+            throw new TransicaoInvalidaException("Não é possível atualizar um cupom deletado");
         }
         if (this.redeemed) {
-            throw new IllegalStateException("Não é possível atualizar um cupom já resgatado");
+            throw new TransicaoInvalidaException("Não é possível atualizar um cupom já resgatado");
+        }
+
+        String codeTratado = code == null ? this.code : tratarCode(code);
+        if (description != null) {
+            validarDescription(description);
+        }
+        if (discountValue != null) {
+            validarDiscountValue(discountValue);
+        }
+        if (expirationDate != null) {
+            validarExpirationDate(expirationDate, agora);
+        }
+
+        this.code = codeTratado;
+        if (description != null) {
+            this.description = description.trim();
+        }
+        if (discountValue != null) {
+            this.discountValue = discountValue;
+        }
+        if (expirationDate != null) {
+            this.expirationDate = expirationDate;
         }
-        
-        validarDescription(description);
-        validarDiscountValue(discountValue);
-        
-        this.description = description.trim();
-        this.discountValue = discountValue;
     }
 
     private static void validarCode(String code) {
@@ -181,7 +314,7 @@ public class Cupom {
         }
     }
 
-    private static void validarDescription(String description) {
+    static void validarDescription(String description) {
         if (description == null || description.isBlank()) {
             throw new CupomInvalidoException("Descrição não pode ser vazia");
         }
@@ -190,16 +323,16 @@ public class Cupom {
         }
     }
 
-    private static void validarExpirationDate(LocalDateTime expirationDate) {
+    static void validarExpirationDate(LocalDateTime expirationDate, LocalDateTime agora) {
         if (expirationDate == null) {
             throw new CupomInvalidoException("Data de expiração não pode ser nula");
         }
-        if (expirationDate.isBefore(LocalDateTime.now())) {
+        if (expirationDate.isBefore(agora)) {
             throw new CupomInvalidoException("Data de expiração não pode ser no passado");
         }
     }
 
-    private static void validarDiscountValue(BigDecimal discountValue) {
+    static void validarDiscountValue(BigDecimal discountValue) {
         if (discountValue == null) {
             throw new CupomInvalidoException("Valor de desconto não pode ser nulo");
         }
@@ -211,26 +344,37 @@ public class Cupom {
         }
     }
 
-    private void validarPodeSerResgatado() {
+    private void validarPodeSerResgatado(LocalDateTime agora) {
         if (this.redeemed) {
-            throw new IllegalStateException("Cupom já foi resgatado");
+            throw new TransicaoInvalidaException("Cupom já foi resgatado");
         }
         if (this.isDeleted()) {
-            throw new IllegalStateException("Cupom foi deletado");
+            throw new TransicaoInvalidaException("Cupom foi deletado");
         }
-        if (this.isExpirado()) {
-            throw new IllegalStateException("Cupom expirou");
+        if (this.isExpirado(agora)) {
+            throw new TransicaoInvalidaException("Cupom expirou");
         }
         if (!this.published) {
-            throw new IllegalStateException("Cupom não foi publicado");
+            throw new TransicaoInvalidaException("Cupom não foi publicado");
         }
     }
 
     public static String tratarCode(String code) {
-        String tratado = code.replaceAll("[^a-zA-Z0-9]", "").toUpperCase();
-        if (tratado.length() != 6) {
+        String tratado = tratarCodeOuNulo(code);
+        if (tratado == null) {
             throw new CupomInvalidoException("Código deve possuir exatamente 6 caracteres alfanuméricos");
         }
         return tratado;
     }
+
+    /**
+     * Normaliza o código como {@link #tratarCode}, mas retorna null em vez de lançar exceção
+     */
+    public static String tratarCodeOuNulo(String code) {
+        if (code == null) {
+            return null;
+        }
+        String tratado = code.replaceAll("[^a-zA-Z0-9]", "").toUpperCase();
+        return tratado.length() == 6 ? tratado : null;
+    }
 }
\ No newline at end of file
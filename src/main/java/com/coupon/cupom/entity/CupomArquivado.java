@@ -0,0 +1,68 @@
+package com.coupon.cupom.entity;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Cupom resgatado, deletado ou expirado há muito tempo, movido da tabela cupons pelo arquivamento.
+ * Somente leitura: as linhas são escritas em lote pelo job, nunca pelo JPA.
+ */
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Entity
+@Immutable
+@Table(name = "cupons_arquivados")
+public class CupomArquivado {
+
+    @Id
+    private UUID id;
+
+    @Column(nullable = false, unique = true, length = 6)
+    private String code;
+
+    @Column(nullable = false, length = 255)
+    private String description;
+
+    @Column(nullable = false, precision = 10, scale = 2)
+    private BigDecimal discountValue;
+
+    @Column(nullable = false)
+    private LocalDateTime expirationDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private CupomStatus status;
+
+    @Column(nullable = false)
+    private boolean published;
+
+    @Column(nullable = false)
+    private boolean redeemed;
+
+    private LocalDateTime redeemedAt;
+
+    private LocalDateTime deletedAt;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Column(nullable = false)
+    private LocalDateTime archivedAt;
+
+    /**
+     * Converte para um {@link Cupom} somente leitura
+     */
+    public Cupom paraCupom() {
+        return Cupom.deArquivo(this);
+    }
+}
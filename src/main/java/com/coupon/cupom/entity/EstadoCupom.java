@@ -0,0 +1,20 @@
+package com.coupon.cupom.entity;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Cópia imutável dos campos alteráveis de um {@link Cupom}, tirada antes e depois de cada alteração
+ * para a auditoria comparar fora da requisição
+ */
+public record EstadoCupom(
+        String code,
+        String description,
+        BigDecimal discountValue,
+        LocalDateTime expirationDate,
+        CupomStatus status,
+        boolean published,
+        boolean redeemed,
+        LocalDateTime deletedAt
+) {
+}
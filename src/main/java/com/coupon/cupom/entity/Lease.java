@@ -0,0 +1,36 @@
+package com.coupon.cupom.entity;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lease de liderança de uma tarefa em segundo plano: só o dono pode executá-la até expira_em.
+ * O token aumenta a cada troca de dono e serve de fencing para as escritas do líder.
+ * Somente leitura: as linhas são escritas pelo {@code GerenciadorLeases} com updates condicionais.
+ */
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Entity
+@Table(name = "leases")
+public class Lease {
+
+    @Id
+    @Column(length = 64)
+    private String nome;
+
+    @Column(nullable = false, length = 100)
+    private String dono;
+
+    @Column(nullable = false)
+    private long token;
+
+    @Column(nullable = false)
+    private LocalDateTime expiraEm;
+
+    @Column(nullable = false)
+    private LocalDateTime renovadoEm;
+}
@@ -0,0 +1,47 @@
+package com.coupon.cupom.entity;
+
+import com.coupon.cupom.estatisticas.Granularidade;
+import com.coupon.cupom.estatisticas.TipoUso;
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Contagem de um tipo de uso por origem (cupons avulsos ou uma campanha) em um bucket de tempo.
+ * Somente leitura: as linhas são somadas em lote pelas estatísticas de uso, nunca pelo JPA.
+ */
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Entity
+@Immutable
+@IdClass(UsoAgregado.Chave.class)
+@Table(name = "uso_agregado")
+public class UsoAgregado {
+
+    public record Chave(Granularidade granularidade, LocalDateTime inicio, String origem, TipoUso tipo) {
+    }
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 10)
+    private Granularidade granularidade;
+
+    @Id
+    private LocalDateTime inicio;
+
+    @Id
+    @Column(length = 36)
+    private String origem;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private TipoUso tipo;
+
+    @Column(nullable = false)
+    private long quantidade;
+}
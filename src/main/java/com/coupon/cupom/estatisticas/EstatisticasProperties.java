@@ -0,0 +1,23 @@
+package com.coupon.cupom.estatisticas;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuração das estatísticas de uso (prefixo cupom.estatisticas).
+ * O intervalo de gravação fica em cupom.estatisticas.intervalo-gravacao.
+ * @param enabled liga a contagem
+ * @param retencaoMinutos por quanto tempo os buckets por minuto ficam na tabela
+ * @param retencaoHoras por quanto tempo os buckets por hora ficam na tabela
+ * @param maxBuckets buckets devolvidos por consulta; intervalos maiores são cortados no início
+ */
+@ConfigurationProperties(prefix = "cupom.estatisticas")
+public record EstatisticasProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("2d") Duration retencaoMinutos,
+        @DefaultValue("90d") Duration retencaoHoras,
+        @DefaultValue("1440") int maxBuckets
+) {
+}
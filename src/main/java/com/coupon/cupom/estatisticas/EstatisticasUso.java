@@ -0,0 +1,237 @@
+package com.coupon.cupom.estatisticas;
+
+import com.coupon.cupom.event.CupomAlteradoEvent;
+import com.coupon.cupom.request.UsoAgregadoResponse;
+import com.coupon.cupom.tempo.Relogio;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contadores de uso por minuto (criações, resgates e resgates recusados), por origem: cupons avulsos
+ * ou uma campanha. Os serviços incrementam contadores em memória; periodicamente cada instância soma
+ * o que contou desde a última gravação nos buckets por minuto e por hora de uso_agregado, então os
+ * relatórios leem um bucket por período em vez de varrer cupons.
+ * O que foi contado e ainda não gravado entra nas consultas desta instância e se perde se ela cair.
+ */
+@Component
+@EnableScheduling
+@EnableConfigurationProperties(EstatisticasProperties.class)
+public class EstatisticasUso {
+
+    private static final Logger log = LoggerFactory.getLogger(EstatisticasUso.class);
+
+    /**
+     * Origem dos cupons avulsos; os códigos de campanha usam o ID da campanha
+     */
+    public static final String ORIGEM_CUPONS = "cupons";
+
+    private static final String SOMAR = """
+            UPDATE uso_agregado SET quantidade = quantidade + :quantidade
+            WHERE granularidade = :granularidade AND inicio = :inicio AND origem = :origem AND tipo = :tipo
+            """;
+    private static final String INSERIR = """
+            INSERT INTO uso_agregado (granularidade, inicio, origem, tipo, quantidade)
+            VALUES (:granularidade, :inicio, :origem, :tipo, :quantidade)
+            """;
+    private static final String CONSULTAR = """
+            SELECT inicio, origem, tipo, quantidade FROM uso_agregado
+            WHERE granularidade = :granularidade AND inicio BETWEEN :de AND :ate
+            """;
+    private static final String EXPURGAR = "DELETE FROM uso_agregado WHERE granularidade = :granularidade AND inicio < :limite";
+
+    private record Chave(LocalDateTime inicio, String origem, TipoUso tipo) {
+    }
+
+    /**
+     * O total só cresce; a gravação soma a diferença para o que já foi gravado
+     */
+    private static final class Contador {
+        private final LongAdder total = new LongAdder();
+        private long gravado;
+    }
+
+    private final Map<Chave, Contador> contadores = new ConcurrentHashMap<>();
+    private final EstatisticasProperties properties;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transacao;
+    private final Relogio relogio;
+
+    public EstatisticasUso(EstatisticasProperties properties, NamedParameterJdbcTemplate jdbcTemplate,
+                           PlatformTransactionManager transactionManager, Relogio relogio) {
+        this.properties = properties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transacao = new TransactionTemplate(transactionManager);
+        this.relogio = relogio;
+    }
+
+    /**
+     * Conta um uso; dentro de uma transação só conta após o commit
+     * @param origem {@link #ORIGEM_CUPONS} ou o ID da campanha
+     */
+    public void registrar(TipoUso tipo, String origem, long quantidade) {
+        if (!properties.enabled()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            contar(tipo, origem, quantidade);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                contar(tipo, origem, quantidade);
+            }
+        });
+    }
+
+    /**
+     * Conta um resgate recusado na hora, mesmo que a transação seja desfeita em seguida
+     */
+    public void registrarFalhaResgate(String origem) {
+        if (properties.enabled()) {
+            contar(TipoUso.FALHA_RESGATE, origem, 1);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarCupom(CupomAlteradoEvent evento) {
+        switch (evento.operacao()) {
+            case CRIADO -> registrar(TipoUso.CRIACAO, ORIGEM_CUPONS, 1);
+            case RESGATADO -> registrar(TipoUso.RESGATE, ORIGEM_CUPONS, 1);
+            default -> {
+            }
+        }
+    }
+
+    private void contar(TipoUso tipo, String origem, long quantidade) {
+        Chave chave = new Chave(Granularidade.MINUTO.inicio(relogio.agora()), origem, tipo);
+        contadores.computeIfAbsent(chave, c -> new Contador()).total.add(quantidade);
+    }
+
+    /**
+     * Soma nos buckets da tabela o que foi contado desde a última gravação e remove da memória os
+     * minutos encerrados já gravados. Se falhar, as diferenças ficam para a próxima execução.
+     */
+    @Scheduled(fixedDelayString = "${cupom.estatisticas.intervalo-gravacao:1m}",
+            initialDelayString = "${cupom.estatisticas.intervalo-gravacao:1m}")
+    public synchronized void gravar() {
+        LocalDateTime agora = relogio.agora();
+        Map<Contador, Long> totais = new HashMap<>();
+        Map<Chave, Long> porMinuto = new HashMap<>();
+        Map<Chave, Long> porHora = new HashMap<>();
+        contadores.forEach((chave, contador) -> {
+            long total = contador.total.sum();
+            long diferenca = total - contador.gravado;
+            if (diferenca > 0) {
+                totais.put(contador, total);
+                porMinuto.put(chave, diferenca);
+                porHora.merge(new Chave(Granularidade.HORA.inicio(chave.inicio()), chave.origem(), chave.tipo()),
+                        diferenca, Long::sum);
+            }
+        });
+        try {
+            transacao.executeWithoutResult(status -> {
+                somar(Granularidade.MINUTO, porMinuto);
+                somar(Granularidade.HORA, porHora);
+                expurgar(Granularidade.MINUTO, agora.minus(properties.retencaoMinutos()));
+                expurgar(Granularidade.HORA, agora.minus(properties.retencaoHoras()));
+            });
+        } catch (RuntimeException e) {
+            log.warn("Falha ao gravar as estatísticas de uso; nova tentativa na próxima execução", e);
+            return;
+        }
+        totais.forEach((contador, total) -> contador.gravado = total);
+        LocalDateTime encerrado = Granularidade.MINUTO.inicio(agora).minusMinutes(1);
+        contadores.entrySet().removeIf(entrada -> entrada.getKey().inicio().isBefore(encerrado)
+                && entrada.getValue().gravado == entrada.getValue().total.sum());
+    }
+
+    private void somar(Granularidade granularidade, Map<Chave, Long> diferencas) {
+        diferencas.forEach((chave, quantidade) -> {
+            Map<String, Object> parametros = Map.of(
+                    "granularidade", granularidade.name(),
+                    "inicio", chave.inicio(),
+                    "origem", chave.origem(),
+                    "tipo", chave.tipo().name(),
+                    "quantidade", quantidade);
+            if (jdbcTemplate.update(SOMAR, parametros) == 0) {
+                jdbcTemplate.update(INSERIR, parametros);
+            }
+        });
+    }
+
+    private void expurgar(Granularidade granularidade, LocalDateTime limite) {
+        jdbcTemplate.update(EXPURGAR, Map.of("granularidade", granularidade.name(), "limite", limite));
+    }
+
+    /**
+     * Buckets do período, somando o gravado na tabela e o que esta instância ainda não gravou.
+     * Períodos com mais de maxBuckets buckets são cortados no início.
+     * @param origem filtra por origem; null traz todas
+     */
+    public synchronized List<UsoAgregadoResponse> consultar(Granularidade granularidade, LocalDateTime de,
+                                                            LocalDateTime ate, String origem) {
+        LocalDateTime fim = granularidade.inicio(ate);
+        LocalDateTime inicio = granularidade.inicio(de);
+        LocalDateTime limite = fim.minus(properties.maxBuckets() - 1L, granularidade.getUnidade());
+        if (inicio.isBefore(limite)) {
+            inicio = limite;
+        }
+
+        Map<Chave, Long> buckets = new HashMap<>();
+        Map<String, Object> parametros = new HashMap<>();
+        parametros.put("granularidade", granularidade.name());
+        parametros.put("de", inicio);
+        parametros.put("ate", fim);
+        parametros.put("origem", origem);
+        String consulta = origem == null ? CONSULTAR : CONSULTAR + " AND origem = :origem";
+        jdbcTemplate.query(consulta, parametros, rs -> {
+            buckets.merge(new Chave(rs.getObject("inicio", LocalDateTime.class), rs.getString("origem"),
+                    TipoUso.valueOf(rs.getString("tipo"))), rs.getLong("quantidade"), Long::sum);
+        });
+        for (Map.Entry<Chave, Contador> entrada : contadores.entrySet()) {
+            Chave chave = entrada.getKey();
+            LocalDateTime bucket = granularidade.inicio(chave.inicio());
+            long pendente = entrada.getValue().total.sum() - entrada.getValue().gravado;
+            if (pendente > 0 && !bucket.isBefore(inicio) && !bucket.isAfter(fim)
+                    && (origem == null || origem.equals(chave.origem()))) {
+                buckets.merge(new Chave(bucket, chave.origem(), chave.tipo()), pendente, Long::sum);
+            }
+        }
+        return buckets.entrySet().stream()
+                .map(e -> new UsoAgregadoResponse(e.getKey().inicio(), e.getKey().origem(), e.getKey().tipo(), e.getValue()))
+                .sorted(Comparator.comparing(UsoAgregadoResponse::inicio)
+                        .thenComparing(UsoAgregadoResponse::origem)
+                        .thenComparing(UsoAgregadoResponse::tipo))
+                .toList();
+    }
+
+    /**
+     * Grava o que estiver pendente antes de a instância parar
+     */
+    @PreDestroy
+    public void encerrar() {
+        if (!contadores.isEmpty()) {
+            gravar();
+        }
+    }
+}
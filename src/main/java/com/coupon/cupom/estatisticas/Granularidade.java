@@ -0,0 +1,29 @@
+package com.coupon.cupom.estatisticas;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Tamanho dos buckets das estatísticas de uso
+ */
+public enum Granularidade {
+    MINUTO(ChronoUnit.MINUTES),
+    HORA(ChronoUnit.HOURS);
+
+    private final ChronoUnit unidade;
+
+    Granularidade(ChronoUnit unidade) {
+        this.unidade = unidade;
+    }
+
+    public ChronoUnit getUnidade() {
+        return unidade;
+    }
+
+    /**
+     * Início do bucket que contém o instante
+     */
+    public LocalDateTime inicio(LocalDateTime instante) {
+        return instante.truncatedTo(unidade);
+    }
+}
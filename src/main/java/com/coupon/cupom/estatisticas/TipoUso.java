@@ -0,0 +1,13 @@
+package com.coupon.cupom.estatisticas;
+
+/**
+ * Eventos contados nas estatísticas de uso
+ */
+public enum TipoUso {
+    CRIACAO,
+    RESGATE,
+    /**
+     * Resgate recusado por regra de negócio (cupom expirado, já resgatado, não publicado...)
+     */
+    FALHA_RESGATE
+}
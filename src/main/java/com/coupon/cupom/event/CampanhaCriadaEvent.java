@@ -0,0 +1,9 @@
+package com.coupon.cupom.event;
+
+import java.util.UUID;
+
+/**
+ * Evento publicado pelo CampanhaService após gerar os códigos de uma campanha
+ */
+public record CampanhaCriadaEvent(UUID id) {
+}
@@ -0,0 +1,80 @@
+package com.coupon.cupom.event;
+
+import com.coupon.cupom.entity.Cupom;
+import com.coupon.cupom.entity.CupomStatus;
+import com.coupon.cupom.entity.EstadoCupom;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Evento publicado pelo CupomService a cada alteração de cupom, com o estado após a alteração.
+ * Os listeners devem usar @TransactionalEventListener para agir somente após o commit.
+ * {@code version} é a versão que a alteração gravou no cupom; {@code codeAnterior} é o código liberado
+ * por uma troca de código, ou null quando o código não mudou.
+ */
+public record CupomAlteradoEvent(
+        Operacao operacao,
+        UUID id,
+        String code,
+        CupomStatus status,
+        boolean published,
+        boolean redeemed,
+        boolean deleted,
+        LocalDateTime expirationDate,
+        long version,
+        String codeAnterior
+) {
+
+    public enum Operacao {
+        CRIADO,
+        ATUALIZADO,
+        PUBLICADO,
+        DESATIVADO,
+        RESGATADO,
+        DELETADO
+    }
+
+    /**
+     * @param version versão gravada; a entidade só a recebe no flush
+     */
+    public static CupomAlteradoEvent de(Operacao operacao, Cupom cupom, long version) {
+        return de(operacao, cupom, version, null);
+    }
+
+    /**
+     * @param codeAnterior código antes da alteração, se ela trocou o código
+     */
+    public static CupomAlteradoEvent de(Operacao operacao, Cupom cupom, long version, String codeAnterior) {
+        return new CupomAlteradoEvent(
+                operacao,
+                cupom.getId(),
+                cupom.getCode(),
+                cupom.getStatus(),
+                cupom.isPublished(),
+                cupom.isRedeemed(),
+                cupom.isDeleted(),
+                cupom.getExpirationDate(),
+                version,
+                cupom.getCode().equals(codeAnterior) ? null : codeAnterior
+        );
+    }
+
+    /**
+     * Evento de uma alteração feita direto no banco, sem carregar a entidade
+     */
+    public static CupomAlteradoEvent de(Operacao operacao, UUID id, EstadoCupom estado, long version) {
+        return new CupomAlteradoEvent(
+                operacao,
+                id,
+                estado.code(),
+                estado.status(),
+                estado.published(),
+                estado.redeemed(),
+                estado.deletedAt() != null,
+                estado.expirationDate(),
+                version,
+                null
+        );
+    }
+}
@@ -0,0 +1,17 @@
+package com.coupon.cupom.event;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Evento publicado pelo ArquivamentoJob a cada lote movido para cupons_arquivados.
+ * O conteúdo dos cupons não muda, mas caches com o snapshot da tabela principal devem descartá-lo.
+ */
+public record CuponsArquivadosEvent(List<Arquivado> cupons) {
+
+    /**
+     * @param version versão do cupom no momento em que foi arquivado
+     */
+    public record Arquivado(UUID id, String code, long version) {
+    }
+}
@@ -1,7 +1,25 @@
 package com.coupon.cupom.exception;
 
 public class CupomInvalidoException extends RuntimeException {
+
+    /**
+     * Instância pré-alocada, sem stack trace, para a falha mais comum do resgate
+     */
+    public static final CupomInvalidoException NAO_PODE_SER_RESGATADO =
+            new CupomInvalidoException("Cupom não pode ser resgatado", false);
+
     public CupomInvalidoException(String message) {
         super(message);
     }
+
+    private CupomInvalidoException(String message, boolean stackTrace) {
+        super(message, null, false, stackTrace);
+    }
+
+    /**
+     * Cria a exceção sem capturar stack trace, para falhas esperadas e frequentes
+     */
+    public static CupomInvalidoException semStackTrace(String message) {
+        return new CupomInvalidoException(message, false);
+    }
 }
@@ -1,9 +1,26 @@
 package com.coupon.cupom.exception;
 
 public class CupomNotFoundException extends RuntimeException {
-    
+
+    /**
+     * Instância pré-alocada, sem stack trace, para falhas no hot path (cache negativo)
+     */
+    public static final CupomNotFoundException NAO_ENCONTRADO =
+            new CupomNotFoundException("Cupom não encontrado", false);
+
     public CupomNotFoundException(String message) {
         super(message);
     }
 
-}
\ No newline at end of file
+    private CupomNotFoundException(String message, boolean stackTrace) {
+        super(message, null, false, stackTrace);
+    }
+
+    /**
+     * Cria a exceção sem capturar stack trace, para falhas esperadas e frequentes
+     */
+    public static CupomNotFoundException semStackTrace(String message) {
+        return new CupomNotFoundException(message, false);
+    }
+
+}
@@ -0,0 +1,26 @@
+package com.coupon.cupom.exception;
+
+/**
+ * Corpo de erro da API (RFC 7807, application/problem+json)
+ */
+public record ErroResponse(TipoErro tipo, String detail) {
+
+    public String type() {
+        return tipo.getType();
+    }
+
+    public String title() {
+        return tipo.getTitle();
+    }
+
+    public int status() {
+        return tipo.getStatus().value();
+    }
+
+    /**
+     * Serializa sem reflexão usando o template do tipo
+     */
+    public byte[] toJson() {
+        return tipo.serializar(detail);
+    }
+}
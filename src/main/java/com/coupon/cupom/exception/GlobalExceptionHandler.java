@@ -1,48 +1,79 @@
 package com.coupon.cupom.exception;
 
-import org.springframework.http.HttpStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 
-import java.time.LocalDateTime;
-import java.util.HashMap;
-import java.util.Map;
-
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    private static final Logger log = LoggerFactory.getLogger(GlobalExceptionHandler.class);
+
+    // Corpos das exceções pré-alocadas, serializados uma única vez
+    private static final byte[] CORPO_NAO_ENCONTRADO =
+            TipoErro.CUPOM_NAO_ENCONTRADO.serializar(CupomNotFoundException.NAO_ENCONTRADO.getMessage());
+    private static final byte[] CORPO_NAO_PODE_SER_RESGATADO =
+            TipoErro.CUPOM_INVALIDO.serializar(CupomInvalidoException.NAO_PODE_SER_RESGATADO.getMessage());
+    private static final byte[] CORPO_CONFLITO_CONCORRENTE =
+            TipoErro.CONFLITO_CONCORRENTE.serializar("O cupom foi alterado por outra requisição; tente novamente");
+    private static final byte[] CORPO_ERRO_INTERNO = TipoErro.ERRO_INTERNO.serializar(TipoErro.ERRO_INTERNO.getTitle());
+
     // ❌ Cupom não encontrado (404)
     @ExceptionHandler(CupomNotFoundException.class)
-    public ResponseEntity<Map<String, Object>> handleCupomNotFound(CupomNotFoundException ex) {
-        Map<String, Object> response = new HashMap<>();
-        response.put("timestamp", LocalDateTime.now());
-        response.put("status", HttpStatus.NOT_FOUND.value());
-        response.put("error", "Recurso não encontrado");
-        response.put("message", ex.getMessage());
-        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+    public ResponseEntity<byte[]> handleCupomNotFound(CupomNotFoundException ex) {
+        if (ex == CupomNotFoundException.NAO_ENCONTRADO) {
+            return resposta(TipoErro.CUPOM_NAO_ENCONTRADO, CORPO_NAO_ENCONTRADO);
+        }
+        return resposta(new ErroResponse(TipoErro.CUPOM_NAO_ENCONTRADO, ex.getMessage()));
+    }
+
+    // ❌ Regra de negócio do cupom violada (400)
+    @ExceptionHandler(CupomInvalidoException.class)
+    public ResponseEntity<byte[]> handleCupomInvalido(CupomInvalidoException ex) {
+        if (ex == CupomInvalidoException.NAO_PODE_SER_RESGATADO) {
+            return resposta(TipoErro.CUPOM_INVALIDO, CORPO_NAO_PODE_SER_RESGATADO);
+        }
+        return resposta(new ErroResponse(TipoErro.CUPOM_INVALIDO, ex.getMessage()));
+    }
+
+    // ❌ Transição de estado inválida do cupom ou da campanha (409)
+    @ExceptionHandler(TransicaoInvalidaException.class)
+    public ResponseEntity<byte[]> handleTransicaoInvalida(TransicaoInvalidaException ex) {
+        return resposta(new ErroResponse(TipoErro.TRANSICAO_INVALIDA, ex.getMessage()));
+    }
+
+    // ❌ Cupom alterado por outra transação entre a leitura e a escrita (409)
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<byte[]> handleConflitoConcorrente(OptimisticLockingFailureException ex) {
+        return resposta(TipoErro.CONFLITO_CONCORRENTE, CORPO_CONFLITO_CONCORRENTE);
     }
 
     // ❌ Validação inválida (400)
     @ExceptionHandler(MethodArgumentNotValidException.class)
-    public ResponseEntity<Map<String, Object>> handleValidationError(MethodArgumentNotValidException ex) {
-        Map<String, Object> response = new HashMap<>();
-        response.put("timestamp", LocalDateTime.now());
-        response.put("status", HttpStatus.BAD_REQUEST.value());
-        response.put("error", "Erro de validação");
-        response.put("message", ex.getBindingResult().getAllErrors().get(0).getDefaultMessage());
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+    public ResponseEntity<byte[]> handleValidationError(MethodArgumentNotValidException ex) {
+        return resposta(new ErroResponse(TipoErro.VALIDACAO,
+                ex.getBindingResult().getAllErrors().get(0).getDefaultMessage()));
     }
 
-    // ❌ Erro genérico (500)
+    // ❌ Erro genérico (500): registrado no log, o cliente recebe só a descrição fixa, sem detalhes do servidor
     @ExceptionHandler(Exception.class)
-    public ResponseEntity<Map<String, Object>> handleGeneralError(Exception ex) {
-        Map<String, Object> response = new HashMap<>();
-        response.put("timestamp", LocalDateTime.now());
-        response.put("status", HttpStatus.INTERNAL_SERVER_ERROR.value());
-        response.put("error", "Erro interno do servidor");
-        response.put("message", ex.getMessage());
-        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
-    }
-}
\ No newline at end of file
+    public ResponseEntity<byte[]> handleGeneralError(Exception ex) {
+        log.error("Erro interno ao processar a requisição", ex);
+        return resposta(TipoErro.ERRO_INTERNO, CORPO_ERRO_INTERNO);
+    }
+
+    private static ResponseEntity<byte[]> resposta(ErroResponse erro) {
+        return resposta(erro.tipo(), erro.toJson());
+    }
+
+    private static ResponseEntity<byte[]> resposta(TipoErro tipo, byte[] corpo) {
+        return ResponseEntity.status(tipo.getStatus())
+                .contentType(MediaType.APPLICATION_PROBLEM_JSON)
+                .body(corpo);
+    }
+}
@@ -0,0 +1,93 @@
+package com.coupon.cupom.exception;
+
+import org.springframework.http.HttpStatus;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Tipos de erro da API no formato RFC 7807.
+ * Cada tipo guarda o trecho fixo do JSON já serializado; só o detail é escrito por requisição.
+ */
+public enum TipoErro {
+
+    CUPOM_NAO_ENCONTRADO("/erros/cupom-nao-encontrado", "Recurso não encontrado", HttpStatus.NOT_FOUND),
+    CUPOM_INVALIDO("/erros/cupom-invalido", "Cupom inválido", HttpStatus.BAD_REQUEST),
+    VALIDACAO("/erros/validacao", "Erro de validação", HttpStatus.BAD_REQUEST),
+    TRANSICAO_INVALIDA("/erros/transicao-invalida", "Operação não permitida no estado atual do cupom", HttpStatus.CONFLICT),
+    CONFLITO_CONCORRENTE("/erros/conflito-concorrente", "Cupom alterado por outra requisição", HttpStatus.CONFLICT),
+    CORPO_MUITO_GRANDE("/erros/corpo-muito-grande", "Corpo da requisição muito grande", HttpStatus.CONTENT_TOO_LARGE),
+    MUITAS_REQUISICOES("/erros/muitas-requisicoes", "Muitas requisições", HttpStatus.TOO_MANY_REQUESTS),
+    ERRO_INTERNO("/erros/interno", "Erro interno do servidor", HttpStatus.INTERNAL_SERVER_ERROR);
+
+    private static final byte[] SUFIXO = "\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final String type;
+    private final String title;
+    private final HttpStatus status;
+    private final byte[] prefixo;
+
+    TipoErro(String type, String title, HttpStatus status) {
+        this.type = type;
+        this.title = title;
+        this.status = status;
+        this.prefixo = ("{\"type\":\"" + type + "\",\"title\":\"" + escapar(title)
+                + "\",\"status\":" + status.value() + ",\"detail\":\"").getBytes(StandardCharsets.UTF_8);
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * Serializa o corpo do erro copiando o prefixo pré-computado e escrevendo só o detail
+     */
+    public byte[] serializar(String detail) {
+        byte[] corpo = escapar(detail == null ? "" : detail).getBytes(StandardCharsets.UTF_8);
+        byte[] json = new byte[prefixo.length + corpo.length + SUFIXO.length];
+        System.arraycopy(prefixo, 0, json, 0, prefixo.length);
+        System.arraycopy(corpo, 0, json, prefixo.length, corpo.length);
+        System.arraycopy(SUFIXO, 0, json, prefixo.length + corpo.length, SUFIXO.length);
+        return json;
+    }
+
+    private static String escapar(String valor) {
+        int i = 0;
+        while (i < valor.length()) {
+            char c = valor.charAt(i);
+            if (c == '"' || c == '\\' || c < 0x20) {
+                break;
+            }
+            i++;
+        }
+        if (i == valor.length()) {
+            return valor;
+        }
+        StringBuilder sb = new StringBuilder(valor.length() + 16).append(valor, 0, i);
+        for (; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,13 @@
+package com.coupon.cupom.exception;
+
+/**
+ * Operação não permitida no estado atual do cupom ou da campanha (publicar o que já foi publicado,
+ * resgatar o que foi deletado, alterar um cupom arquivado...). Estende IllegalStateException, o contrato
+ * que o serviço já expunha para essas falhas.
+ */
+public class TransicaoInvalidaException extends IllegalStateException {
+
+    public TransicaoInvalidaException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,183 @@
+package com.coupon.cupom.grpc;
+
+import com.coupon.cupom.exception.TipoErro;
+import com.coupon.cupom.grpc.v1.BuscarEmLoteRequest;
+import com.coupon.cupom.grpc.v1.BuscarEmLoteResponse;
+import com.coupon.cupom.grpc.v1.Cupom;
+import com.coupon.cupom.grpc.v1.CuponsGrpc;
+import com.coupon.cupom.grpc.v1.OperacaoRequest;
+import com.coupon.cupom.grpc.v1.OperacaoResultado;
+import com.coupon.cupom.grpc.v1.ReferenciaCupom;
+import com.coupon.cupom.grpc.v1.Status;
+import com.coupon.cupom.mapper.CupomMapper;
+import com.coupon.cupom.ratelimit.RateLimitInterceptor;
+import com.coupon.cupom.request.CupomResponse;
+import com.coupon.cupom.service.CupomService;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.grpc.server.service.GrpcService;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * Serviço gRPC de busca e resgate, ao lado da API REST e delegando ao mesmo {@link CupomService}.
+ * Clientes de alto volume mantêm uma conexão HTTP/2 e multiplexam chamadas ou streams sobre ela.
+ */
+@GrpcService
+public class CuponsGrpcService extends CuponsGrpc.CuponsImplBase {
+
+    /**
+     * Mesmo limite do POST /coupon/lookup
+     */
+    static final int MAX_POR_LOTE = 500;
+
+    private final CupomService service;
+    private final CupomMapper mapper;
+    private final RateLimitInterceptor limite;
+
+    /**
+     * @param limite ausente quando o rate limit está desligado
+     */
+    public CuponsGrpcService(CupomService service, CupomMapper mapper, ObjectProvider<RateLimitInterceptor> limite) {
+        this.service = service;
+        this.mapper = mapper;
+        this.limite = limite.getIfAvailable();
+    }
+
+    @Override
+    public void buscar(ReferenciaCupom request, StreamObserver<Cupom> respostas) {
+        responder(respostas, buscar(request));
+    }
+
+    @Override
+    public void buscarEmLote(BuscarEmLoteRequest request, StreamObserver<BuscarEmLoteResponse> respostas) {
+        if (request.getIdsCount() > MAX_POR_LOTE || request.getCodesCount() > MAX_POR_LOTE) {
+            throw new IllegalArgumentException("Podem ser buscados no máximo " + MAX_POR_LOTE + " IDs e "
+                    + MAX_POR_LOTE + " códigos por requisição");
+        }
+        List<UUID> ids = request.getIdsList().stream().map(UUID::fromString).toList();
+        BuscarEmLoteResponse.Builder resposta = BuscarEmLoteResponse.newBuilder();
+        for (CupomResponse cupom : service.buscarEmLote(ids, request.getCodesList())) {
+            resposta.addCupons(paraMensagem(cupom));
+        }
+        responder(respostas, resposta.build());
+    }
+
+    @Override
+    public void resgatar(ReferenciaCupom request, StreamObserver<Cupom> respostas) {
+        responder(respostas, resgatar(request));
+    }
+
+    @Override
+    public StreamObserver<OperacaoRequest> buscarStream(StreamObserver<OperacaoResultado> respostas) {
+        return processarEmSequencia(respostas, this::buscar);
+    }
+
+    @Override
+    public StreamObserver<OperacaoRequest> resgatarStream(StreamObserver<OperacaoResultado> respostas) {
+        return processarEmSequencia(respostas, this::resgatar);
+    }
+
+    private Cupom buscar(ReferenciaCupom referencia) {
+        return paraMensagem(switch (referencia.getAlvoCase()) {
+            case ID -> service.consultarPorId(UUID.fromString(referencia.getId()));
+            case CODE -> service.consultarPorCode(referencia.getCode());
+            case ALVO_NOT_SET -> throw new IllegalArgumentException("Informe o ID ou o código do cupom");
+        });
+    }
+
+    private Cupom resgatar(ReferenciaCupom referencia) {
+        return paraMensagem(mapper.toResponse(switch (referencia.getAlvoCase()) {
+            case ID -> service.resgatarCupom(UUID.fromString(referencia.getId()));
+            case CODE -> service.resgatarPorCode(referencia.getCode());
+            case ALVO_NOT_SET -> throw new IllegalArgumentException("Informe o ID ou o código do cupom");
+        }));
+    }
+
+    /**
+     * Processa as requisições de uma stream uma por vez, na ordem de chegada. A próxima só é
+     * pedida ao cliente quando a resposta anterior cabe no buffer de saída, então um cliente
+     * que não lê os resultados não acumula respostas na memória do servidor.
+     * Cada mensagem passa pelo rate limit do cliente; acima dele o resultado sai com erro MUITAS_REQUISICOES.
+     */
+    private StreamObserver<OperacaoRequest> processarEmSequencia(StreamObserver<OperacaoResultado> respostas,
+                                                                 Function<ReferenciaCupom, Cupom> operacao) {
+        ServerCallStreamObserver<OperacaoResultado> saida = (ServerCallStreamObserver<OperacaoResultado>) respostas;
+        String cliente = EnderecoRemotoInterceptor.atual();
+        AtomicBoolean aguardandoSaida = new AtomicBoolean();
+        saida.disableAutoRequest();
+        saida.setOnReadyHandler(() -> pedirProxima(saida, aguardandoSaida));
+        saida.request(1);
+
+        return new StreamObserver<>() {
+            @Override
+            public void onNext(OperacaoRequest request) {
+                OperacaoResultado.Builder resultado = OperacaoResultado.newBuilder()
+                        .setCorrelacao(request.getCorrelacao());
+                if (limite != null && !limite.permitir(cliente)) {
+                    resultado.setErro(GrpcErros.erro(TipoErro.MUITAS_REQUISICOES, RateLimitInterceptor.MENSAGEM));
+                } else {
+                    try {
+                        resultado.setCupom(operacao.apply(request.getCupom()));
+                    } catch (RuntimeException ex) {
+                        resultado.setErro(GrpcErros.paraErro(ex));
+                    }
+                }
+                saida.onNext(resultado.build());
+                if (saida.isReady()) {
+                    saida.request(1);
+                } else {
+                    aguardandoSaida.set(true);
+                    // O buffer pode ter esvaziado antes da flag ser marcada
+                    pedirProxima(saida, aguardandoSaida);
+                }
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                // Cliente cancelou a stream; não há a quem responder
+            }
+
+            @Override
+            public void onCompleted() {
+                saida.onCompleted();
+            }
+        };
+    }
+
+    private static void pedirProxima(ServerCallStreamObserver<?> saida, AtomicBoolean aguardandoSaida) {
+        if (saida.isReady() && aguardandoSaida.compareAndSet(true, false)) {
+            saida.request(1);
+        }
+    }
+
+    private static <T> void responder(StreamObserver<T> respostas, T resposta) {
+        respostas.onNext(resposta);
+        respostas.onCompleted();
+    }
+
+    static Cupom paraMensagem(CupomResponse cupom) {
+        Cupom.Builder mensagem = Cupom.newBuilder()
+                .setId(cupom.getId().toString())
+                .setCode(cupom.getCode())
+                .setPublished(cupom.isPublished())
+                .setRedeemed(cupom.isRedeemed());
+        if (cupom.getDescription() != null) {
+            mensagem.setDescription(cupom.getDescription());
+        }
+        if (cupom.getDiscountValue() != null) {
+            mensagem.setDiscountValue(cupom.getDiscountValue().toPlainString());
+        }
+        if (cupom.getExpirationDate() != null) {
+            mensagem.setExpirationDate(cupom.getExpirationDate().toString());
+        }
+        if (cupom.getStatus() != null) {
+            mensagem.setStatus(Status.valueOf(cupom.getStatus().name()));
+        }
+        return mensagem.build();
+    }
+}
@@ -0,0 +1,45 @@
+package com.coupon.cupom.grpc;
+
+import io.grpc.Context;
+import io.grpc.Contexts;
+import io.grpc.Grpc;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+
+/**
+ * Guarda o endereço remoto da chamada no {@link Context} do gRPC, onde o serviço e quem ele chama
+ * (rate limit por mensagem, auditoria) o encontram, inclusive a cada mensagem de uma stream
+ */
+public class EnderecoRemotoInterceptor implements ServerInterceptor {
+
+    private static final Context.Key<String> ENDERECO = Context.key("cupom-endereco-remoto");
+
+    @Override
+    public <Q, R> ServerCall.Listener<Q> interceptCall(ServerCall<Q, R> call, Metadata headers,
+                                                       ServerCallHandler<Q, R> next) {
+        return Contexts.interceptCall(Context.current().withValue(ENDERECO, de(call)), call, headers, next);
+    }
+
+    /**
+     * @return endereço remoto da chamada gRPC em andamento, ou null fora de uma chamada
+     */
+    public static String atual() {
+        return ENDERECO.get();
+    }
+
+    /**
+     * IP do cliente, sem a porta
+     */
+    public static String de(ServerCall<?, ?> call) {
+        SocketAddress endereco = call.getAttributes().get(Grpc.TRANSPORT_ATTR_REMOTE_ADDR);
+        if (endereco instanceof InetSocketAddress inet && inet.getAddress() != null) {
+            return inet.getAddress().getHostAddress();
+        }
+        return String.valueOf(endereco);
+    }
+}
@@ -0,0 +1,43 @@
+package com.coupon.cupom.grpc;
+
+import io.grpc.ServerBuilder;
+import jakarta.annotation.PreDestroy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.grpc.server.GlobalServerInterceptor;
+import org.springframework.grpc.server.ServerBuilderCustomizer;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Configuration
+public class GrpcConfig {
+
+    /**
+     * Não é exposto como bean: um {@code Executor} no contexto desligaria o executor padrão do Spring
+     */
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * As chamadas bloqueiam no banco; com threads virtuais o servidor não limita
+     * o número de chamadas em andamento ao tamanho de um pool
+     */
+    @Bean
+    public <T extends ServerBuilder<T>> ServerBuilderCustomizer<T> executorThreadsVirtuais() {
+        return builder -> builder.executor(executor);
+    }
+
+    @Bean
+    @GlobalServerInterceptor
+    public EnderecoRemotoInterceptor enderecoRemotoInterceptor() {
+        return new EnderecoRemotoInterceptor();
+    }
+
+    /**
+     * O servidor gRPC é um lifecycle e já parou, esperando as chamadas em andamento, antes deste callback
+     */
+    @PreDestroy
+    void encerrar() {
+        executor.shutdownNow();
+    }
+}
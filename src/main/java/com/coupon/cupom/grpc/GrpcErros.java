@@ -0,0 +1,80 @@
+package com.coupon.cupom.grpc;
+
+import com.coupon.cupom.exception.CupomInvalidoException;
+import com.coupon.cupom.exception.CupomNotFoundException;
+import com.coupon.cupom.exception.TipoErro;
+import com.coupon.cupom.exception.TransicaoInvalidaException;
+import com.coupon.cupom.grpc.v1.Erro;
+import io.grpc.Status;
+import io.grpc.StatusException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.grpc.server.exception.GrpcExceptionHandler;
+import org.springframework.stereotype.Component;
+
+/**
+ * Traduz as exceções do domínio para status gRPC, com a mesma classificação
+ * do {@link com.coupon.cupom.exception.GlobalExceptionHandler}
+ */
+@Component
+public class GrpcErros implements GrpcExceptionHandler {
+
+    private static final Logger log = LoggerFactory.getLogger(GrpcErros.class);
+
+    @Override
+    public StatusException handleException(Throwable ex) {
+        TipoErro tipo = classificar(ex);
+        return codigo(tipo).withDescription(mensagem(tipo, ex)).asException();
+    }
+
+    /**
+     * Erro embutido no resultado das streams, que seguem abertas após uma falha
+     */
+    static Erro paraErro(Throwable ex) {
+        TipoErro tipo = classificar(ex);
+        return erro(tipo, mensagem(tipo, ex));
+    }
+
+    static Erro erro(TipoErro tipo, String mensagem) {
+        return Erro.newBuilder()
+                .setTipo(tipo.getType())
+                .setMensagem(mensagem)
+                .build();
+    }
+
+    /**
+     * Só as falhas do domínio levam a mensagem da exceção ao cliente; um erro interno é registrado no log
+     * e responde com a descrição fixa do tipo, sem detalhes do servidor
+     */
+    private static String mensagem(TipoErro tipo, Throwable ex) {
+        if (tipo == TipoErro.ERRO_INTERNO) {
+            log.error("Erro interno em chamada gRPC", ex);
+            return tipo.getTitle();
+        }
+        return ex.getMessage() == null ? "" : ex.getMessage();
+    }
+
+    static TipoErro classificar(Throwable ex) {
+        return switch (ex) {
+            case CupomNotFoundException e -> TipoErro.CUPOM_NAO_ENCONTRADO;
+            case CupomInvalidoException e -> TipoErro.CUPOM_INVALIDO;
+            case OptimisticLockingFailureException e -> TipoErro.CONFLITO_CONCORRENTE;
+            case TransicaoInvalidaException e -> TipoErro.TRANSICAO_INVALIDA;
+            case IllegalArgumentException e -> TipoErro.VALIDACAO;
+            default -> TipoErro.ERRO_INTERNO;
+        };
+    }
+
+    static Status codigo(TipoErro tipo) {
+        return switch (tipo) {
+            case CUPOM_NAO_ENCONTRADO -> Status.NOT_FOUND;
+            case CUPOM_INVALIDO, VALIDACAO -> Status.INVALID_ARGUMENT;
+            case TRANSICAO_INVALIDA -> Status.FAILED_PRECONDITION;
+            // Repetir a operação pode dar certo
+            case CONFLITO_CONCORRENTE -> Status.ABORTED;
+            case CORPO_MUITO_GRANDE, MUITAS_REQUISICOES -> Status.RESOURCE_EXHAUSTED;
+            case ERRO_INTERNO -> Status.INTERNAL;
+        };
+    }
+}
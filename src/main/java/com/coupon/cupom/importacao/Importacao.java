@@ -0,0 +1,141 @@
+package com.coupon.cupom.importacao;
+
+import com.coupon.cupom.request.ImportacaoResponse;
+import com.coupon.cupom.request.ImportacaoResponse.Erro;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Estado de uma importação. Só a thread da importação escreve; as consultas leem a qualquer momento.
+ */
+public class Importacao {
+
+    public enum Formato {
+        CSV, NDJSON;
+
+        /**
+         * Deduz o formato pela extensão do arquivo; CSV se não for .ndjson nem .jsonl
+         */
+        public static Formato doArquivo(String nome) {
+            String minusculo = nome == null ? "" : nome.toLowerCase(Locale.ROOT);
+            return minusculo.endsWith(".ndjson") || minusculo.endsWith(".jsonl") ? NDJSON : CSV;
+        }
+    }
+
+    public enum Status {
+        AGUARDANDO, PROCESSANDO, CONCLUIDA, FALHOU
+    }
+
+    /**
+     * Erros devolvidos junto com o andamento
+     */
+    static final int ERROS_NO_ANDAMENTO = 20;
+
+    private final UUID id = UUID.randomUUID();
+    private final String arquivo;
+    private final Path caminho;
+    private final boolean temporario;
+    private final Formato formato;
+    private final LocalDateTime criadaEm;
+    private final int maxErros;
+    private final AtomicLong linhasLidas = new AtomicLong();
+    private final AtomicLong importadas = new AtomicLong();
+    private final AtomicLong rejeitadas = new AtomicLong();
+    private final List<Erro> erros = new ArrayList<>();
+    private volatile Status status = Status.AGUARDANDO;
+    private volatile LocalDateTime iniciadaEm;
+    private volatile LocalDateTime concluidaEm;
+    private volatile String falha;
+
+    Importacao(String arquivo, Path caminho, boolean temporario, Formato formato, LocalDateTime criadaEm, int maxErros) {
+        this.arquivo = arquivo;
+        this.caminho = caminho;
+        this.temporario = temporario;
+        this.formato = formato;
+        this.criadaEm = criadaEm;
+        this.maxErros = maxErros;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    Path getCaminho() {
+        return caminho;
+    }
+
+    boolean isTemporario() {
+        return temporario;
+    }
+
+    Formato getFormato() {
+        return formato;
+    }
+
+    /**
+     * @return instante de conclusão ou null se ainda não terminou
+     */
+    LocalDateTime getConcluidaEm() {
+        return concluidaEm;
+    }
+
+    void iniciar(LocalDateTime agora) {
+        iniciadaEm = agora;
+        status = Status.PROCESSANDO;
+    }
+
+    void concluir(LocalDateTime agora) {
+        concluidaEm = agora;
+        status = Status.CONCLUIDA;
+    }
+
+    void falhar(String motivo, LocalDateTime agora) {
+        falha = motivo;
+        concluidaEm = agora;
+        status = Status.FALHOU;
+    }
+
+    void lidas(int quantidade) {
+        linhasLidas.addAndGet(quantidade);
+    }
+
+    void importadas(int quantidade) {
+        importadas.addAndGet(quantidade);
+    }
+
+    /**
+     * Conta a linha rejeitada; o motivo só é guardado até o limite de erros
+     */
+    void rejeitar(Erro erro) {
+        rejeitadas.incrementAndGet();
+        synchronized (erros) {
+            if (erros.size() < maxErros) {
+                erros.add(erro);
+            }
+        }
+    }
+
+    /**
+     * Erros guardados, em ordem de linha
+     */
+    public List<Erro> erros() {
+        synchronized (erros) {
+            return List.copyOf(erros);
+        }
+    }
+
+    public ImportacaoResponse andamento() {
+        List<Erro> primeiros;
+        synchronized (erros) {
+            primeiros = List.copyOf(erros.subList(0, Math.min(ERROS_NO_ANDAMENTO, erros.size())));
+        }
+        return new ImportacaoResponse(id, arquivo, formato, status, criadaEm, iniciadaEm, concluidaEm,
+                linhasLidas.get(), importadas.get(), rejeitadas.get(), falha, primeiros);
+    }
+}
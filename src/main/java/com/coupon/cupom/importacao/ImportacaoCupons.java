@@ -0,0 +1,397 @@
+package com.coupon.cupom.importacao;
+
+import com.coupon.cupom.auditoria.AuditoriaCupons;
+import com.coupon.cupom.cache.NegativeLookupCache;
+import com.coupon.cupom.entity.Cupom;
+import com.coupon.cupom.entity.EstadoCupom;
+import com.coupon.cupom.event.CupomAlteradoEvent;
+import com.coupon.cupom.event.CupomAlteradoEvent.Operacao;
+import com.coupon.cupom.exception.CupomInvalidoException;
+import com.coupon.cupom.index.IndiceCodigos;
+import com.coupon.cupom.index.IntLongHashMap;
+import com.coupon.cupom.request.CreateCupomRequest;
+import com.coupon.cupom.request.ImportacaoResponse.Erro;
+import com.coupon.cupom.tempo.Relogio;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Importação de cupons a partir de arquivos CSV ou NDJSON. O arquivo é lido em lotes sem ser carregado
+ * na memória; cada lote é validado em paralelo com as mesmas regras do POST /coupon (restrições de
+ * {@link CreateCupomRequest} e {@link Cupom#criar}) e gravado com um INSERT em lote, na sua própria transação.
+ * No máximo {@code lotesEmVoo} lotes ficam lidos e não gravados, então um arquivo grande não esgota a memória.
+ * O andamento fica na memória da instância que recebeu o arquivo.
+ */
+@Component
+@EnableConfigurationProperties(ImportacaoProperties.class)
+public class ImportacaoCupons {
+
+    private static final Logger log = LoggerFactory.getLogger(ImportacaoCupons.class);
+
+    private static final String CODIGOS_EM_USO = """
+            SELECT code FROM cupons WHERE code IN (:codes)
+            UNION ALL
+            SELECT code FROM campanha_codigos WHERE code IN (:codes)
+            UNION ALL
+            SELECT code FROM cupons_arquivados WHERE code IN (:codes)
+            """;
+    private static final String INSERT = """
+            INSERT INTO cupons (id, code, description, discount_value, expiration_date, status, published,
+                                redeemed, created_at, updated_at, version)
+            VALUES (?, ?, ?, ?, ?, ?, ?, FALSE, ?, ?, 0)
+            """;
+
+    /**
+     * Linha validada: com o cupom pronto para inserir ou com o motivo da rejeição
+     * @param code código como veio no arquivo
+     */
+    private record Validada(long numero, String code, Cupom cupom, String erro) {
+    }
+
+    private record Lote(int lidas, List<Validada> linhas) {
+    }
+
+    private final Map<UUID, Importacao> importacoes = new ConcurrentHashMap<>();
+    private final ImportacaoProperties properties;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transacao;
+    private final Validator validator;
+    private final JsonMapper json;
+    private final ApplicationEventPublisher eventos;
+    private final AuditoriaCupons auditoria;
+    private final NegativeLookupCache cacheNegativo;
+    private final Relogio relogio;
+    private final ExecutorService execucao;
+    private final ExecutorService validacao;
+    private final Counter importadas;
+    private final Counter rejeitadas;
+
+    public ImportacaoCupons(ImportacaoProperties properties, NamedParameterJdbcTemplate jdbcTemplate,
+                            PlatformTransactionManager transactionManager, Validator validator, JsonMapper json,
+                            ApplicationEventPublisher eventos, AuditoriaCupons auditoria,
+                            NegativeLookupCache cacheNegativo, Relogio relogio, MeterRegistry registry) {
+        this.properties = properties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transacao = new TransactionTemplate(transactionManager);
+        this.validator = validator;
+        this.json = json;
+        this.eventos = eventos;
+        this.auditoria = auditoria;
+        this.cacheNegativo = cacheNegativo;
+        this.relogio = relogio;
+        int paralelismo = properties.paralelismo() > 0
+                ? properties.paralelismo() : Runtime.getRuntime().availableProcessors();
+        this.execucao = Executors.newFixedThreadPool(properties.maxSimultaneas(),
+                Thread.ofPlatform().daemon().name("importacao-", 0).factory());
+        this.validacao = Executors.newFixedThreadPool(paralelismo,
+                Thread.ofPlatform().daemon().name("importacao-validacao-", 0).factory());
+        this.importadas = registry.counter("cupom.importacao.linhas", "resultado", "importada");
+        this.rejeitadas = registry.counter("cupom.importacao.linhas", "resultado", "rejeitada");
+    }
+
+    /**
+     * Copia o arquivo enviado para um arquivo temporário e agenda a importação
+     * @param nome nome original do arquivo
+     * @param formato formato; null deduz pela extensão
+     */
+    public Importacao importar(InputStream conteudo, String nome, Importacao.Formato formato) throws IOException {
+        Path temporario = Files.createTempFile("importacao-", ".tmp");
+        try (conteudo) {
+            Files.copy(conteudo, temporario, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            Files.deleteIfExists(temporario);
+            throw e;
+        }
+        return agendar(nome, temporario, true, formato);
+    }
+
+    /**
+     * Agenda a importação de um arquivo do diretório configurado em cupom.importacao.diretorio
+     * @param caminho caminho relativo ao diretório
+     * @throws CupomInvalidoException se a importação local estiver desligada ou o arquivo não estiver no diretório
+     */
+    public Importacao importarLocal(String caminho, Importacao.Formato formato) {
+        if (properties.diretorio().isBlank()) {
+            throw new CupomInvalidoException("Importação de arquivos locais desabilitada");
+        }
+        Path base = Path.of(properties.diretorio()).toAbsolutePath().normalize();
+        Path arquivo = base.resolve(caminho).normalize();
+        if (!arquivo.startsWith(base) || !Files.isRegularFile(arquivo)) {
+            throw new CupomInvalidoException("Arquivo não encontrado no diretório de importação: " + caminho);
+        }
+        return agendar(base.relativize(arquivo).toString(), arquivo, false, formato);
+    }
+
+    public Optional<Importacao> buscar(UUID id) {
+        return Optional.ofNullable(importacoes.get(id));
+    }
+
+    private Importacao agendar(String nome, Path caminho, boolean temporario, Importacao.Formato formato) {
+        removerExpiradas();
+        Importacao importacao = new Importacao(nome, caminho, temporario,
+                formato != null ? formato : Importacao.Formato.doArquivo(nome), relogio.agora(), properties.maxErros());
+        importacoes.put(importacao.getId(), importacao);
+        execucao.execute(() -> executar(importacao));
+        return importacao;
+    }
+
+    private void removerExpiradas() {
+        LocalDateTime limite = relogio.agora().minus(properties.retencao());
+        importacoes.values().removeIf(i -> i.getConcluidaEm() != null && i.getConcluidaEm().isBefore(limite));
+    }
+
+    private void executar(Importacao importacao) {
+        importacao.iniciar(relogio.agora());
+        try (BufferedReader arquivo = Files.newBufferedReader(importacao.getCaminho(), StandardCharsets.UTF_8)) {
+            LeitorImportacao leitor = switch (importacao.getFormato()) {
+                case CSV -> new LeitorCsv(arquivo);
+                case NDJSON -> new LeitorNdjson(arquivo, json);
+            };
+            processar(importacao, leitor);
+            importacao.concluir(relogio.agora());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            importacao.falhar("Importação interrompida", relogio.agora());
+        } catch (IOException | IllegalArgumentException e) {
+            importacao.falhar(e.getMessage(), relogio.agora());
+        } catch (RuntimeException | ExecutionException e) {
+            log.error("Falha na importação {}", importacao.getId(), e);
+            importacao.falhar("Erro inesperado; as linhas já contadas como importadas foram gravadas",
+                    relogio.agora());
+        } finally {
+            if (importacao.isTemporario()) {
+                try {
+                    Files.deleteIfExists(importacao.getCaminho());
+                } catch (IOException e) {
+                    log.warn("Não foi possível remover o arquivo temporário {}", importacao.getCaminho());
+                }
+            }
+        }
+    }
+
+    /**
+     * Lê lotes e os envia para validação; quando há {@code lotesEmVoo} lotes pendentes, grava o mais antigo
+     * antes de ler o próximo. Os lotes são gravados na ordem do arquivo.
+     */
+    private void processar(Importacao importacao, LeitorImportacao leitor)
+            throws IOException, InterruptedException, ExecutionException {
+        IntLongHashMap vistos = new IntLongHashMap(properties.tamanhoLote() * 2);
+        Deque<Future<Lote>> emVoo = new ArrayDeque<>(properties.lotesEmVoo());
+        while (true) {
+            List<Linha> linhas = new ArrayList<>(properties.tamanhoLote());
+            Linha linha;
+            while (linhas.size() < properties.tamanhoLote() && (linha = leitor.proxima()) != null) {
+                linhas.add(linha);
+            }
+            if (!linhas.isEmpty()) {
+                emVoo.addLast(validacao.submit(() -> validar(linhas)));
+            }
+            boolean fim = linhas.size() < properties.tamanhoLote();
+            while (!emVoo.isEmpty() && (fim || emVoo.size() >= properties.lotesEmVoo())) {
+                gravar(importacao, emVoo.removeFirst().get(), vistos);
+            }
+            if (fim) {
+                return;
+            }
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+    }
+
+    private Lote validar(List<Linha> linhas) {
+        LocalDateTime agora = relogio.agora();
+        List<Validada> validadas = new ArrayList<>(linhas.size());
+        for (Linha linha : linhas) {
+            validadas.add(validar(linha, agora));
+        }
+        return new Lote(linhas.size(), validadas);
+    }
+
+    private Validada validar(Linha linha, LocalDateTime agora) {
+        CreateCupomRequest request = linha.request();
+        if (request == null) {
+            return new Validada(linha.numero(), null, null, linha.erro());
+        }
+        Set<ConstraintViolation<CreateCupomRequest>> violacoes = validator.validate(request);
+        if (!violacoes.isEmpty()) {
+            String motivo = String.join("; ", violacoes.stream().map(ConstraintViolation::getMessage).sorted().toList());
+            return new Validada(linha.numero(), request.getCode(), null, motivo);
+        }
+        try {
+            Cupom cupom = Cupom.criar(request.getCode(), request.getDescription(), request.getDiscountValue(),
+                    request.getExpirationDate(), request.isPublished(), agora);
+            return new Validada(linha.numero(), request.getCode(), cupom, null);
+        } catch (CupomInvalidoException e) {
+            return new Validada(linha.numero(), request.getCode(), null, e.getMessage());
+        }
+    }
+
+    /**
+     * Descarta códigos repetidos no arquivo ou já existentes e insere o restante do lote.
+     * As rejeições do lote são registradas em ordem de linha.
+     * @param vistos códigos já aceitos nesta importação, codificados, com a linha onde apareceram
+     */
+    private void gravar(Importacao importacao, Lote lote, IntLongHashMap vistos) {
+        importacao.lidas(lote.lidas());
+        List<Erro> rejeicoes = new ArrayList<>();
+        try {
+            List<Validada> novas = filtrar(lote, vistos, rejeicoes);
+            if (novas.isEmpty()) {
+                return;
+            }
+            try {
+                inserir(novas);
+                importacao.importadas(novas.size());
+                importadas.increment(novas.size());
+            } catch (DataIntegrityViolationException e) {
+                // Algum código foi criado por outra requisição depois da verificação; insere um por vez
+                for (Validada linha : novas) {
+                    try {
+                        inserir(List.of(linha));
+                        importacao.importadas(1);
+                        importadas.increment();
+                    } catch (DataIntegrityViolationException duplicado) {
+                        rejeicoes.add(erro(linha, jaExiste(linha)));
+                    }
+                }
+            }
+        } finally {
+            rejeicoes.sort(Comparator.comparingLong(Erro::linha));
+            rejeicoes.forEach(importacao::rejeitar);
+            rejeitadas.increment(rejeicoes.size());
+        }
+    }
+
+    /**
+     * @return linhas válidas cujo código ainda não existe
+     */
+    private List<Validada> filtrar(Lote lote, IntLongHashMap vistos, List<Erro> rejeicoes) {
+        List<Validada> candidatas = new ArrayList<>(lote.linhas().size());
+        for (Validada linha : lote.linhas()) {
+            if (linha.cupom() == null) {
+                rejeicoes.add(erro(linha, linha.erro()));
+                continue;
+            }
+            int chave = IndiceCodigos.codificar(linha.cupom().getCode());
+            long anterior = vistos.get(chave);
+            if (anterior != IntLongHashMap.AUSENTE) {
+                rejeicoes.add(erro(linha, "Código repetido no arquivo (linha " + anterior + ")"));
+                continue;
+            }
+            vistos.put(chave, linha.numero());
+            candidatas.add(linha);
+        }
+        if (candidatas.isEmpty()) {
+            return candidatas;
+        }
+
+        Set<String> codes = new HashSet<>(candidatas.size() * 2);
+        candidatas.forEach(linha -> codes.add(linha.cupom().getCode()));
+        Set<String> emUso = new HashSet<>(
+                jdbcTemplate.queryForList(CODIGOS_EM_USO, Map.of("codes", codes), String.class));
+        List<Validada> novas = new ArrayList<>(candidatas.size());
+        for (Validada linha : candidatas) {
+            if (emUso.contains(linha.cupom().getCode())) {
+                rejeicoes.add(erro(linha, jaExiste(linha)));
+            } else {
+                novas.add(linha);
+            }
+        }
+        return novas;
+    }
+
+    private void inserir(List<Validada> linhas) {
+        transacao.executeWithoutResult(status -> {
+            LocalDateTime agora = relogio.agora();
+            Timestamp instante = Timestamp.valueOf(agora);
+            List<UUID> ids = new ArrayList<>(linhas.size());
+            linhas.forEach(linha -> ids.add(UUID.randomUUID()));
+            jdbcTemplate.getJdbcTemplate().batchUpdate(INSERT, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    Cupom cupom = linhas.get(i).cupom();
+                    ps.setObject(1, ids.get(i));
+                    ps.setString(2, cupom.getCode());
+                    ps.setString(3, cupom.getDescription());
+                    ps.setBigDecimal(4, cupom.getDiscountValue());
+                    ps.setTimestamp(5, Timestamp.valueOf(cupom.getExpirationDate()));
+                    ps.setString(6, cupom.getStatus().name());
+                    ps.setBoolean(7, cupom.isPublished());
+                    ps.setTimestamp(8, instante);
+                    ps.setTimestamp(9, instante);
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return linhas.size();
+                }
+            });
+            Object[] codes = new Object[linhas.size()];
+            for (int i = 0; i < linhas.size(); i++) {
+                EstadoCupom estado = linhas.get(i).cupom().estado();
+                codes[i] = estado.code();
+                eventos.publishEvent(CupomAlteradoEvent.de(Operacao.CRIADO, ids.get(i), estado, 0));
+                auditoria.registrar(Operacao.CRIADO, ids.get(i), null, estado);
+            }
+            cacheNegativo.invalidar(codes);
+        });
+    }
+
+    private static Erro erro(Validada linha, String motivo) {
+        return new Erro(linha.numero(), linha.code(), motivo);
+    }
+
+    private static String jaExiste(Validada linha) {
+        return "Cupom com código " + linha.cupom().getCode() + " já existe";
+    }
+
+    @PreDestroy
+    public void encerrar() throws InterruptedException {
+        execucao.shutdownNow();
+        validacao.shutdownNow();
+        execucao.awaitTermination(5, TimeUnit.SECONDS);
+    }
+}
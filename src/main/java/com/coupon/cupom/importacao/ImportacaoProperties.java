@@ -0,0 +1,28 @@
+package com.coupon.cupom.importacao;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuração da importação de cupons (prefixo cupom.importacao)
+ * @param tamanhoLote linhas validadas e inseridas por lote
+ * @param paralelismo threads de validação; 0 usa a quantidade de processadores
+ * @param lotesEmVoo lotes lidos e ainda não gravados por importação; limita a memória usada
+ * @param maxErros erros guardados por importação para o relatório; os demais só são contados
+ * @param maxSimultaneas importações processadas ao mesmo tempo; as demais aguardam
+ * @param diretorio diretório do servidor de onde arquivos locais podem ser importados; vazio desliga
+ * @param retencao por quanto tempo uma importação concluída continua consultável
+ */
+@ConfigurationProperties(prefix = "cupom.importacao")
+public record ImportacaoProperties(
+        @DefaultValue("1000") int tamanhoLote,
+        @DefaultValue("0") int paralelismo,
+        @DefaultValue("8") int lotesEmVoo,
+        @DefaultValue("10000") int maxErros,
+        @DefaultValue("2") int maxSimultaneas,
+        @DefaultValue("") String diretorio,
+        @DefaultValue("1h") Duration retencao
+) {
+}
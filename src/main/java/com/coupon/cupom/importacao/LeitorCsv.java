@@ -0,0 +1,128 @@
+package com.coupon.cupom.importacao;
+
+import com.coupon.cupom.request.CreateCupomRequest;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * CSV com cabeçalho (code, description, discountValue, expirationDate e, opcionalmente, published),
+ * separado por vírgula, com campos entre aspas quando necessário. Um registro ocupa uma única linha.
+ */
+class LeitorCsv implements LeitorImportacao {
+
+    private static final List<String> OBRIGATORIAS = List.of("code", "description", "discountvalue", "expirationdate");
+
+    private final BufferedReader leitor;
+    private final Map<String, Integer> colunas = new HashMap<>();
+    private long numero;
+
+    LeitorCsv(BufferedReader leitor) throws IOException {
+        this.leitor = leitor;
+        String cabecalho = leitor.readLine();
+        numero = 1;
+        if (cabecalho == null) {
+            throw new IllegalArgumentException("Arquivo vazio");
+        }
+        if (cabecalho.startsWith("﻿")) {
+            cabecalho = cabecalho.substring(1);
+        }
+        List<String> nomes = campos(cabecalho);
+        for (int i = 0; i < nomes.size(); i++) {
+            colunas.put(nomes.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String obrigatoria : OBRIGATORIAS) {
+            if (!colunas.containsKey(obrigatoria)) {
+                throw new IllegalArgumentException("Coluna obrigatória ausente no cabeçalho: " + obrigatoria);
+            }
+        }
+    }
+
+    @Override
+    public Linha proxima() throws IOException {
+        String texto;
+        do {
+            texto = leitor.readLine();
+            numero++;
+            if (texto == null) {
+                return null;
+            }
+        } while (texto.isBlank());
+
+        List<String> campos = campos(texto);
+        if (campos == null) {
+            return Linha.invalida(numero, "Aspas não fechadas");
+        }
+        CreateCupomRequest request = new CreateCupomRequest();
+        request.setCode(campo(campos, "code"));
+        request.setDescription(campo(campos, "description"));
+        try {
+            String desconto = campo(campos, "discountvalue");
+            request.setDiscountValue(desconto == null ? null : new BigDecimal(desconto.trim()));
+        } catch (NumberFormatException e) {
+            return Linha.invalida(numero, "Valor de desconto inválido");
+        }
+        try {
+            String expiracao = campo(campos, "expirationdate");
+            request.setExpirationDate(expiracao == null ? null : LocalDateTime.parse(expiracao.trim()));
+        } catch (DateTimeParseException e) {
+            return Linha.invalida(numero, "Data de expiração inválida (use o formato 2026-12-31T23:59:59)");
+        }
+        String published = campo(campos, "published");
+        request.setPublished(published != null
+                && (published.trim().equalsIgnoreCase("true") || published.trim().equals("1")));
+        return new Linha(numero, request, null);
+    }
+
+    private String campo(List<String> campos, String nome) {
+        Integer indice = colunas.get(nome);
+        if (indice == null || indice >= campos.size()) {
+            return null;
+        }
+        String valor = campos.get(indice);
+        return valor.isEmpty() ? null : valor;
+    }
+
+    /**
+     * Separa os campos de uma linha; aspas duplas dentro de um campo entre aspas são escritas como ""
+     * @return campos ou null se houver aspas não fechadas
+     */
+    static List<String> campos(String linha) {
+        List<String> campos = new ArrayList<>();
+        StringBuilder atual = new StringBuilder();
+        boolean entreAspas = false;
+        for (int i = 0; i < linha.length(); i++) {
+            char c = linha.charAt(i);
+            if (entreAspas) {
+                if (c != '"') {
+                    atual.append(c);
+                } else if (i + 1 < linha.length() && linha.charAt(i + 1) == '"') {
+                    atual.append('"');
+                    i++;
+                } else {
+                    entreAspas = false;
+                }
+            } else if (c == '"') {
+                entreAspas = true;
+            } else if (c == ',') {
+                campos.add(atual.toString());
+                atual.setLength(0);
+            } else {
+                atual.append(c);
+            }
+        }
+        if (entreAspas) {
+            return null;
+        }
+        campos.add(atual.toString());
+        return campos;
+    }
+}
@@ -0,0 +1,14 @@
+package com.coupon.cupom.importacao;
+
+import java.io.IOException;
+
+/**
+ * Lê o arquivo de importação uma linha por vez, sem carregá-lo na memória
+ */
+interface LeitorImportacao {
+
+    /**
+     * @return próxima linha com dados ou null no fim do arquivo
+     */
+    Linha proxima() throws IOException;
+}
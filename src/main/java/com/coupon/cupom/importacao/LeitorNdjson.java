@@ -0,0 +1,41 @@
+package com.coupon.cupom.importacao;
+
+import com.coupon.cupom.request.CreateCupomRequest;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+/**
+ * Um objeto JSON por linha, com os mesmos campos do POST /coupon
+ */
+class LeitorNdjson implements LeitorImportacao {
+
+    private final BufferedReader leitor;
+    private final ObjectMapper json;
+    private long numero;
+
+    LeitorNdjson(BufferedReader leitor, ObjectMapper json) {
+        this.leitor = leitor;
+        this.json = json;
+    }
+
+    @Override
+    public Linha proxima() throws IOException {
+        String texto;
+        do {
+            texto = leitor.readLine();
+            numero++;
+            if (texto == null) {
+                return null;
+            }
+        } while (texto.isBlank());
+
+        try {
+            return new Linha(numero, json.readValue(texto, CreateCupomRequest.class), null);
+        } catch (JacksonException e) {
+            return Linha.invalida(numero, "JSON inválido: " + e.getOriginalMessage());
+        }
+    }
+}
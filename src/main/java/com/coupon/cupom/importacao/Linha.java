@@ -0,0 +1,16 @@
+package com.coupon.cupom.importacao;
+
+import com.coupon.cupom.request.CreateCupomRequest;
+
+/**
+ * Linha lida do arquivo
+ * @param numero número da linha no arquivo, contando o cabeçalho
+ * @param request dados do cupom; null se a linha não pôde ser lida
+ * @param erro motivo pelo qual a linha não pôde ser lida
+ */
+record Linha(long numero, CreateCupomRequest request, String erro) {
+
+    static Linha invalida(long numero, String erro) {
+        return new Linha(numero, null, erro);
+    }
+}
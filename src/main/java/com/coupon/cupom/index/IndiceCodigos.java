@@ -0,0 +1,230 @@
+package com.coupon.cupom.index;
+
+import com.coupon.cupom.entity.CupomStatus;
+import com.coupon.cupom.event.CupomAlteradoEvent;
+import com.coupon.cupom.tempo.Relogio;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+
+/**
+ * Índice em memória de todos os códigos: código normalizado (6 caracteres base 36) → estado.
+ * Cada código vira um int e cada estado um long (expiração em segundos + bits de estado),
+ * então milhões de códigos ocupam poucas dezenas de MB.
+ * Carregado por uma leitura em streaming das tabelas na subida e mantido pelos eventos de alteração
+ * e, para os códigos de campanha, pela geração a cada lote confirmado.
+ */
+@Component
+@EnableConfigurationProperties(IndiceProperties.class)
+public class IndiceCodigos {
+
+    private static final Logger log = LoggerFactory.getLogger(IndiceCodigos.class);
+
+    static final long PUBLICADO = 1;
+    static final long ATIVO = 1 << 1;
+    static final long RESGATADO = 1 << 2;
+    static final long DELETADO = 1 << 3;
+    static final long CAMPANHA = 1 << 4;
+    private static final int BITS_ESTADO = 8;
+
+    private static final int TAMANHO_FETCH = 10_000;
+
+    private final IntLongHashMap mapa;
+    private final boolean enabled;
+    private final DataSource dataSource;
+    private final Relogio relogio;
+    private volatile boolean pronto;
+
+    public IndiceCodigos(IndiceProperties properties, DataSource dataSource, Relogio relogio) {
+        this.enabled = properties.enabled();
+        this.mapa = new IntLongHashMap(enabled ? properties.capacidadeInicial() : 16);
+        this.dataSource = dataSource;
+        this.relogio = relogio;
+    }
+
+    /**
+     * Índice carregado: as consultas podem ser respondidas sem o banco
+     */
+    public boolean isPronto() {
+        return pronto;
+    }
+
+    /**
+     * Verifica se o código está em uso, como cupom ou como código de campanha
+     */
+    public boolean contem(String code) {
+        return valor(code) != IntLongHashMap.AUSENTE;
+    }
+
+    /**
+     * Verifica se o código pertence a um cupom avulso (tabela cupons)
+     */
+    public boolean isCupom(String code) {
+        long valor = valor(code);
+        return valor != IntLongHashMap.AUSENTE && (valor & CAMPANHA) == 0;
+    }
+
+    /**
+     * Verifica se o código pertence a uma campanha (tabela campanha_codigos)
+     */
+    public boolean isCampanha(String code) {
+        long valor = valor(code);
+        return valor != IntLongHashMap.AUSENTE && (valor & CAMPANHA) != 0;
+    }
+
+    /**
+     * Mesma regra de Cupom.podeSerResgatado, avaliada só com o índice
+     */
+    public boolean isResgatavel(String code) {
+        long valor = valor(code);
+        if (valor == IntLongHashMap.AUSENTE || (valor & CAMPANHA) != 0) {
+            return false;
+        }
+        return (valor & (PUBLICADO | RESGATADO | DELETADO)) == PUBLICADO
+                && (valor >> BITS_ESTADO) >= relogio.epochSegundos();
+    }
+
+    public int tamanho() {
+        return mapa.size();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciarCarga() {
+        if (!enabled) {
+            return;
+        }
+        Thread.ofPlatform().daemon().name("indice-codigos").start(() -> {
+            try {
+                long inicio = System.nanoTime();
+                carregar();
+                pronto = true;
+                log.info("Índice de códigos carregado: {} códigos em {} ms",
+                        mapa.size(), (System.nanoTime() - inicio) / 1_000_000);
+            } catch (RuntimeException e) {
+                log.error("Falha ao carregar o índice de códigos; consultas seguem pelo banco", e);
+            }
+        });
+    }
+
+    /**
+     * Lê as tabelas em streaming; cupons arquivados continuam ocupando seus códigos. Usa putIfAbsent: um evento aplicado durante a carga é mais novo
+     * que a linha lida e não pode ser sobrescrito por ela.
+     */
+    void carregar() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.setFetchSize(TAMANHO_FETCH);
+        jdbcTemplate.query("""
+                SELECT code, status, published, redeemed, deleted_at, expiration_date FROM cupons
+                UNION ALL
+                SELECT code, status, published, redeemed, deleted_at, expiration_date FROM cupons_arquivados
+                """,
+                rs -> {
+                    int chave = codificar(rs.getString(1));
+                    if (chave != IntLongHashMap.VAZIO) {
+                        mapa.putIfAbsent(chave, estado(
+                                CupomStatus.valueOf(rs.getString(2)),
+                                rs.getBoolean(3),
+                                rs.getBoolean(4),
+                                rs.getObject(5) != null,
+                                rs.getObject(6, LocalDateTime.class)));
+                    }
+                });
+        jdbcTemplate.query("SELECT code FROM campanha_codigos", rs -> {
+            int chave = codificar(rs.getString(1));
+            if (chave != IntLongHashMap.VAZIO) {
+                mapa.putIfAbsent(chave, CAMPANHA);
+            }
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarCupom(CupomAlteradoEvent evento) {
+        if (!enabled) {
+            return;
+        }
+        if (evento.codeAnterior() != null) {
+            // O código antigo foi liberado no banco e pode ser usado por outro cupom
+            mapa.remove(codificar(evento.codeAnterior()));
+        }
+        int chave = codificar(evento.code());
+        if (chave != IntLongHashMap.VAZIO) {
+            mapa.put(chave, estado(evento.status(), evento.published(), evento.redeemed(), evento.deleted(),
+                    evento.expirationDate()));
+        }
+    }
+
+    /**
+     * Registra códigos de campanha já confirmados no banco. Chamado a cada lote da geração, e não só no fim:
+     * enquanto ela roda, a unicidade dos cupons avulsos é verificada só pelo índice.
+     */
+    public void adicionarCodigosCampanha(Collection<String> codes) {
+        if (!enabled) {
+            return;
+        }
+        for (String code : codes) {
+            int chave = codificar(code);
+            if (chave != IntLongHashMap.VAZIO) {
+                mapa.put(chave, CAMPANHA);
+            }
+        }
+    }
+
+    /**
+     * Libera um código removido do banco (lote desfeito de uma geração de campanha que falhou)
+     */
+    public void remover(String code) {
+        if (enabled) {
+            mapa.remove(codificar(code));
+        }
+    }
+
+    private long valor(String code) {
+        int chave = codificar(code);
+        return chave == IntLongHashMap.VAZIO ? IntLongHashMap.AUSENTE : mapa.get(chave);
+    }
+
+    private static long estado(CupomStatus status, boolean published, boolean redeemed, boolean deleted,
+                               LocalDateTime expirationDate) {
+        long bits = (published ? PUBLICADO : 0)
+                | (status == CupomStatus.ACTIVE ? ATIVO : 0)
+                | (redeemed ? RESGATADO : 0)
+                | (deleted ? DELETADO : 0);
+        long expiracao = expirationDate.atZone(ZoneId.systemDefault()).toEpochSecond();
+        return (expiracao << BITS_ESTADO) | bits;
+    }
+
+    /**
+     * Converte um código normalizado em int (base 36). 36^6 cabe em 32 bits sem sinal e nunca
+     * produz 0xFFFFFFFF, que fica reservado como posição vazia.
+     * @return o código codificado ou {@link IntLongHashMap#VAZIO} se não for um código válido
+     */
+    public static int codificar(String code) {
+        if (code == null || code.length() != 6) {
+            return IntLongHashMap.VAZIO;
+        }
+        long valor = 0;
+        for (int i = 0; i < 6; i++) {
+            char c = code.charAt(i);
+            int digito;
+            if (c >= '0' && c <= '9') {
+                digito = c - '0';
+            } else if (c >= 'A' && c <= 'Z') {
+                digito = c - 'A' + 10;
+            } else {
+                return IntLongHashMap.VAZIO;
+            }
+            valor = valor * 36 + digito;
+        }
+        return (int) valor;
+    }
+}
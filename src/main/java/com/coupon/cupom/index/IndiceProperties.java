@@ -0,0 +1,17 @@
+package com.coupon.cupom.index;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configuração do índice de códigos em memória (prefixo cupom.indice).
+ * Só deve ser habilitado com uma única instância: o índice acompanha apenas as alterações locais.
+ * @param enabled carrega e consulta o índice
+ * @param capacidadeInicial quantidade de códigos esperada
+ */
+@ConfigurationProperties(prefix = "cupom.indice")
+public record IndiceProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("65536") int capacidadeInicial
+) {
+}
@@ -0,0 +1,195 @@
+package com.coupon.cupom.index;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Mapa int → long com endereçamento aberto (linear probing) sobre arrays primitivos, sem boxing.
+ * Leituras usam leitura otimista do StampedLock e não bloqueiam; escritas são exclusivas.
+ * A chave -1 é reservada para marcar posições vazias.
+ */
+public final class IntLongHashMap {
+
+    public static final int VAZIO = -1;
+    public static final long AUSENTE = Long.MIN_VALUE;
+
+    private static final float CARGA_MAXIMA = 0.5f;
+
+    /**
+     * Chaves e valores juntos, para que uma leitura otimista nunca veja arrays de tamanhos diferentes
+     */
+    private record Tabela(int[] chaves, long[] valores) {
+
+        Tabela(int capacidade) {
+            this(novasChaves(capacidade), new long[capacidade]);
+        }
+
+        private static int[] novasChaves(int capacidade) {
+            int[] chaves = new int[capacidade];
+            Arrays.fill(chaves, VAZIO);
+            return chaves;
+        }
+    }
+
+    private final StampedLock lock = new StampedLock();
+    private Tabela tabela;
+    private int tamanho;
+
+    public IntLongHashMap(int capacidadeInicial) {
+        this.tabela = new Tabela(Integer.highestOneBit(Math.max(16, capacidadeInicial - 1)) << 1);
+    }
+
+    /**
+     * @return o valor associado ou {@link #AUSENTE}
+     */
+    public long get(int chave) {
+        long stamp = lock.tryOptimisticRead();
+        long valor = buscar(tabela, chave);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                valor = buscar(tabela, chave);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return valor;
+    }
+
+    public void put(int chave, long valor) {
+        gravar(chave, valor, true);
+    }
+
+    public void putIfAbsent(int chave, long valor) {
+        gravar(chave, valor, false);
+    }
+
+    /**
+     * Remove a chave. As chaves seguintes da mesma sequência de probing recuam uma posição
+     * (backward shift), então a remoção não deixa marcas e as buscas continuam parando na primeira vazia.
+     * @return true se a chave existia
+     */
+    public boolean remove(int chave) {
+        if (chave == VAZIO) {
+            return false;
+        }
+        long stamp = lock.writeLock();
+        try {
+            int[] chaves = tabela.chaves;
+            long[] valores = tabela.valores;
+            int mascara = chaves.length - 1;
+            int i = espalhar(chave) & mascara;
+            while (chaves[i] != chave) {
+                if (chaves[i] == VAZIO) {
+                    return false;
+                }
+                i = (i + 1) & mascara;
+            }
+            int j = i;
+            for (;;) {
+                j = (j + 1) & mascara;
+                if (chaves[j] == VAZIO) {
+                    break;
+                }
+                int ideal = espalhar(chaves[j]) & mascara;
+                // Só recua se a posição ideal de j não estiver no trecho cíclico (i, j]
+                boolean entre = i <= j ? (i < ideal && ideal <= j) : (i < ideal || ideal <= j);
+                if (!entre) {
+                    chaves[i] = chaves[j];
+                    valores[i] = valores[j];
+                    i = j;
+                }
+            }
+            chaves[i] = VAZIO;
+            tamanho--;
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return tamanho;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private void gravar(int chave, long valor, boolean sobrescrever) {
+        if (chave == VAZIO) {
+            throw new IllegalArgumentException("Chave reservada: " + VAZIO);
+        }
+        long stamp = lock.writeLock();
+        try {
+            if (tamanho + 1 > tabela.chaves.length * CARGA_MAXIMA) {
+                tabela = redimensionar(tabela);
+            }
+            int[] chaves = tabela.chaves;
+            int mascara = chaves.length - 1;
+            int i = espalhar(chave) & mascara;
+            while (chaves[i] != VAZIO) {
+                if (chaves[i] == chave) {
+                    if (sobrescrever) {
+                        tabela.valores[i] = valor;
+                    }
+                    return;
+                }
+                i = (i + 1) & mascara;
+            }
+            tabela.valores[i] = valor;
+            chaves[i] = chave;
+            tamanho++;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private static long buscar(Tabela tabela, int chave) {
+        int[] chaves = tabela.chaves;
+        int mascara = chaves.length - 1;
+        int i = espalhar(chave) & mascara;
+        // Limitado ao tamanho da tabela: numa leitura otimista inválida o conteúdo pode estar inconsistente
+        for (int tentativas = 0; tentativas < chaves.length; tentativas++) {
+            int atual = chaves[i];
+            if (atual == VAZIO) {
+                return AUSENTE;
+            }
+            if (atual == chave) {
+                return tabela.valores[i];
+            }
+            i = (i + 1) & mascara;
+        }
+        return AUSENTE;
+    }
+
+    private static Tabela redimensionar(Tabela antiga) {
+        Tabela nova = new Tabela(antiga.chaves.length << 1);
+        int mascara = nova.chaves.length - 1;
+        for (int j = 0; j < antiga.chaves.length; j++) {
+            int chave = antiga.chaves[j];
+            if (chave != VAZIO) {
+                int i = espalhar(chave) & mascara;
+                while (nova.chaves[i] != VAZIO) {
+                    i = (i + 1) & mascara;
+                }
+                nova.chaves[i] = chave;
+                nova.valores[i] = antiga.valores[j];
+            }
+        }
+        return nova;
+    }
+
+    /**
+     * Finalizador do MurmurHash3: códigos sequenciais não caem em posições vizinhas
+     */
+    private static int espalhar(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+}
@@ -0,0 +1,197 @@
+package com.coupon.cupom.lideranca;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Eleição de líder pelo banco: cada tarefa em segundo plano tem uma linha em leases e só a instância
+ * dona dela executa a tarefa, enquanto as demais seguem atendendo requisições.
+ * A lease é assumida com um update condicional quando expira, renovada por um heartbeat em thread
+ * própria e mantida enquanto a instância estiver de pé. As validades são calculadas pelo relógio do banco. Cada troca de dono incrementa o token; as escritas do líder
+ * chamam {@link #verificar(LeaseAtiva)} na própria transação, então um líder que perdeu a lease
+ * (pausa longa de GC, rede) não consegue mais gravar depois que outro assumiu.
+ */
+@Component
+@EnableConfigurationProperties(LeaseProperties.class)
+public class GerenciadorLeases {
+
+    private static final Logger log = LoggerFactory.getLogger(GerenciadorLeases.class);
+
+    /**
+     * Os instantes vêm do relógio do banco, o mesmo para todas as instâncias
+     */
+    private static final String EXPIRA_EM = "LOCALTIMESTAMP + CAST(:duracaoMs AS BIGINT) * INTERVAL '0.001' SECOND";
+    private static final String ASSUMIR = """
+            UPDATE leases SET dono = :dono, token = token + 1, expira_em = %s, renovado_em = LOCALTIMESTAMP
+            WHERE nome = :nome AND (expira_em <= LOCALTIMESTAMP OR dono = :dono)
+            """.formatted(EXPIRA_EM);
+    private static final String CRIAR = """
+            INSERT INTO leases (nome, dono, token, expira_em, renovado_em)
+            VALUES (:nome, :dono, 1, %s, LOCALTIMESTAMP)
+            """.formatted(EXPIRA_EM);
+    private static final String TOKEN = "SELECT token FROM leases WHERE nome = :nome AND dono = :dono";
+    private static final String RENOVAR = """
+            UPDATE leases SET expira_em = %s, renovado_em = LOCALTIMESTAMP
+            WHERE nome = :nome AND dono = :dono AND token = :token
+            """.formatted(EXPIRA_EM);
+    private static final String VERIFICAR = """
+            UPDATE leases SET expira_em = %s, renovado_em = LOCALTIMESTAMP
+            WHERE nome = :nome AND dono = :dono AND token = :token AND expira_em > LOCALTIMESTAMP
+            """.formatted(EXPIRA_EM);
+    private static final String LIBERAR = """
+            UPDATE leases SET expira_em = LOCALTIMESTAMP
+            WHERE nome = :nome AND dono = :dono AND token = :token
+            """;
+
+    private final Map<String, LeaseAtiva> ativas = new ConcurrentHashMap<>();
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final MeterRegistry registry;
+    private final String dono;
+    private final Duration duracao;
+    private final ScheduledExecutorService heartbeat;
+
+    public GerenciadorLeases(LeaseProperties properties, DataSource dataSource, MeterRegistry registry) {
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        this.registry = registry;
+        this.dono = properties.dono().isBlank() ? donoPadrao() : properties.dono();
+        this.duracao = properties.duracao();
+        // Thread própria: o heartbeat não pode esperar na fila das tarefas @Scheduled que a lease protege
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("lease-heartbeat").daemon().factory());
+        long renovacao = properties.renovacao().toMillis();
+        heartbeat.scheduleWithFixedDelay(this::renovarComSeguranca, renovacao, renovacao, TimeUnit.MILLISECONDS);
+    }
+
+    private static String donoPadrao() {
+        return System.getenv().getOrDefault("HOSTNAME", "cupom") + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    public String getDono() {
+        return dono;
+    }
+
+    /**
+     * Devolve a lease se esta instância já a tem; senão tenta assumi-la, o que só dá certo
+     * se ela não existir ainda ou estiver expirada
+     * @param nome tarefa a proteger
+     * @return lease ativa ou vazio se outra instância for a líder
+     */
+    public Optional<LeaseAtiva> adquirir(String nome) {
+        long agora = System.nanoTime();
+        LeaseAtiva atual = ativas.get(nome);
+        if (atual != null && atual.expiraEm() - agora > 0) {
+            return Optional.of(atual);
+        }
+        Map<String, Object> parametros = Map.of("nome", nome, "dono", dono, "duracaoMs", duracao.toMillis());
+        if (jdbcTemplate.update(ASSUMIR, parametros) == 0) {
+            try {
+                jdbcTemplate.update(CRIAR, parametros);
+            } catch (DuplicateKeyException e) {
+                ativas.remove(nome);
+                return Optional.empty();
+            }
+        }
+        List<Long> token = jdbcTemplate.queryForList(TOKEN, parametros, Long.class);
+        if (token.isEmpty()) {
+            return Optional.empty();
+        }
+        LeaseAtiva lease = new LeaseAtiva(nome, token.getFirst(), agora + duracao.toNanos());
+        ativas.put(nome, lease);
+        log.info("Lease {} assumida por {} com token {}", nome, dono, lease.token());
+        return Optional.of(lease);
+    }
+
+    /**
+     * Confirma, dentro da transação corrente, que a lease ainda é desta instância, e a estende.
+     * A linha da lease fica travada até o commit, então outra instância não a assume no meio da transação.
+     * @throws LeasePerdidaException se a lease expirou ou mudou de dono
+     */
+    public void verificar(LeaseAtiva lease) {
+        long agora = System.nanoTime();
+        if (jdbcTemplate.update(VERIFICAR, parametros(lease)) == 0) {
+            perder(lease);
+            throw new LeasePerdidaException(lease);
+        }
+        estender(lease, agora);
+    }
+
+    /**
+     * Heartbeat: estende as leases desta instância. Uma lease que mudou de dono é descartada.
+     */
+    public void renovar() {
+        for (LeaseAtiva lease : ativas.values()) {
+            long agora = System.nanoTime();
+            if (jdbcTemplate.update(RENOVAR, parametros(lease)) == 0) {
+                perder(lease);
+            } else {
+                estender(lease, agora);
+            }
+        }
+    }
+
+    private void renovarComSeguranca() {
+        try {
+            renovar();
+        } catch (RuntimeException e) {
+            // Uma exceção cancelaria as próximas execuções do heartbeat
+            log.warn("Falha ao renovar as leases de {}", dono, e);
+        }
+    }
+
+    /**
+     * Devolve a lease antes de expirar, para outra instância assumir sem esperar
+     */
+    public void liberar(String nome) {
+        LeaseAtiva lease = ativas.remove(nome);
+        if (lease != null) {
+            jdbcTemplate.update(LIBERAR, parametros(lease));
+        }
+    }
+
+    @PreDestroy
+    public void liberarTodas() {
+        heartbeat.shutdownNow();
+        for (String nome : List.copyOf(ativas.keySet())) {
+            try {
+                liberar(nome);
+            } catch (RuntimeException e) {
+                log.warn("Falha ao liberar a lease {}; ela expira sozinha", nome, e);
+            }
+        }
+    }
+
+    private Map<String, Object> parametros(LeaseAtiva lease) {
+        return Map.of("nome", lease.nome(), "dono", dono, "token", lease.token(), "duracaoMs", duracao.toMillis());
+    }
+
+    /**
+     * A validade local conta a partir de antes do update, então nunca passa da validade no banco
+     */
+    private void estender(LeaseAtiva lease, long agora) {
+        ativas.computeIfPresent(lease.nome(), (nome, atual) -> atual.token() == lease.token()
+                ? new LeaseAtiva(nome, lease.token(), agora + duracao.toNanos()) : atual);
+    }
+
+    private void perder(LeaseAtiva lease) {
+        ativas.computeIfPresent(lease.nome(), (nome, atual) -> atual.token() == lease.token() ? null : atual);
+        registry.counter("cupom.lease.perdidas", "nome", lease.nome()).increment();
+        log.warn("Lease {} (token {}) perdida por {}", lease.nome(), lease.token(), dono);
+    }
+}
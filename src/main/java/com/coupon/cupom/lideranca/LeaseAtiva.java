@@ -0,0 +1,10 @@
+package com.coupon.cupom.lideranca;
+
+/**
+ * Lease mantida por esta instância
+ * @param nome tarefa protegida
+ * @param token fencing token; muda sempre que outra instância assume a lease
+ * @param expiraEm validade conhecida localmente, em {@link System#nanoTime()}, atualizada a cada renovação
+ */
+public record LeaseAtiva(String nome, long token, long expiraEm) {
+}
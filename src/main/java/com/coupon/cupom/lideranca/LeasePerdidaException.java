@@ -0,0 +1,12 @@
+package com.coupon.cupom.lideranca;
+
+/**
+ * A lease expirou ou foi assumida por outra instância; a transação que a verificou deve ser desfeita
+ */
+public class LeasePerdidaException extends RuntimeException {
+
+    public LeasePerdidaException(LeaseAtiva lease) {
+        super("Lease " + lease.nome() + " (token " + lease.token() + ") não pertence mais a esta instância",
+                null, false, false);
+    }
+}
@@ -0,0 +1,21 @@
+package com.coupon.cupom.lideranca;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuração das leases de liderança (prefixo cupom.lease).
+ * A duração precisa ser bem maior que a renovação; as validades seguem o relógio do banco.
+ * @param dono identificador desta instância; vazio usa HOSTNAME e um sufixo aleatório
+ * @param duracao validade de uma lease a partir da última renovação
+ * @param renovacao intervalo do heartbeat que renova as leases desta instância
+ */
+@ConfigurationProperties(prefix = "cupom.lease")
+public record LeaseProperties(
+        @DefaultValue("") String dono,
+        @DefaultValue("30s") Duration duracao,
+        @DefaultValue("10s") Duration renovacao
+) {
+}
@@ -7,5 +7,4 @@ import org.mapstruct.Mapper;
 @Mapper(componentModel = "spring")
 public interface CupomMapper {
     CupomResponse toResponse(Cupom cupom);
-    Cupom toEntity(CupomResponse response);
-}
\ No newline at end of file
+}
@@ -0,0 +1,151 @@
+package com.coupon.cupom.quentes;
+
+import com.coupon.cupom.request.ChaveQuenteResponse;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Detecta os IDs e códigos de cupom mais acessados com memória constante. Um acesso a cada
+ * {@code amostragem} é somado num count-min sketch; as chaves com maior estimativa ficam numa lista
+ * limitada a {@code topK} (space-saving: uma chave nova entra no lugar da de menor estimativa).
+ * A cada janela as contagens caem pela metade, então uma chave deixa de ser quente quando o tráfego passa.
+ */
+@Component
+@EnableScheduling
+@EnableConfigurationProperties(QuentesProperties.class)
+public class DetectorQuentes {
+
+    private final int amostragem;
+    private final long limiar;
+    private final int topK;
+    private final int profundidade;
+    private final int mascara;
+    private final AtomicIntegerArray contagens;
+    private final Map<Object, Long> candidatos = new ConcurrentHashMap<>();
+    private volatile Set<Object> quentes = ConcurrentHashMap.newKeySet();
+
+    public DetectorQuentes(QuentesProperties properties) {
+        this.amostragem = Math.max(1, properties.amostragem());
+        this.limiar = properties.limiar();
+        this.topK = properties.topK();
+        this.profundidade = properties.profundidade();
+        int largura = Integer.highestOneBit(Math.max(2, properties.largura() - 1)) << 1;
+        this.mascara = largura - 1;
+        this.contagens = new AtomicIntegerArray(profundidade * largura);
+    }
+
+    /**
+     * Registra um acesso à chave (UUID ou código normalizado)
+     * @return se a chave está entre as quentes
+     */
+    public boolean registrar(Object chave) {
+        if (amostragem == 1 || ThreadLocalRandom.current().nextInt(amostragem) == 0) {
+            long estimativa = incrementar(chave) * (long) amostragem;
+            if (estimativa >= limiar) {
+                quentes.add(chave);
+            }
+            oferecer(chave, estimativa);
+        }
+        return quentes.contains(chave);
+    }
+
+    public boolean isQuente(Object chave) {
+        return quentes.contains(chave);
+    }
+
+    /**
+     * Chaves acompanhadas, da mais para a menos acessada
+     */
+    public List<ChaveQuenteResponse> topo() {
+        Set<Object> atuais = quentes;
+        List<ChaveQuenteResponse> topo = new ArrayList<>(candidatos.size());
+        candidatos.forEach((chave, estimativa) -> topo.add(new ChaveQuenteResponse(chave.toString(),
+                chave instanceof UUID ? "id" : "code", estimativa, atuais.contains(chave))));
+        topo.sort(Comparator.comparingLong(ChaveQuenteResponse::estimativa).reversed());
+        return topo;
+    }
+
+    /**
+     * Reduz as contagens pela metade e recalcula as chaves quentes
+     */
+    @Scheduled(fixedDelayString = "${cupom.quentes.janela:10s}", initialDelayString = "${cupom.quentes.janela:10s}")
+    public synchronized void decair() {
+        for (int i = 0; i < contagens.length(); i++) {
+            contagens.getAndUpdate(i, valor -> valor >>> 1);
+        }
+        Set<Object> novos = ConcurrentHashMap.newKeySet();
+        candidatos.replaceAll((chave, anterior) -> estimar(chave) * (long) amostragem);
+        candidatos.values().removeIf(estimativa -> estimativa == 0);
+        candidatos.forEach((chave, estimativa) -> {
+            if (estimativa >= limiar) {
+                novos.add(chave);
+            }
+        });
+        quentes = novos;
+    }
+
+    private int incrementar(Object chave) {
+        int hash = chave.hashCode();
+        int minimo = Integer.MAX_VALUE;
+        for (int linha = 0; linha < profundidade; linha++) {
+            minimo = Math.min(minimo, contagens.incrementAndGet(posicao(hash, linha)));
+        }
+        return minimo;
+    }
+
+    private int estimar(Object chave) {
+        int hash = chave.hashCode();
+        int minimo = Integer.MAX_VALUE;
+        for (int linha = 0; linha < profundidade; linha++) {
+            minimo = Math.min(minimo, contagens.get(posicao(hash, linha)));
+        }
+        return minimo;
+    }
+
+    private void oferecer(Object chave, long estimativa) {
+        if (candidatos.replace(chave, estimativa) != null) {
+            return;
+        }
+        synchronized (candidatos) {
+            if (candidatos.size() < topK) {
+                candidatos.put(chave, estimativa);
+                return;
+            }
+            Map.Entry<Object, Long> menor = null;
+            for (Map.Entry<Object, Long> candidato : candidatos.entrySet()) {
+                if (menor == null || candidato.getValue() < menor.getValue()) {
+                    menor = candidato;
+                }
+            }
+            if (menor != null && estimativa > menor.getValue()) {
+                candidatos.remove(menor.getKey());
+                candidatos.put(chave, estimativa);
+            }
+        }
+    }
+
+    /**
+     * Coluna da chave em cada linha, com o hash misturado por uma constante diferente em cada linha
+     */
+    private int posicao(int hash, int linha) {
+        int h = hash + linha * 0x9E3779B9;
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        h ^= h >>> 16;
+        return linha * (mascara + 1) + (h & mascara);
+    }
+}
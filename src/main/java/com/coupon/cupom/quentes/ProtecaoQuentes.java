@@ -0,0 +1,155 @@
+package com.coupon.cupom.quentes;
+
+import com.coupon.cupom.entity.Cupom;
+import com.coupon.cupom.event.CupomAlteradoEvent;
+import com.coupon.cupom.event.CuponsArquivadosEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Caminho protegido das leituras de cupons quentes, para que um único cupom muito acessado não ocupe o pool
+ * de conexões. A leitura de uma chave quente fica guardada por {@code ttl}, e leituras simultâneas da mesma
+ * chave esperam uma única ida ao banco em vez de cada uma buscar. O que fica guardado, e é entregue às
+ * leituras coalescidas, é uma cópia desanexada do cupom ({@link Cupom#copia()}): a entidade gerenciada
+ * pela sessão de quem carregou não sai daquela requisição. As cópias são compartilhadas e não podem ser alteradas.
+ */
+@Component
+public class ProtecaoQuentes {
+
+    private record Local(Cupom cupom, long expiraEm) {
+    }
+
+    private final Map<Object, Local> guardados = new ConcurrentHashMap<>();
+    private final Map<Object, CompletableFuture<Cupom>> emAndamento = new ConcurrentHashMap<>();
+    private final AtomicLong geracao = new AtomicLong();
+    private final DetectorQuentes detector;
+    private final boolean enabled;
+    private final long ttlNanos;
+    private final int maxGuardados;
+    private final Counter acertos;
+    private final Counter coalescidas;
+    private final Counter cargas;
+
+    public ProtecaoQuentes(QuentesProperties properties, DetectorQuentes detector, MeterRegistry registry) {
+        this.detector = detector;
+        this.enabled = properties.enabled();
+        this.ttlNanos = properties.ttl().toNanos();
+        this.maxGuardados = properties.topK() * 4;
+        this.acertos = registry.counter("cupom.quentes.leituras", "resultado", "acerto");
+        this.coalescidas = registry.counter("cupom.quentes.leituras", "resultado", "coalescida");
+        this.cargas = registry.counter("cupom.quentes.leituras", "resultado", "carga");
+        registry.gauge("cupom.quentes.guardados", guardados, Map::size);
+    }
+
+    /**
+     * Registra o acesso sem proteger a operação; usado pelas escritas, que só entram na contagem
+     */
+    public void registrar(Object chave) {
+        if (enabled) {
+            detector.registrar(chave);
+        }
+    }
+
+    /**
+     * Registra o acesso e, se a chave for quente, lê pelo caminho protegido
+     * @param chave ID ou código normalizado
+     * @param carregar leitura no banco
+     */
+    public Cupom buscar(Object chave, Supplier<Cupom> carregar) {
+        if (!enabled || !detector.registrar(chave)) {
+            return carregar.get();
+        }
+        Cupom cupom = guardado(chave);
+        if (cupom != null) {
+            acertos.increment();
+            return cupom;
+        }
+        CompletableFuture<Cupom> leitura = new CompletableFuture<>();
+        CompletableFuture<Cupom> existente = emAndamento.putIfAbsent(chave, leitura);
+        if (existente != null) {
+            coalescidas.increment();
+            return aguardar(existente);
+        }
+        cargas.increment();
+        long geracaoLida = geracao.get();
+        try {
+            cupom = carregar.get();
+            Cupom copia = cupom.copia();
+            guardar(chave, copia, geracaoLida);
+            leitura.complete(copia);
+            return cupom;
+        } catch (RuntimeException e) {
+            leitura.completeExceptionally(e);
+            throw e;
+        } finally {
+            emAndamento.remove(chave, leitura);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarCupom(CupomAlteradoEvent evento) {
+        geracao.incrementAndGet();
+        guardados.remove(evento.id());
+        guardados.remove(evento.code());
+        if (evento.codeAnterior() != null) {
+            guardados.remove(evento.codeAnterior());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoArquivarCupons(CuponsArquivadosEvent evento) {
+        geracao.incrementAndGet();
+        for (CuponsArquivadosEvent.Arquivado cupom : evento.cupons()) {
+            guardados.remove(cupom.id());
+            guardados.remove(cupom.code());
+        }
+    }
+
+    private Cupom guardado(Object chave) {
+        Local local = guardados.get(chave);
+        if (local == null) {
+            return null;
+        }
+        if (System.nanoTime() - local.expiraEm() >= 0) {
+            guardados.remove(chave, local);
+            return null;
+        }
+        return local.cupom();
+    }
+
+    private void guardar(Object chave, Cupom cupom, long geracaoLida) {
+        long agora = System.nanoTime();
+        if (guardados.size() >= maxGuardados) {
+            guardados.values().removeIf(local -> agora - local.expiraEm() >= 0);
+        }
+        if (geracao.get() != geracaoLida || guardados.size() >= maxGuardados) {
+            return;
+        }
+        Local local = new Local(cupom, agora + ttlNanos);
+        guardados.put(chave, local);
+        if (geracao.get() != geracaoLida) {
+            // Uma alteração chegou durante a escrita
+            guardados.remove(chave, local);
+        }
+    }
+
+    private static Cupom aguardar(CompletableFuture<Cupom> leitura) {
+        try {
+            return leitura.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw e;
+        }
+    }
+}
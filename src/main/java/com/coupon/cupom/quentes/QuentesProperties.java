@@ -0,0 +1,30 @@
+package com.coupon.cupom.quentes;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuração da detecção e proteção de cupons quentes (prefixo cupom.quentes)
+ * @param enabled liga a detecção e o caminho protegido das leituras
+ * @param amostragem conta um a cada N acessos
+ * @param limiar acessos estimados por janela a partir dos quais o cupom é considerado quente
+ * @param janela a cada janela as contagens caem pela metade e a lista de quentes é recalculada
+ * @param topK quantas chaves mais acessadas são acompanhadas
+ * @param largura colunas do count-min sketch (arredondada para potência de 2)
+ * @param profundidade linhas do count-min sketch
+ * @param ttl validade das leituras guardadas dos cupons quentes
+ */
+@ConfigurationProperties(prefix = "cupom.quentes")
+public record QuentesProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("16") int amostragem,
+        @DefaultValue("500") long limiar,
+        @DefaultValue("10s") Duration janela,
+        @DefaultValue("20") int topK,
+        @DefaultValue("4096") int largura,
+        @DefaultValue("4") int profundidade,
+        @DefaultValue("1s") Duration ttl
+) {
+}
@@ -0,0 +1,18 @@
+package com.coupon.cupom.rastreamento;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Conta cada statement preparado pelo Hibernate na requisição em andamento, sem alterar o SQL
+ */
+public class ContadorConsultas implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        UsoBanco uso = UsoBanco.atual();
+        if (uso != null) {
+            uso.consultaPreparada();
+        }
+        return sql;
+    }
+}
@@ -0,0 +1,50 @@
+package com.coupon.cupom.rastreamento;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.boot.micrometer.observation.autoconfigure.ObservationRegistryCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Rastreamento de uso do banco por requisição, para encontrar consultas N+1 e idas redundantes ao banco.
+ * Desligado por padrão: com ele desligado, nem o inspector nem o listener são registrados no Hibernate.
+ * Conta só o que passa pelo Hibernate; as consultas feitas com JdbcTemplate não entram na conta.
+ */
+@Configuration
+@EnableConfigurationProperties(RastreamentoProperties.class)
+@ConditionalOnProperty(prefix = "cupom.rastreamento", name = "enabled", havingValue = "true")
+public class RastreamentoConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer rastreamentoHibernate() {
+        return propriedades -> {
+            propriedades.put(AvailableSettings.STATEMENT_INSPECTOR, new ContadorConsultas());
+            propriedades.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, TempoJdbcListener.class.getName());
+        };
+    }
+
+    @Bean
+    public ObservationRegistryCustomizer<?> rastreamentoObservacoes() {
+        UsoBancoObservationHandler handler = new UsoBancoObservationHandler();
+        return registry -> registry.observationConfig().observationHandler(handler).observationFilter(handler);
+    }
+
+    /**
+     * Antes do filtro de observação HTTP, para que o span da requisição também receba as contagens
+     */
+    @Bean
+    public FilterRegistrationBean<RastreamentoFilter> rastreamentoFilter(RastreamentoProperties properties,
+                                                                         MeterRegistry registry) {
+        FilterRegistrationBean<RastreamentoFilter> registration =
+                new FilterRegistrationBean<>(new RastreamentoFilter(properties, registry));
+        registration.addUrlPatterns("/coupon/*", "/campaign/*", "/analytics/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
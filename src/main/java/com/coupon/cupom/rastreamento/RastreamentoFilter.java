@@ -0,0 +1,80 @@
+package com.coupon.cupom.rastreamento;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * Acumula as consultas e o tempo JDBC da requisição ({@link UsoBanco}) e, no fim, registra uma linha de log
+ * por requisição, a métrica cupom.requisicao.consultas por endpoint e, se configurado, o header Server-Timing.
+ * Para escrever o header depois do controller, o corpo da resposta fica em memória até o fim da requisição.
+ */
+public class RastreamentoFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(RastreamentoFilter.class);
+
+    private final boolean header;
+    private final int alertaConsultas;
+    private final MeterRegistry registry;
+
+    public RastreamentoFilter(RastreamentoProperties properties, MeterRegistry registry) {
+        this.header = properties.header();
+        this.alertaConsultas = properties.alertaConsultas();
+        this.registry = registry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long inicio = System.nanoTime();
+        UsoBanco uso = UsoBanco.iniciar();
+        ContentCachingResponseWrapper resposta = header ? new ContentCachingResponseWrapper(response) : null;
+        try {
+            chain.doFilter(request, resposta != null ? resposta : response);
+        } finally {
+            UsoBanco.encerrar();
+            double totalMillis = (System.nanoTime() - inicio) / 1_000_000.0;
+            String endpoint = endpoint(request);
+            DistributionSummary.builder("cupom.requisicao.consultas")
+                    .tags("metodo", request.getMethod(), "endpoint", endpoint)
+                    .register(registry)
+                    .record(uso.getConsultas());
+            if (resposta != null) {
+                resposta.setHeader("Server-Timing", String.format(Locale.ROOT,
+                        "db;dur=%.3f;desc=\"%d consultas\", total;dur=%.3f",
+                        uso.getMillis(), uso.getConsultas(), totalMillis));
+                resposta.copyBodyToResponse();
+            }
+            if (uso.getConsultas() >= alertaConsultas) {
+                log.warn("{} {} -> {}: {} consultas, {} ms no banco, {} ms no total", request.getMethod(), endpoint,
+                        response.getStatus(), uso.getConsultas(), formatar(uso.getMillis()), formatar(totalMillis));
+            } else {
+                log.info("{} {} -> {}: {} consultas, {} ms no banco, {} ms no total", request.getMethod(), endpoint,
+                        response.getStatus(), uso.getConsultas(), formatar(uso.getMillis()), formatar(totalMillis));
+            }
+        }
+    }
+
+    /**
+     * Padrão do endpoint (/coupon/{id}), para que a métrica não tenha uma série por ID
+     */
+    private static String endpoint(HttpServletRequest request) {
+        Object padrao = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return padrao != null ? padrao.toString() : "desconhecido";
+    }
+
+    private static String formatar(double millis) {
+        return String.format(Locale.ROOT, "%.1f", millis);
+    }
+}
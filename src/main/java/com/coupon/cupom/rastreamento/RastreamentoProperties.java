@@ -0,0 +1,18 @@
+package com.coupon.cupom.rastreamento;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configuração do rastreamento de uso do banco por requisição (prefixo cupom.rastreamento)
+ * @param enabled liga a contagem de consultas e de tempo JDBC
+ * @param header devolve o header Server-Timing com consultas e tempo no banco
+ * @param alertaConsultas a partir de quantas consultas numa requisição o log sai como WARN
+ */
+@ConfigurationProperties(prefix = "cupom.rastreamento")
+public record RastreamentoProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("true") boolean header,
+        @DefaultValue("20") int alertaConsultas
+) {
+}
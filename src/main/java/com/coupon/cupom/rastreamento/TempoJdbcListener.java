@@ -0,0 +1,44 @@
+package com.coupon.cupom.rastreamento;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Mede o tempo de execução dos statements e lotes JDBC de cada sessão do Hibernate.
+ * Instanciado pelo Hibernate para cada sessão (hibernate.session.events.auto).
+ */
+public class TempoJdbcListener implements SessionEventListener {
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        iniciar();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        finalizar();
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        iniciar();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        finalizar();
+    }
+
+    private static void iniciar() {
+        UsoBanco uso = UsoBanco.atual();
+        if (uso != null) {
+            uso.inicioExecucao();
+        }
+    }
+
+    private static void finalizar() {
+        UsoBanco uso = UsoBanco.atual();
+        if (uso != null) {
+            uso.fimExecucao();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.coupon.cupom.rastreamento;
+
+/**
+ * Consultas e tempo de execução JDBC acumulados pela thread da requisição.
+ * Só acumula entre {@link #iniciar()} e {@link #encerrar()}; fora disso os registros são ignorados.
+ */
+public final class UsoBanco {
+
+    private static final ThreadLocal<UsoBanco> ATUAL = new ThreadLocal<>();
+
+    private int consultas;
+    private long nanos;
+    private long inicioExecucao;
+
+    private UsoBanco() {
+    }
+
+    static UsoBanco iniciar() {
+        UsoBanco uso = new UsoBanco();
+        ATUAL.set(uso);
+        return uso;
+    }
+
+    static void encerrar() {
+        ATUAL.remove();
+    }
+
+    /**
+     * @return uso da requisição em andamento ou null se a thread não está rastreando
+     */
+    public static UsoBanco atual() {
+        return ATUAL.get();
+    }
+
+    public int getConsultas() {
+        return consultas;
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+
+    public double getMillis() {
+        return nanos / 1_000_000.0;
+    }
+
+    void consultaPreparada() {
+        consultas++;
+    }
+
+    void inicioExecucao() {
+        inicioExecucao = System.nanoTime();
+    }
+
+    void fimExecucao() {
+        if (inicioExecucao != 0) {
+            nanos += System.nanoTime() - inicioExecucao;
+            inicioExecucao = 0;
+        }
+    }
+}
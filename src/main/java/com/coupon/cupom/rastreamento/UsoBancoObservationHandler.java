@@ -0,0 +1,45 @@
+package com.coupon.cupom.rastreamento;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationFilter;
+import io.micrometer.observation.ObservationHandler;
+
+import java.util.Locale;
+
+/**
+ * Anota cada observação (requisição HTTP, método de controller ou de serviço) com as consultas e o tempo
+ * no banco gastos entre o início e o fim dela: db.consultas e db.tempo.ms viram atributos do span.
+ * O filtro roda antes dos handlers no fim da observação, então os atributos chegam a todos eles.
+ */
+class UsoBancoObservationHandler implements ObservationHandler<Observation.Context>, ObservationFilter {
+
+    private record Inicio(int consultas, long nanos) {
+    }
+
+    @Override
+    public void onStart(Observation.Context context) {
+        UsoBanco uso = UsoBanco.atual();
+        if (uso != null) {
+            context.put(Inicio.class, new Inicio(uso.getConsultas(), uso.getNanos()));
+        }
+    }
+
+    @Override
+    public Observation.Context map(Observation.Context context) {
+        UsoBanco uso = UsoBanco.atual();
+        Inicio inicio = context.get(Inicio.class);
+        if (uso == null || inicio == null) {
+            return context;
+        }
+        double millis = (uso.getNanos() - inicio.nanos()) / 1_000_000.0;
+        return context
+                .addHighCardinalityKeyValue(KeyValue.of("db.consultas", String.valueOf(uso.getConsultas() - inicio.consultas())))
+                .addHighCardinalityKeyValue(KeyValue.of("db.tempo.ms", String.format(Locale.ROOT, "%.3f", millis)));
+    }
+
+    @Override
+    public boolean supportsContext(Observation.Context context) {
+        return true;
+    }
+}
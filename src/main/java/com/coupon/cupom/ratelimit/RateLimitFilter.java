@@ -0,0 +1,82 @@
+package com.coupon.cupom.ratelimit;
+
+import com.coupon.cupom.exception.TipoErro;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Filtro que aplica o {@link RateLimiter} antes de chegar no CupomController e no CampanhaController.
+ * A resposta 429 é pré-alocada, sem passar pelo Spring MVC nem pelo banco.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final byte[] CORPO_429 =
+            TipoErro.MUITAS_REQUISICOES.serializar("Limite de requisições excedido, tente novamente em instantes");
+
+    private final RateLimiter limiter;
+    private final String clientHeader;
+    private final int proxiesConfiaveis;
+    private final Counter rejeitadasCliente;
+    private final Counter rejeitadasGlobal;
+
+    public RateLimitFilter(RateLimiter limiter, RateLimitProperties properties, MeterRegistry registry) {
+        this.limiter = limiter;
+        this.clientHeader = properties.clientHeader();
+        this.proxiesConfiaveis = Math.max(1, properties.proxiesConfiaveis());
+        this.rejeitadasCliente = registry.counter("cupom.rate-limit.rejeitadas", "escopo", "cliente");
+        this.rejeitadasGlobal = registry.counter("cupom.rate-limit.rejeitadas", "escopo", "global");
+        registry.gauge("cupom.rate-limit.clientes", limiter, RateLimiter::clientesRastreados);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        switch (limiter.tentar(cliente(request))) {
+            case PERMITIDA -> chain.doFilter(request, response);
+            case REJEITADA_CLIENTE -> rejeitar(response, rejeitadasCliente);
+            case REJEITADA_GLOBAL -> rejeitar(response, rejeitadasGlobal);
+        }
+    }
+
+    /**
+     * Cada proxy acrescenta à direita do header o endereço de quem o chamou, e o cliente pode enviar o header
+     * já preenchido: só os últimos {@code proxiesConfiaveis} saltos são confiáveis, e o cliente é o mais à
+     * esquerda deles. Com menos saltos que isso, vale o primeiro.
+     */
+    private String cliente(HttpServletRequest request) {
+        if (!clientHeader.isEmpty()) {
+            String valor = request.getHeader(clientHeader);
+            if (valor != null && !valor.isBlank()) {
+                int fim = valor.length();
+                int inicio = valor.lastIndexOf(',', fim - 1) + 1;
+                for (int salto = 1; salto < proxiesConfiaveis && inicio > 0; salto++) {
+                    fim = inicio - 1;
+                    inicio = valor.lastIndexOf(',', fim - 1) + 1;
+                }
+                String cliente = valor.substring(inicio, fim).trim();
+                if (!cliente.isEmpty()) {
+                    return cliente;
+                }
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    private void rejeitar(HttpServletResponse response, Counter contador) throws IOException {
+        contador.increment();
+        response.setStatus(TipoErro.MUITAS_REQUISICOES.getStatus().value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.setContentType(MediaType.APPLICATION_PROBLEM_JSON_VALUE);
+        response.setContentLength(CORPO_429.length);
+        response.getOutputStream().write(CORPO_429);
+    }
+}
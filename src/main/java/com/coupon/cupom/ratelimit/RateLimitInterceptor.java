@@ -0,0 +1,58 @@
+package com.coupon.cupom.ratelimit;
+
+import com.coupon.cupom.grpc.EnderecoRemotoInterceptor;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Aplica o mesmo {@link RateLimiter} do {@link RateLimitFilter} às chamadas gRPC, pelo endereço remoto.
+ * Cada chamada consome um token ao começar; nas streams, cada mensagem consome mais um
+ * ({@link #permitir}, chamado pelo serviço), para que uma stream aberta não vire um canal sem limite.
+ */
+public class RateLimitInterceptor implements ServerInterceptor {
+
+    public static final String MENSAGEM = "Limite de requisições excedido, tente novamente em instantes";
+
+    private final RateLimiter limiter;
+    private final Counter rejeitadasCliente;
+    private final Counter rejeitadasGlobal;
+
+    public RateLimitInterceptor(RateLimiter limiter, MeterRegistry registry) {
+        this.limiter = limiter;
+        this.rejeitadasCliente = registry.counter("cupom.rate-limit.rejeitadas", "escopo", "cliente");
+        this.rejeitadasGlobal = registry.counter("cupom.rate-limit.rejeitadas", "escopo", "global");
+    }
+
+    @Override
+    public <Q, R> ServerCall.Listener<Q> interceptCall(ServerCall<Q, R> call, Metadata headers,
+                                                       ServerCallHandler<Q, R> next) {
+        if (permitir(EnderecoRemotoInterceptor.de(call))) {
+            return next.startCall(call, headers);
+        }
+        Metadata trailers = new Metadata();
+        trailers.put(Metadata.Key.of("retry-after", Metadata.ASCII_STRING_MARSHALLER), "1");
+        call.close(Status.RESOURCE_EXHAUSTED.withDescription(MENSAGEM), trailers);
+        return new ServerCall.Listener<>() {
+        };
+    }
+
+    /**
+     * Consome um token do cliente e do limite global, contando a rejeição na mesma métrica do filtro
+     * @return true se a requisição pode seguir
+     */
+    public boolean permitir(String cliente) {
+        switch (limiter.tentar(cliente)) {
+            case PERMITIDA -> {
+                return true;
+            }
+            case REJEITADA_CLIENTE -> rejeitadasCliente.increment();
+            case REJEITADA_GLOBAL -> rejeitadasGlobal.increment();
+        }
+        return false;
+    }
+}
@@ -0,0 +1,31 @@
+package com.coupon.cupom.ratelimit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configuração do rate limiting dos endpoints de cupom (prefixo cupom.rate-limit)
+ * @param enabled liga/desliga o filtro
+ * @param globalPorSegundo requisições por segundo somando todos os clientes
+ * @param globalBurst rajada máxima global
+ * @param clientePorSegundo requisições por segundo por cliente
+ * @param clienteBurst rajada máxima por cliente
+ * @param maxClientes quantidade máxima de clientes rastreados em memória
+ * @param stripes número de baldes em que o limite global é dividido
+ * @param clientHeader header que identifica o cliente (ex: X-Forwarded-For); vazio usa o IP remoto
+ * @param proxiesConfiaveis proxies confiáveis na frente da aplicação: o cliente é o salto que o mais externo deles
+ *                          acrescentou ao header, contado da direita; os saltos à esquerda vêm do cliente e são ignorados
+ */
+@ConfigurationProperties(prefix = "cupom.rate-limit")
+public record RateLimitProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("2000") double globalPorSegundo,
+        @DefaultValue("4000") int globalBurst,
+        @DefaultValue("20") double clientePorSegundo,
+        @DefaultValue("40") int clienteBurst,
+        @DefaultValue("100000") int maxClientes,
+        @DefaultValue("8") int stripes,
+        @DefaultValue("") String clientHeader,
+        @DefaultValue("1") int proxiesConfiaveis
+) {
+}
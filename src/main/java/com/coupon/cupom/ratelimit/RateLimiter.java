@@ -0,0 +1,139 @@
+package com.coupon.cupom.ratelimit;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Rate limiter em memória: um limite global dividido em stripes e um limite por cliente.
+ * Memória limitada a maxClientes. A partir de 3/4 da capacidade, cada cliente novo percorre alguns
+ * baldes a partir de onde a última remoção parou e remove os ociosos, então o custo fica espalhado e
+ * o mapa raramente enche; se ainda assim estiver cheio, clientes novos dividem um balde de transbordo.
+ */
+public class RateLimiter {
+
+    /**
+     * Resultado da tentativa de passar pelo limiter
+     */
+    public enum Decisao {
+        PERMITIDA,
+        REJEITADA_CLIENTE,
+        REJEITADA_GLOBAL
+    }
+
+    /**
+     * Baldes verificados por cliente novo quando o mapa está acima de 3/4 da capacidade
+     */
+    private static final int PASSOS_REMOCAO = 64;
+
+    private final TokenBucket[] stripes;
+    private final long intervaloStripe;
+    private final long toleranciaStripe;
+
+    private final ConcurrentHashMap<String, TokenBucket> clientes = new ConcurrentHashMap<>();
+    private final TokenBucket transbordo = new TokenBucket();
+    private final AtomicBoolean limpando = new AtomicBoolean();
+    private Iterator<TokenBucket> cursor;
+    private final long intervaloCliente;
+    private final long toleranciaCliente;
+    private final int maxClientes;
+    private final int limiarRemocao;
+
+    public RateLimiter(RateLimitProperties properties) {
+        int quantidade = Math.max(1, properties.stripes());
+        this.stripes = new TokenBucket[quantidade];
+        for (int i = 0; i < quantidade; i++) {
+            stripes[i] = new TokenBucket();
+        }
+        this.intervaloStripe = intervalo(properties.globalPorSegundo() / quantidade);
+        this.toleranciaStripe = intervaloStripe * Math.max(1, properties.globalBurst() / quantidade);
+        this.intervaloCliente = intervalo(properties.clientePorSegundo());
+        this.toleranciaCliente = intervaloCliente * Math.max(1, properties.clienteBurst());
+        this.maxClientes = properties.maxClientes();
+        this.limiarRemocao = maxClientes - maxClientes / 4;
+    }
+
+    public Decisao tentar(String cliente) {
+        return tentar(cliente, System.nanoTime());
+    }
+
+    /**
+     * O token do cliente é consumido primeiro, para que um cliente acima do próprio limite não gaste o global,
+     * e devolvido quando o global rejeita: a requisição não passou e não conta contra o cliente
+     */
+    public Decisao tentar(String cliente, long agora) {
+        TokenBucket bucket = bucketDoCliente(cliente, agora);
+        if (!bucket.tentarConsumir(agora, intervaloCliente, toleranciaCliente)) {
+            return Decisao.REJEITADA_CLIENTE;
+        }
+        if (!tentarGlobal(agora)) {
+            bucket.devolver(intervaloCliente);
+            return Decisao.REJEITADA_GLOBAL;
+        }
+        return Decisao.PERMITIDA;
+    }
+
+    public int clientesRastreados() {
+        return clientes.size();
+    }
+
+    /**
+     * Começa num stripe aleatório para espalhar a contenção do CAS e só percorre os demais
+     * quando o primeiro está vazio, de modo que o limite global continua exato
+     */
+    private boolean tentarGlobal(long agora) {
+        int inicio = ThreadLocalRandom.current().nextInt(stripes.length);
+        for (int i = 0; i < stripes.length; i++) {
+            TokenBucket stripe = stripes[(inicio + i) % stripes.length];
+            if (stripe.tentarConsumir(agora, intervaloStripe, toleranciaStripe)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private TokenBucket bucketDoCliente(String cliente, long agora) {
+        TokenBucket bucket = clientes.get(cliente);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (clientes.size() >= limiarRemocao) {
+            removerOciosos(agora);
+            if (clientes.size() >= maxClientes) {
+                return transbordo;
+            }
+        }
+        return clientes.computeIfAbsent(cliente, chave -> new TokenBucket());
+    }
+
+    /**
+     * Verifica no máximo {@link #PASSOS_REMOCAO} baldes, continuando de onde a chamada anterior parou.
+     * O iterador do ConcurrentHashMap tolera alterações concorrentes e é usado por uma thread de cada vez.
+     */
+    private void removerOciosos(long agora) {
+        if (!limpando.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            for (int i = 0; i < PASSOS_REMOCAO; i++) {
+                if (cursor == null || !cursor.hasNext()) {
+                    cursor = clientes.values().iterator();
+                    if (!cursor.hasNext()) {
+                        return;
+                    }
+                }
+                if (cursor.next().isOcioso(agora)) {
+                    cursor.remove();
+                }
+            }
+        } finally {
+            limpando.set(false);
+        }
+    }
+
+    private static long intervalo(double porSegundo) {
+        return (long) (TimeUnit.SECONDS.toNanos(1) / Math.max(porSegundo, 0.001));
+    }
+}
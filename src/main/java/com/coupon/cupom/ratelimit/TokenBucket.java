@@ -0,0 +1,47 @@
+package com.coupon.cupom.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket sem lock, implementado como GCRA (Generic Cell Rate Algorithm).
+ * Todo o estado é um único long (theoretical arrival time), atualizado por CAS.
+ */
+public final class TokenBucket {
+
+    private final AtomicLong tat = new AtomicLong(Long.MIN_VALUE);
+
+    /**
+     * Tenta consumir um token
+     * @param agora instante atual em nanos (System.nanoTime)
+     * @param intervalo nanos entre tokens (1s / taxa)
+     * @param tolerancia rajada máxima em nanos (burst * intervalo)
+     * @return true se o token foi consumido
+     */
+    public boolean tentarConsumir(long agora, long intervalo, long tolerancia) {
+        for (;;) {
+            long atual = tat.get();
+            long proximo = Math.max(atual, agora) + intervalo;
+            if (proximo - agora > tolerancia) {
+                return false;
+            }
+            if (tat.compareAndSet(atual, proximo)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Devolve um token consumido por uma requisição que acabou não passando
+     * @param intervalo o mesmo intervalo usado no consumo
+     */
+    public void devolver(long intervalo) {
+        tat.addAndGet(-intervalo);
+    }
+
+    /**
+     * Balde cheio: descartá-lo é equivalente a recriá-lo, então pode ser removido sem perda
+     */
+    public boolean isOcioso(long agora) {
+        return tat.get() <= agora;
+    }
+}
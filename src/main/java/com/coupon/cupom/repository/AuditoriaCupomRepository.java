@@ -0,0 +1,12 @@
+package com.coupon.cupom.repository;
+
+import com.coupon.cupom.entity.AuditoriaCupom;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface AuditoriaCupomRepository extends JpaRepository<AuditoriaCupom, Long> {
+
+    List<AuditoriaCupom> findByCupomIdOrderByOcorridoEmAscIdAsc(UUID cupomId);
+}
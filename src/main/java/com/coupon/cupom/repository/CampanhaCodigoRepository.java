@@ -0,0 +1,45 @@
+package com.coupon.cupom.repository;
+
+import com.coupon.cupom.entity.CampanhaCodigo;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface CampanhaCodigoRepository extends JpaRepository<CampanhaCodigo, String> {
+
+    /**
+     * Lista os códigos de uma campanha, paginado
+     */
+    List<CampanhaCodigo> findByCampanhaIdOrderByCode(UUID campanhaId, Pageable pageable);
+
+    /**
+     * Marca o código como resgatado somente se ainda estiver livre (update condicional, sem corrida)
+     * @return quantidade de linhas alteradas (0 ou 1)
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE campanha_codigos SET estado = " + CampanhaCodigo.RESGATADO + " WHERE code = :code AND estado = 0",
+            nativeQuery = true)
+    int marcarResgatado(String code);
+
+    /**
+     * Marca o código como deletado somente se ainda estiver livre
+     * @return quantidade de linhas alteradas (0 ou 1)
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE campanha_codigos SET estado = " + CampanhaCodigo.DELETADO + " WHERE code = :code AND estado = 0",
+            nativeQuery = true)
+    int marcarDeletado(String code);
+
+    /**
+     * Marca como deletados os códigos ainda livres da campanha; os resgatados continuam como estão
+     * @return quantidade de códigos marcados
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE campanha_codigos SET estado = " + CampanhaCodigo.DELETADO
+            + " WHERE campanha_id = :campanhaId AND estado = 0", nativeQuery = true)
+    int marcarDeletados(UUID campanhaId);
+}
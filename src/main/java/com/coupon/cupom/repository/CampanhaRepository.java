@@ -0,0 +1,9 @@
+package com.coupon.cupom.repository;
+
+import com.coupon.cupom.entity.Campanha;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.UUID;
+
+public interface CampanhaRepository extends JpaRepository<Campanha, UUID> {
+}
@@ -0,0 +1,9 @@
+package com.coupon.cupom.repository;
+
+import com.coupon.cupom.entity.CupomArquivado;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.UUID;
+
+public interface CupomArquivadoRepository extends JpaRepository<CupomArquivado, UUID> {
+}
@@ -1,14 +1,63 @@
 package com.coupon.cupom.repository;
 
 import com.coupon.cupom.entity.Cupom;
+import com.coupon.cupom.request.CupomResponse;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 public interface CupomRepository extends JpaRepository<Cupom, UUID> {
 
     /**
-     * Verifica se existe cupom com o código informado
+     * Verifica se o código já está em uso, como cupom avulso (inclusive arquivado) ou como código de campanha
      */
+    @Query(value = """
+            SELECT EXISTS (SELECT 1 FROM cupons WHERE code = :code)
+                OR EXISTS (SELECT 1 FROM campanha_codigos WHERE code = :code)
+                OR EXISTS (SELECT 1 FROM cupons_arquivados WHERE code = :code)
+            """, nativeQuery = true)
     boolean existsByCode(String code);
+
+    /**
+     * Verifica se o código está em uso fora da tabela cupons, onde a constraint única não alcança
+     */
+    @Query(value = """
+            SELECT EXISTS (SELECT 1 FROM campanha_codigos WHERE code = :code)
+                OR EXISTS (SELECT 1 FROM cupons_arquivados WHERE code = :code)
+            """, nativeQuery = true)
+    boolean existsByCodeEmCampanhaOuArquivo(String code);
+
+    /**
+     * Busca cupom pelo código já normalizado
+     */
+    Optional<Cupom> findByCode(String code);
+
+    /**
+     * Busca, em uma única consulta, os cupons com os códigos informados
+     */
+    List<Cupom> findAllByCodeIn(Collection<String> codes);
+
+    /**
+     * Projeta direto em CupomResponse os cupons com os IDs informados, sem carregar a entidade
+     */
+    @Query("""
+            select new com.coupon.cupom.request.CupomResponse(
+                c.id, c.code, c.description, c.discountValue, c.expirationDate, c.status, c.published, c.redeemed, c.version)
+            from Cupom c where c.id in :ids
+            """)
+    List<CupomResponse> findResponsesByIdIn(Collection<UUID> ids);
+
+    /**
+     * Projeta direto em CupomResponse os cupons com os códigos informados, sem carregar a entidade
+     */
+    @Query("""
+            select new com.coupon.cupom.request.CupomResponse(
+                c.id, c.code, c.description, c.discountValue, c.expirationDate, c.status, c.published, c.redeemed, c.version)
+            from Cupom c where c.code in :codes
+            """)
+    List<CupomResponse> findResponsesByCodeIn(Collection<String> codes);
 }
@@ -0,0 +1,47 @@
+package com.coupon.cupom.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+public class AplicarCupomRequest {
+
+    @Schema(description = "Itens do carrinho")
+    @NotEmpty(message = "Carrinho deve possuir ao menos um item")
+    @Size(max = 500, message = "Carrinho pode possuir no máximo 500 itens")
+    private List<@Valid @NotNull Item> itens;
+
+    @Schema(example = "[\"ABC123\"]", description = "Códigos dos cupons, aplicados na ordem informada")
+    @NotEmpty(message = "Informe ao menos um código")
+    @Size(max = 10, message = "Podem ser aplicados no máximo 10 cupons")
+    private List<@NotBlank(message = "Código é obrigatório") String> codes;
+
+    @Data
+    public static class Item {
+
+        @Schema(example = "SKU-001")
+        private String sku;
+
+        @Schema(example = "2")
+        @NotNull(message = "Quantidade é obrigatória")
+        @Positive(message = "Quantidade deve ser positiva")
+        private Integer quantidade;
+
+        @Schema(example = "49.90")
+        @NotNull(message = "Valor unitário é obrigatório")
+        @DecimalMin(value = "0.0", message = "Valor unitário não pode ser negativo")
+        @Digits(integer = 10, fraction = 2, message = "Valor unitário deve ter no máximo 2 casas decimais")
+        private BigDecimal valorUnitario;
+    }
+}
@@ -0,0 +1,27 @@
+package com.coupon.cupom.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class AplicarCupomResponse {
+
+    private BigDecimal subtotal;
+    private BigDecimal desconto;
+    private BigDecimal total;
+    private List<CupomAplicado> cupons;
+
+    @Data
+    @AllArgsConstructor
+    public static class CupomAplicado {
+
+        private String code;
+        private boolean aplicado;
+        private BigDecimal desconto;
+        private String motivo;
+    }
+}
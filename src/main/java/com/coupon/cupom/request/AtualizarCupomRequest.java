@@ -0,0 +1,31 @@
+package com.coupon.cupom.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Future;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Atualização parcial de cupom: só os campos informados são alterados
+ */
+@Data
+public class AtualizarCupomRequest {
+
+    @Schema(example = "ABC123", description = "Novo código do cupom (6 caracteres)")
+    private String code;
+
+    @Schema(example = "Cupom de desconto")
+    private String description;
+
+    @Schema(example = "10.0", minimum = "0.5")
+    @DecimalMin(value = "0.5", inclusive = true,
+            message = "Desconto mínimo é de 0.5")
+    private BigDecimal discountValue;
+
+    @Schema(example = "2026-12-31T23:59:59")
+    @Future(message = "Data de expiração deve ser futura")
+    private LocalDateTime expirationDate;
+}
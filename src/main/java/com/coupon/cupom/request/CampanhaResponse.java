@@ -0,0 +1,25 @@
+package com.coupon.cupom.request;
+
+import com.coupon.cupom.entity.CupomStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CampanhaResponse {
+
+    private UUID id;
+    private String description;
+    private BigDecimal discountValue;
+    private LocalDateTime expirationDate;
+    private CupomStatus status;
+    private boolean published;
+    private int quantidade;
+    private boolean deleted;
+}
@@ -0,0 +1,10 @@
+package com.coupon.cupom.request;
+
+/**
+ * Chave entre as mais acessadas
+ * @param tipo "id" ou "code"
+ * @param estimativa acessos estimados na janela atual (com decaimento)
+ * @param protegida se as leituras da chave passam pelo caminho protegido
+ */
+public record ChaveQuenteResponse(String chave, String tipo, long estimativa, boolean protegida) {
+}
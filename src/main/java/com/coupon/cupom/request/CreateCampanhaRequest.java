@@ -0,0 +1,40 @@
+package com.coupon.cupom.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Future;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+public class CreateCampanhaRequest {
+
+    @Schema(example = "Black Friday")
+    @NotBlank(message = "Descrição é obrigatória")
+    private String description;
+
+    @Schema(example = "10.0", minimum = "0.5")
+    @NotNull(message = "Valor de desconto é obrigatório")
+    @DecimalMin(value = "0.5", inclusive = true,
+            message = "Desconto mínimo é de 0.5")
+    private BigDecimal discountValue;
+
+    @Schema(example = "2026-12-31T23:59:59")
+    @NotNull(message = "Data de expiração é obrigatória")
+    @Future(message = "Data de expiração deve ser futura")
+    private LocalDateTime expirationDate;
+
+    @Schema(example = "true")
+    private boolean published;
+
+    @Schema(example = "100000", description = "Quantidade de códigos gerados")
+    @Min(value = 1, message = "Quantidade mínima é 1")
+    @Max(value = 1_000_000, message = "Quantidade máxima é 1.000.000")
+    private int quantidade;
+}
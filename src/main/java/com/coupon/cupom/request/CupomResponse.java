@@ -1,13 +1,18 @@
 package com.coupon.cupom.request;
 
 import com.coupon.cupom.entity.CupomStatus;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class CupomResponse {
 
     private UUID id;
@@ -18,4 +23,15 @@ public class CupomResponse {
     private CupomStatus status;
     private boolean published;
     private boolean redeemed;
+
+    /**
+     * Versão do cupom lida junto com o snapshot, para o cache descartar escritas atrasadas; fora da API
+     */
+    @JsonIgnore
+    private long version;
+
+    public CupomResponse(UUID id, String code, String description, BigDecimal discountValue,
+                         LocalDateTime expirationDate, CupomStatus status, boolean published, boolean redeemed) {
+        this(id, code, description, discountValue, expirationDate, status, published, redeemed, 0);
+    }
 }
@@ -0,0 +1,34 @@
+package com.coupon.cupom.request;
+
+import com.coupon.cupom.importacao.Importacao;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Andamento de uma importação
+ * @param erros primeiros erros; o relatório completo fica em /coupon/import/{id}/erros
+ */
+public record ImportacaoResponse(
+        UUID id,
+        String arquivo,
+        Importacao.Formato formato,
+        Importacao.Status status,
+        LocalDateTime criadaEm,
+        LocalDateTime iniciadaEm,
+        LocalDateTime concluidaEm,
+        long linhasLidas,
+        long importadas,
+        long rejeitadas,
+        String falha,
+        List<Erro> erros
+) {
+
+    /**
+     * Linha rejeitada
+     * @param code código como veio no arquivo
+     */
+    public record Erro(long linha, String code, String motivo) {
+    }
+}
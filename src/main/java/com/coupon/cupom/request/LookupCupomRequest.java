@@ -0,0 +1,24 @@
+package com.coupon.cupom.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+public class LookupCupomRequest {
+
+    @Schema(description = "IDs dos cupons")
+    @NotNull(message = "Lista de IDs não pode ser nula")
+    @Size(max = 500, message = "Podem ser buscados no máximo 500 IDs por requisição")
+    private List<@NotNull UUID> ids = new ArrayList<>();
+
+    @Schema(example = "[\"ABC123\"]", description = "Códigos dos cupons")
+    @NotNull(message = "Lista de códigos não pode ser nula")
+    @Size(max = 500, message = "Podem ser buscados no máximo 500 códigos por requisição")
+    private List<@NotNull String> codes = new ArrayList<>();
+}
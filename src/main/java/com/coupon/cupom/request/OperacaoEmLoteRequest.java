@@ -0,0 +1,32 @@
+package com.coupon.cupom.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+public class OperacaoEmLoteRequest {
+
+    @Schema(description = "IDs dos cupons")
+    @NotNull(message = "Lista de IDs não pode ser nula")
+    @Size(max = 10000, message = "Podem ser alterados no máximo 10000 IDs por requisição")
+    private List<@NotNull UUID> ids = new ArrayList<>();
+
+    @Schema(example = "BF", description = "Alternativa aos IDs: aplica aos cupons cujo código começa com o prefixo. "
+            + "Cada requisição processa até 10000 cupons elegíveis; repita até não sobrar nenhum.")
+    @Pattern(regexp = "[A-Za-z0-9]{1,6}", message = "Prefixo deve ter de 1 a 6 caracteres alfanuméricos")
+    private String codePrefixo;
+
+    @AssertTrue(message = "Informe os IDs ou o prefixo do código, não os dois")
+    @Schema(hidden = true)
+    public boolean isAlvoValido() {
+        return ids.isEmpty() != (codePrefixo == null);
+    }
+}
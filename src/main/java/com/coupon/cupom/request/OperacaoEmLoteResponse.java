@@ -0,0 +1,30 @@
+package com.coupon.cupom.request;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Resultado de uma operação em lote, com o desfecho de cada cupom na ordem da requisição
+ * @param aplicados cupons alterados
+ * @param recusados cupons não alterados (não encontrados, arquivados ou recusados pela regra)
+ */
+public record OperacaoEmLoteResponse(int aplicados, int recusados, List<Item> resultados) {
+
+    public enum Resultado {
+        APLICADO,
+        NAO_ENCONTRADO,
+        ARQUIVADO,
+        RECUSADO
+    }
+
+    /**
+     * @param motivo regra que impediu a alteração, quando recusado
+     */
+    public record Item(UUID id, Resultado resultado, String motivo) {
+    }
+
+    public static OperacaoEmLoteResponse de(List<Item> resultados) {
+        int aplicados = (int) resultados.stream().filter(item -> item.resultado() == Resultado.APLICADO).count();
+        return new OperacaoEmLoteResponse(aplicados, resultados.size() - aplicados, resultados);
+    }
+}
@@ -0,0 +1,13 @@
+package com.coupon.cupom.request;
+
+import com.coupon.cupom.estatisticas.TipoUso;
+
+import java.time.LocalDateTime;
+
+/**
+ * Contagem de um bucket das estatísticas de uso
+ * @param inicio início do bucket
+ * @param origem "cupons" para cupons avulsos ou o ID da campanha
+ */
+public record UsoAgregadoResponse(LocalDateTime inicio, String origem, TipoUso tipo, long quantidade) {
+}
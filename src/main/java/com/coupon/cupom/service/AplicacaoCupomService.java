@@ -0,0 +1,125 @@
+package com.coupon.cupom.service;
+
+import com.coupon.cupom.entity.Cupom;
+import com.coupon.cupom.entity.CupomStatus;
+import com.coupon.cupom.repository.CupomRepository;
+import com.coupon.cupom.request.AplicarCupomRequest;
+import com.coupon.cupom.request.AplicarCupomResponse;
+import com.coupon.cupom.request.AplicarCupomResponse.CupomAplicado;
+import com.coupon.cupom.request.CupomResponse;
+import com.coupon.cupom.tempo.Relogio;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Serviço que calcula o desconto dos cupons sobre um carrinho.
+ * Apenas simula a aplicação: nenhum cupom é resgatado.
+ */
+@Service
+@Transactional(readOnly = true)
+public class AplicacaoCupomService {
+
+    private static final BigDecimal SEM_DESCONTO = new BigDecimal("0.00");
+
+    private final CupomRepository repository;
+    private final CampanhaService campanhas;
+    private final Relogio relogio;
+
+    public AplicacaoCupomService(CupomRepository repository, CampanhaService campanhas, Relogio relogio) {
+        this.repository = repository;
+        this.campanhas = campanhas;
+        this.relogio = relogio;
+    }
+
+    /**
+     * Aplica os cupons ao carrinho na ordem informada.
+     * O discountValue é um valor fixo, limitado ao que ainda resta do total.
+     * Todos os códigos são buscados em uma única consulta; os que não são de cupom avulso
+     * são procurados entre os códigos de campanha, que aplicam o desconto da campanha.
+     * @param request itens do carrinho e códigos
+     * @return subtotal, desconto, total e o resultado de cada código
+     */
+    public AplicarCupomResponse aplicar(AplicarCupomRequest request) {
+        BigDecimal subtotal = BigDecimal.ZERO;
+        for (AplicarCupomRequest.Item item : request.getItens()) {
+            subtotal = subtotal.add(item.getValorUnitario().multiply(BigDecimal.valueOf(item.getQuantidade())));
+        }
+
+        List<String> informados = request.getCodes();
+        List<String> tratados = new ArrayList<>(informados.size());
+        Set<String> validos = new LinkedHashSet<>();
+        for (String code : informados) {
+            String tratado = Cupom.tratarCodeOuNulo(code);
+            tratados.add(tratado);
+            if (tratado != null) {
+                validos.add(tratado);
+            }
+        }
+
+        LocalDateTime agora = relogio.agora();
+        Map<String, Candidato> cupons = new HashMap<>();
+        if (!validos.isEmpty()) {
+            for (Cupom cupom : repository.findAllByCodeIn(validos)) {
+                cupons.put(cupom.getCode(), new Candidato(cupom.getDiscountValue(), cupom.podeSerResgatado(agora)));
+                validos.remove(cupom.getCode());
+            }
+        }
+        if (!validos.isEmpty()) {
+            campanhas.buscarCodigos(validos).forEach((code, codigo) ->
+                    cupons.put(code, new Candidato(codigo.getDiscountValue(), permiteResgate(codigo, agora))));
+        }
+
+        BigDecimal restante = subtotal;
+        Set<String> aplicados = new LinkedHashSet<>();
+        List<CupomAplicado> resultado = new ArrayList<>(informados.size());
+        for (int i = 0; i < informados.size(); i++) {
+            String tratado = tratados.get(i);
+            if (tratado == null) {
+                resultado.add(rejeitado(informados.get(i), "Código inválido"));
+                continue;
+            }
+            Candidato cupom = cupons.get(tratado);
+            if (cupom == null) {
+                resultado.add(rejeitado(tratado, "Cupom não encontrado"));
+            } else if (!aplicados.add(tratado)) {
+                resultado.add(rejeitado(tratado, "Cupom informado mais de uma vez"));
+            } else if (!cupom.resgatavel()) {
+                resultado.add(rejeitado(tratado, "Cupom não pode ser resgatado"));
+            } else {
+                BigDecimal desconto = cupom.discountValue().min(restante);
+                restante = restante.subtract(desconto);
+                resultado.add(new CupomAplicado(tratado, true, desconto, null));
+            }
+        }
+
+        return new AplicarCupomResponse(subtotal, subtotal.subtract(restante), restante, resultado);
+    }
+
+    /**
+     * Mesma regra de Campanha.permiteResgate sobre o snapshot do código: o status só fica ACTIVE
+     * com a campanha ativa e não deletada e o código livre
+     */
+    private static boolean permiteResgate(CupomResponse codigo, LocalDateTime agora) {
+        return codigo.isPublished() && codigo.getStatus() == CupomStatus.ACTIVE
+                && !agora.isAfter(codigo.getExpirationDate());
+    }
+
+    private static CupomAplicado rejeitado(String code, String motivo) {
+        return new CupomAplicado(code, false, SEM_DESCONTO, motivo);
+    }
+
+    /**
+     * Desconto e elegibilidade de um código, venha ele de um cupom avulso ou de uma campanha
+     */
+    private record Candidato(BigDecimal discountValue, boolean resgatavel) {
+    }
+}
@@ -0,0 +1,339 @@
+package com.coupon.cupom.service;
+
+import com.coupon.cupom.entity.Campanha;
+import com.coupon.cupom.entity.CampanhaCodigo;
+import com.coupon.cupom.entity.Cupom;
+import com.coupon.cupom.entity.CupomStatus;
+import com.coupon.cupom.estatisticas.EstatisticasUso;
+import com.coupon.cupom.estatisticas.TipoUso;
+import com.coupon.cupom.event.CampanhaCriadaEvent;
+import com.coupon.cupom.exception.CupomInvalidoException;
+import com.coupon.cupom.exception.CupomNotFoundException;
+import com.coupon.cupom.exception.TransicaoInvalidaException;
+import com.coupon.cupom.index.IndiceCodigos;
+import com.coupon.cupom.repository.CampanhaCodigoRepository;
+import com.coupon.cupom.repository.CampanhaRepository;
+import com.coupon.cupom.request.CreateCampanhaRequest;
+import com.coupon.cupom.request.CupomResponse;
+import com.coupon.cupom.tempo.Relogio;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Serviço de campanhas: um modelo de cupom compartilhado por muitos códigos.
+ * Os códigos são gerados em lote direto na tabela campanha_codigos, sem passar pelo JPA.
+ * Os códigos não têm ID próprio: no formato de cupom, {@code id} vem nulo.
+ */
+@Service
+@Transactional
+public class CampanhaService {
+
+    /**
+     * Quantidade de códigos gerados e inseridos por lote
+     */
+    static final int TAMANHO_LOTE = 1000;
+
+    /**
+     * Tentativas de um lote que colidiu com códigos inseridos por outra criação concorrente
+     */
+    static final int MAX_TENTATIVAS = 5;
+
+    private static final char[] ALFABETO = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ".toCharArray();
+    private static final long ESPACO_CODIGOS = 2_176_782_336L; // 36^6
+
+    private static final String INSERT_CODIGO =
+            "INSERT INTO campanha_codigos (code, campanha_id, estado) VALUES (?, ?, 0)";
+    private static final String CODIGOS_EM_USO = """
+            SELECT code FROM cupons WHERE code IN (:codes)
+            UNION ALL
+            SELECT code FROM campanha_codigos WHERE code IN (:codes)
+            UNION ALL
+            SELECT code FROM cupons_arquivados WHERE code IN (:codes)
+            """;
+    private static final String CODIGOS_DA_CAMPANHA = "SELECT code FROM campanha_codigos WHERE campanha_id = :campanhaId";
+    private static final String REMOVER_CODIGOS = "DELETE FROM campanha_codigos WHERE campanha_id = :campanhaId";
+
+    private final CampanhaRepository repository;
+    private final CampanhaCodigoRepository codigoRepository;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final IndiceCodigos indice;
+    private final ApplicationEventPublisher eventos;
+    private final Relogio relogio;
+    private final EstatisticasUso estatisticas;
+    private final TransactionTemplate transacao;
+    private final SecureRandom random = new SecureRandom();
+
+    public CampanhaService(CampanhaRepository repository, CampanhaCodigoRepository codigoRepository,
+                           NamedParameterJdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                           IndiceCodigos indice, ApplicationEventPublisher eventos, Relogio relogio,
+                           EstatisticasUso estatisticas) {
+        this.repository = repository;
+        this.codigoRepository = codigoRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transacao = new TransactionTemplate(transactionManager);
+        this.indice = indice;
+        this.eventos = eventos;
+        this.relogio = relogio;
+        this.estatisticas = estatisticas;
+    }
+
+    /**
+     * Cria a campanha e gera seus códigos únicos, cada lote em sua própria transação.
+     * Se a geração falhar, a campanha e os códigos já gerados são removidos.
+     * @param request dados da campanha e quantidade de códigos
+     * @return Campanha criada
+     * @throws CupomInvalidoException se dados inválidos
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Campanha criarCampanha(CreateCampanhaRequest request) {
+        Campanha nova = Campanha.criar(
+                request.getDescription(),
+                request.getDiscountValue(),
+                request.getExpirationDate(),
+                request.isPublished(),
+                request.getQuantidade(),
+                relogio.agora()
+        );
+        Campanha campanha = transacao.execute(status -> repository.save(nova));
+        try {
+            gerarCodigos(campanha.getId(), request.getQuantidade());
+        } catch (RuntimeException e) {
+            transacao.executeWithoutResult(status -> {
+                jdbcTemplate.query(CODIGOS_DA_CAMPANHA, Map.of("campanhaId", campanha.getId()),
+                        rs -> {
+                            indice.remover(rs.getString(1));
+                        });
+                jdbcTemplate.update(REMOVER_CODIGOS, Map.of("campanhaId", campanha.getId()));
+                repository.deleteById(campanha.getId());
+            });
+            throw e;
+        }
+        eventos.publishEvent(new CampanhaCriadaEvent(campanha.getId()));
+        estatisticas.registrar(TipoUso.CRIACAO, campanha.getId().toString(), request.getQuantidade());
+        return campanha;
+    }
+
+    /**
+     * Busca uma campanha por ID
+     * @throws CupomNotFoundException se não encontrar
+     */
+    @Transactional(readOnly = true)
+    public Campanha buscarPorId(UUID id) {
+        return repository.findById(id)
+                .orElseThrow(() -> CupomNotFoundException.semStackTrace("Campanha com ID " + id + " não encontrada"));
+    }
+
+    /**
+     * Publica a campanha, liberando o resgate dos códigos
+     * @throws CupomNotFoundException se não encontrar
+     * @throws TransicaoInvalidaException se já estiver publicada ou deletada
+     */
+    public Campanha publicarCampanha(UUID id) {
+        Campanha campanha = buscarPorId(id);
+        campanha.publicar();
+        return campanha;
+    }
+
+    /**
+     * Desativa a campanha, suspendendo o resgate dos códigos
+     * @throws CupomNotFoundException se não encontrar
+     * @throws TransicaoInvalidaException se não estiver publicada e ativa
+     */
+    public Campanha desativarCampanha(UUID id) {
+        Campanha campanha = buscarPorId(id);
+        campanha.desativar();
+        return campanha;
+    }
+
+    /**
+     * Deleta logicamente a campanha e marca como deletados os códigos ainda não resgatados
+     * @throws CupomNotFoundException se não encontrar
+     * @throws TransicaoInvalidaException se já estiver deletada
+     */
+    public Campanha deletarCampanha(UUID id) {
+        Campanha campanha = buscarPorId(id);
+        campanha.deletar(relogio.agora());
+        // A consulta descarrega a campanha antes de marcar os códigos
+        codigoRepository.marcarDeletados(id);
+        return campanha;
+    }
+
+    /**
+     * Deleta logicamente um código de campanha ainda não resgatado
+     * @throws CupomNotFoundException se o código não existir
+     * @throws TransicaoInvalidaException se já estiver resgatado ou deletado
+     */
+    public CupomResponse deletarCodigo(String code) {
+        CampanhaCodigo codigo = carregarCodigo(code);
+        if (codigoRepository.marcarDeletado(codigo.getCode()) == 0) {
+            CampanhaCodigo atual = carregarCodigo(code);
+            throw new TransicaoInvalidaException(atual.isDeleted()
+                    ? "Cupom já foi deletado" : "Não é possível deletar um cupom já resgatado");
+        }
+        return paraResponse(buscarPorId(codigo.getCampanhaId()), codigo.getCode(), false, true);
+    }
+
+    /**
+     * Lista os códigos da campanha no formato de cupom
+     */
+    @Transactional(readOnly = true)
+    public List<CupomResponse> listarCodigos(UUID id, int pagina, int tamanho) {
+        Campanha campanha = buscarPorId(id);
+        return codigoRepository.findByCampanhaIdOrderByCode(id, PageRequest.of(pagina, tamanho)).stream()
+                .map(codigo -> paraResponse(campanha, codigo.getCode(), codigo.isRedeemed(), codigo.isDeleted()))
+                .toList();
+    }
+
+    /**
+     * Busca um código de campanha no formato de cupom
+     * @throws CupomNotFoundException se o código não existir
+     */
+    @Transactional(readOnly = true)
+    public CupomResponse buscarCodigo(String code) {
+        CampanhaCodigo codigo = carregarCodigo(code);
+        Campanha campanha = buscarPorId(codigo.getCampanhaId());
+        return paraResponse(campanha, codigo.getCode(), codigo.isRedeemed(), codigo.isDeleted());
+    }
+
+    /**
+     * Busca vários códigos de campanha no formato de cupom: uma consulta IN por lote de códigos e uma
+     * para as campanhas envolvidas. Com o índice carregado, só os códigos de campanha vão ao banco.
+     * @param codes códigos já normalizados
+     * @return códigos encontrados, por código
+     */
+    @Transactional(readOnly = true)
+    public Map<String, CupomResponse> buscarCodigos(Collection<String> codes) {
+        List<String> candidatos = codes.stream()
+                .filter(code -> !indice.isPronto() || indice.isCampanha(code))
+                .distinct()
+                .toList();
+        if (candidatos.isEmpty()) {
+            return Map.of();
+        }
+        List<CampanhaCodigo> codigos = new ArrayList<>(candidatos.size());
+        for (int inicio = 0; inicio < candidatos.size(); inicio += TAMANHO_LOTE) {
+            codigos.addAll(codigoRepository.findAllById(
+                    candidatos.subList(inicio, Math.min(inicio + TAMANHO_LOTE, candidatos.size()))));
+        }
+        List<UUID> campanhaIds = codigos.stream().map(CampanhaCodigo::getCampanhaId).distinct().toList();
+        Map<UUID, Campanha> campanhas = new HashMap<>();
+        for (Campanha campanha : repository.findAllById(campanhaIds)) {
+            campanhas.put(campanha.getId(), campanha);
+        }
+        Map<String, CupomResponse> encontrados = new HashMap<>();
+        for (CampanhaCodigo codigo : codigos) {
+            encontrados.put(codigo.getCode(), paraResponse(campanhas.get(codigo.getCampanhaId()), codigo.getCode(),
+                    codigo.isRedeemed(), codigo.isDeleted()));
+        }
+        return encontrados;
+    }
+
+    /**
+     * Resgata um código de campanha com um update condicional: dois resgates concorrentes
+     * do mesmo código nunca são aceitos
+     * @throws CupomNotFoundException se o código não existir
+     * @throws CupomInvalidoException se não puder ser resgatado
+     */
+    public CupomResponse resgatarCodigo(String code) {
+        CampanhaCodigo codigo = carregarCodigo(code);
+        Campanha campanha = buscarPorId(codigo.getCampanhaId());
+        String origem = campanha.getId().toString();
+        if (!campanha.permiteResgate(relogio.agora()) || codigo.getEstado() != 0
+                || codigoRepository.marcarResgatado(codigo.getCode()) == 0) {
+            estatisticas.registrarFalhaResgate(origem);
+            throw CupomInvalidoException.NAO_PODE_SER_RESGATADO;
+        }
+        estatisticas.registrar(TipoUso.RESGATE, origem, 1);
+        return paraResponse(campanha, codigo.getCode(), true, false);
+    }
+
+    private CampanhaCodigo carregarCodigo(String code) {
+        String codeTratado = Cupom.tratarCode(code);
+        if (indice.isPronto() && !indice.isCampanha(codeTratado)) {
+            throw CupomNotFoundException.NAO_ENCONTRADO;
+        }
+        return codigoRepository.findById(codeTratado)
+                .orElseThrow(() -> CupomNotFoundException.semStackTrace("Cupom com código " + codeTratado + " não encontrado"));
+    }
+
+    /**
+     * Gera os códigos em lotes, cada um em sua transação: sorteia candidatos, descarta os que já existem
+     * (como cupom, cupom arquivado ou código de campanha) e insere o restante com JDBC batch.
+     * Um lote que colide com códigos que outra criação inseriu depois da consulta é desfeito e sorteado de novo.
+     * Cada lote confirmado entra no índice de códigos na hora.
+     */
+    private void gerarCodigos(UUID campanhaId, int quantidade) {
+        int restantes = quantidade;
+        int colisoes = 0;
+        while (restantes > 0) {
+            int tamanho = Math.min(TAMANHO_LOTE, restantes);
+            try {
+                List<String> inseridos = transacao.execute(status -> inserirLote(campanhaId, tamanho));
+                // Já confirmados: entram no índice agora, não só no fim da geração, que pode levar minutos
+                indice.adicionarCodigosCampanha(inseridos);
+                restantes -= inseridos.size();
+                colisoes = 0;
+            } catch (DuplicateKeyException e) {
+                if (++colisoes >= MAX_TENTATIVAS) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private List<String> inserirLote(UUID campanhaId, int tamanho) {
+        Set<String> candidatos = new HashSet<>(tamanho * 2);
+        while (candidatos.size() < tamanho) {
+            candidatos.add(sortearCodigo());
+        }
+        candidatos.removeAll(jdbcTemplate.queryForList(CODIGOS_EM_USO, Map.of("codes", candidatos), String.class));
+
+        List<String> novos = new ArrayList<>(candidatos);
+        jdbcTemplate.getJdbcTemplate().batchUpdate(INSERT_CODIGO, novos, novos.size(), (ps, novo) -> {
+            ps.setString(1, novo);
+            ps.setObject(2, campanhaId);
+        });
+        return novos;
+    }
+
+    private String sortearCodigo() {
+        long valor = random.nextLong(ESPACO_CODIGOS);
+        char[] code = new char[6];
+        for (int i = 5; i >= 0; i--) {
+            code[i] = ALFABETO[(int) (valor % 36)];
+            valor /= 36;
+        }
+        return new String(code);
+    }
+
+    private static CupomResponse paraResponse(Campanha campanha, String code, boolean redeemed, boolean deleted) {
+        CupomStatus status = redeemed || deleted ? CupomStatus.INACTIVE : campanha.getStatus();
+        return new CupomResponse(
+                null,
+                code,
+                campanha.getDescription(),
+                campanha.getDiscountValue(),
+                campanha.getExpirationDate(),
+                status,
+                campanha.isPublished(),
+                redeemed
+        );
+    }
+}
@@ -0,0 +1,183 @@
+package com.coupon.cupom.service;
+
+import com.coupon.cupom.auditoria.AuditoriaCupons;
+import com.coupon.cupom.entity.Cupom;
+import com.coupon.cupom.entity.Cupom.Transicao;
+import com.coupon.cupom.entity.CupomStatus;
+import com.coupon.cupom.entity.EstadoCupom;
+import com.coupon.cupom.event.CupomAlteradoEvent;
+import com.coupon.cupom.event.CupomAlteradoEvent.Operacao;
+import com.coupon.cupom.request.OperacaoEmLoteResponse;
+import com.coupon.cupom.request.OperacaoEmLoteResponse.Item;
+import com.coupon.cupom.request.OperacaoEmLoteResponse.Resultado;
+import com.coupon.cupom.tempo.Relogio;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Publicação, desativação e deleção de muitos cupons de uma vez, sem carregar entidades.
+ * Cada lote trava as linhas com SELECT ... FOR UPDATE, decide o desfecho de cada cupom com as mesmas
+ * regras de {@link Cupom#impedimento} e altera os elegíveis com um único UPDATE, na sua própria transação.
+ * Os eventos de alteração e a auditoria de cada cupom saem após o commit do lote.
+ */
+@Service
+public class CupomLoteService {
+
+    /**
+     * Cupons travados e alterados por transação
+     */
+    static final int TAMANHO_LOTE = 1000;
+
+    /**
+     * Cupons processados por requisição com filtro de código
+     */
+    static final int MAX_POR_FILTRO = 10000;
+
+    private static final String CARREGAR = """
+            SELECT id, code, description, discount_value, expiration_date, status, published, redeemed, deleted_at, version
+            FROM cupons WHERE id IN (:ids) ORDER BY id FOR UPDATE
+            """;
+    private static final String ARQUIVADOS = "SELECT id FROM cupons_arquivados WHERE id IN (:ids)";
+    private static final String POR_PREFIXO = "SELECT id FROM cupons WHERE code LIKE :prefixo AND %s ORDER BY id LIMIT :limite";
+
+    private static final RowMapper<EstadoCupom> ESTADO = (rs, linha) -> new EstadoCupom(
+            rs.getString("code"),
+            rs.getString("description"),
+            rs.getBigDecimal("discount_value"),
+            rs.getObject("expiration_date", LocalDateTime.class),
+            CupomStatus.valueOf(rs.getString("status")),
+            rs.getBoolean("published"),
+            rs.getBoolean("redeemed"),
+            rs.getObject("deleted_at", LocalDateTime.class));
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transacao;
+    private final ApplicationEventPublisher eventos;
+    private final AuditoriaCupons auditoria;
+    private final Relogio relogio;
+
+    public CupomLoteService(NamedParameterJdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                            ApplicationEventPublisher eventos, AuditoriaCupons auditoria, Relogio relogio) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transacao = new TransactionTemplate(transactionManager);
+        this.eventos = eventos;
+        this.auditoria = auditoria;
+        this.relogio = relogio;
+    }
+
+    /**
+     * Aplica a transição aos cupons informados
+     * @return desfecho de cada ID, na ordem informada e sem repetições
+     */
+    public OperacaoEmLoteResponse aplicar(Transicao transicao, List<UUID> ids) {
+        List<UUID> unicos = new ArrayList<>(new LinkedHashSet<>(ids));
+        List<Item> resultados = new ArrayList<>(unicos.size());
+        for (int i = 0; i < unicos.size(); i += TAMANHO_LOTE) {
+            List<UUID> lote = unicos.subList(i, Math.min(i + TAMANHO_LOTE, unicos.size()));
+            resultados.addAll(transacao.execute(status -> aplicarLote(transicao, lote)));
+        }
+        return OperacaoEmLoteResponse.de(resultados);
+    }
+
+    /**
+     * Aplica a transição aos cupons elegíveis cujo código começa com o prefixo, até {@link #MAX_POR_FILTRO}
+     */
+    public OperacaoEmLoteResponse aplicarPorPrefixo(Transicao transicao, String codePrefixo) {
+        String prefixo = codePrefixo.replaceAll("[^a-zA-Z0-9]", "").toUpperCase();
+        List<UUID> ids = jdbcTemplate.queryForList(POR_PREFIXO.formatted(elegiveis(transicao)),
+                Map.of("prefixo", prefixo + "%", "limite", MAX_POR_FILTRO), UUID.class);
+        return aplicar(transicao, ids);
+    }
+
+    private List<Item> aplicarLote(Transicao transicao, List<UUID> ids) {
+        Map<UUID, EstadoCupom> estados = new HashMap<>();
+        Map<UUID, Long> versoes = new HashMap<>();
+        jdbcTemplate.query(CARREGAR, Map.of("ids", ids),
+                rs -> {
+                    UUID id = rs.getObject("id", UUID.class);
+                    estados.put(id, ESTADO.mapRow(rs, rs.getRow()));
+                    versoes.put(id, rs.getLong("version"));
+                });
+        Set<UUID> arquivados = estados.size() == ids.size() ? Set.of() : new HashSet<>(
+                jdbcTemplate.queryForList(ARQUIVADOS, Map.of("ids", ids), UUID.class));
+
+        List<Item> resultados = new ArrayList<>(ids.size());
+        List<UUID> elegiveis = new ArrayList<>();
+        for (UUID id : ids) {
+            EstadoCupom estado = estados.get(id);
+            if (estado == null) {
+                resultados.add(new Item(id, arquivados.contains(id) ? Resultado.ARQUIVADO : Resultado.NAO_ENCONTRADO, null));
+                continue;
+            }
+            String impedimento = Cupom.impedimento(transicao, estado);
+            if (impedimento != null) {
+                resultados.add(new Item(id, Resultado.RECUSADO, impedimento));
+            } else {
+                resultados.add(new Item(id, Resultado.APLICADO, null));
+                elegiveis.add(id);
+            }
+        }
+        if (elegiveis.isEmpty()) {
+            return resultados;
+        }
+
+        LocalDateTime agora = relogio.agora();
+        int alterados = jdbcTemplate.update(atualizacao(transicao), Map.of("ids", elegiveis, "agora", agora));
+        if (alterados != elegiveis.size()) {
+            // As linhas estão travadas; só chega aqui se outra escrita ignorou o lock
+            throw new OptimisticLockingFailureException("Cupons do lote alterados por outra transação");
+        }
+        Operacao operacao = operacao(transicao);
+        for (UUID id : elegiveis) {
+            EstadoCupom antes = estados.get(id);
+            EstadoCupom depois = Cupom.aplicar(transicao, antes, agora);
+            eventos.publishEvent(CupomAlteradoEvent.de(operacao, id, depois, versoes.get(id) + 1));
+            auditoria.registrar(operacao, id, antes, depois);
+        }
+        return resultados;
+    }
+
+    /**
+     * Condição SQL equivalente a {@link Cupom#impedimento} não ter objeção
+     */
+    private static String elegiveis(Transicao transicao) {
+        return switch (transicao) {
+            case PUBLICAR -> "published = FALSE AND deleted_at IS NULL";
+            case DESATIVAR -> "published = TRUE AND status = 'ACTIVE'";
+            case DELETAR -> "deleted_at IS NULL AND redeemed = FALSE";
+        };
+    }
+
+    private static String atualizacao(Transicao transicao) {
+        String alteracao = switch (transicao) {
+            case PUBLICAR -> "published = TRUE, status = 'ACTIVE'";
+            case DESATIVAR -> "status = 'INACTIVE'";
+            case DELETAR -> "deleted_at = :agora, status = 'INACTIVE'";
+        };
+        return "UPDATE cupons SET " + alteracao + ", version = version + 1, updated_at = :agora "
+                + "WHERE id IN (:ids) AND " + elegiveis(transicao);
+    }
+
+    private static Operacao operacao(Transicao transicao) {
+        return switch (transicao) {
+            case PUBLICAR -> Operacao.PUBLICADO;
+            case DESATIVAR -> Operacao.DESATIVADO;
+            case DELETAR -> Operacao.DELETADO;
+        };
+    }
+}
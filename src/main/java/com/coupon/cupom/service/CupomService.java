@@ -1,39 +1,235 @@
 package com.coupon.cupom.service;
 
+import com.coupon.cupom.auditoria.AuditoriaCupons;
+import com.coupon.cupom.cache.CupomCache;
+import com.coupon.cupom.cache.NegativeLookupCache;
 import com.coupon.cupom.entity.Cupom;
+import com.coupon.cupom.entity.CupomArquivado;
+import com.coupon.cupom.entity.EstadoCupom;
+import com.coupon.cupom.estatisticas.EstatisticasUso;
+import com.coupon.cupom.event.CupomAlteradoEvent;
+import com.coupon.cupom.event.CupomAlteradoEvent.Operacao;
 import com.coupon.cupom.exception.CupomNotFoundException;
 import com.coupon.cupom.exception.CupomInvalidoException;
+import com.coupon.cupom.exception.TransicaoInvalidaException;
+import com.coupon.cupom.index.IndiceCodigos;
+import com.coupon.cupom.mapper.CupomMapper;
+import com.coupon.cupom.quentes.ProtecaoQuentes;
+import com.coupon.cupom.repository.CupomArquivadoRepository;
 import com.coupon.cupom.repository.CupomRepository;
+import com.coupon.cupom.request.AtualizarCupomRequest;
 import com.coupon.cupom.request.CreateCupomRequest;
+import com.coupon.cupom.request.CupomResponse;
+import com.coupon.cupom.tempo.Relogio;
+import io.micrometer.observation.annotation.Observed;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
 
 /**
  * Serviço de gerenciamento de cupons
  * Contém a lógica de negócio relacionada a cupons
  */
 @Service
+@Observed(name = "cupom.service")
 @Transactional
 public class CupomService {
 
+    /**
+     * Quantidade máxima de parâmetros por consulta IN
+     */
+    static final int TAMANHO_LOTE = 200;
+
     private final CupomRepository repository;
+    private final CupomArquivadoRepository arquivoRepository;
+    private final NegativeLookupCache cacheNegativo;
+    private final CupomCache cache;
+    private final CupomMapper mapper;
+    private final IndiceCodigos indice;
+    private final ApplicationEventPublisher eventos;
+    private final Relogio relogio;
+    private final AuditoriaCupons auditoria;
+    private final EstatisticasUso estatisticas;
+    private final ProtecaoQuentes quentes;
+    private final CampanhaService campanhas;
 
-    public CupomService(CupomRepository repository) {
+    public CupomService(CupomRepository repository, CupomArquivadoRepository arquivoRepository,
+                        NegativeLookupCache cacheNegativo, CupomCache cache, CupomMapper mapper,
+                        IndiceCodigos indice, ApplicationEventPublisher eventos, Relogio relogio,
+                        AuditoriaCupons auditoria, EstatisticasUso estatisticas, ProtecaoQuentes quentes,
+                        CampanhaService campanhas) {
         this.repository = repository;
+        this.arquivoRepository = arquivoRepository;
+        this.cacheNegativo = cacheNegativo;
+        this.cache = cache;
+        this.mapper = mapper;
+        this.indice = indice;
+        this.eventos = eventos;
+        this.relogio = relogio;
+        this.auditoria = auditoria;
+        this.estatisticas = estatisticas;
+        this.quentes = quentes;
+        this.campanhas = campanhas;
     }
 
     /**
-     * Busca um cupom por ID
+     * Busca um cupom por ID, na tabela principal e depois no arquivo. Cupons quentes são lidos pelo
+     * {@link ProtecaoQuentes}, sem transação própria: uma leitura guardada ou coalescida não pega conexão do pool.
      * @param id UUID do cupom
-     * @return Cupom encontrado
+     * @return Cupom encontrado (somente leitura se vier do arquivo ou do caminho protegido)
      * @throws CupomNotFoundException se não encontrar
      */
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Cupom buscarPorId(UUID id) {
+        return quentes.buscar(id, () -> carregarPorId(id));
+    }
+
+    private Cupom carregarPorId(UUID id) {
+        if (cacheNegativo.isAusente(id)) {
+            throw CupomNotFoundException.NAO_ENCONTRADO;
+        }
         return repository.findById(id)
-                .orElseThrow(() -> new CupomNotFoundException("Cupom com ID " + id + " não encontrado"));
+                .or(() -> arquivoRepository.findById(id).map(CupomArquivado::paraCupom))
+                .orElseThrow(() -> {
+                    cacheNegativo.registrarAusente(id);
+                    return CupomNotFoundException.semStackTrace("Cupom com ID " + id + " não encontrado");
+                });
+    }
+
+    /**
+     * Busca um cupom pelo código; cupons quentes são lidos pelo {@link ProtecaoQuentes}
+     * @param code código do cupom (normalizado antes da busca)
+     * @return Cupom encontrado (somente leitura se vier do caminho protegido)
+     * @throws CupomNotFoundException se não encontrar
+     * @throws CupomInvalidoException se o código for inválido
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Cupom buscarPorCode(String code) {
+        String codeTratado = Cupom.tratarCode(code);
+        return quentes.buscar(codeTratado, () -> carregarPorCode(codeTratado));
+    }
+
+    private Cupom carregarPorCode(String codeTratado) {
+        if (cacheNegativo.isAusente(codeTratado) || (indice.isPronto() && !indice.isCupom(codeTratado))) {
+            throw CupomNotFoundException.NAO_ENCONTRADO;
+        }
+        return repository.findByCode(codeTratado)
+                .orElseThrow(() -> {
+                    cacheNegativo.registrarAusente(codeTratado);
+                    return CupomNotFoundException.semStackTrace("Cupom com código " + codeTratado + " não encontrado");
+                });
+    }
+
+    /**
+     * Snapshot de um cupom por ID, servido pelo cache de cupons quando possível.
+     * Sem transação própria: um acerto no cache não chega a pegar conexão do pool.
+     * @throws CupomNotFoundException se não encontrar
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public CupomResponse consultarPorId(UUID id) {
+        CupomResponse cupom = cache.obterPorId(id);
+        if (cupom != null) {
+            return cupom;
+        }
+        long geracao = cache.geracao();
+        cupom = mapper.toResponse(buscarPorId(id));
+        cache.guardar(cupom, geracao);
+        return cupom;
+    }
+
+    /**
+     * Snapshot de um cupom pelo código, servido pelo cache de cupons quando possível.
+     * Um código que não é de cupom avulso é procurado entre os códigos de campanha (com {@code id} nulo, fora do cache).
+     * @throws CupomNotFoundException se não encontrar
+     * @throws CupomInvalidoException se o código for inválido
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public CupomResponse consultarPorCode(String code) {
+        String codeTratado = Cupom.tratarCode(code);
+        CupomResponse cupom = cache.obterPorCode(codeTratado);
+        if (cupom != null) {
+            return cupom;
+        }
+        long geracao = cache.geracao();
+        try {
+            cupom = mapper.toResponse(buscarPorCode(codeTratado));
+        } catch (CupomNotFoundException e) {
+            return campanhas.buscarCodigo(codeTratado);
+        }
+        cache.guardar(cupom, geracao);
+        return cupom;
+    }
+
+    /**
+     * Busca vários cupons por ID e por código em uma única transação,
+     * com consultas IN em lotes e projeção direta em CupomResponse; o cache de cupons é consultado antes.
+     * Os códigos não encontrados entre os cupons avulsos são procurados entre os códigos de campanha.
+     * @param ids IDs dos cupons
+     * @param codes códigos dos cupons ou de campanha (códigos inválidos são ignorados)
+     * @return cupons encontrados, sem repetição
+     */
+    @Transactional(readOnly = true)
+    public List<CupomResponse> buscarEmLote(Collection<UUID> ids, Collection<String> codes) {
+        Map<UUID, CupomResponse> encontrados = new LinkedHashMap<>();
+        Set<UUID> idsPendentes = new LinkedHashSet<>();
+        for (UUID id : ids) {
+            if (!cacheNegativo.isAusente(id) && !encontrados.containsKey(id)) {
+                adicionarOuPendente(cache.obterPorId(id), id, idsPendentes, encontrados);
+            }
+        }
+        Set<String> codesPendentes = new LinkedHashSet<>();
+        Set<String> semCupom = new LinkedHashSet<>();
+        for (String code : codes) {
+            String codeTratado = Cupom.tratarCodeOuNulo(code);
+            if (codeTratado == null) {
+                continue;
+            }
+            if (cacheNegativo.isAusente(codeTratado)) {
+                semCupom.add(codeTratado);
+            } else {
+                adicionarOuPendente(cache.obterPorCode(codeTratado), codeTratado, codesPendentes, encontrados);
+            }
+        }
+
+        long geracao = cache.geracao();
+        Map<UUID, CupomResponse> doBanco = new LinkedHashMap<>();
+        consultarEmLotes(idsPendentes, repository::findResponsesByIdIn, CupomResponse::getId, doBanco);
+        consultarEmLotes(codesPendentes, repository::findResponsesByCodeIn, CupomResponse::getCode, doBanco);
+        for (CupomResponse cupom : doBanco.values()) {
+            cache.guardar(cupom, geracao);
+            encontrados.putIfAbsent(cupom.getId(), cupom);
+            codesPendentes.remove(cupom.getCode());
+        }
+        semCupom.addAll(codesPendentes);
+
+        List<CupomResponse> resultado = new ArrayList<>(encontrados.values());
+        if (!semCupom.isEmpty()) {
+            resultado.addAll(campanhas.buscarCodigos(semCupom).values());
+        }
+        return resultado;
+    }
+
+    private static <K> void adicionarOuPendente(CupomResponse doCache, K chave, Set<K> pendentes,
+                                                Map<UUID, CupomResponse> encontrados) {
+        if (doCache == null) {
+            pendentes.add(chave);
+        } else {
+            encontrados.putIfAbsent(doCache.getId(), doCache);
+        }
     }
 
     /**
@@ -52,14 +248,18 @@ public class CupomService {
                 request.getDescription(),
                 request.getDiscountValue(),
                 request.getExpirationDate(),
-                request.isPublished()
+                request.isPublished(),
+                relogio.agora()
         );
 
-        return repository.save(cupom);
+        Cupom salvo = repository.save(cupom);
+        cacheNegativo.invalidar(salvo.getCode());
+        publicarAlteracao(Operacao.CRIADO, null, salvo, salvo.getVersion());
+        return salvo;
     }
 
     /**
-     * Atualiza um cupom existente
+     * Atualiza um cupom existente (código, descrição, desconto e expiração) no próprio registro
      * @param id UUID do cupom
      * @param request novos dados
      * @return Cupom atualizado
@@ -67,32 +267,64 @@ public class CupomService {
      * @throws CupomInvalidoException se dados inválidos ou regra de negócio violada
      */
     public Cupom atualizarCupom(UUID id, CreateCupomRequest request) {
-        Cupom cupom = buscarPorId(id);
+        return atualizar(id, request.getCode(), request.getDescription(), request.getDiscountValue(),
+                request.getExpirationDate());
+    }
+
+    /**
+     * Atualiza só os campos informados; com @DynamicUpdate o UPDATE grava só as colunas alteradas
+     * @param id UUID do cupom
+     * @param request campos a alterar (nulos são mantidos)
+     * @return Cupom atualizado
+     * @throws CupomNotFoundException se cupom não existir
+     * @throws CupomInvalidoException se dados inválidos ou regra de negócio violada
+     */
+    public Cupom atualizarParcialmente(UUID id, AtualizarCupomRequest request) {
+        return atualizar(id, request.getCode(), request.getDescription(), request.getDiscountValue(),
+                request.getExpirationDate());
+    }
+
+    /**
+     * Altera a entidade carregada e deixa o dirty checking gerar um único UPDATE.
+     * A unicidade de um novo código na tabela cupons fica com a constraint do banco.
+     */
+    private Cupom atualizar(UUID id, String code, String description, BigDecimal discountValue,
+                            LocalDateTime expirationDate) {
+        Cupom cupom = buscarParaAlterar(id);
+        LocalDateTime agora = relogio.agora();
 
         if (cupom.isDeleted()) {
             throw new CupomInvalidoException("Não é possível atualizar um cupom deletado");
         }
-        if (cupom.podeSerResgatado() == false && cupom.isExpirado()) {
+        if (cupom.isExpirado(agora)) {
             throw new CupomInvalidoException("Não é possível atualizar um cupom expirado");
         }
 
-        if (!cupom.getCode().equals(request.getCode())) {
-            validarCodigoUnico(request.getCode());
+        // Consulta antes de alterar a entidade: a query nativa dispararia o flush fora do try abaixo
+        String novoCode = code == null ? null : Cupom.tratarCode(code);
+        boolean trocaCodigo = novoCode != null && !novoCode.equals(cupom.getCode());
+        if (trocaCodigo) {
+            boolean emUsoForaDosCupons = indice.isPronto()
+                    ? indice.contem(novoCode)
+                    : repository.existsByCodeEmCampanhaOuArquivo(novoCode);
+            if (emUsoForaDosCupons) {
+                throw codigoDuplicado(novoCode);
+            }
         }
 
-        cupom.atualizar(request.getDescription(), request.getDiscountValue());
-
-        if (!cupom.getCode().equals(request.getCode())) {
-            cupom = Cupom.criar(
-                    request.getCode(),
-                    request.getDescription(),
-                    request.getDiscountValue(),
-                    request.getExpirationDate(),
-                    request.isPublished()
-            );
+        EstadoCupom antes = cupom.estado();
+        cupom.atualizar(novoCode, description, discountValue, expirationDate, agora);
+        if (!trocaCodigo) {
+            return salvar(Operacao.ATUALIZADO, antes, cupom);
         }
-
-        return repository.save(cupom);
+        try {
+            repository.saveAndFlush(cupom);
+        } catch (DataIntegrityViolationException e) {
+            throw codigoDuplicado(cupom.getCode());
+        }
+        cacheNegativo.invalidar(cupom.getCode());
+        publicarAlteracao(Operacao.ATUALIZADO, antes, cupom, cupom.getVersion());
+        return cupom;
     }
 
     /**
@@ -102,9 +334,10 @@ public class CupomService {
      * @throws CupomInvalidoException se violou regra de negócio
      */
     public Cupom deleteCupom(UUID id) {
-        Cupom cupom = buscarPorId(id);
-        cupom.deletar();
-        return repository.save(cupom);
+        Cupom cupom = buscarParaAlterar(id);
+        EstadoCupom antes = cupom.estado();
+        cupom.deletar(relogio.agora());
+        return salvar(Operacao.DELETADO, antes, cupom);
     }
 
     /**
@@ -115,14 +348,41 @@ public class CupomService {
      * @throws CupomInvalidoException se não puder ser resgatado
      */
     public Cupom resgatarCupom(UUID id) {
-        Cupom cupom = buscarPorId(id);
-        
-        if (!cupom.podeSerResgatado()) {
-            throw new CupomInvalidoException("Cupom não pode ser resgatado");
+        quentes.registrar(id);
+        return resgatar(buscarParaAlterar(id));
+    }
+
+    /**
+     * Resgata um cupom pelo código. Com o índice carregado, códigos inexistentes
+     * ou que não podem ser resgatados são rejeitados sem consultar o banco.
+     * @param code código do cupom
+     * @return Cupom resgatado
+     * @throws CupomNotFoundException se cupom não existir
+     * @throws CupomInvalidoException se não puder ser resgatado
+     */
+    public Cupom resgatarPorCode(String code) {
+        String codeTratado = Cupom.tratarCode(code);
+        if (indice.isPronto() && !indice.isResgatavel(codeTratado)) {
+            if (!indice.isCupom(codeTratado)) {
+                throw CupomNotFoundException.NAO_ENCONTRADO;
+            }
+            estatisticas.registrarFalhaResgate(EstatisticasUso.ORIGEM_CUPONS);
+            throw CupomInvalidoException.NAO_PODE_SER_RESGATADO;
         }
-        
-        cupom.resgatar();
-        return repository.save(cupom);
+        quentes.registrar(codeTratado);
+        return resgatar(carregarPorCode(codeTratado));
+    }
+
+    private Cupom resgatar(Cupom cupom) {
+        LocalDateTime agora = relogio.agora();
+        if (!cupom.podeSerResgatado(agora)) {
+            estatisticas.registrarFalhaResgate(EstatisticasUso.ORIGEM_CUPONS);
+            throw CupomInvalidoException.NAO_PODE_SER_RESGATADO;
+        }
+
+        EstadoCupom antes = cupom.estado();
+        cupom.resgatar(agora);
+        return salvar(Operacao.RESGATADO, antes, cupom);
     }
 
     /**
@@ -131,9 +391,10 @@ public class CupomService {
      * @return Cupom publicado
      */
     public Cupom publicarCupom(UUID id) {
-        Cupom cupom = buscarPorId(id);
+        Cupom cupom = buscarParaAlterar(id);
+        EstadoCupom antes = cupom.estado();
         cupom.publicar();
-        return repository.save(cupom);
+        return salvar(Operacao.PUBLICADO, antes, cupom);
     }
 
     /**
@@ -142,9 +403,22 @@ public class CupomService {
      * @return Cupom desativado
      */
     public Cupom desativarCupom(UUID id) {
-        Cupom cupom = buscarPorId(id);
+        Cupom cupom = buscarParaAlterar(id);
+        EstadoCupom antes = cupom.estado();
         cupom.desativar();
-        return repository.save(cupom);
+        return salvar(Operacao.DESATIVADO, antes, cupom);
+    }
+
+    /**
+     * Busca o cupom para alteração
+     * @throws TransicaoInvalidaException se o cupom estiver arquivado
+     */
+    private Cupom buscarParaAlterar(UUID id) {
+        Cupom cupom = carregarPorId(id);
+        if (cupom.isArquivado()) {
+            throw new TransicaoInvalidaException("Cupom arquivado não pode ser alterado");
+        }
+        return cupom;
     }
 
     /**
@@ -153,8 +427,46 @@ public class CupomService {
      * @throws CupomInvalidoException se código duplicado
      */
     private void validarCodigoUnico(String code) {
-        if (repository.existsByCode(code)) {
-            throw new CupomInvalidoException("Cupom com código " + code + " já existe");
+        boolean existe = indice.isPronto() ? indice.contem(code) : repository.existsByCode(code);
+        if (existe) {
+            throw codigoDuplicado(code);
+        }
+    }
+
+    private static CupomInvalidoException codigoDuplicado(String code) {
+        return new CupomInvalidoException("Cupom com código " + code + " já existe");
+    }
+
+    /**
+     * Salva o cupom e publica o evento de alteração
+     * @param antes estado do cupom antes da alteração, para a auditoria
+     */
+    private Cupom salvar(Operacao operacao, EstadoCupom antes, Cupom cupom) {
+        // A versão só é incrementada no flush, no commit
+        long versao = cupom.getVersion() + 1;
+        Cupom salvo = repository.save(cupom);
+        publicarAlteracao(operacao, antes, salvo, versao);
+        return salvo;
+    }
+
+    private void publicarAlteracao(Operacao operacao, EstadoCupom antes, Cupom cupom, long versao) {
+        eventos.publishEvent(CupomAlteradoEvent.de(operacao, cupom, versao, antes == null ? null : antes.code()));
+        auditoria.registrar(operacao, cupom.getId(), antes, cupom.estado());
+    }
+
+    /**
+     * Executa a consulta em lotes de TAMANHO_LOTE e registra no cache negativo as chaves não encontradas
+     */
+    private <K> void consultarEmLotes(Set<K> chaves, Function<List<K>, List<CupomResponse>> consulta,
+                                      Function<CupomResponse, K> chaveDe, Map<UUID, CupomResponse> encontrados) {
+        List<K> lista = new ArrayList<>(chaves);
+        for (int i = 0; i < lista.size(); i += TAMANHO_LOTE) {
+            List<K> lote = lista.subList(i, Math.min(i + TAMANHO_LOTE, lista.size()));
+            for (CupomResponse cupom : consulta.apply(lote)) {
+                encontrados.putIfAbsent(cupom.getId(), cupom);
+                chaves.remove(chaveDe.apply(cupom));
+            }
         }
+        chaves.forEach(cacheNegativo::registrarAusente);
     }
 }
\ No newline at end of file
@@ -0,0 +1,83 @@
+package com.coupon.cupom.tempo;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fonte de tempo da aplicação. As regras de expiração recebem o "agora" daqui, nunca de
+ * LocalDateTime.now(), então os testes controlam o tempo com {@link #fixo(LocalDateTime)}.
+ * No modo cacheado o instante é recalculado em segundo plano a cada resolução e ler a hora
+ * vira a leitura de um campo volátil, sem consultar o fuso nem alocar por chamada.
+ */
+public class Relogio implements AutoCloseable {
+
+    private final Clock clock;
+    private final ScheduledExecutorService atualizador;
+    private volatile LocalDateTime agora;
+    private volatile long epochSegundos;
+
+    private Relogio(Clock clock, Duration resolucao) {
+        this.clock = clock;
+        atualizar();
+        if (resolucao == null) {
+            this.atualizador = null;
+            return;
+        }
+        this.atualizador = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().daemon().name("relogio").factory());
+        long periodo = resolucao.toNanos();
+        atualizador.scheduleAtFixedRate(this::atualizar, periodo, periodo, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Lê o clock a cada chamada
+     */
+    public static Relogio de(Clock clock) {
+        return new Relogio(clock, null);
+    }
+
+    /**
+     * Lê o clock uma vez por resolução; a hora devolvida pode estar atrasada em até uma resolução
+     */
+    public static Relogio cacheado(Clock clock, Duration resolucao) {
+        return new Relogio(clock, resolucao);
+    }
+
+    /**
+     * Relógio parado no instante informado, no fuso do sistema
+     */
+    public static Relogio fixo(LocalDateTime agora) {
+        ZoneId fuso = ZoneId.systemDefault();
+        return de(Clock.fixed(agora.atZone(fuso).toInstant(), fuso));
+    }
+
+    public LocalDateTime agora() {
+        return atualizador == null ? LocalDateTime.now(clock) : agora;
+    }
+
+    /**
+     * Instante atual em segundos desde a época, na mesma resolução de {@link #agora()}
+     */
+    public long epochSegundos() {
+        return atualizador == null ? clock.instant().getEpochSecond() : epochSegundos;
+    }
+
+    private void atualizar() {
+        Instant instante = clock.instant();
+        agora = LocalDateTime.ofInstant(instante, clock.getZone());
+        epochSegundos = instante.getEpochSecond();
+    }
+
+    @Override
+    public void close() {
+        if (atualizador != null) {
+            atualizador.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.coupon.cupom.tempo;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+
+@Configuration
+@EnableConfigurationProperties(RelogioProperties.class)
+public class RelogioConfig {
+
+    @Bean
+    public Relogio relogio(RelogioProperties properties) {
+        Clock clock = Clock.systemDefaultZone();
+        return properties.cacheEnabled() ? Relogio.cacheado(clock, properties.resolucao()) : Relogio.de(clock);
+    }
+}
@@ -0,0 +1,18 @@
+package com.coupon.cupom.tempo;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuração do relógio da aplicação (prefixo cupom.relogio)
+ * @param cacheEnabled lê a hora de um valor atualizado em segundo plano em vez de consultar o clock a cada chamada
+ * @param resolucao intervalo de atualização do valor em cache
+ */
+@ConfigurationProperties(prefix = "cupom.relogio")
+public record RelogioProperties(
+        @DefaultValue("true") boolean cacheEnabled,
+        @DefaultValue("10ms") Duration resolucao
+) {
+}
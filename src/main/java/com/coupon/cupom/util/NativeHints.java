@@ -0,0 +1,57 @@
+package com.coupon.cupom.util;
+
+import com.coupon.cupom.entity.AuditoriaCupom;
+import com.coupon.cupom.entity.Campanha;
+import com.coupon.cupom.entity.Cupom;
+import com.coupon.cupom.rastreamento.TempoJdbcListener;
+import com.coupon.cupom.request.CupomResponse;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Hints da imagem nativa (GraalVM) para o que o AOT do Spring não descobre sozinho
+ */
+public class NativeHints implements RuntimeHintsRegistrar {
+
+    private static final String PACOTE_DTOS = "com.coupon.cupom.request";
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        // Scripts do Flyway, lidos do classpath em tempo de execução
+        hints.resources().registerPattern("db/migration/*.sql");
+
+        // Projeções JPQL "select new CupomResponse(...)": o Hibernate instancia pelo construtor via reflexão
+        hints.reflection().registerType(CupomResponse.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+
+        // Implementação gerada pelo MapStruct, quando o processador estiver no build
+        hints.reflection().registerTypeIfPresent(classLoader, "com.coupon.cupom.mapper.CupomMapperImpl",
+                MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+
+        // Listener de sessão do rastreamento, instanciado pelo Hibernate a partir do nome da classe
+        hints.reflection().registerType(TempoJdbcListener.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+
+        // Getters/setters gerados pelo Lombok, usados pelo Jackson e pelo Bean Validation. Os DTOs são lidos do
+        // pacote request, então um DTO novo entra sem mexer aqui; as entidades devolvidas direto pelos controllers
+        // ficam listadas
+        BindingReflectionHintsRegistrar binding = new BindingReflectionHintsRegistrar();
+        binding.registerReflectionHints(hints.reflection(), dtos(classLoader));
+        binding.registerReflectionHints(hints.reflection(), Cupom.class, Campanha.class, AuditoriaCupom.class);
+    }
+
+    /**
+     * Classes do pacote dos DTOs; roda no processamento AOT do build, onde o classpath ainda pode ser varrido
+     */
+    private static Class<?>[] dtos(ClassLoader classLoader) {
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+        scanner.setResourceLoader(new DefaultResourceLoader(classLoader));
+        scanner.addIncludeFilter((leitor, fabrica) -> true);
+        return scanner.findCandidateComponents(PACOTE_DTOS).stream()
+                .map(definicao -> ClassUtils.resolveClassName(definicao.getBeanClassName(), classLoader))
+                .toArray(Class<?>[]::new);
+    }
+}
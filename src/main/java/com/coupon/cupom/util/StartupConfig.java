@@ -0,0 +1,31 @@
+package com.coupon.cupom.util;
+
+import com.coupon.cupom.controller.CampanhaController;
+import com.coupon.cupom.controller.CupomController;
+import com.coupon.cupom.index.IndiceCodigos;
+import com.coupon.cupom.service.AplicacaoCupomService;
+import com.coupon.cupom.service.CampanhaService;
+import com.coupon.cupom.service.CupomService;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Com spring.main.lazy-initialization=true (perfil startup) só os beans do caminho quente
+ * sobem junto com a aplicação; springdoc, console do H2 e afins ficam para o primeiro uso.
+ */
+@Configuration
+public class StartupConfig {
+
+    @Bean
+    static LazyInitializationExcludeFilter beansDoCaminhoQuente() {
+        return LazyInitializationExcludeFilter.forBeanTypes(
+                CupomController.class,
+                CampanhaController.class,
+                CupomService.class,
+                CampanhaService.class,
+                AplicacaoCupomService.class,
+                IndiceCodigos.class
+        );
+    }
+}
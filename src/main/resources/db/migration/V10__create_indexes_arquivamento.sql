@@ -0,0 +1,4 @@
+-- Cada critério do arquivamento tem sua consulta e seu índice (ArquivamentoJob)
+CREATE INDEX idx_cupons_redeemed_updated_at ON cupons (redeemed, updated_at);
+CREATE INDEX idx_cupons_deleted_at_updated_at ON cupons (deleted_at, updated_at);
+CREATE INDEX idx_cupons_expiration_date ON cupons (expiration_date);
@@ -0,0 +1,2 @@
+ALTER TABLE auditoria_cupons ADD COLUMN origem VARCHAR(100);
+ALTER TABLE auditoria_cupons ADD COLUMN ator_informado VARCHAR(100);
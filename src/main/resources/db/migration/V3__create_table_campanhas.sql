@@ -0,0 +1,19 @@
+CREATE TABLE campanhas (
+  id UUID PRIMARY KEY,
+  description VARCHAR(255) NOT NULL,
+  discount_value DECIMAL(10,2) NOT NULL,
+  expiration_date TIMESTAMP NOT NULL,
+  status VARCHAR(10) NOT NULL,
+  published BOOLEAN NOT NULL DEFAULT false,
+  quantidade INTEGER NOT NULL,
+  created_at TIMESTAMP NOT NULL,
+  updated_at TIMESTAMP NOT NULL
+);
+
+CREATE TABLE campanha_codigos (
+  code CHAR(6) PRIMARY KEY,
+  campanha_id UUID NOT NULL REFERENCES campanhas (id),
+  estado SMALLINT NOT NULL DEFAULT 0
+);
+
+CREATE INDEX idx_campanha_codigos_campanha ON campanha_codigos (campanha_id);
@@ -0,0 +1,15 @@
+CREATE TABLE cupons_arquivados (
+  id UUID PRIMARY KEY,
+  code VARCHAR(6) NOT NULL UNIQUE,
+  description VARCHAR(255) NOT NULL,
+  discount_value DECIMAL(10,2) NOT NULL,
+  expiration_date TIMESTAMP NOT NULL,
+  status VARCHAR(10) NOT NULL,
+  published BOOLEAN NOT NULL,
+  redeemed BOOLEAN NOT NULL,
+  redeemed_at TIMESTAMP,
+  deleted_at TIMESTAMP,
+  created_at TIMESTAMP NOT NULL,
+  updated_at TIMESTAMP NOT NULL,
+  archived_at TIMESTAMP NOT NULL
+);
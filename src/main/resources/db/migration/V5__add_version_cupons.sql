@@ -0,0 +1 @@
+ALTER TABLE cupons ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,7 @@
+CREATE TABLE leases (
+  nome VARCHAR(64) PRIMARY KEY,
+  dono VARCHAR(100) NOT NULL,
+  token BIGINT NOT NULL,
+  expira_em TIMESTAMP NOT NULL,
+  renovado_em TIMESTAMP NOT NULL
+);
@@ -0,0 +1,10 @@
+CREATE TABLE auditoria_cupons (
+  id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  cupom_id UUID NOT NULL,
+  operacao VARCHAR(20) NOT NULL,
+  ator VARCHAR(100) NOT NULL,
+  ocorrido_em TIMESTAMP NOT NULL,
+  alteracoes VARCHAR(4000) NOT NULL
+);
+
+CREATE INDEX idx_auditoria_cupons_cupom ON auditoria_cupons (cupom_id);
@@ -0,0 +1,8 @@
+CREATE TABLE uso_agregado (
+  granularidade VARCHAR(10) NOT NULL,
+  inicio TIMESTAMP NOT NULL,
+  origem VARCHAR(36) NOT NULL,
+  tipo VARCHAR(20) NOT NULL,
+  quantidade BIGINT NOT NULL,
+  PRIMARY KEY (granularidade, inicio, origem, tipo)
+);
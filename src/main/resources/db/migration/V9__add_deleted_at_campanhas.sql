@@ -0,0 +1 @@
+ALTER TABLE campanhas ADD COLUMN deleted_at TIMESTAMP;
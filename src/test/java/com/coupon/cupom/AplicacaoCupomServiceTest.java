@@ -0,0 +1,112 @@
+package com.coupon.cupom;
+
+import com.coupon.cupom.entity.Cupom;
+import com.coupon.cupom.repository.CupomRepository;
+import com.coupon.cupom.request.AplicarCupomRequest;
+import com.coupon.cupom.request.AplicarCupomResponse;
+import com.coupon.cupom.request.AplicarCupomResponse.CupomAplicado;
+import com.coupon.cupom.service.CampanhaService;
+import com.coupon.cupom.service.AplicacaoCupomService;
+import com.coupon.cupom.tempo.Relogio;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AplicacaoCupomService - Testes Unitários")
+class AplicacaoCupomServiceTest {
+
+    private static final LocalDateTime AGORA = LocalDateTime.of(2026, 1, 15, 12, 0);
+
+    @InjectMocks
+    private AplicacaoCupomService service;
+
+    @Mock
+    private CupomRepository repository;
+
+    @Mock
+    private CampanhaService campanhas;
+
+    @Spy
+    private Relogio relogio = Relogio.fixo(AGORA);
+
+    private static AplicarCupomRequest.Item item(String valorUnitario, int quantidade) {
+        AplicarCupomRequest.Item item = new AplicarCupomRequest.Item();
+        item.setSku("SKU");
+        item.setValorUnitario(new BigDecimal(valorUnitario));
+        item.setQuantidade(quantidade);
+        return item;
+    }
+
+    private static Cupom cupom(String code, String desconto, boolean published) {
+        return Cupom.criar(code, "Cupom " + code, new BigDecimal(desconto), AGORA.plusDays(1), published, AGORA);
+    }
+
+    @Test
+    @DisplayName("Deve aplicar os cupons em ordem com aritmética exata")
+    void deveAplicarCuponsEmOrdem() {
+        AplicarCupomRequest request = new AplicarCupomRequest();
+        request.setItens(List.of(item("19.99", 3), item("0.10", 1)));
+        request.setCodes(List.of("ABC123", "xyz-999"));
+
+        when(repository.findAllByCodeIn(anyCollection()))
+                .thenReturn(List.of(cupom("ABC123", "10.00", true), cupom("XYZ999", "0.50", true)));
+
+        AplicarCupomResponse response = service.aplicar(request);
+
+        assertEquals(new BigDecimal("60.07"), response.getSubtotal());
+        assertEquals(new BigDecimal("10.50"), response.getDesconto());
+        assertEquals(new BigDecimal("49.57"), response.getTotal());
+        assertTrue(response.getCupons().stream().allMatch(CupomAplicado::isAplicado));
+        verify(repository, times(1)).findAllByCodeIn(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Deve limitar o desconto ao total do carrinho")
+    void deveLimitarDescontoAoTotal() {
+        AplicarCupomRequest request = new AplicarCupomRequest();
+        request.setItens(List.of(item("5.00", 1)));
+        request.setCodes(List.of("ABC123"));
+
+        when(repository.findAllByCodeIn(anyCollection()))
+                .thenReturn(List.of(cupom("ABC123", "10.00", true)));
+
+        AplicarCupomResponse response = service.aplicar(request);
+
+        assertEquals(new BigDecimal("5.00"), response.getDesconto());
+        assertEquals(0, response.getTotal().signum());
+    }
+
+    @Test
+    @DisplayName("Deve informar o motivo dos cupons não aplicados")
+    void deveInformarMotivoDosCuponsRejeitados() {
+        AplicarCupomRequest request = new AplicarCupomRequest();
+        request.setItens(List.of(item("100.00", 1)));
+        request.setCodes(List.of("ABC", "NAOEXI", "INAT01", "ABC123", "ABC123"));
+
+        when(repository.findAllByCodeIn(anyCollection()))
+                .thenReturn(List.of(cupom("INAT01", "10.00", false), cupom("ABC123", "10.00", true)));
+
+        AplicarCupomResponse response = service.aplicar(request);
+
+        List<CupomAplicado> cupons = response.getCupons();
+        assertEquals("Código inválido", cupons.get(0).getMotivo());
+        assertEquals("Cupom não encontrado", cupons.get(1).getMotivo());
+        assertEquals("Cupom não pode ser resgatado", cupons.get(2).getMotivo());
+        assertTrue(cupons.get(3).isAplicado());
+        assertEquals("Cupom informado mais de uma vez", cupons.get(4).getMotivo());
+        assertEquals(new BigDecimal("90.00"), response.getTotal());
+    }
+}
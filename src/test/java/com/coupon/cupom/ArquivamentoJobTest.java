@@ -0,0 +1,94 @@
+package com.coupon.cupom;
+
+import com.coupon.cupom.arquivamento.ArquivamentoJob;
+import com.coupon.cupom.cache.CupomCache;
+import com.coupon.cupom.entity.Cupom;
+import com.coupon.cupom.exception.CupomInvalidoException;
+import com.coupon.cupom.exception.TransicaoInvalidaException;
+import com.coupon.cupom.repository.CupomRepository;
+import com.coupon.cupom.service.CupomService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "cupom.cache.enabled=true")
+@DisplayName("ArquivamentoJob - Testes de Integração")
+class ArquivamentoJobTest {
+
+    @Autowired
+    private ArquivamentoJob job;
+
+    @Autowired
+    private CupomService service;
+
+    @Autowired
+    private CupomRepository repository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CupomCache cache;
+
+    private Cupom criarCupom(String code) {
+        return service.salvarCupom(Fixtures.cupomRequest(code));
+    }
+
+    @Test
+    @DisplayName("Deve arquivar cupom resgatado após a carência e continuar resolvendo pelo ID")
+    void deveArquivarCupomResgatado() {
+        Cupom cupom = criarCupom("ARQ101");
+        service.resgatarCupom(cupom.getId());
+
+        job.arquivar(LocalDateTime.now());
+        assertTrue(repository.existsById(cupom.getId()));
+
+        job.arquivar(LocalDateTime.now().plusDays(2));
+
+        assertFalse(repository.existsById(cupom.getId()));
+        Cupom arquivado = service.buscarPorId(cupom.getId());
+        assertTrue(arquivado.isArquivado());
+        assertTrue(arquivado.isRedeemed());
+        assertEquals("ARQ101", arquivado.getCode());
+        assertThrows(TransicaoInvalidaException.class, () -> service.desativarCupom(cupom.getId()));
+        assertThrows(CupomInvalidoException.class, () -> criarCupom("ARQ101"));
+    }
+
+    @Test
+    @DisplayName("Deve arquivar só os cupons expirados além da retenção")
+    void deveArquivarCupomExpiradoAposRetencao() {
+        Cupom expirado = criarCupom("ARQ201");
+        Cupom recente = criarCupom("ARQ202");
+        jdbcTemplate.update("UPDATE cupons SET expiration_date = ? WHERE id = ?",
+                LocalDateTime.now().minusDays(40), expirado.getId());
+        jdbcTemplate.update("UPDATE cupons SET expiration_date = ? WHERE id = ?",
+                LocalDateTime.now().minusDays(1), recente.getId());
+
+        job.arquivar(LocalDateTime.now());
+
+        assertFalse(repository.existsById(expirado.getId()));
+        assertTrue(repository.existsById(recente.getId()));
+        assertTrue(service.buscarPorId(expirado.getId()).isArquivado());
+    }
+
+    @Test
+    @DisplayName("Deve tirar do cache o snapshot dos cupons arquivados")
+    void deveInvalidarCacheAoArquivar() {
+        Cupom cupom = criarCupom("ARQ301");
+        service.deleteCupom(cupom.getId());
+        service.consultarPorId(cupom.getId());
+        assertNotNull(cache.obterPorId(cupom.getId()));
+
+        job.arquivar(LocalDateTime.now().plusDays(2));
+
+        assertFalse(repository.existsById(cupom.getId()));
+        assertNull(cache.obterPorId(cupom.getId()));
+        assertEquals("ARQ301", service.consultarPorId(cupom.getId()).getCode());
+    }
+}
@@ -0,0 +1,115 @@
+package com.coupon.cupom;
+
+import com.coupon.cupom.auditoria.AnelLimitado;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@DisplayName("Auditoria de Cupons - Testes de Integração")
+class AuditoriaTest {
+
+    private final JsonMapper json = JsonMapper.builder().build();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    @DisplayName("Deve registrar quem alterou e os campos alterados, sem registrar alteração que falhou")
+    void deveRegistrarHistorico() throws Exception {
+        String criado = mockMvc.perform(post("/coupon")
+                        .header("X-Usuario", "maria")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"code":"AUD001","description":"Cupom auditado","discountValue":10.00,
+                                 "expirationDate":"2099-12-31T23:59:00","published":true}"""))
+                .andReturn().getResponse().getContentAsString();
+        String id = json.readTree(criado).get("id").asString();
+        mockMvc.perform(post("/coupon/{id}/redeem", id).header("X-Usuario", "joao"));
+        mockMvc.perform(post("/coupon/{id}/redeem", id).header("X-Usuario", "joao"));
+
+        JsonNode historico = json.readTree("[]");
+        for (int i = 0; i < 100 && historico.size() < 2; i++) {
+            Thread.sleep(50);
+            historico = json.readTree(mockMvc.perform(get("/coupon/{id}/auditoria", id))
+                    .andReturn().getResponse().getContentAsString());
+        }
+
+        assertEquals(2, historico.size());
+        assertEquals("CRIADO", historico.get(0).get("operacao").asString());
+        // Sem autenticação o ator é o IP; o header fica à parte, como ator informado
+        assertEquals("127.0.0.1", historico.get(0).get("ator").asString());
+        assertEquals("127.0.0.1", historico.get(0).get("origem").asString());
+        assertEquals("maria", historico.get(0).get("atorInformado").asString());
+        assertEquals("AUD001", historico.get(0).get("alteracoes").get("code").get("depois").asString());
+        JsonNode resgate = historico.get(1);
+        assertEquals("RESGATADO", resgate.get("operacao").asString());
+        assertEquals("joao", resgate.get("atorInformado").asString());
+        assertFalse(resgate.get("alteracoes").get("redeemed").get("antes").asBoolean());
+        assertTrue(resgate.get("alteracoes").get("redeemed").get("depois").asBoolean());
+        assertEquals("Inativo", resgate.get("alteracoes").get("status").get("depois").asString());
+        assertFalse(resgate.get("alteracoes").has("code"));
+    }
+
+    @Test
+    @DisplayName("Deve entregar cada item uma única vez com vários produtores e recusar quando cheia")
+    void deveEntregarSemPerdaComVariosProdutores() throws Exception {
+        AnelLimitado<Integer> anel = new AnelLimitado<>(1024);
+        int produtores = 4;
+        int porProdutor = 20_000;
+        ExecutorService executor = Executors.newFixedThreadPool(produtores);
+        List<Future<?>> tarefas = new ArrayList<>();
+        for (int p = 0; p < produtores; p++) {
+            int base = p * porProdutor;
+            tarefas.add(executor.submit(() -> {
+                for (int i = 0; i < porProdutor; i++) {
+                    while (!anel.oferecer(base + i)) {
+                        Thread.onSpinWait();
+                    }
+                }
+            }));
+        }
+
+        BitSet vistos = new BitSet();
+        List<Integer> lote = new ArrayList<>();
+        int total = 0;
+        while (total < produtores * porProdutor) {
+            anel.drenar(lote, 256);
+            for (int valor : lote) {
+                assertFalse(vistos.get(valor), "item entregue duas vezes: " + valor);
+                vistos.set(valor);
+            }
+            total += lote.size();
+            lote.clear();
+        }
+        for (Future<?> tarefa : tarefas) {
+            tarefa.get();
+        }
+        executor.shutdown();
+
+        assertEquals(produtores * porProdutor, vistos.cardinality());
+        for (int i = 0; i < anel.capacidade(); i++) {
+            assertTrue(anel.oferecer(i));
+        }
+        assertFalse(anel.oferecer(-1));
+        assertEquals(anel.capacidade(), anel.tamanho());
+    }
+}
@@ -0,0 +1,154 @@
+package com.coupon.cupom;
+
+import com.coupon.cupom.entity.Campanha;
+import com.coupon.cupom.entity.CupomStatus;
+import com.coupon.cupom.exception.CupomInvalidoException;
+import com.coupon.cupom.exception.CupomNotFoundException;
+import com.coupon.cupom.exception.TransicaoInvalidaException;
+import com.coupon.cupom.repository.CampanhaCodigoRepository;
+import com.coupon.cupom.repository.CupomRepository;
+import com.coupon.cupom.request.AplicarCupomRequest;
+import com.coupon.cupom.request.AplicarCupomResponse;
+import com.coupon.cupom.request.CreateCampanhaRequest;
+import com.coupon.cupom.request.CupomResponse;
+import com.coupon.cupom.service.AplicacaoCupomService;
+import com.coupon.cupom.service.CampanhaService;
+import com.coupon.cupom.service.CupomService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@DisplayName("CampanhaService - Testes de Integração")
+class CampanhaServiceTest {
+
+    @Autowired
+    private CampanhaService service;
+
+    @Autowired
+    private CampanhaCodigoRepository codigoRepository;
+
+    @Autowired
+    private CupomRepository cupomRepository;
+
+    @Autowired
+    private CupomService cupomService;
+
+    @Autowired
+    private AplicacaoCupomService aplicacao;
+
+    private Campanha criarCampanha(int quantidade) {
+        CreateCampanhaRequest request = new CreateCampanhaRequest();
+        request.setDescription("Black Friday");
+        request.setDiscountValue(BigDecimal.valueOf(15));
+        request.setExpirationDate(LocalDateTime.now().plusDays(10));
+        request.setPublished(true);
+        request.setQuantidade(quantidade);
+        return service.criarCampanha(request);
+    }
+
+    @Test
+    @DisplayName("Deve gerar a quantidade exata de códigos únicos em lotes")
+    void deveGerarCodigosEmLotes() {
+        long antes = codigoRepository.count();
+
+        Campanha campanha = criarCampanha(2500);
+
+        assertEquals(antes + 2500, codigoRepository.count());
+        List<CupomResponse> codigos = service.listarCodigos(campanha.getId(), 0, 10);
+        assertEquals(10, codigos.size());
+        CupomResponse primeiro = codigos.get(0);
+        assertNull(primeiro.getId());
+        assertEquals("Black Friday", primeiro.getDescription());
+        assertTrue(cupomRepository.existsByCode(primeiro.getCode()));
+    }
+
+    @Test
+    @DisplayName("Deve resgatar um código de campanha uma única vez")
+    void deveResgatarCodigoUmaUnicaVez() {
+        Campanha campanha = criarCampanha(1);
+        String code = service.listarCodigos(campanha.getId(), 0, 1).get(0).getCode();
+
+        CupomResponse resgatado = service.resgatarCodigo(code);
+
+        assertTrue(resgatado.isRedeemed());
+        assertTrue(service.buscarCodigo(code).isRedeemed());
+        assertThrows(CupomInvalidoException.class, () -> service.resgatarCodigo(code));
+    }
+
+    @Test
+    @DisplayName("Deve suspender o resgate ao desativar e deletar os códigos livres junto com a campanha")
+    void deveDesativarEDeletarCampanha() {
+        Campanha campanha = criarCampanha(2);
+        List<CupomResponse> codigos = service.listarCodigos(campanha.getId(), 0, 2);
+        String resgatado = codigos.get(0).getCode();
+        String livre = codigos.get(1).getCode();
+        service.resgatarCodigo(resgatado);
+
+        service.desativarCampanha(campanha.getId());
+        assertThrows(CupomInvalidoException.class, () -> service.resgatarCodigo(livre));
+        assertThrows(TransicaoInvalidaException.class, () -> service.desativarCampanha(campanha.getId()));
+
+        assertTrue(service.deletarCampanha(campanha.getId()).isDeleted());
+        assertEquals(CupomStatus.INACTIVE, service.buscarCodigo(livre).getStatus());
+        assertTrue(codigoRepository.findById(livre).orElseThrow().isDeleted());
+        assertFalse(codigoRepository.findById(resgatado).orElseThrow().isDeleted());
+        assertThrows(TransicaoInvalidaException.class, () -> service.publicarCampanha(campanha.getId()));
+        assertThrows(TransicaoInvalidaException.class, () -> service.deletarCodigo(resgatado));
+    }
+
+    @Test
+    @DisplayName("Deve deletar um código livre uma única vez")
+    void deveDeletarCodigo() {
+        Campanha campanha = criarCampanha(1);
+        String code = service.listarCodigos(campanha.getId(), 0, 1).get(0).getCode();
+
+        service.deletarCodigo(code);
+
+        assertTrue(codigoRepository.findById(code).orElseThrow().isDeleted());
+        assertThrows(TransicaoInvalidaException.class, () -> service.deletarCodigo(code));
+        assertThrows(CupomInvalidoException.class, () -> service.resgatarCodigo(code));
+    }
+
+    @Test
+    @DisplayName("Deve lançar exceção ao buscar código inexistente")
+    void deveLancarExcecaoParaCodigoInexistente() {
+        assertThrows(CupomNotFoundException.class, () -> service.buscarCodigo("ZZZ-999"));
+    }
+
+    @Test
+    @DisplayName("Deve encontrar e aplicar códigos de campanha pelas buscas de cupom")
+    void deveEncontrarCodigosPelasBuscasDeCupom() {
+        Campanha campanha = criarCampanha(2);
+        List<CupomResponse> codigos = service.listarCodigos(campanha.getId(), 0, 2);
+        String livre = codigos.get(0).getCode();
+        String resgatado = codigos.get(1).getCode();
+        service.resgatarCodigo(resgatado);
+
+        CupomResponse porCode = cupomService.consultarPorCode(livre);
+        assertNull(porCode.getId());
+        assertEquals("Black Friday", porCode.getDescription());
+        assertEquals(2, cupomService.buscarEmLote(List.of(), List.of(livre, resgatado, "ZZZ999")).size());
+
+        AplicarCupomRequest.Item item = new AplicarCupomRequest.Item();
+        item.setSku("SKU");
+        item.setValorUnitario(new BigDecimal("100.00"));
+        item.setQuantidade(1);
+        AplicarCupomRequest request = new AplicarCupomRequest();
+        request.setItens(List.of(item));
+        request.setCodes(List.of(livre, resgatado));
+
+        AplicarCupomResponse resposta = aplicacao.aplicar(request);
+
+        assertEquals(0, new BigDecimal("15").compareTo(resposta.getDesconto()));
+        assertTrue(resposta.getCupons().get(0).isAplicado());
+        assertFalse(resposta.getCupons().get(1).isAplicado());
+    }
+}
@@ -0,0 +1,154 @@
+package com.coupon.cupom;
+
+import com.coupon.cupom.entity.Cupom;
+import com.coupon.cupom.entity.CupomStatus;
+import com.coupon.cupom.exception.CupomInvalidoException;
+import com.coupon.cupom.exception.TransicaoInvalidaException;
+import com.coupon.cupom.repository.CupomRepository;
+import com.coupon.cupom.request.CreateCupomRequest;
+import com.coupon.cupom.service.CupomService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Dispara transições concorrentes no mesmo cupom contra o H2 real e confere as invariantes:
+ * resgate aceito no máximo uma vez, nunca resgatado e deletado, status coerente com os flags
+ */
+@SpringBootTest
+@DisplayName("Concorrência de Cupom - Testes de Integração")
+class ConcorrenciaCupomTest {
+
+    private static final int RODADAS = 25;
+
+    @Autowired
+    private CupomService service;
+
+    @Autowired
+    private CupomRepository repository;
+
+    private static final AtomicInteger SEQUENCIA = new AtomicInteger();
+
+    private Cupom criarCupom() {
+        return service.salvarCupom(Fixtures.cupomRequest("CC" + String.format("%04d", SEQUENCIA.incrementAndGet())));
+    }
+
+    /**
+     * Libera todas as tarefas ao mesmo tempo e informa quais terminaram com sucesso.
+     * Só as falhas esperadas de uma disputa (regra de negócio ou conflito otimista) são aceitas.
+     */
+    private static List<Boolean> disputar(List<Runnable> tarefas) throws InterruptedException {
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<Boolean>> resultados = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(tarefas.size())) {
+            for (Runnable tarefa : tarefas) {
+                resultados.add(executor.submit(() -> {
+                    largada.await();
+                    try {
+                        tarefa.run();
+                        return true;
+                    } catch (CupomInvalidoException | TransicaoInvalidaException | OptimisticLockingFailureException e) {
+                        return false;
+                    }
+                }));
+            }
+            largada.countDown();
+        }
+        List<Boolean> sucessos = new ArrayList<>();
+        for (Future<Boolean> resultado : resultados) {
+            try {
+                sucessos.add(resultado.get());
+            } catch (ExecutionException e) {
+                throw new AssertionError("Falha inesperada na disputa", e.getCause());
+            }
+        }
+        return sucessos;
+    }
+
+    @Test
+    @DisplayName("Deve aceitar exatamente um resgate entre resgates concorrentes")
+    void deveResgatarUmaUnicaVez() throws InterruptedException {
+        for (int rodada = 0; rodada < RODADAS; rodada++) {
+            UUID id = criarCupom().getId();
+            List<Runnable> tarefas = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                tarefas.add(() -> service.resgatarCupom(id));
+            }
+
+            long aceitos = disputar(tarefas).stream().filter(sucesso -> sucesso).count();
+
+            assertEquals(1, aceitos, "resgates aceitos na rodada " + rodada);
+            assertTrue(repository.findById(id).orElseThrow().isRedeemed());
+        }
+    }
+
+    @Test
+    @DisplayName("Deve manter as invariantes com resgate, deleção, desativação e atualização concorrentes")
+    void deveManterInvariantesEntreTransicoes() throws InterruptedException {
+        for (int rodada = 0; rodada < RODADAS; rodada++) {
+            Cupom cupom = criarCupom();
+            UUID id = cupom.getId();
+            CreateCupomRequest atualizacao = Fixtures.cupomRequest(cupom.getCode());
+            atualizacao.setDescription("Descrição atualizada");
+
+            List<Boolean> sucessos = disputar(List.of(
+                    () -> service.resgatarCupom(id),
+                    () -> service.resgatarCupom(id),
+                    () -> service.resgatarCupom(id),
+                    () -> service.deleteCupom(id),
+                    () -> service.desativarCupom(id),
+                    () -> service.atualizarCupom(id, atualizacao)
+            ));
+            long resgatesAceitos = sucessos.subList(0, 3).stream().filter(sucesso -> sucesso).count();
+            boolean deletado = sucessos.get(3);
+            boolean desativado = sucessos.get(4);
+
+            String contexto = "rodada " + rodada + ": " + sucessos;
+            assertTrue(resgatesAceitos <= 1, contexto);
+            assertFalse(resgatesAceitos == 1 && deletado, contexto);
+
+            Cupom atual = repository.findById(id).orElseThrow();
+            assertEquals(resgatesAceitos == 1, atual.isRedeemed(), contexto);
+            assertEquals(deletado, atual.isDeleted(), contexto);
+            assertFalse(atual.isRedeemed() && atual.isDeleted(), contexto);
+            if (atual.isRedeemed() || atual.isDeleted() || desativado) {
+                assertEquals(CupomStatus.INACTIVE, atual.getStatus(), contexto);
+            }
+            if (atual.getStatus() == CupomStatus.ACTIVE) {
+                assertTrue(atual.isPublished() && !atual.isRedeemed() && !atual.isDeleted(), contexto);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Deve aceitar uma única troca para o mesmo código entre atualizações concorrentes")
+    void deveGarantirCodigoUnicoNaAtualizacaoConcorrente() throws InterruptedException {
+        for (int rodada = 0; rodada < RODADAS; rodada++) {
+            String novoCode = "CD" + String.format("%04d", SEQUENCIA.incrementAndGet());
+            List<Runnable> tarefas = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                UUID id = criarCupom().getId();
+                tarefas.add(() -> service.atualizarCupom(id, Fixtures.cupomRequest(novoCode)));
+            }
+
+            long aceitas = disputar(tarefas).stream().filter(sucesso -> sucesso).count();
+
+            assertEquals(1, aceitas, "trocas aceitas na rodada " + rodada);
+            assertTrue(repository.findByCode(novoCode).isPresent());
+        }
+    }
+}
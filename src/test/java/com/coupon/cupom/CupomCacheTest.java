@@ -0,0 +1,176 @@
+package com.coupon.cupom;
+
+import com.coupon.cupom.cache.CacheCompartilhado;
+import com.coupon.cupom.cache.CacheCompartilhadoLocal;
+import com.coupon.cupom.cache.CupomCache;
+import com.coupon.cupom.cache.CupomCacheProperties;
+import com.coupon.cupom.entity.CupomStatus;
+import com.coupon.cupom.event.CupomAlteradoEvent;
+import com.coupon.cupom.event.CupomAlteradoEvent.Operacao;
+import com.coupon.cupom.request.CupomResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CupomCache - Testes Unitários")
+class CupomCacheTest {
+
+    private static final LocalDateTime EXPIRACAO = LocalDateTime.of(2026, 12, 31, 23, 59);
+
+    private final CacheCompartilhado compartilhado = new CacheCompartilhadoLocal(1000);
+
+    /**
+     * Cache compartilhado cujas mensagens só chegam aos assinantes quando {@link #entregar} é chamado,
+     * como um pub/sub atrasado entre instâncias
+     */
+    private static class CacheCompartilhadoAtrasado extends CacheCompartilhadoLocal {
+
+        private final Queue<Runnable> pendentes = new ConcurrentLinkedQueue<>();
+
+        CacheCompartilhadoAtrasado() {
+            super(1000);
+        }
+
+        @Override
+        public void publicar(String canal, String mensagem) {
+            pendentes.add(() -> super.publicar(canal, mensagem));
+        }
+
+        void entregar() {
+            for (Runnable entrega; (entrega = pendentes.poll()) != null; ) {
+                entrega.run();
+            }
+        }
+    }
+
+    /**
+     * Uma instância da aplicação, com seu próprio cache local e o mesmo cache compartilhado
+     */
+    private CupomCache instancia() {
+        return instancia(compartilhado);
+    }
+
+    private static CupomCache instancia(CacheCompartilhado compartilhado) {
+        return new CupomCache(new CupomCacheProperties(true, CupomCacheProperties.Tipo.LOCAL, "",
+                Duration.ofMillis(200), Duration.ofMinutes(1), Duration.ofMinutes(5), 1000, "cupom:invalidacao"),
+                compartilhado, new SimpleMeterRegistry());
+    }
+
+    private static CupomResponse cupom(UUID id, String code, boolean redeemed) {
+        return cupom(id, code, redeemed, 0);
+    }
+
+    private static CupomResponse cupom(UUID id, String code, boolean redeemed, long version) {
+        return new CupomResponse(id, code, "Cupom", new BigDecimal("10.00"), EXPIRACAO,
+                redeemed ? CupomStatus.INACTIVE : CupomStatus.ACTIVE, true, redeemed, version);
+    }
+
+    @Test
+    @DisplayName("Deve servir a outra instância pelo cache compartilhado, por ID e por código")
+    void deveCompartilharEntreInstancias() {
+        CupomCache a = instancia();
+        CupomCache b = instancia();
+        UUID id = UUID.randomUUID();
+
+        a.guardar(cupom(id, "ABC123", false), a.geracao());
+
+        assertEquals(cupom(id, "ABC123", false), b.obterPorId(id));
+        assertEquals(id, b.obterPorCode("ABC123").getId());
+        assertNull(b.obterPorCode("NAOEXI"));
+    }
+
+    @Test
+    @DisplayName("Deve invalidar o cache local de todas as instâncias após uma alteração")
+    void deveInvalidarTodasAsInstancias() {
+        CupomCache a = instancia();
+        CupomCache b = instancia();
+        UUID id = UUID.randomUUID();
+        a.guardar(cupom(id, "ABC123", false), a.geracao());
+        assertNotNull(b.obterPorId(id));
+
+        a.aoAlterarCupom(new CupomAlteradoEvent(Operacao.RESGATADO, id, "ABC123", CupomStatus.INACTIVE,
+                true, true, false, EXPIRACAO, 1, null));
+
+        assertNull(a.obterPorId(id));
+        assertNull(b.obterPorId(id));
+        assertNull(b.obterPorCode("ABC123"));
+    }
+
+    @Test
+    @DisplayName("Não deve devolver o cupom pelo código antigo depois de uma troca de código")
+    void naoDeveServirCodigoAntigo() {
+        CupomCache a = instancia();
+        UUID id = UUID.randomUUID();
+        a.guardar(cupom(id, "ANTIGO", false), a.geracao());
+
+        a.invalidar(id, 1);
+        a.guardar(cupom(id, "NOVO01", false, 1), a.geracao());
+
+        assertNull(a.obterPorCode("ANTIGO"));
+        assertEquals("NOVO01", a.obterPorCode("NOVO01").getCode());
+    }
+
+    @Test
+    @DisplayName("Não deve guardar um snapshot lido antes de uma invalidação")
+    void naoDeveGuardarSnapshotAntigo() {
+        CupomCache a = instancia();
+        UUID id = UUID.randomUUID();
+
+        long geracao = a.geracao();
+        a.invalidar(id, 1);
+        a.guardar(cupom(id, "ABC123", false), geracao);
+
+        assertNull(a.obterPorId(id));
+        assertNull(instancia().obterPorId(id));
+    }
+
+    @Test
+    @DisplayName("Não deve aceitar no cache compartilhado um snapshot antigo gravado depois da alteração em outra instância")
+    void naoDeveGuardarSnapshotAntigoDeOutraInstancia() {
+        CacheCompartilhadoAtrasado atrasado = new CacheCompartilhadoAtrasado();
+        CupomCache a = instancia(atrasado);
+        CupomCache b = instancia(atrasado);
+        UUID id = UUID.randomUUID();
+
+        // A lê a versão 1 do banco; antes de guardar, B resgata o cupom e grava a versão 2
+        long geracao = a.geracao();
+        CupomResponse lidoPorA = cupom(id, "ABC123", false, 1);
+        b.aoAlterarCupom(new CupomAlteradoEvent(Operacao.RESGATADO, id, "ABC123", CupomStatus.INACTIVE,
+                true, true, false, EXPIRACAO, 2, null));
+        // O aviso ainda não chegou a A, que grava o snapshot antigo
+        a.guardar(lidoPorA, geracao);
+
+        assertNull(b.obterPorId(id));
+        assertNull(instancia(atrasado).obterPorCode("ABC123"));
+
+        atrasado.entregar();
+        assertNull(a.obterPorId(id));
+
+        b.guardar(cupom(id, "ABC123", true, 2), b.geracao());
+        CupomResponse atual = instancia(atrasado).obterPorId(id);
+        assertTrue(atual.isRedeemed());
+        assertEquals(2, atual.getVersion());
+    }
+
+    @Test
+    @DisplayName("Não deve substituir um snapshot por outro de versão anterior")
+    void naoDeveSubstituirPorVersaoAnterior() {
+        CupomCache a = instancia();
+        CupomCache b = instancia();
+        UUID id = UUID.randomUUID();
+
+        a.guardar(cupom(id, "ABC123", true, 3), a.geracao());
+        b.guardar(cupom(id, "ABC123", false, 2), b.geracao());
+
+        assertTrue(instancia().obterPorId(id).isRedeemed());
+    }
+}
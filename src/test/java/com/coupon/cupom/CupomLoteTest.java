@@ -0,0 +1,137 @@
+package com.coupon.cupom;
+
+import com.coupon.cupom.entity.Cupom;
+import com.coupon.cupom.entity.CupomStatus;
+import com.coupon.cupom.exception.TransicaoInvalidaException;
+import com.coupon.cupom.service.CupomService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@DisplayName("Operações em lote - Testes de Integração")
+class CupomLoteTest {
+
+    private final JsonMapper json = JsonMapper.builder().build();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CupomService service;
+
+    private Cupom criarCupom(String code, boolean published) {
+        return service.salvarCupom(Fixtures.cupomRequest(code, published));
+    }
+
+    private JsonNode executar(String operacao, String corpo) throws Exception {
+        var resposta = mockMvc.perform(post("/coupon/bulk/" + operacao)
+                .contentType(MediaType.APPLICATION_JSON).content(corpo)).andReturn().getResponse();
+        assertEquals(200, resposta.getStatus(), resposta.getContentAsString());
+        return json.readTree(resposta.getContentAsString());
+    }
+
+    @Test
+    @DisplayName("Deve publicar por IDs com o desfecho de cada cupom e as mesmas regras da entidade")
+    void devePublicarPorIds() throws Exception {
+        Cupom rascunho = criarCupom("LOT001", false);
+        Cupom publicado = criarCupom("LOT002", true);
+        Cupom deletado = criarCupom("LOT003", false);
+        service.deleteCupom(deletado.getId());
+        UUID inexistente = UUID.randomUUID();
+
+        JsonNode resposta = executar("publish", """
+                {"ids":["%s","%s","%s","%s"]}""".formatted(rascunho.getId(), publicado.getId(), deletado.getId(), inexistente));
+
+        assertEquals(1, resposta.get("aplicados").asInt());
+        assertEquals(3, resposta.get("recusados").asInt());
+        JsonNode resultados = resposta.get("resultados");
+        assertEquals("APLICADO", resultados.get(0).get("resultado").asString());
+        assertEquals("Cupom já foi publicado", resultados.get(1).get("motivo").asString());
+        assertEquals("Não é possível publicar um cupom deletado", resultados.get(2).get("motivo").asString());
+        assertEquals("NAO_ENCONTRADO", resultados.get(3).get("resultado").asString());
+
+        Cupom alterado = service.buscarPorId(rascunho.getId());
+        assertTrue(alterado.isPublished());
+        assertEquals(1, alterado.getVersion());
+        assertThrows(TransicaoInvalidaException.class, () -> service.publicarCupom(rascunho.getId()));
+    }
+
+    @Test
+    @DisplayName("Deve deletar pelo prefixo do código só os cupons elegíveis")
+    void deveDeletarPorPrefixo() throws Exception {
+        Cupom primeiro = criarCupom("PFX001", true);
+        Cupom segundo = criarCupom("PFX002", true);
+        service.resgatarCupom(segundo.getId());
+        criarCupom("OUT001", true);
+
+        JsonNode resposta = executar("delete", "{\"codePrefixo\":\"pfx\"}");
+
+        assertEquals(1, resposta.get("aplicados").asInt());
+        assertEquals(primeiro.getId().toString(), resposta.get("resultados").get(0).get("id").asString());
+        assertTrue(service.buscarPorId(primeiro.getId()).isDeleted());
+        assertFalse(service.buscarPorId(segundo.getId()).isDeleted());
+        assertEquals(0, executar("delete", "{\"codePrefixo\":\"PFX\"}").get("aplicados").asInt());
+    }
+
+    @Test
+    @DisplayName("Deve desativar pelo prefixo só os cupons ativos e não aplicar nada na repetição")
+    void deveDesativarPorPrefixoUmaVez() throws Exception {
+        Cupom ativo = criarCupom("DSV001", true);
+        Cupom rascunho = criarCupom("DSV002", false);
+        Cupom resgatado = criarCupom("DSV003", true);
+        service.resgatarCupom(resgatado.getId());
+
+        JsonNode resposta = executar("deactivate", "{\"codePrefixo\":\"DSV\"}");
+
+        assertEquals(1, resposta.get("aplicados").asInt());
+        assertEquals(ativo.getId().toString(), resposta.get("resultados").get(0).get("id").asString());
+        Cupom desativado = service.buscarPorId(ativo.getId());
+        assertEquals(CupomStatus.INACTIVE, desativado.getStatus());
+        assertFalse(service.buscarPorId(rascunho.getId()).isPublished());
+        assertEquals(0, executar("deactivate", "{\"codePrefixo\":\"DSV\"}").get("aplicados").asInt());
+        assertEquals(desativado.getVersion(), service.buscarPorId(ativo.getId()).getVersion());
+    }
+
+    @Test
+    @DisplayName("Deve recusar requisição com IDs e prefixo ao mesmo tempo")
+    void deveRecusarAlvoDuplo() throws Exception {
+        int status = mockMvc.perform(post("/coupon/bulk/deactivate").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[\"" + UUID.randomUUID() + "\"],\"codePrefixo\":\"AB\"}"))
+                .andReturn().getResponse().getStatus();
+
+        assertEquals(400, status);
+    }
+
+    @Test
+    @DisplayName("Deve aceitar a lista de IDs comprimida com gzip")
+    void deveAceitarCorpoGzip() throws Exception {
+        Cupom rascunho = criarCupom("GZL001", false);
+        ByteArrayOutputStream comprimido = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(comprimido)) {
+            gzip.write("{\"ids\":[\"%s\"]}".formatted(rascunho.getId()).getBytes(StandardCharsets.UTF_8));
+        }
+
+        var resposta = mockMvc.perform(post("/coupon/bulk/publish").contentType(MediaType.APPLICATION_JSON)
+                        .header("Content-Encoding", "gzip").content(comprimido.toByteArray()))
+                .andReturn().getResponse();
+
+        assertEquals(200, resposta.getStatus(), resposta.getContentAsString());
+        assertEquals(1, json.readTree(resposta.getContentAsString()).get("aplicados").asInt());
+    }
+}
@@ -1,41 +1,110 @@
 package com.coupon.cupom;
 
+import com.coupon.cupom.auditoria.AuditoriaCupons;
+import com.coupon.cupom.cache.CacheCompartilhadoLocal;
+import com.coupon.cupom.cache.CupomCache;
+import com.coupon.cupom.cache.CupomCacheProperties;
+import com.coupon.cupom.cache.NegativeCacheProperties;
+import com.coupon.cupom.cache.NegativeLookupCache;
 import com.coupon.cupom.entity.Cupom;
 import com.coupon.cupom.entity.CupomStatus;
+import com.coupon.cupom.estatisticas.EstatisticasUso;
 import com.coupon.cupom.exception.CupomInvalidoException;
 import com.coupon.cupom.exception.CupomNotFoundException;
+import com.coupon.cupom.index.IndiceCodigos;
+import com.coupon.cupom.index.IndiceProperties;
+import com.coupon.cupom.mapper.CupomMapper;
+import com.coupon.cupom.quentes.DetectorQuentes;
+import com.coupon.cupom.quentes.ProtecaoQuentes;
+import com.coupon.cupom.quentes.QuentesProperties;
+import com.coupon.cupom.repository.CupomArquivadoRepository;
 import com.coupon.cupom.repository.CupomRepository;
+import com.coupon.cupom.request.AtualizarCupomRequest;
 import com.coupon.cupom.request.CreateCupomRequest;
+import com.coupon.cupom.request.CupomResponse;
+import com.coupon.cupom.service.CampanhaService;
 import com.coupon.cupom.service.CupomService;
+import com.coupon.cupom.tempo.Relogio;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mapstruct.factory.Mappers;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 @DisplayName("CupomService - Testes Unitários")
 class CupomServiceTest {
 
+    private static final LocalDateTime AGORA = LocalDateTime.of(2026, 1, 15, 12, 0);
+    private static final QuentesProperties QUENTES_DESLIGADO = new QuentesProperties(false, 16, 500,
+            Duration.ofSeconds(10), 20, 4096, 4, Duration.ofSeconds(1));
+
     @InjectMocks
     private CupomService service;
 
     @Mock
     private CupomRepository repository;
 
+    @Mock
+    private CupomArquivadoRepository arquivoRepository;
+
+    @Spy
+    private NegativeLookupCache cacheNegativo =
+            new NegativeLookupCache(new NegativeCacheProperties(Duration.ofMinutes(1), 1000));
+
+    @Spy
+    private CupomCache cache = new CupomCache(
+            new CupomCacheProperties(false, CupomCacheProperties.Tipo.LOCAL, "", Duration.ofMillis(200),
+                    Duration.ofSeconds(5), Duration.ofSeconds(60), 1000, "cupom:invalidacao"),
+            new CacheCompartilhadoLocal(1000), new SimpleMeterRegistry());
+
+    @Spy
+    private CupomMapper mapper = Mappers.getMapper(CupomMapper.class);
+
+    @Spy
+    private Relogio relogio = Relogio.fixo(AGORA);
+
+    @Spy
+    private IndiceCodigos indice = new IndiceCodigos(new IndiceProperties(false, 16), null, relogio);
+
+    @Mock
+    private ApplicationEventPublisher eventos;
+
+    @Mock
+    private AuditoriaCupons auditoria;
+
+    @Mock
+    private EstatisticasUso estatisticas;
+
+    @Mock
+    private CampanhaService campanhas;
+
+    @Spy
+    private ProtecaoQuentes quentes = new ProtecaoQuentes(QUENTES_DESLIGADO, new DetectorQuentes(QUENTES_DESLIGADO),
+            new SimpleMeterRegistry());
+
     private UUID cupomId;
     private CreateCupomRequest validRequest;
     private Cupom cupomValido;
@@ -48,7 +117,7 @@ class CupomServiceTest {
         validRequest.setCode("NOVO26");
         validRequest.setDescription("Novo cupom 2026");
         validRequest.setDiscountValue(BigDecimal.valueOf(10.0));
-        validRequest.setExpirationDate(LocalDateTime.now().plusDays(30));
+        validRequest.setExpirationDate(AGORA.plusDays(30));
         validRequest.setPublished(true);
 
         cupomValido = Cupom.criar(
@@ -56,7 +125,8 @@ class CupomServiceTest {
                 validRequest.getDescription(),
                 validRequest.getDiscountValue(),
                 validRequest.getExpirationDate(),
-                validRequest.isPublished()
+                validRequest.isPublished(),
+                AGORA
         );
         cupomValido.getId();
     }
@@ -167,7 +237,7 @@ class CupomServiceTest {
         @Test
         @DisplayName("Deve lançar exceção quando data de expiração é no passado")
         void deveLancarExcecaoQuandoDataNoPassado() {
-            validRequest.setExpirationDate(LocalDateTime.now().minusDays(1));
+            validRequest.setExpirationDate(AGORA.minusDays(1));
 
             CupomInvalidoException exception = assertThrows(
                     CupomInvalidoException.class,
@@ -213,6 +283,63 @@ class CupomServiceTest {
             assertTrue(exception.getMessage().contains(cupomId.toString()));
             verify(repository).findById(cupomId);
         }
+
+        @Test
+        @DisplayName("Deve responder buscas repetidas por ID inexistente sem consultar o banco")
+        void deveUsarCacheNegativoParaIdInexistente() {
+            when(repository.findById(cupomId))
+                    .thenReturn(Optional.empty());
+
+            assertThrows(CupomNotFoundException.class, () -> service.buscarPorId(cupomId));
+            CupomNotFoundException exception = assertThrows(
+                    CupomNotFoundException.class,
+                    () -> service.buscarPorId(cupomId)
+            );
+
+            assertSame(CupomNotFoundException.NAO_ENCONTRADO, exception);
+            verify(repository, times(1)).findById(cupomId);
+        }
+
+        @Test
+        @DisplayName("Deve invalidar o cache negativo ao criar cupom com o código")
+        void deveInvalidarCacheNegativoAoCriar() {
+            when(repository.findByCode("NOVO26"))
+                    .thenReturn(Optional.empty())
+                    .thenReturn(Optional.of(cupomValido));
+            when(repository.existsByCode("NOVO26"))
+                    .thenReturn(false);
+            when(repository.save(any(Cupom.class)))
+                    .thenAnswer(invocation -> invocation.getArgument(0));
+
+            assertThrows(CupomNotFoundException.class, () -> service.buscarPorCode("NOVO26"));
+            service.salvarCupom(validRequest);
+            Cupom resultado = service.buscarPorCode("novo-26");
+
+            assertEquals("NOVO26", resultado.getCode());
+            verify(repository, times(2)).findByCode("NOVO26");
+        }
+
+        @Test
+        @DisplayName("Deve buscar em lote com consultas IN de tamanho limitado")
+        void deveBuscarEmLoteComConsultasLimitadas() {
+            List<UUID> ids = IntStream.range(0, 450).mapToObj(i -> UUID.randomUUID()).toList();
+            CupomResponse encontrado = new CupomResponse(ids.get(0), "NOVO26", "Novo cupom 2026",
+                    BigDecimal.TEN, AGORA.plusDays(1), CupomStatus.ACTIVE, true, false);
+
+            when(repository.findResponsesByIdIn(anyCollection()))
+                    .thenReturn(List.of(encontrado))
+                    .thenReturn(List.of());
+            when(repository.findResponsesByCodeIn(anyCollection()))
+                    .thenReturn(List.of(encontrado));
+
+            List<CupomResponse> resultado = service.buscarEmLote(ids, List.of("novo-26", "x"));
+
+            assertEquals(List.of(encontrado), resultado);
+            verify(repository, times(3)).findResponsesByIdIn(anyCollection());
+            verify(repository, times(1)).findResponsesByCodeIn(anyCollection());
+            assertTrue(cacheNegativo.isAusente(ids.get(449)));
+            assertFalse(cacheNegativo.isAusente(ids.get(0)));
+        }
     }
 
     // ======================== TESTES DE ATUALIZAÇÃO ========================
@@ -228,7 +355,7 @@ class CupomServiceTest {
             updateRequest.setCode("NOVO26");
             updateRequest.setDescription("Descrição atualizada");
             updateRequest.setDiscountValue(BigDecimal.valueOf(15.0));
-            updateRequest.setExpirationDate(LocalDateTime.now().plusDays(60));
+            updateRequest.setExpirationDate(AGORA.plusDays(60));
             updateRequest.setPublished(true);
 
             when(repository.findById(cupomId))
@@ -249,7 +376,7 @@ class CupomServiceTest {
         @Test
         @DisplayName("Deve lançar exceção ao atualizar cupom deletado")
         void deveLancarExcecaoAoAtualizarCupomDeletado() {
-            cupomValido.deletar();
+            cupomValido.deletar(AGORA);
 
             when(repository.findById(cupomId))
                     .thenReturn(Optional.of(cupomValido));
@@ -267,16 +394,16 @@ class CupomServiceTest {
         @DisplayName("Deve lançar exceção ao atualizar com código duplicado")
         void deveLancarExcecaoQuandoCodigoDuplicado() {
             CreateCupomRequest updateRequest = new CreateCupomRequest();
-            updateRequest.setCode("OUTRO99");
+            updateRequest.setCode("OUTRO9");
             updateRequest.setDescription("Nova descrição");
             updateRequest.setDiscountValue(BigDecimal.valueOf(10.0));
-            updateRequest.setExpirationDate(LocalDateTime.now().plusDays(30));
+            updateRequest.setExpirationDate(AGORA.plusDays(30));
             updateRequest.setPublished(true);
 
             when(repository.findById(cupomId))
                     .thenReturn(Optional.of(cupomValido));
-            when(repository.existsByCode("OUTRO99"))
-                    .thenReturn(true);
+            when(repository.saveAndFlush(cupomValido))
+                    .thenThrow(new DataIntegrityViolationException("uk_cupons_code"));
 
             CupomInvalidoException exception = assertThrows(
                     CupomInvalidoException.class,
@@ -285,6 +412,49 @@ class CupomServiceTest {
 
             assertTrue(exception.getMessage().contains("já existe"));
             verify(repository, never()).save(any());
+            verify(repository, never()).existsByCode(any());
+        }
+
+        @Test
+        @DisplayName("Deve trocar código e expiração no próprio registro")
+        void deveTrocarCodigoNoProprioRegistro() {
+            LocalDateTime novaExpiracao = AGORA.plusDays(90);
+            CreateCupomRequest updateRequest = new CreateCupomRequest();
+            updateRequest.setCode("tro-ca1");
+            updateRequest.setDescription("Nova descrição");
+            updateRequest.setDiscountValue(BigDecimal.valueOf(12.0));
+            updateRequest.setExpirationDate(novaExpiracao);
+
+            when(repository.findById(cupomId))
+                    .thenReturn(Optional.of(cupomValido));
+
+            Cupom resultado = service.atualizarCupom(cupomId, updateRequest);
+
+            assertSame(cupomValido, resultado);
+            assertEquals("TROCA1", resultado.getCode());
+            assertEquals(novaExpiracao, resultado.getExpirationDate());
+            verify(repository).saveAndFlush(cupomValido);
+            verify(repository, never()).save(any());
+        }
+
+        @Test
+        @DisplayName("Deve atualizar parcialmente só os campos informados")
+        void deveAtualizarParcialmente() {
+            AtualizarCupomRequest patch = new AtualizarCupomRequest();
+            patch.setDescription("Só a descrição");
+
+            when(repository.findById(cupomId))
+                    .thenReturn(Optional.of(cupomValido));
+            when(repository.save(any(Cupom.class)))
+                    .thenAnswer(invocation -> invocation.getArgument(0));
+
+            Cupom resultado = service.atualizarParcialmente(cupomId, patch);
+
+            assertEquals("Só a descrição", resultado.getDescription());
+            assertEquals("NOVO26", resultado.getCode());
+            assertEquals(validRequest.getDiscountValue(), resultado.getDiscountValue());
+            assertEquals(validRequest.getExpirationDate(), resultado.getExpirationDate());
+            verify(repository, never()).saveAndFlush(any());
         }
     }
 
@@ -314,7 +484,7 @@ class CupomServiceTest {
         @Test
         @DisplayName("Deve lançar exceção ao deletar cupom já deletado")
         void deveLancarExcecaoAoDeletarCupomJaDeletado() {
-            cupomValido.deletar();
+            cupomValido.deletar(AGORA);
 
             when(repository.findById(cupomId))
                     .thenReturn(Optional.of(cupomValido));
@@ -331,7 +501,7 @@ class CupomServiceTest {
         @Test
         @DisplayName("Deve lançar exceção ao deletar cupom resgatado")
         void deveLancarExcecaoAoDeletarCupomResgatado() {
-            cupomValido.resgatar();
+            cupomValido.resgatar(AGORA);
 
             when(repository.findById(cupomId))
                     .thenReturn(Optional.of(cupomValido));
@@ -363,7 +533,7 @@ class CupomServiceTest {
             Cupom resultado = service.resgatarCupom(cupomId);
 
             assertTrue(resultado.isRedeemed());
-            assertNotNull(resultado.getRedeemedAt());
+            assertEquals(AGORA, resultado.getRedeemedAt());
             assertEquals(CupomStatus.INACTIVE, resultado.getStatus());
 
             verify(repository).save(any(Cupom.class));
@@ -372,7 +542,7 @@ class CupomServiceTest {
         @Test
         @DisplayName("Deve lançar exceção ao resgatar cupom já resgatado")
         void deveLancarExcecaoAoResgatarCupomJaResgatado() {
-            cupomValido.resgatar();
+            cupomValido.resgatar(AGORA);
 
             when(repository.findById(cupomId))
                     .thenReturn(Optional.of(cupomValido));
@@ -386,35 +556,24 @@ class CupomServiceTest {
             verify(repository, never()).save(any());
         }
 
-//        @Test
-//        @DisplayName("Deve lançar exceção ao resgatar cupom expirado")
-//        void deveLancarExcecaoAoResgatarCupomExpirado() {
-//            CreateCupomRequest expiradoRequest = new CreateCupomRequest();
-//            expiradoRequest.setCode("EXP001");
-//            expiradoRequest.setDescription("Expirado");
-//            expiradoRequest.setDiscountValue(BigDecimal.valueOf(10.0));
-//            expiradoRequest.setExpirationDate(LocalDateTime.now().minusDays(1));
-//            expiradoRequest.setPublished(true);
-//
-//            Cupom cupomExpirado = Cupom.criar(
-//                    expiradoRequest.getCode(),
-//                    expiradoRequest.getDescription(),
-//                    expiradoRequest.getDiscountValue(),
-//                    expiradoRequest.getExpirationDate(),
-//                    expiradoRequest.isPublished()
-//            );
-//
-//            when(repository.findById(cupomId))
-//                    .thenReturn(Optional.of(cupomExpirado));
-//
-//            CupomInvalidoException exception = assertThrows(
-//                    CupomInvalidoException.class,
-//                    () -> service.resgatarCupom(cupomId)
-//            );
-//
-//            assertTrue(exception.getMessage().contains("Cupom não pode ser resgatado"));
-//            verify(repository, never()).save(any());
-//        }
+        @Test
+        @DisplayName("Deve lançar exceção ao resgatar cupom expirado")
+        void deveLancarExcecaoAoResgatarCupomExpirado() {
+            doReturn(validRequest.getExpirationDate().plusSeconds(1)).when(relogio).agora();
+
+            when(repository.findById(cupomId))
+                    .thenReturn(Optional.of(cupomValido));
+
+            CupomInvalidoException exception = assertThrows(
+                    CupomInvalidoException.class,
+                    () -> service.resgatarCupom(cupomId)
+            );
+
+            assertTrue(exception.getMessage().contains("Cupom não pode ser resgatado"));
+            assertTrue(cupomValido.isExpirado(relogio.agora()));
+            assertFalse(cupomValido.isExpirado(AGORA));
+            verify(repository, never()).save(any());
+        }
 
         @Test
         @DisplayName("Deve lançar exceção ao resgatar cupom não publicado")
@@ -423,7 +582,7 @@ class CupomServiceTest {
             naoPublicadoRequest.setCode("NPUB01");
             naoPublicadoRequest.setDescription("Não publicado");
             naoPublicadoRequest.setDiscountValue(BigDecimal.valueOf(10.0));
-            naoPublicadoRequest.setExpirationDate(LocalDateTime.now().plusDays(30));
+            naoPublicadoRequest.setExpirationDate(AGORA.plusDays(30));
             naoPublicadoRequest.setPublished(false);
 
             Cupom cupomNaoPublicado = Cupom.criar(
@@ -431,7 +590,8 @@ class CupomServiceTest {
                     naoPublicadoRequest.getDescription(),
                     naoPublicadoRequest.getDiscountValue(),
                     naoPublicadoRequest.getExpirationDate(),
-                    naoPublicadoRequest.isPublished()
+                    naoPublicadoRequest.isPublished(),
+                    AGORA
             );
 
             when(repository.findById(cupomId))
@@ -459,7 +619,7 @@ class CupomServiceTest {
             inativoRequest.setCode("INAT01");
             inativoRequest.setDescription("Inativo");
             inativoRequest.setDiscountValue(BigDecimal.valueOf(10.0));
-            inativoRequest.setExpirationDate(LocalDateTime.now().plusDays(30));
+            inativoRequest.setExpirationDate(AGORA.plusDays(30));
             inativoRequest.setPublished(false);
 
             Cupom cupomInativo = Cupom.criar(
@@ -467,7 +627,8 @@ class CupomServiceTest {
                     inativoRequest.getDescription(),
                     inativoRequest.getDiscountValue(),
                     inativoRequest.getExpirationDate(),
-                    inativoRequest.isPublished()
+                    inativoRequest.isPublished(),
+                    AGORA
             );
 
             when(repository.findById(cupomId))
@@ -525,7 +686,7 @@ class CupomServiceTest {
             naoPublicadoRequest.setCode("NPUB02");
             naoPublicadoRequest.setDescription("Não publicado");
             naoPublicadoRequest.setDiscountValue(BigDecimal.valueOf(10.0));
-            naoPublicadoRequest.setExpirationDate(LocalDateTime.now().plusDays(30));
+            naoPublicadoRequest.setExpirationDate(AGORA.plusDays(30));
             naoPublicadoRequest.setPublished(false);
 
             Cupom cupomNaoPublicado = Cupom.criar(
@@ -533,7 +694,8 @@ class CupomServiceTest {
                     naoPublicadoRequest.getDescription(),
                     naoPublicadoRequest.getDiscountValue(),
                     naoPublicadoRequest.getExpirationDate(),
-                    naoPublicadoRequest.isPublished()
+                    naoPublicadoRequest.isPublished(),
+                    AGORA
             );
 
             when(repository.findById(cupomId))
@@ -0,0 +1,172 @@
+package com.coupon.cupom;
+
+import com.coupon.cupom.auditoria.AuditoriaCupons;
+import com.coupon.cupom.entity.AuditoriaCupom;
+import com.coupon.cupom.event.CupomAlteradoEvent.Operacao;
+import com.coupon.cupom.grpc.GrpcErros;
+import com.coupon.cupom.grpc.v1.BuscarEmLoteRequest;
+import com.coupon.cupom.grpc.v1.Cupom;
+import com.coupon.cupom.grpc.v1.CuponsGrpc;
+import com.coupon.cupom.grpc.v1.OperacaoRequest;
+import com.coupon.cupom.grpc.v1.OperacaoResultado;
+import com.coupon.cupom.grpc.v1.ReferenciaCupom;
+import com.coupon.cupom.grpc.v1.Status;
+import com.coupon.cupom.service.CupomService;
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.StreamObserver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.grpc.test.autoconfigure.LocalGrpcPort;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {"spring.grpc.server.port=0", "cupom.cache.enabled=true"})
+@DisplayName("Cupons gRPC - Testes de Integração")
+class CuponsGrpcTest {
+
+    private static final AtomicInteger SEQUENCIA = new AtomicInteger();
+
+    @Autowired
+    private CupomService service;
+
+    @Autowired
+    private AuditoriaCupons auditoria;
+
+    @LocalGrpcPort
+    private int porta;
+
+    private ManagedChannel canal;
+
+    @BeforeEach
+    void conectar() {
+        canal = ManagedChannelBuilder.forAddress("localhost", porta).usePlaintext().build();
+    }
+
+    @AfterEach
+    void desconectar() throws InterruptedException {
+        canal.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    private String criarCupom() {
+        return service.salvarCupom(Fixtures.cupomRequest("GR" + String.format("%04d", SEQUENCIA.incrementAndGet())))
+                .getCode();
+    }
+
+    private static ReferenciaCupom porCode(String code) {
+        return ReferenciaCupom.newBuilder().setCode(code).build();
+    }
+
+    @Test
+    @DisplayName("Deve buscar por código e por ID e devolver NOT_FOUND para cupom inexistente")
+    void deveBuscarCupom() {
+        String code = criarCupom();
+        CuponsGrpc.CuponsBlockingStub stub = CuponsGrpc.newBlockingStub(canal);
+
+        Cupom porCode = stub.buscar(porCode(code));
+        Cupom porId = stub.buscar(ReferenciaCupom.newBuilder().setId(porCode.getId()).build());
+
+        assertEquals(code, porCode.getCode());
+        assertEquals("12.50", porCode.getDiscountValue());
+        assertEquals(Status.ACTIVE, porCode.getStatus());
+        assertEquals(porCode, porId);
+        StatusRuntimeException erro = assertThrows(StatusRuntimeException.class, () -> stub.buscar(porCode("NAOEXI")));
+        assertEquals(io.grpc.Status.Code.NOT_FOUND, erro.getStatus().getCode());
+    }
+
+    @Test
+    @DisplayName("Deve buscar em lote ignorando os não encontrados")
+    void deveBuscarEmLote() {
+        String primeiro = criarCupom();
+        String segundo = criarCupom();
+
+        List<Cupom> cupons = CuponsGrpc.newBlockingStub(canal).buscarEmLote(BuscarEmLoteRequest.newBuilder()
+                .addCodes(primeiro).addCodes(segundo).addCodes("NAOEXI").build()).getCuponsList();
+
+        assertEquals(List.of(primeiro, segundo), cupons.stream().map(Cupom::getCode).toList());
+    }
+
+    @Test
+    @DisplayName("Deve resgatar em stream respondendo na ordem, com erro por item sem encerrar a stream")
+    void deveResgatarEmStream() throws Exception {
+        String code = criarCupom();
+        CuponsGrpc.CuponsBlockingStub stub = CuponsGrpc.newBlockingStub(canal);
+        assertFalse(stub.buscar(porCode(code)).getRedeemed());
+        List<OperacaoResultado> resultados = new ArrayList<>();
+        CompletableFuture<Void> fim = new CompletableFuture<>();
+
+        StreamObserver<OperacaoRequest> requisicoes = CuponsGrpc.newStub(canal).resgatarStream(new StreamObserver<>() {
+            @Override
+            public void onNext(OperacaoResultado resultado) {
+                resultados.add(resultado);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                fim.completeExceptionally(t);
+            }
+
+            @Override
+            public void onCompleted() {
+                fim.complete(null);
+            }
+        });
+        requisicoes.onNext(OperacaoRequest.newBuilder().setCorrelacao("1").setCupom(porCode(code)).build());
+        requisicoes.onNext(OperacaoRequest.newBuilder().setCorrelacao("2").setCupom(porCode(code)).build());
+        requisicoes.onNext(OperacaoRequest.newBuilder().setCorrelacao("3").setCupom(porCode("NAOEXI")).build());
+        requisicoes.onCompleted();
+        fim.get(10, TimeUnit.SECONDS);
+
+        assertEquals(List.of("1", "2", "3"), resultados.stream().map(OperacaoResultado::getCorrelacao).toList());
+        assertTrue(resultados.get(0).getCupom().getRedeemed());
+        assertEquals("/erros/cupom-invalido", resultados.get(1).getErro().getTipo());
+        assertEquals("/erros/cupom-nao-encontrado", resultados.get(2).getErro().getTipo());
+        assertTrue(service.buscarPorCode(code).isRedeemed());
+        // O snapshot em cache foi invalidado pelo resgate
+        assertTrue(stub.buscar(porCode(code)).getRedeemed());
+    }
+
+    @Test
+    @DisplayName("Deve auditar a alteração feita via gRPC com o endereço remoto como ator")
+    void deveAuditarComEnderecoRemoto() throws InterruptedException {
+        String code = criarCupom();
+        UUID id = UUID.fromString(CuponsGrpc.newBlockingStub(canal).resgatar(porCode(code)).getId());
+
+        List<AuditoriaCupom> historico = List.of();
+        for (int i = 0; i < 100 && historico.size() < 2; i++) {
+            Thread.sleep(50);
+            historico = auditoria.historico(id);
+        }
+
+        AuditoriaCupom resgate = historico.stream()
+                .filter(registro -> registro.getOperacao() == Operacao.RESGATADO)
+                .findFirst().orElseThrow();
+        assertEquals("127.0.0.1", resgate.getAtor());
+        assertEquals("127.0.0.1", resgate.getOrigem());
+        assertNull(resgate.getAtorInformado());
+    }
+
+    @Test
+    @DisplayName("Deve responder erros internos com descrição fixa, sem a mensagem da exceção")
+    void deveEsconderMensagemDeErroInterno() {
+        io.grpc.Status status = new GrpcErros().handleException(new RuntimeException("jdbc:h2:mem:segredo")).getStatus();
+
+        assertEquals(io.grpc.Status.Code.INTERNAL, status.getCode());
+        assertEquals("Erro interno do servidor", status.getDescription());
+        assertEquals("O código informado é inválido",
+                new GrpcErros().handleException(new IllegalArgumentException("O código informado é inválido"))
+                        .getStatus().getDescription());
+    }
+}
@@ -0,0 +1,71 @@
+package com.coupon.cupom;
+
+import com.coupon.cupom.entity.Campanha;
+import com.coupon.cupom.estatisticas.EstatisticasUso;
+import com.coupon.cupom.estatisticas.Granularidade;
+import com.coupon.cupom.estatisticas.TipoUso;
+import com.coupon.cupom.exception.CupomInvalidoException;
+import com.coupon.cupom.request.CreateCampanhaRequest;
+import com.coupon.cupom.request.UsoAgregadoResponse;
+import com.coupon.cupom.service.CampanhaService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@DisplayName("EstatisticasUso - Testes de Integração")
+class EstatisticasUsoTest {
+
+    @Autowired
+    private EstatisticasUso estatisticas;
+
+    @Autowired
+    private CampanhaService campanhaService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Map<TipoUso, Long> porTipo(Granularidade granularidade, String origem) {
+        LocalDateTime agora = LocalDateTime.now();
+        List<UsoAgregadoResponse> buckets = estatisticas.consultar(granularidade, agora.minusHours(2), agora, origem);
+        return buckets.stream().collect(Collectors.groupingBy(UsoAgregadoResponse::tipo,
+                Collectors.summingLong(UsoAgregadoResponse::quantidade)));
+    }
+
+    @Test
+    @DisplayName("Deve contar criação, resgate e recusa por campanha, antes e depois de gravar")
+    void deveContarUsoPorCampanha() {
+        CreateCampanhaRequest request = new CreateCampanhaRequest();
+        request.setDescription("Estatísticas");
+        request.setDiscountValue(BigDecimal.TEN);
+        request.setExpirationDate(LocalDateTime.now().plusDays(10));
+        request.setPublished(true);
+        request.setQuantidade(3);
+        Campanha campanha = campanhaService.criarCampanha(request);
+        String origem = campanha.getId().toString();
+        String code = campanhaService.listarCodigos(campanha.getId(), 0, 1).get(0).getCode();
+        campanhaService.resgatarCodigo(code);
+        assertThrows(CupomInvalidoException.class, () -> campanhaService.resgatarCodigo(code));
+
+        Map<TipoUso, Long> pendentes = porTipo(Granularidade.MINUTO, origem);
+        estatisticas.gravar();
+        Map<TipoUso, Long> gravados = porTipo(Granularidade.MINUTO, origem);
+
+        Map<TipoUso, Long> esperado = Map.of(TipoUso.CRIACAO, 3L, TipoUso.RESGATE, 1L, TipoUso.FALHA_RESGATE, 1L);
+        assertEquals(esperado, pendentes);
+        assertEquals(esperado, gravados);
+        assertEquals(esperado, porTipo(Granularidade.HORA, origem));
+        assertEquals(2, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM uso_agregado WHERE origem = ? AND tipo = 'CRIACAO'", Integer.class, origem));
+    }
+}
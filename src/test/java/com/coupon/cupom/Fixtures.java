@@ -0,0 +1,37 @@
+package com.coupon.cupom;
+
+import com.coupon.cupom.request.CreateCupomRequest;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Dados de teste compartilhados pelos testes de integração
+ */
+final class Fixtures {
+
+    private Fixtures() {
+    }
+
+    /**
+     * Requisição de um cupom publicado, com desconto de 12.50 e expiração em 10 dias
+     */
+    static CreateCupomRequest cupomRequest(String code) {
+        return cupomRequest(code, true);
+    }
+
+    /**
+     * Mesma requisição, publicada ou como rascunho. A expiração vem truncada em segundos para sobreviver
+     * à ida e volta pelos formatos binários.
+     */
+    static CreateCupomRequest cupomRequest(String code, boolean published) {
+        CreateCupomRequest request = new CreateCupomRequest();
+        request.setCode(code);
+        request.setDescription("Cupom de teste");
+        request.setDiscountValue(new BigDecimal("12.50"));
+        request.setExpirationDate(LocalDateTime.now().plusDays(10).truncatedTo(ChronoUnit.SECONDS));
+        request.setPublished(published);
+        return request;
+    }
+}
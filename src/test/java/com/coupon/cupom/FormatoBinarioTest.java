@@ -0,0 +1,71 @@
+package com.coupon.cupom;
+
+import com.coupon.cupom.request.CreateCupomRequest;
+import com.coupon.cupom.request.CupomResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@DisplayName("Formatos binários (CBOR/Smile) - Testes de Integração")
+class FormatoBinarioTest {
+
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    private final CBORMapper cbor = CBORMapper.builder().build();
+    private final SmileMapper smile = SmileMapper.builder().build();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    @DisplayName("Deve criar cupom com corpo e resposta em CBOR")
+    void deveCriarCupomEmCbor() throws Exception {
+        CreateCupomRequest request = Fixtures.cupomRequest("CBOR01");
+
+        MvcResult resultado = mockMvc.perform(post("/coupon")
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .content(cbor.writeValueAsBytes(request)))
+                .andReturn();
+
+        assertEquals(201, resultado.getResponse().getStatus());
+        assertEquals(MediaType.APPLICATION_CBOR_VALUE, resultado.getResponse().getContentType());
+        CupomResponse response = cbor.readValue(resultado.getResponse().getContentAsByteArray(), CupomResponse.class);
+        assertEquals("CBOR01", response.getCode());
+        assertEquals(0, request.getDiscountValue().compareTo(response.getDiscountValue()));
+        assertEquals(request.getExpirationDate(), response.getExpirationDate());
+    }
+
+    @Test
+    @DisplayName("Deve negociar Smile e manter JSON como padrão")
+    void deveNegociarSmileEJson() throws Exception {
+        MvcResult criado = mockMvc.perform(post("/coupon")
+                        .contentType(SMILE)
+                        .accept(SMILE)
+                        .content(smile.writeValueAsBytes(Fixtures.cupomRequest("SMILE1"))))
+                .andReturn();
+        assertEquals(201, criado.getResponse().getStatus());
+        CupomResponse cupom = smile.readValue(criado.getResponse().getContentAsByteArray(), CupomResponse.class);
+
+        byte[] emSmile = mockMvc.perform(get("/coupon/" + cupom.getId()).accept(SMILE))
+                .andReturn().getResponse().getContentAsByteArray();
+        MvcResult emJson = mockMvc.perform(get("/coupon/" + cupom.getId())).andReturn();
+
+        assertTrue(emJson.getResponse().getContentType().startsWith(MediaType.APPLICATION_JSON_VALUE));
+        assertEquals("SMILE1", smile.readTree(emSmile).path("code").asString());
+        assertTrue(emSmile.length < emJson.getResponse().getContentAsByteArray().length);
+    }
+}
@@ -0,0 +1,101 @@
+package com.coupon.cupom;
+
+import com.coupon.cupom.lideranca.GerenciadorLeases;
+import com.coupon.cupom.lideranca.LeaseAtiva;
+import com.coupon.cupom.lideranca.LeasePerdidaException;
+import com.coupon.cupom.lideranca.LeaseProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("GerenciadorLeases - Testes Unitários")
+class GerenciadorLeasesTest {
+
+    /**
+     * Curta para os testes esperarem a expiração pelo relógio do banco
+     */
+    private static final Duration DURACAO = Duration.ofMillis(1000);
+
+    private final DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:leases;DB_CLOSE_DELAY=-1");
+    private final TransactionTemplate transacao = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    private GerenciadorLeases primeira;
+    private GerenciadorLeases segunda;
+
+    @BeforeEach
+    void criarTabela() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP TABLE IF EXISTS leases");
+        jdbcTemplate.execute("""
+                CREATE TABLE leases (nome VARCHAR(64) PRIMARY KEY, dono VARCHAR(100) NOT NULL, token BIGINT NOT NULL,
+                    expira_em TIMESTAMP NOT NULL, renovado_em TIMESTAMP NOT NULL)""");
+        primeira = instancia("primeira");
+        segunda = instancia("segunda");
+    }
+
+    private GerenciadorLeases instancia(String dono) {
+        // Renovação longa: o heartbeat não roda sozinho durante os testes
+        return new GerenciadorLeases(new LeaseProperties(dono, DURACAO, Duration.ofMinutes(10)),
+                dataSource, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void pararHeartbeats() {
+        primeira.liberarTodas();
+        segunda.liberarTodas();
+    }
+
+    @Test
+    @DisplayName("Deve ter um só líder e trocar de dono com token maior quando a lease expira")
+    void deveTerUmSoLider() throws InterruptedException {
+        LeaseAtiva lease = primeira.adquirir("tarefa").orElseThrow();
+        assertEquals(Optional.empty(), segunda.adquirir("tarefa"));
+
+        Thread.sleep(600);
+        primeira.renovar();
+        Thread.sleep(600);
+        assertEquals(Optional.empty(), segunda.adquirir("tarefa"));
+
+        Thread.sleep(900);
+        LeaseAtiva assumida = segunda.adquirir("tarefa").orElseThrow();
+
+        assertTrue(assumida.token() > lease.token());
+        assertThrows(LeasePerdidaException.class, () -> transacao.executeWithoutResult(s -> primeira.verificar(lease)));
+        assertDoesNotThrow(() -> transacao.executeWithoutResult(s -> segunda.verificar(assumida)));
+        assertEquals(Optional.empty(), primeira.adquirir("tarefa"));
+    }
+
+    @Test
+    @DisplayName("Deve estender a lease a cada verificação do líder")
+    void deveEstenderAoVerificar() throws InterruptedException {
+        LeaseAtiva lease = primeira.adquirir("tarefa").orElseThrow();
+
+        Thread.sleep(600);
+        transacao.executeWithoutResult(s -> primeira.verificar(lease));
+        Thread.sleep(600);
+
+        assertEquals(Optional.empty(), segunda.adquirir("tarefa"));
+        assertDoesNotThrow(() -> transacao.executeWithoutResult(s -> primeira.verificar(lease)));
+    }
+
+    @Test
+    @DisplayName("Deve deixar outra instância assumir logo após liberar a lease")
+    void deveLiberarLease() {
+        primeira.adquirir("tarefa").orElseThrow();
+
+        primeira.liberar("tarefa");
+
+        assertTrue(segunda.adquirir("tarefa").isPresent());
+        assertEquals(Optional.empty(), primeira.adquirir("tarefa"));
+    }
+}
@@ -0,0 +1,78 @@
+package com.coupon.cupom;
+
+import com.coupon.cupom.exception.CupomInvalidoException;
+import com.coupon.cupom.exception.CupomNotFoundException;
+import com.coupon.cupom.exception.GlobalExceptionHandler;
+import com.coupon.cupom.exception.TransicaoInvalidaException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("GlobalExceptionHandler - Testes Unitários")
+class GlobalExceptionHandlerTest {
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+    private final JsonMapper mapper = JsonMapper.builder().build();
+
+    @Test
+    @DisplayName("Deve responder 404 em problem+json")
+    void deveResponderNotFoundEmProblemJson() {
+        ResponseEntity<byte[]> response = handler.handleCupomNotFound(
+                new CupomNotFoundException("Cupom com ID \"x\" não encontrado"));
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_PROBLEM_JSON, response.getHeaders().getContentType());
+
+        JsonNode corpo = mapper.readTree(response.getBody());
+        assertEquals(404, corpo.get("status").asInt());
+        assertEquals("Recurso não encontrado", corpo.get("title").asString());
+        assertEquals("Cupom com ID \"x\" não encontrado", corpo.get("detail").asString());
+    }
+
+    @Test
+    @DisplayName("Deve reaproveitar o corpo das exceções pré-alocadas")
+    void deveReaproveitarCorpoPreAlocado() {
+        byte[] primeiro = handler.handleCupomInvalido(CupomInvalidoException.NAO_PODE_SER_RESGATADO).getBody();
+        byte[] segundo = handler.handleCupomInvalido(CupomInvalidoException.NAO_PODE_SER_RESGATADO).getBody();
+
+        assertSame(primeiro, segundo);
+        assertEquals("Cupom não pode ser resgatado", mapper.readTree(primeiro).get("detail").asString());
+    }
+
+    @Test
+    @DisplayName("Deve responder 409 para transição de estado inválida")
+    void deveResponderConflitoParaTransicaoInvalida() {
+        ResponseEntity<byte[]> response = handler.handleTransicaoInvalida(
+                new TransicaoInvalidaException("Cupom já foi publicado"));
+
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        assertEquals("Cupom já foi publicado", mapper.readTree(response.getBody()).get("detail").asString());
+    }
+
+    @Test
+    @DisplayName("Deve responder 409 para conflito de concorrência")
+    void deveResponderConflitoParaAlteracaoConcorrente() {
+        ResponseEntity<byte[]> response = handler.handleConflitoConcorrente(
+                new OptimisticLockingFailureException("Row was updated or deleted by another transaction"));
+
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        assertEquals("/erros/conflito-concorrente", mapper.readTree(response.getBody()).get("type").asString());
+    }
+
+    @Test
+    @DisplayName("Deve responder 500 sem expor a mensagem da exceção")
+    void deveOcultarDetalhesDeErroInterno() {
+        ResponseEntity<byte[]> response = handler.handleGeneralError(
+                new IllegalArgumentException("could not execute statement [SELECT * FROM cupons]"));
+
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+        assertEquals("Erro interno do servidor", mapper.readTree(response.getBody()).get("detail").asString());
+    }
+}
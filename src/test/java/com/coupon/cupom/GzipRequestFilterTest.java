@@ -0,0 +1,126 @@
+package com.coupon.cupom;
+
+import com.coupon.cupom.compressao.CompressaoProperties;
+import com.coupon.cupom.compressao.GzipRequestFilter;
+import com.coupon.cupom.compressao.TamanhoRespostaFilter;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("GzipRequestFilter - Testes Unitários")
+class GzipRequestFilterTest {
+
+    private final GzipRequestFilter filtro =
+            new GzipRequestFilter(new CompressaoProperties(true, DataSize.ofKilobytes(1)));
+
+    private static MockHttpServletRequest requisicaoGzip(byte[] corpo) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/coupon/lookup");
+        request.addHeader("Content-Encoding", "gzip");
+        request.setContent(corpo);
+        return request;
+    }
+
+    private static byte[] gzip(String conteudo) throws IOException {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(saida)) {
+            gzip.write(conteudo.getBytes(StandardCharsets.UTF_8));
+        }
+        return saida.toByteArray();
+    }
+
+    @Test
+    @DisplayName("Deve entregar o corpo descomprimido e sem Content-Encoding")
+    void deveDescomprimirCorpo() throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+
+        filtro.doFilter(requisicaoGzip(gzip("{\"ids\":[],\"codes\":[]}")), new MockHttpServletResponse(), chain);
+
+        ServletRequest recebida = chain.getRequest();
+        assertEquals("{\"ids\":[],\"codes\":[]}", new String(recebida.getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+        assertNull(((HttpServletRequest) recebida).getHeader("Content-Encoding"));
+    }
+
+    @Test
+    @DisplayName("Deve responder 413 quando o corpo descomprimido passa do limite")
+    void deveRejeitarCorpoAcimaDoLimite() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filtro.doFilter(requisicaoGzip(gzip("a".repeat(10_000))), response, chain);
+
+        assertEquals(413, response.getStatus());
+        assertNull(chain.getRequest());
+    }
+
+    @Test
+    @DisplayName("Deve responder 400 para gzip inválido")
+    void deveRejeitarGzipInvalido() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filtro.doFilter(requisicaoGzip("não é gzip".getBytes(StandardCharsets.UTF_8)), response, new MockFilterChain());
+
+        assertEquals(400, response.getStatus());
+    }
+
+    @Test
+    @DisplayName("Deve avisar o ReadListener de que o corpo está disponível e foi lido")
+    void deveAvisarReadListener() throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+        filtro.doFilter(requisicaoGzip(gzip("{\"ids\":[]}")), new MockHttpServletResponse(), chain);
+        ServletInputStream entrada = chain.getRequest().getInputStream();
+        ByteArrayOutputStream lido = new ByteArrayOutputStream();
+        List<String> avisos = new ArrayList<>();
+
+        entrada.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() throws IOException {
+                avisos.add("dados");
+                while (entrada.isReady() && !entrada.isFinished()) {
+                    lido.write(entrada.read());
+                }
+            }
+
+            @Override
+            public void onAllDataRead() {
+                avisos.add("fim");
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                avisos.add("erro");
+            }
+        });
+
+        assertEquals(List.of("dados", "fim"), avisos);
+        assertEquals("{\"ids\":[]}", lido.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Deve enviar a resposta com Content-Length, para o servidor aplicar o tamanho mínimo de compressão")
+    void deveInformarTamanhoDaResposta() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        byte[] corpo = "{\"id\":1}".getBytes(StandardCharsets.UTF_8);
+
+        new TamanhoRespostaFilter().doFilter(new MockHttpServletRequest("GET", "/coupon/1"), response,
+                (req, res) -> res.getOutputStream().write(corpo));
+
+        assertEquals(corpo.length, response.getContentLength());
+        assertArrayEquals(corpo, response.getContentAsByteArray());
+    }
+}
@@ -0,0 +1,118 @@
+package com.coupon.cupom;
+
+import com.coupon.cupom.entity.Cupom;
+import com.coupon.cupom.service.CupomService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+
+@SpringBootTest(properties = {"cupom.importacao.tamanho-lote=3", "cupom.importacao.paralelismo=2",
+        "cupom.importacao.lotes-em-voo=2"})
+@AutoConfigureMockMvc
+@DisplayName("Importação de cupons - Testes de Integração")
+class ImportacaoTest {
+
+    private static final String EXPIRACAO = LocalDateTime.now().plusDays(30).withNano(0).toString();
+
+    private final JsonMapper json = JsonMapper.builder().build();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CupomService service;
+
+    private JsonNode importarEAguardar(String nome, String conteudo) throws Exception {
+        MockMultipartFile arquivo = new MockMultipartFile("arquivo", nome, "application/octet-stream",
+                conteudo.getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse resposta = mockMvc.perform(multipart("/coupon/import").file(arquivo))
+                .andReturn().getResponse();
+        assertEquals(202, resposta.getStatus(), resposta.getContentAsString());
+        String location = resposta.getHeader("Location");
+        for (int i = 0; i < 100; i++) {
+            JsonNode andamento = json.readTree(mockMvc.perform(get(location)).andReturn().getResponse().getContentAsString());
+            String status = andamento.get("status").asString();
+            if (!status.equals("AGUARDANDO") && !status.equals("PROCESSANDO")) {
+                return andamento;
+            }
+            Thread.sleep(50);
+        }
+        return fail("Importação não terminou");
+    }
+
+    @Test
+    @DisplayName("Deve importar CSV em lotes, rejeitando linhas inválidas, repetidas e códigos existentes")
+    void deveImportarCsv() throws Exception {
+        service.salvarCupom(Fixtures.cupomRequest("IMP009", false));
+
+        JsonNode andamento = importarEAguardar("cupons.csv", """
+                code,description,discountValue,expirationDate,published
+                IMP001,"Primeiro, com vírgula",10.00,%1$s,true
+                IMP002,Segundo,0.10,%1$s,false
+                IMP-003,Terceiro,5,%1$s,
+                IMP004,Quarto,abc,%1$s,true
+                imp001,Repetido,5,%1$s,true
+                IMP005,,5,%1$s,true
+                IMP009,Existente,5,%1$s,true
+                IMP006,Expirado,5,2020-01-01T00:00:00,true
+                """.formatted(EXPIRACAO));
+
+        assertEquals("CONCLUIDA", andamento.get("status").asString());
+        assertEquals(8, andamento.get("linhasLidas").asLong());
+        assertEquals(2, andamento.get("importadas").asLong());
+        assertEquals(6, andamento.get("rejeitadas").asLong());
+        JsonNode erros = andamento.get("erros");
+        assertEquals(3, erros.get(0).get("linha").asLong());
+        assertEquals("Desconto mínimo é de 0.5", erros.get(0).get("motivo").asString());
+        assertEquals("Valor de desconto inválido", erros.get(1).get("motivo").asString());
+        assertEquals("Código repetido no arquivo (linha 2)", erros.get(2).get("motivo").asString());
+        assertEquals("Descrição é obrigatória", erros.get(3).get("motivo").asString());
+        assertEquals("Cupom com código IMP009 já existe", erros.get(4).get("motivo").asString());
+        assertEquals("Data de expiração deve ser futura", erros.get(5).get("motivo").asString());
+
+        Cupom primeiro = service.buscarPorCode("IMP001");
+        assertEquals("Primeiro, com vírgula", primeiro.getDescription());
+        assertTrue(primeiro.isPublished());
+        assertFalse(service.buscarPorCode("IMP003").isPublished());
+
+        String relatorio = mockMvc.perform(get("/coupon/import/" + andamento.get("id").asString() + "/erros"))
+                .andReturn().getResponse().getContentAsString();
+        assertTrue(relatorio.startsWith("linha,code,motivo\n3,\"IMP002\",\"Desconto mínimo é de 0.5\"\n"), relatorio);
+    }
+
+    @Test
+    @DisplayName("Deve importar NDJSON e falhar a importação com cabeçalho CSV incompleto")
+    void deveImportarNdjson() throws Exception {
+        JsonNode andamento = importarEAguardar("cupons.ndjson", """
+                {"code":"IMJ001","description":"JSON","discountValue":7.5,"expirationDate":"%1$s","published":true}
+
+                {"code":"IMJ002",
+                {"code":"IMJ003","description":"JSON","discountValue":7.5,"expirationDate":"%1$s"}
+                """.formatted(EXPIRACAO));
+
+        assertEquals("CONCLUIDA", andamento.get("status").asString());
+        assertEquals(2, andamento.get("importadas").asLong());
+        assertEquals(3, andamento.get("erros").get(0).get("linha").asLong());
+        assertTrue(andamento.get("erros").get(0).get("motivo").asString().startsWith("JSON inválido"));
+        assertEquals(0, service.buscarPorCode("IMJ001").getDiscountValue().compareTo(new BigDecimal("7.5")));
+
+        JsonNode falha = importarEAguardar("cupons.csv", "code,description\nIMJ004,Sem desconto\n");
+        assertEquals("FALHOU", falha.get("status").asString());
+        assertEquals("Coluna obrigatória ausente no cabeçalho: discountvalue", falha.get("falha").asString());
+    }
+}
@@ -0,0 +1,107 @@
+package com.coupon.cupom;
+
+import com.coupon.cupom.entity.CupomStatus;
+import com.coupon.cupom.event.CupomAlteradoEvent;
+import com.coupon.cupom.event.CupomAlteradoEvent.Operacao;
+import com.coupon.cupom.index.IndiceCodigos;
+import com.coupon.cupom.index.IndiceProperties;
+import com.coupon.cupom.index.IntLongHashMap;
+import com.coupon.cupom.tempo.Relogio;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("IndiceCodigos - Testes Unitários")
+class IndiceCodigosTest {
+
+    @Test
+    @DisplayName("Deve guardar e recuperar valores após redimensionar")
+    void deveRedimensionarSemPerderValores() {
+        IntLongHashMap mapa = new IntLongHashMap(16);
+        for (int i = 0; i < 100_000; i++) {
+            mapa.put(i * 31, i);
+        }
+
+        assertEquals(100_000, mapa.size());
+        for (int i = 0; i < 100_000; i++) {
+            assertEquals(i, mapa.get(i * 31));
+        }
+        assertEquals(IntLongHashMap.AUSENTE, mapa.get(7));
+    }
+
+    @Test
+    @DisplayName("Deve remover chaves sem perder as que colidiram na mesma sequência")
+    void deveRemoverSemQuebrarSequencias() {
+        IntLongHashMap mapa = new IntLongHashMap(16);
+        for (int i = 0; i < 10_000; i++) {
+            mapa.put(i, i);
+        }
+        for (int i = 0; i < 10_000; i += 2) {
+            assertTrue(mapa.remove(i));
+        }
+
+        assertFalse(mapa.remove(0));
+        assertEquals(5_000, mapa.size());
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals(i % 2 == 0 ? IntLongHashMap.AUSENTE : i, mapa.get(i));
+        }
+    }
+
+    @Test
+    @DisplayName("Deve codificar todo o espaço de códigos sem usar a chave reservada")
+    void deveCodificarCodigos() {
+        assertEquals(0, IndiceCodigos.codificar("000000"));
+        assertEquals((int) 2_176_782_335L, IndiceCodigos.codificar("ZZZZZZ"));
+        assertNotEquals(IntLongHashMap.VAZIO, IndiceCodigos.codificar("ZZZZZZ"));
+        assertEquals(IntLongHashMap.VAZIO, IndiceCodigos.codificar("abc123"));
+        assertEquals(IntLongHashMap.VAZIO, IndiceCodigos.codificar("ABC12"));
+    }
+
+    @Test
+    @DisplayName("Deve carregar do banco e acompanhar as alterações")
+    void deveCarregarDoBancoEAcompanharAlteracoes() throws InterruptedException {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:indice;DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("""
+                CREATE TABLE cupons (code VARCHAR(6), status VARCHAR(10), published BOOLEAN, redeemed BOOLEAN,
+                    deleted_at TIMESTAMP, expiration_date TIMESTAMP)""");
+        jdbcTemplate.execute("CREATE TABLE cupons_arquivados AS SELECT * FROM cupons");
+        jdbcTemplate.execute("CREATE TABLE campanha_codigos (code CHAR(6))");
+        jdbcTemplate.update("INSERT INTO cupons VALUES ('ABC123', 'ACTIVE', TRUE, FALSE, NULL, ?)",
+                LocalDateTime.now().plusDays(1));
+        jdbcTemplate.update("INSERT INTO cupons VALUES ('EXP001', 'ACTIVE', TRUE, FALSE, NULL, ?)",
+                LocalDateTime.now().minusDays(1));
+        jdbcTemplate.update("INSERT INTO campanha_codigos VALUES ('CAMP01')");
+        jdbcTemplate.update("INSERT INTO cupons_arquivados VALUES ('ARQ001', 'INACTIVE', TRUE, TRUE, NULL, ?)",
+                LocalDateTime.now().minusDays(60));
+
+        IndiceCodigos indice = new IndiceCodigos(new IndiceProperties(true, 16), dataSource,
+                Relogio.de(Clock.systemDefaultZone()));
+        indice.iniciarCarga();
+        for (int i = 0; i < 100 && !indice.isPronto(); i++) {
+            Thread.sleep(50);
+        }
+
+        assertTrue(indice.isPronto());
+        assertTrue(indice.isResgatavel("ABC123"));
+        assertFalse(indice.isResgatavel("EXP001"));
+        assertTrue(indice.contem("CAMP01"));
+        assertFalse(indice.isCupom("CAMP01"));
+        assertFalse(indice.contem("NAOEXI"));
+        assertTrue(indice.isCupom("ARQ001"));
+        assertFalse(indice.isResgatavel("ARQ001"));
+
+        indice.aoAlterarCupom(new CupomAlteradoEvent(Operacao.RESGATADO, UUID.randomUUID(), "ABC123",
+                CupomStatus.INACTIVE, true, true, false, LocalDateTime.now().plusDays(1), 1, null));
+
+        assertFalse(indice.isResgatavel("ABC123"));
+        assertTrue(indice.isCupom("ABC123"));
+    }
+}
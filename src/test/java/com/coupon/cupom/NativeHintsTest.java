@@ -0,0 +1,43 @@
+package com.coupon.cupom;
+
+import com.coupon.cupom.entity.AuditoriaCupom;
+import com.coupon.cupom.request.AplicarCupomResponse;
+import com.coupon.cupom.request.AtualizarCupomRequest;
+import com.coupon.cupom.request.ChaveQuenteResponse;
+import com.coupon.cupom.request.CupomResponse;
+import com.coupon.cupom.request.ImportacaoResponse;
+import com.coupon.cupom.request.OperacaoEmLoteRequest;
+import com.coupon.cupom.request.OperacaoEmLoteResponse;
+import com.coupon.cupom.request.UsoAgregadoResponse;
+import com.coupon.cupom.util.NativeHints;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("NativeHints - Testes Unitários")
+class NativeHintsTest {
+
+    @Test
+    @DisplayName("Deve registrar migrations, projeções JPQL e DTOs")
+    void deveRegistrarHints() {
+        RuntimeHints hints = new RuntimeHints();
+        new NativeHints().registerHints(hints, getClass().getClassLoader());
+
+        assertTrue(RuntimeHintsPredicates.resource().forResource("db/migration/V1__create_table_cupons.sql").test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(CupomResponse.class)
+                .withMemberCategory(MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(AplicarCupomResponse.CupomAplicado.class).test(hints));
+        // DTOs encontrados pela varredura do pacote, sem estarem listados
+        for (Class<?> dto : List.of(ImportacaoResponse.class, ChaveQuenteResponse.class, OperacaoEmLoteResponse.class,
+                OperacaoEmLoteRequest.class, UsoAgregadoResponse.class, AtualizarCupomRequest.class)) {
+            assertTrue(RuntimeHintsPredicates.reflection().onType(dto).test(hints), dto.getSimpleName());
+        }
+        assertTrue(RuntimeHintsPredicates.reflection().onType(AuditoriaCupom.class).test(hints));
+    }
+}
@@ -0,0 +1,137 @@
+package com.coupon.cupom;
+
+import com.coupon.cupom.entity.Cupom;
+import com.coupon.cupom.entity.CupomStatus;
+import com.coupon.cupom.event.CupomAlteradoEvent;
+import com.coupon.cupom.event.CupomAlteradoEvent.Operacao;
+import com.coupon.cupom.quentes.DetectorQuentes;
+import com.coupon.cupom.quentes.ProtecaoQuentes;
+import com.coupon.cupom.quentes.QuentesProperties;
+import com.coupon.cupom.request.ChaveQuenteResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Cupons quentes - Testes Unitários")
+class QuentesTest {
+
+    private static QuentesProperties propriedades(long limiar) {
+        return new QuentesProperties(true, 1, limiar, Duration.ofSeconds(10), 4, 1024, 4, Duration.ofMinutes(1));
+    }
+
+    @Test
+    @DisplayName("Deve detectar as chaves mais acessadas e esquecê-las quando o tráfego passa")
+    void deveDetectarChavesQuentes() {
+        DetectorQuentes detector = new DetectorQuentes(propriedades(50));
+        UUID quente = UUID.randomUUID();
+        for (int i = 0; i < 100; i++) {
+            detector.registrar(quente);
+            detector.registrar("FRIO" + String.format("%02d", i));
+        }
+        for (int i = 0; i < 10; i++) {
+            detector.registrar("MORNO1");
+        }
+
+        List<ChaveQuenteResponse> topo = detector.topo();
+        assertEquals(quente.toString(), topo.get(0).chave());
+        assertEquals("id", topo.get(0).tipo());
+        assertTrue(topo.get(0).protegida());
+        assertTrue(topo.get(0).estimativa() >= 100);
+        assertEquals("MORNO1", topo.get(1).chave());
+        assertFalse(detector.isQuente("MORNO1"));
+        assertTrue(topo.size() <= 4);
+
+        detector.decair();
+        assertTrue(detector.isQuente(quente));
+        detector.decair();
+        assertFalse(detector.isQuente(quente));
+    }
+
+    @Test
+    @DisplayName("Deve coalescer leituras simultâneas de chave quente e descartar a leitura guardada quando o cupom muda")
+    void deveCoalescerLeiturasDeChaveQuente() throws Exception {
+        QuentesProperties properties = propriedades(1);
+        ProtecaoQuentes protecao = new ProtecaoQuentes(properties, new DetectorQuentes(properties), new SimpleMeterRegistry());
+        Cupom cupom = Cupom.criar("HOT001", "Quente", BigDecimal.TEN, LocalDateTime.now().plusDays(1), true,
+                LocalDateTime.now());
+        AtomicInteger cargas = new AtomicInteger();
+        CountDownLatch liberar = new CountDownLatch(1);
+        ExecutorService threads = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Cupom>> leituras = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                leituras.add(threads.submit(() -> protecao.buscar("HOT001", () -> {
+                    cargas.incrementAndGet();
+                    try {
+                        liberar.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return cupom;
+                })));
+            }
+            Thread.sleep(200);
+            liberar.countDown();
+            int originais = 0;
+            for (Future<Cupom> leitura : leituras) {
+                Cupom lido = leitura.get(5, TimeUnit.SECONDS);
+                assertEquals("HOT001", lido.getCode());
+                originais += lido == cupom ? 1 : 0;
+            }
+            // Só quem carregou recebe a instância original; as demais leituras recebem a cópia
+            assertEquals(1, originais);
+        } finally {
+            threads.shutdownNow();
+        }
+        assertEquals(1, cargas.get());
+
+        Cupom guardado = protecao.buscar("HOT001", () -> fail("Deveria vir da leitura guardada"));
+        assertNotSame(cupom, guardado);
+        assertEquals(cupom.getCode(), guardado.getCode());
+        protecao.aoAlterarCupom(new CupomAlteradoEvent(Operacao.RESGATADO, UUID.randomUUID(), "HOT001",
+                CupomStatus.INACTIVE, true, true, false, LocalDateTime.now().plusDays(1), 1, null));
+        protecao.buscar("HOT001", () -> {
+            cargas.incrementAndGet();
+            return cupom;
+        });
+        assertEquals(2, cargas.get());
+    }
+
+    @Test
+    @DisplayName("Deve descartar a leitura guardada pelo código antigo quando o cupom troca de código")
+    void deveDescartarCodigoAntigo() {
+        QuentesProperties properties = propriedades(1);
+        ProtecaoQuentes protecao = new ProtecaoQuentes(properties, new DetectorQuentes(properties), new SimpleMeterRegistry());
+        Cupom cupom = Cupom.criar("OLD001", "Quente", BigDecimal.TEN, LocalDateTime.now().plusDays(1), true,
+                LocalDateTime.now());
+        AtomicInteger cargas = new AtomicInteger();
+        protecao.buscar("OLD001", () -> {
+            cargas.incrementAndGet();
+            return cupom;
+        });
+
+        protecao.aoAlterarCupom(new CupomAlteradoEvent(Operacao.ATUALIZADO, UUID.randomUUID(), "NEW001",
+                CupomStatus.ACTIVE, true, false, false, LocalDateTime.now().plusDays(1), 1, "OLD001"));
+        protecao.buscar("OLD001", () -> {
+            cargas.incrementAndGet();
+            return cupom;
+        });
+
+        assertEquals(2, cargas.get());
+    }
+}
@@ -0,0 +1,77 @@
+package com.coupon.cupom;
+
+import com.coupon.cupom.entity.Cupom;
+import com.coupon.cupom.service.CupomService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@SpringBootTest(properties = "cupom.rastreamento.enabled=true")
+@AutoConfigureMockMvc
+@DisplayName("Rastreamento de uso do banco - Testes de Integração")
+class RastreamentoTest {
+
+    private static final Pattern SERVER_TIMING = Pattern.compile("db;dur=[0-9.]+;desc=\"(\\d+) consultas\", total;dur=[0-9.]+");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CupomService service;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Autowired
+    private ObservationRegistry observacoes;
+
+    @Test
+    @DisplayName("Deve contar as consultas da requisição e observar os métodos do controller e do serviço")
+    void deveContarConsultasPorRequisicao() throws Exception {
+        Cupom cupom = service.salvarCupom(Fixtures.cupomRequest("RAS001", false));
+        List<String> consultasServico = new CopyOnWriteArrayList<>();
+        observacoes.observationConfig().observationHandler(new ObservationHandler<>() {
+            @Override
+            public void onStop(Observation.Context context) {
+                if (context.getName().equals("cupom.service")) {
+                    consultasServico.add(context.getHighCardinalityKeyValue("db.consultas").getValue());
+                }
+            }
+
+            @Override
+            public boolean supportsContext(Observation.Context context) {
+                return true;
+            }
+        });
+
+        MockHttpServletResponse resposta = mockMvc.perform(get("/coupon/" + cupom.getId())).andReturn().getResponse();
+
+        assertEquals(200, resposta.getStatus());
+        Matcher timing = SERVER_TIMING.matcher(resposta.getHeader("Server-Timing"));
+        assertTrue(timing.matches(), resposta.getHeader("Server-Timing"));
+        assertEquals(1, Integer.parseInt(timing.group(1)));
+        assertTrue(resposta.getContentAsString().contains("RAS001"));
+        assertEquals(1, registry.get("cupom.requisicao.consultas").tag("endpoint", "/coupon/{id}").summary().count());
+        Timer servico = registry.get("cupom.service").tag("method", "consultarPorId").timer();
+        assertTrue(servico.count() >= 1);
+        assertEquals(List.of("1"), consultasServico);
+        assertTrue(registry.get("cupom.controller").tag("method", "buscarPorId").timer().count() >= 1);
+    }
+}
@@ -0,0 +1,70 @@
+package com.coupon.cupom;
+
+import com.coupon.cupom.grpc.v1.CuponsGrpc;
+import com.coupon.cupom.grpc.v1.OperacaoRequest;
+import com.coupon.cupom.grpc.v1.OperacaoResultado;
+import com.coupon.cupom.grpc.v1.ReferenciaCupom;
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import io.grpc.stub.StreamObserver;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.grpc.test.autoconfigure.LocalGrpcPort;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {"spring.grpc.server.port=0", "cupom.rate-limit.cliente-por-segundo=0.01",
+        "cupom.rate-limit.cliente-burst=4"})
+@DisplayName("Rate limit gRPC - Testes de Integração")
+class RateLimitGrpcTest {
+
+    @LocalGrpcPort
+    private int porta;
+
+    @Test
+    @DisplayName("Deve limitar cada mensagem de uma stream, sem encerrá-la")
+    void deveLimitarMensagensDaStream() throws Exception {
+        ManagedChannel canal = ManagedChannelBuilder.forAddress("localhost", porta).usePlaintext().build();
+        try {
+            List<OperacaoResultado> resultados = new CopyOnWriteArrayList<>();
+            CompletableFuture<Void> fim = new CompletableFuture<>();
+            StreamObserver<OperacaoRequest> requisicoes = CuponsGrpc.newStub(canal).buscarStream(new StreamObserver<>() {
+                @Override
+                public void onNext(OperacaoResultado resultado) {
+                    resultados.add(resultado);
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    fim.completeExceptionally(t);
+                }
+
+                @Override
+                public void onCompleted() {
+                    fim.complete(null);
+                }
+            });
+            for (int i = 0; i < 10; i++) {
+                requisicoes.onNext(OperacaoRequest.newBuilder().setCorrelacao(String.valueOf(i))
+                        .setCupom(ReferenciaCupom.newBuilder().setCode("NAOEXI")).build());
+            }
+            requisicoes.onCompleted();
+            fim.get(10, TimeUnit.SECONDS);
+
+            assertEquals(10, resultados.size());
+            // A abertura da stream consumiu um token da rajada de 4; as três primeiras mensagens usam o resto
+            List<String> tipos = resultados.stream().map(r -> r.getErro().getTipo()).toList();
+            assertEquals(List.of("/erros/cupom-nao-encontrado", "/erros/cupom-nao-encontrado",
+                    "/erros/cupom-nao-encontrado"), tipos.subList(0, 3));
+            assertTrue(tipos.subList(3, 10).stream().allMatch("/erros/muitas-requisicoes"::equals));
+        } finally {
+            canal.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+}
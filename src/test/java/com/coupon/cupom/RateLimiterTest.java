@@ -0,0 +1,132 @@
+package com.coupon.cupom;
+
+import com.coupon.cupom.ratelimit.RateLimitFilter;
+import com.coupon.cupom.ratelimit.RateLimitProperties;
+import com.coupon.cupom.ratelimit.RateLimiter;
+import com.coupon.cupom.ratelimit.RateLimiter.Decisao;
+import org.junit.jupiter.api.DisplayName;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("RateLimiter - Testes Unitários")
+class RateLimiterTest {
+
+    private static final long SEGUNDO = TimeUnit.SECONDS.toNanos(1);
+
+    private RateLimiter limiter(double global, int globalBurst, double cliente, int clienteBurst, int maxClientes) {
+        return new RateLimiter(new RateLimitProperties(
+                true, global, globalBurst, cliente, clienteBurst, maxClientes, 1, "", 1));
+    }
+
+    @Test
+    @DisplayName("Deve permitir a rajada do cliente e rejeitar o excedente")
+    void deveRejeitarAposRajadaDoCliente() {
+        RateLimiter limiter = limiter(1000, 1000, 10, 5, 100);
+        long agora = SEGUNDO;
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(Decisao.PERMITIDA, limiter.tentar("1.1.1.1", agora));
+        }
+        assertEquals(Decisao.REJEITADA_CLIENTE, limiter.tentar("1.1.1.1", agora));
+        assertEquals(Decisao.PERMITIDA, limiter.tentar("2.2.2.2", agora));
+    }
+
+    @Test
+    @DisplayName("Deve repor tokens com o passar do tempo")
+    void deveReporTokens() {
+        RateLimiter limiter = limiter(1000, 1000, 10, 1, 100);
+        long agora = SEGUNDO;
+
+        assertEquals(Decisao.PERMITIDA, limiter.tentar("1.1.1.1", agora));
+        assertEquals(Decisao.REJEITADA_CLIENTE, limiter.tentar("1.1.1.1", agora));
+        assertEquals(Decisao.PERMITIDA, limiter.tentar("1.1.1.1", agora + SEGUNDO / 10));
+    }
+
+    @Test
+    @DisplayName("Deve aplicar o limite global entre clientes")
+    void deveAplicarLimiteGlobal() {
+        RateLimiter limiter = limiter(10, 3, 100, 100, 100);
+        long agora = SEGUNDO;
+
+        assertEquals(Decisao.PERMITIDA, limiter.tentar("a", agora));
+        assertEquals(Decisao.PERMITIDA, limiter.tentar("b", agora));
+        assertEquals(Decisao.PERMITIDA, limiter.tentar("c", agora));
+        assertEquals(Decisao.REJEITADA_GLOBAL, limiter.tentar("d", agora));
+    }
+
+    @Test
+    @DisplayName("Deve limitar a memória removendo clientes ociosos")
+    void deveRemoverClientesOciosos() {
+        RateLimiter limiter = limiter(1000, 1000, 10, 1, 2);
+        long agora = SEGUNDO;
+
+        limiter.tentar("a", agora);
+        limiter.tentar("b", agora);
+        assertEquals(2, limiter.clientesRastreados());
+
+        limiter.tentar("c", agora + SEGUNDO);
+
+        assertEquals(1, limiter.clientesRastreados());
+    }
+
+    @Test
+    @DisplayName("Deve devolver o token do cliente quando o limite global rejeita")
+    void deveDevolverTokenDoClienteRejeitadoPeloGlobal() {
+        RateLimiter limiter = limiter(1, 1, 0.1, 1, 100);
+        long agora = SEGUNDO;
+
+        assertEquals(Decisao.PERMITIDA, limiter.tentar("a", agora));
+        assertEquals(Decisao.REJEITADA_GLOBAL, limiter.tentar("b", agora));
+
+        // O balde de b só se recomporia em 10s; o global repõe em 1s
+        assertEquals(Decisao.PERMITIDA, limiter.tentar("b", agora + SEGUNDO));
+    }
+
+    @Test
+    @DisplayName("Deve remover ociosos aos poucos sem mandar clientes novos para o transbordo")
+    void deveRemoverOciososAosPoucos() {
+        RateLimiter limiter = limiter(100_000, 100_000, 10, 1, 1000);
+        long agora = SEGUNDO;
+        for (int i = 0; i < 1000; i++) {
+            limiter.tentar("cliente-" + i, agora);
+        }
+        assertEquals(1000, limiter.clientesRastreados());
+
+        long depois = agora + SEGUNDO;
+        assertEquals(Decisao.PERMITIDA, limiter.tentar("novo", depois));
+        // Cada cliente novo tem o próprio balde, não um transbordo compartilhado
+        assertEquals(Decisao.PERMITIDA, limiter.tentar("outro", depois));
+        assertEquals(Decisao.REJEITADA_CLIENTE, limiter.tentar("novo", depois));
+
+        // Só uma parte dos ociosos foi verificada em cada chegada
+        assertTrue(limiter.clientesRastreados() > 750);
+    }
+
+    @Test
+    @DisplayName("Deve identificar o cliente pelo salto do proxy confiável, ignorando o que o cliente enviou")
+    void deveIgnorarSaltosForjadosNoHeader() throws Exception {
+        RateLimitProperties properties = new RateLimitProperties(
+                true, 1000, 1000, 0.1, 1, 100, 1, "X-Forwarded-For", 1);
+        RateLimitFilter filtro = new RateLimitFilter(new RateLimiter(properties), properties, new SimpleMeterRegistry());
+
+        assertEquals(200, filtrar(filtro, "forjado-1, 10.0.0.1"));
+        // Trocar o salto forjado a cada requisição não gera um balde novo
+        assertEquals(429, filtrar(filtro, "forjado-2, 10.0.0.1"));
+        assertEquals(200, filtrar(filtro, "forjado-2, 10.0.0.2"));
+    }
+
+    private static int filtrar(RateLimitFilter filtro, String forwardedFor) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/coupon/lookup");
+        request.addHeader("X-Forwarded-For", forwardedFor);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filtro.doFilter(request, response, new MockFilterChain());
+        return response.getStatus();
+    }
+}
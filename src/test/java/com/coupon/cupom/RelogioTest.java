@@ -0,0 +1,74 @@
+package com.coupon.cupom;
+
+import com.coupon.cupom.tempo.Relogio;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Relogio - Testes Unitários")
+class RelogioTest {
+
+    /**
+     * Clock que só avança quando o teste manda
+     */
+    private static class ClockManual extends Clock {
+        private volatile Instant instante = Instant.parse("2026-01-15T12:00:00Z");
+
+        void avancar(Duration duracao) {
+            instante = instante.plus(duracao);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return instante;
+        }
+    }
+
+    @Test
+    @DisplayName("Deve ler o clock a cada chamada no modo direto")
+    void deveLerClockNoModoDireto() {
+        ClockManual clock = new ClockManual();
+        Relogio relogio = Relogio.de(clock);
+
+        clock.avancar(Duration.ofSeconds(90));
+
+        assertEquals(LocalDateTime.of(2026, 1, 15, 12, 1, 30), relogio.agora());
+        assertEquals(Instant.parse("2026-01-15T12:01:30Z").getEpochSecond(), relogio.epochSegundos());
+    }
+
+    @Test
+    @DisplayName("Deve devolver o valor em cache até a próxima atualização")
+    void deveAtualizarValorEmCache() throws InterruptedException {
+        ClockManual clock = new ClockManual();
+        try (Relogio relogio = Relogio.cacheado(clock, Duration.ofMillis(5))) {
+            LocalDateTime inicial = relogio.agora();
+            assertSame(inicial, relogio.agora());
+
+            clock.avancar(Duration.ofMinutes(1));
+            for (int i = 0; i < 200 && relogio.agora().equals(inicial); i++) {
+                Thread.sleep(5);
+            }
+
+            assertEquals(inicial.plusMinutes(1), relogio.agora());
+            assertEquals(Instant.parse("2026-01-15T12:01:00Z").getEpochSecond(), relogio.epochSegundos());
+        }
+    }
+}
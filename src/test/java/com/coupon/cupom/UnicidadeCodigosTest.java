@@ -0,0 +1,76 @@
+package com.coupon.cupom;
+
+import com.coupon.cupom.entity.Campanha;
+import com.coupon.cupom.entity.Cupom;
+import com.coupon.cupom.exception.CupomInvalidoException;
+import com.coupon.cupom.index.IndiceCodigos;
+import com.coupon.cupom.request.AtualizarCupomRequest;
+import com.coupon.cupom.request.CreateCampanhaRequest;
+import com.coupon.cupom.service.CampanhaService;
+import com.coupon.cupom.service.CupomService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "cupom.indice.enabled=true")
+@DisplayName("Unicidade de códigos com o índice ligado - Testes de Integração")
+class UnicidadeCodigosTest {
+
+    @Autowired
+    private CupomService service;
+
+    @Autowired
+    private IndiceCodigos indice;
+
+    @Autowired
+    private CampanhaService campanhaService;
+
+    private Cupom criarCupom(String code) {
+        return service.salvarCupom(Fixtures.cupomRequest(code));
+    }
+
+    private void aguardarIndice() throws InterruptedException {
+        for (int i = 0; i < 100 && !indice.isPronto(); i++) {
+            Thread.sleep(50);
+        }
+        assertTrue(indice.isPronto());
+    }
+
+    @Test
+    @DisplayName("Deve liberar o código antigo no índice ao trocar o código de um cupom")
+    void deveLiberarCodigoAntigo() throws InterruptedException {
+        aguardarIndice();
+        Cupom cupom = criarCupom("TRC001");
+
+        AtualizarCupomRequest troca = new AtualizarCupomRequest();
+        troca.setCode("TRC002");
+        service.atualizarParcialmente(cupom.getId(), troca);
+
+        assertFalse(indice.contem("TRC001"));
+        assertEquals("TRC001", criarCupom("TRC001").getCode());
+        assertThrows(CupomInvalidoException.class, () -> criarCupom("TRC002"));
+    }
+
+    @Test
+    @DisplayName("Deve recusar como cupom avulso um código já gerado para uma campanha")
+    void deveRecusarCodigoDeCampanha() throws InterruptedException {
+        aguardarIndice();
+        CreateCampanhaRequest request = new CreateCampanhaRequest();
+        request.setDescription("Campanha com índice");
+        request.setDiscountValue(BigDecimal.TEN);
+        request.setExpirationDate(LocalDateTime.now().plusDays(10));
+        request.setPublished(true);
+        request.setQuantidade(1500);
+        Campanha campanha = campanhaService.criarCampanha(request);
+        String code = campanhaService.listarCodigos(campanha.getId(), 1, 10).getFirst().getCode();
+
+        assertTrue(indice.contem(code));
+        assertThrows(CupomInvalidoException.class, () -> criarCupom(code));
+    }
+}
@@ -0,0 +1,28 @@
+package com.coupon.cupom;
+
+import com.coupon.cupom.carga.Zipf;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Zipf - Testes Unitários")
+class ZipfTest {
+
+    @Test
+    @DisplayName("Deve concentrar o sorteio nas primeiras posições")
+    void deveConcentrarNasPrimeirasPosicoes() {
+        Zipf zipf = new Zipf(1000, 1.1);
+        SplittableRandom random = new SplittableRandom(1);
+        int[] contagem = new int[1000];
+        for (int i = 0; i < 100_000; i++) {
+            contagem[zipf.proximo(random)]++;
+        }
+
+        assertTrue(contagem[0] > contagem[1]);
+        assertTrue(contagem[1] > contagem[10]);
+        assertTrue(contagem[0] > 100_000 / 10, "a chave mais quente deve receber mais de 10% das escolhas");
+    }
+}
@@ -0,0 +1,149 @@
+package com.coupon.cupom.benchmark;
+
+import com.coupon.cupom.CupomApplication;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compara tamanho de payload e latência dos endpoints do CupomController com e sem gzip,
+ * em HTTP/1.1 e HTTP/2 (h2c), contra a aplicação embarcada.
+ *
+ * <p>Propriedades: {@code cupons} (200, também o tamanho do lookup) e {@code requisicoes} (500 por cenário).
+ */
+public final class CompressaoBenchmark {
+
+    private static final JsonMapper JSON = JsonMapper.builder().build();
+    private static final int AQUECIMENTO = 100;
+
+    private final String url;
+    private final int requisicoes;
+    private final HttpClient http1 = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private final HttpClient http2 = HttpClient.newBuilder().version(HttpClient.Version.HTTP_2).build();
+
+    private CompressaoBenchmark(String url, int requisicoes) {
+        this.url = url;
+        this.requisicoes = requisicoes;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int cupons = Integer.getInteger("cupons", 200);
+        int requisicoes = Integer.getInteger("requisicoes", 500);
+        try (ConfigurableApplicationContext app = SpringApplication.run(CupomApplication.class,
+                "--server.port=0",
+                "--cupom.rate-limit.enabled=false",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN")) {
+            String url = "http://localhost:" + app.getEnvironment().getProperty("local.server.port");
+            new CompressaoBenchmark(url, requisicoes).executar(cupons);
+        }
+    }
+
+    private void executar(int cupons) {
+        List<String> ids = popular(cupons);
+        byte[] lookup = JSON.writeValueAsBytes(Map.of("ids", ids, "codes", List.of()));
+        byte[] lookupGzip = gzip(lookup);
+        String umId = ids.get(0);
+
+        System.out.printf("%-42s %8s %10s %10s %10s %6s%n", "cenário", "req (B)", "resp (B)", "p50 µs", "p99 µs", "proto");
+        medir("GET /coupon/{id}", http1, get(umId, false), 0);
+        medir("GET /coupon/{id} + gzip", http1, get(umId, true), 0);
+        medir("POST /coupon/lookup (" + cupons + " ids)", http1, lookup(lookup, false, false), lookup.length);
+        medir("POST /coupon/lookup + gzip", http1, lookup(lookup, true, false), lookup.length);
+        medir("POST /coupon/lookup + gzip nos dois sentidos", http1, lookup(lookupGzip, true, true), lookupGzip.length);
+        // Upgrade h2c com um GET: o Tomcat limita o corpo de uma requisição de upgrade a maxSavePostSize (4 KB)
+        enviar(http2, get(umId, false));
+        medir("POST /coupon/lookup h2c", http2, lookup(lookup, false, false), lookup.length);
+        medir("POST /coupon/lookup h2c + gzip", http2, lookup(lookup, true, false), lookup.length);
+    }
+
+    private void medir(String cenario, HttpClient cliente, HttpRequest request, int bytesRequisicao) {
+        for (int i = 0; i < AQUECIMENTO; i++) {
+            enviar(cliente, request);
+        }
+        Histogram latencias = new Histogram(3);
+        HttpResponse<byte[]> resposta = null;
+        for (int i = 0; i < requisicoes; i++) {
+            long inicio = System.nanoTime();
+            resposta = enviar(cliente, request);
+            latencias.recordValue((System.nanoTime() - inicio) / 1000);
+        }
+        if (resposta.statusCode() != 200) {
+            throw new IllegalStateException(cenario + " respondeu " + resposta.statusCode());
+        }
+        System.out.printf("%-42s %8d %10d %10d %10d %6s%n", cenario, bytesRequisicao, resposta.body().length,
+                latencias.getValueAtPercentile(50), latencias.getValueAtPercentile(99),
+                resposta.version() == HttpClient.Version.HTTP_2 ? "h2c" : "1.1");
+    }
+
+    private List<String> popular(int quantidade) {
+        List<String> ids = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            String corpo = """
+                    {"code":"BZ%04d","description":"Cupom de benchmark de compressão","discountValue":10.00,"expirationDate":"%s","published":true}"""
+                    .formatted(i, LocalDateTime.now().plusDays(30).withNano(0));
+            HttpResponse<byte[]> resposta = enviar(http1, HttpRequest.newBuilder(URI.create(url + "/coupon"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(corpo))
+                    .build());
+            ids.add(JSON.readTree(resposta.body()).path("id").asString());
+        }
+        return ids;
+    }
+
+    private HttpRequest get(String id, boolean gzip) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url + "/coupon/" + id)).GET();
+        if (gzip) {
+            builder.header("Accept-Encoding", "gzip");
+        }
+        return builder.build();
+    }
+
+    private HttpRequest lookup(byte[] corpo, boolean gzipResposta, boolean gzipRequisicao) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url + "/coupon/lookup"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(corpo));
+        if (gzipResposta) {
+            builder.header("Accept-Encoding", "gzip");
+        }
+        if (gzipRequisicao) {
+            builder.header("Content-Encoding", "gzip");
+        }
+        return builder.build();
+    }
+
+    private static HttpResponse<byte[]> enviar(HttpClient cliente, HttpRequest request) {
+        try {
+            return cliente.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] gzip(byte[] dados) {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(saida)) {
+            gzip.write(dados);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return saida.toByteArray();
+    }
+}
@@ -0,0 +1,46 @@
+package com.coupon.cupom.benchmark;
+
+import com.coupon.cupom.exception.ErroResponse;
+import com.coupon.cupom.exception.TipoErro;
+import org.openjdk.jmh.annotations.*;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara o corpo de erro antigo (HashMap + LocalDateTime.now() + Jackson)
+ * com a serialização por template do {@link TipoErro}.
+ *
+ * Rodar com: mvn test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java
+ *   -Dexec.args="-cp %classpath org.openjdk.jmh.Main ErroResponseBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ErroResponseBenchmark {
+
+    private final JsonMapper mapper = JsonMapper.builder().findAndAddModules().build();
+    private final String mensagem = "Cupom com ID " + UUID.randomUUID() + " não encontrado";
+
+    @Benchmark
+    public byte[] hashMapComJackson() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("timestamp", LocalDateTime.now());
+        response.put("status", 404);
+        response.put("error", "Recurso não encontrado");
+        response.put("message", mensagem);
+        return mapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] template() {
+        return new ErroResponse(TipoErro.CUPOM_NAO_ENCONTRADO, mensagem).toJson();
+    }
+}
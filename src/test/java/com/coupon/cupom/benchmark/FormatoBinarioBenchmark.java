@@ -0,0 +1,72 @@
+package com.coupon.cupom.benchmark;
+
+import com.coupon.cupom.entity.CupomStatus;
+import com.coupon.cupom.request.CupomResponse;
+import org.openjdk.jmh.annotations.*;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara JSON, CBOR e Smile na serialização e leitura de uma página de {@link CupomResponse}
+ * (o formato de /coupon/lookup). O tamanho de cada payload é impresso no setup.
+ *
+ * Rodar com: mvn test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java
+ *   -Dexec.args="-cp %classpath org.openjdk.jmh.Main FormatoBinarioBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FormatoBinarioBenchmark {
+
+    private static final TypeReference<List<CupomResponse>> LISTA = new TypeReference<>() {
+    };
+
+    @Param({"json", "cbor", "smile"})
+    private String formato;
+
+    @Param({"200"})
+    private int quantidade;
+
+    private ObjectMapper mapper;
+    private List<CupomResponse> cupons;
+    private byte[] serializado;
+
+    @Setup
+    public void setup() {
+        mapper = switch (formato) {
+            case "cbor" -> CBORMapper.builder().build();
+            case "smile" -> SmileMapper.builder().build();
+            default -> JsonMapper.builder().build();
+        };
+        cupons = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            cupons.add(new CupomResponse(UUID.randomUUID(), String.format("BX%04d", i), "Cupom de desconto",
+                    new BigDecimal("10.50"), LocalDateTime.now().plusDays(30), CupomStatus.ACTIVE, true, false));
+        }
+        serializado = mapper.writeValueAsBytes(cupons);
+        System.out.printf("%n%s: %d bytes para %d cupons%n", formato, serializado.length, quantidade);
+    }
+
+    @Benchmark
+    public byte[] serializar() {
+        return mapper.writeValueAsBytes(cupons);
+    }
+
+    @Benchmark
+    public List<CupomResponse> desserializar() {
+        return mapper.readValue(serializado, LISTA);
+    }
+}
@@ -0,0 +1,61 @@
+package com.coupon.cupom.benchmark;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Mede o tempo de subida da aplicação empacotada: sobe o jar N vezes até o contexto ficar pronto
+ * (spring.context.exit=onRefresh) e reporta a mediana. Sai com código 1 se a mediana passar do orçamento.
+ *
+ * <p>Propriedades: {@code jar} (padrão target/cupom-0.0.1-SNAPSHOT.jar), {@code execucoes} (5),
+ * {@code orcamentoMs} (3000) e {@code jvmArgs} (flags extras, separadas por espaço).
+ */
+public final class StartupBenchmark {
+
+    private StartupBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path jar = Path.of(System.getProperty("jar", "target/cupom-0.0.1-SNAPSHOT.jar"));
+        int execucoes = Integer.getInteger("execucoes", 5);
+        long orcamentoMs = Long.getLong("orcamentoMs", 3000);
+        String jvmArgs = System.getProperty("jvmArgs", "").trim();
+
+        if (!Files.exists(jar)) {
+            throw new IllegalStateException("Jar não encontrado: " + jar + " (rodar mvn package antes)");
+        }
+
+        List<String> comando = new ArrayList<>();
+        comando.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        if (!jvmArgs.isEmpty()) {
+            comando.addAll(Arrays.asList(jvmArgs.split("\\s+")));
+        }
+        comando.addAll(List.of("-Dspring.context.exit=onRefresh", "-jar", jar.toString()));
+
+        long[] tempos = new long[execucoes];
+        for (int i = 0; i < execucoes; i++) {
+            long inicio = System.nanoTime();
+            Process processo = new ProcessBuilder(comando)
+                    .redirectErrorStream(true)
+                    .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                    .start();
+            if (processo.waitFor() != 0) {
+                throw new IllegalStateException("A aplicação terminou com código " + processo.exitValue());
+            }
+            tempos[i] = (System.nanoTime() - inicio) / 1_000_000;
+        }
+
+        Arrays.sort(tempos);
+        long mediana = tempos[execucoes / 2];
+        System.out.printf("Subida (%s): mediana %d ms, mín %d ms, máx %d ms em %d execuções%n",
+                jvmArgs.isEmpty() ? "padrão" : jvmArgs, mediana, tempos[0], tempos[execucoes - 1], execucoes);
+
+        if (mediana > orcamentoMs) {
+            System.out.printf("Mediana acima do orçamento de %d ms%n", orcamentoMs);
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,322 @@
+package com.coupon.cupom.carga;
+
+import com.coupon.cupom.CupomApplication;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Gerador de carga que reproduz o tráfego de uma flash sale: criação, busca, resgate e publicação
+ * de cupons, com chaves quentes (Zipf sobre os cupons) e chegadas em malha aberta (taxa fixa,
+ * independente das respostas; a latência é medida a partir do instante planejado, então filas
+ * aparecem no histograma). No fim confere que nenhum cupom foi resgatado duas vezes e que o
+ * estado final de cada cupom bate com as respostas recebidas. Sai com código 1 se houver violação.
+ *
+ * <p>Sem {@code url}, sobe a aplicação embarcada (H2, porta aleatória, rate limit desligado).
+ * Propriedades: {@code url}, {@code duracao} (30s), {@code taxa} (500 req/s), {@code concorrencia}
+ * (200 requisições em voo), {@code cupons} (1000), {@code zipf} (1.1), {@code semente} (42) e
+ * {@code mix} (get:60,redeem:25,create:10,publish:5).
+ */
+public final class CargaFlashSale {
+
+    enum Operacao { GET, REDEEM, CREATE, PUBLISH }
+
+    private static final JsonMapper JSON = JsonMapper.builder().findAndAddModules().build();
+    private static final char[] ALFABETO = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ".toCharArray();
+
+    private final String url;
+    private final Duration duracao;
+    private final int taxa;
+    private final int concorrencia;
+    private final int quantidadeCupons;
+    private final double expoenteZipf;
+    private final long semente;
+    private final Map<Operacao, Integer> mix;
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final String prefixoCodigos;
+    private final AtomicInteger sequenciaCodigos = new AtomicInteger();
+
+    private final List<UUID> publicados = Collections.synchronizedList(new ArrayList<>());
+    private final List<UUID> naoPublicados = Collections.synchronizedList(new ArrayList<>());
+    private final Map<Operacao, Histogram> latencias = new EnumMap<>(Operacao.class);
+    private final Map<String, LongAdder> respostas = new ConcurrentHashMap<>();
+    private final Map<UUID, AtomicInteger> resgatesAceitos = new ConcurrentHashMap<>();
+
+    CargaFlashSale(String url) {
+        this.url = url;
+        this.duracao = Duration.parse("PT" + System.getProperty("duracao", "30s"));
+        this.taxa = Integer.getInteger("taxa", 500);
+        this.concorrencia = Integer.getInteger("concorrencia", 200);
+        this.quantidadeCupons = Integer.getInteger("cupons", 1000);
+        this.expoenteZipf = Double.parseDouble(System.getProperty("zipf", "1.1"));
+        this.semente = Long.getLong("semente", 42);
+        this.mix = lerMix(System.getProperty("mix", "get:60,redeem:25,create:10,publish:5"));
+        for (Operacao operacao : Operacao.values()) {
+            latencias.put(operacao, new ConcurrentHistogram(Duration.ofMinutes(1).toNanos(), 3));
+        }
+        SplittableRandom random = new SplittableRandom();
+        this.prefixoCodigos = "" + ALFABETO[random.nextInt(36)] + ALFABETO[random.nextInt(36)];
+    }
+
+    public static void main(String[] args) throws Exception {
+        String url = System.getProperty("url");
+        ConfigurableApplicationContext app = null;
+        if (url == null) {
+            app = SpringApplication.run(CupomApplication.class,
+                    "--server.port=0",
+                    "--cupom.rate-limit.enabled=false",
+                    "--spring.main.banner-mode=off",
+                    "--logging.level.root=WARN");
+            url = "http://localhost:" + app.getEnvironment().getProperty("local.server.port");
+        }
+        int violacoes;
+        try {
+            violacoes = new CargaFlashSale(url).executar();
+        } finally {
+            if (app != null) {
+                app.close();
+            }
+        }
+        System.exit(violacoes == 0 ? 0 : 1);
+    }
+
+    int executar() throws InterruptedException {
+        System.out.printf("Carga contra %s: %d req/s por %s, %d em voo, %d cupons, zipf %.2f, mix %s%n",
+                url, taxa, duracao, concorrencia, quantidadeCupons, expoenteZipf, mix);
+        popular();
+        long decorrido = gerarCarga();
+        relatar(decorrido);
+        return verificar();
+    }
+
+    /**
+     * Cria os cupons publicados (alvos de busca e resgate) e um décimo disso não publicados (alvos de publicação)
+     */
+    private void popular() throws InterruptedException {
+        Semaphore emVoo = new Semaphore(concorrencia);
+        int naoPublicadosTotal = Math.max(1, quantidadeCupons / 10);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < quantidadeCupons + naoPublicadosTotal; i++) {
+                boolean publicado = i < quantidadeCupons;
+                emVoo.acquire();
+                executor.submit(() -> {
+                    try {
+                        HttpResponse<String> resposta = enviar(criarCupom(publicado));
+                        if (resposta.statusCode() == 201) {
+                            (publicado ? publicados : naoPublicados).add(idDe(resposta));
+                        }
+                    } finally {
+                        emVoo.release();
+                    }
+                    return null;
+                });
+            }
+        }
+        if (publicados.isEmpty()) {
+            throw new IllegalStateException("Nenhum cupom criado; a API está aceitando POST /coupon?");
+        }
+        // Ordem estável: com a mesma semente, as mesmas posições do Zipf viram chaves quentes
+        publicados.sort(null);
+        naoPublicados.sort(null);
+    }
+
+    /**
+     * Dispara as requisições em malha aberta pela duração configurada
+     * @return tempo decorrido em nanossegundos
+     */
+    private long gerarCarga() {
+        SplittableRandom random = new SplittableRandom(semente);
+        Zipf zipfPublicados = new Zipf(publicados.size(), expoenteZipf);
+        Zipf zipfNaoPublicados = new Zipf(naoPublicados.size(), expoenteZipf);
+        int pesoTotal = mix.values().stream().mapToInt(Integer::intValue).sum();
+        long intervalo = 1_000_000_000L / taxa;
+        long total = duracao.toNanos() / intervalo;
+        Semaphore emVoo = new Semaphore(concorrencia);
+
+        long inicio = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; i < total; i++) {
+                long planejado = inicio + i * intervalo;
+                long espera = planejado - System.nanoTime();
+                if (espera > 0) {
+                    LockSupport.parkNanos(espera);
+                }
+                Operacao operacao = sortearOperacao(random.nextInt(pesoTotal));
+                UUID alvo = switch (operacao) {
+                    case GET, REDEEM -> publicados.get(zipfPublicados.proximo(random));
+                    case PUBLISH -> naoPublicados.get(zipfNaoPublicados.proximo(random));
+                    case CREATE -> null;
+                };
+                executor.submit(() -> {
+                    emVoo.acquireUninterruptibly();
+                    try {
+                        executarOperacao(operacao, alvo, planejado);
+                    } finally {
+                        emVoo.release();
+                    }
+                });
+            }
+        }
+        return System.nanoTime() - inicio;
+    }
+
+    private void executarOperacao(Operacao operacao, UUID alvo, long planejado) {
+        HttpRequest request = switch (operacao) {
+            case GET -> HttpRequest.newBuilder(URI.create(url + "/coupon/" + alvo)).GET().build();
+            case REDEEM -> post("/coupon/" + alvo + "/redeem");
+            case PUBLISH -> post("/coupon/" + alvo + "/publish");
+            case CREATE -> criarCupom(true);
+        };
+        String resultado;
+        try {
+            HttpResponse<String> resposta = enviar(request);
+            resultado = String.valueOf(resposta.statusCode());
+            if (operacao == Operacao.REDEEM && resposta.statusCode() == 200) {
+                resgatesAceitos.computeIfAbsent(alvo, id -> new AtomicInteger()).incrementAndGet();
+            }
+        } catch (RuntimeException e) {
+            resultado = e.getClass().getSimpleName();
+        }
+        latencias.get(operacao).recordValue(System.nanoTime() - planejado);
+        respostas.computeIfAbsent(operacao + " " + resultado, chave -> new LongAdder()).increment();
+    }
+
+    /**
+     * Confere as invariantes: resgate aceito no máximo uma vez por cupom e estado final coerente
+     * com as respostas (resgatado se, e somente se, um resgate foi aceito)
+     * @return quantidade de violações
+     */
+    private int verificar() {
+        int violacoes = 0;
+        for (Map.Entry<UUID, AtomicInteger> resgate : resgatesAceitos.entrySet()) {
+            if (resgate.getValue().get() > 1) {
+                System.out.printf("VIOLAÇÃO: cupom %s resgatado %d vezes%n", resgate.getKey(), resgate.getValue().get());
+                violacoes++;
+            }
+        }
+        for (UUID id : publicados) {
+            HttpResponse<String> resposta = enviar(HttpRequest.newBuilder(URI.create(url + "/coupon/" + id)).GET().build());
+            boolean resgatado = JSON.readTree(resposta.body()).path("redeemed").asBoolean();
+            boolean aceito = resgatesAceitos.containsKey(id);
+            if (resgatado != aceito) {
+                System.out.printf("VIOLAÇÃO: cupom %s com redeemed=%s, mas %d resgates aceitos%n",
+                        id, resgatado, aceito ? resgatesAceitos.get(id).get() : 0);
+                violacoes++;
+            }
+        }
+        System.out.printf("Cupons resgatados: %d; violações: %d%n", resgatesAceitos.size(), violacoes);
+        return violacoes;
+    }
+
+    private void relatar(long decorrido) {
+        long total = latencias.values().stream().mapToLong(Histogram::getTotalCount).sum();
+        System.out.printf("%n%d requisições em %.1f s (%.0f req/s)%n", total, decorrido / 1e9, total / (decorrido / 1e9));
+        System.out.printf("%-8s %8s %9s %9s %9s %9s %9s%n", "operação", "total", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "máx ms");
+        for (Map.Entry<Operacao, Histogram> entrada : latencias.entrySet()) {
+            Histogram h = entrada.getValue();
+            if (h.getTotalCount() == 0) {
+                continue;
+            }
+            System.out.printf("%-8s %8d %9.2f %9.2f %9.2f %9.2f %9.2f%n", entrada.getKey(), h.getTotalCount(),
+                    h.getValueAtPercentile(50) / 1e6, h.getValueAtPercentile(90) / 1e6,
+                    h.getValueAtPercentile(99) / 1e6, h.getValueAtPercentile(99.9) / 1e6, h.getMaxValue() / 1e6);
+        }
+        System.out.println();
+        respostas.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(e -> System.out.printf("%-20s %8d%n", e.getKey(), e.getValue().sum()));
+        System.out.println();
+    }
+
+    private HttpRequest criarCupom(boolean publicado) {
+        String corpo = """
+                {"code":"%s","description":"Flash sale","discountValue":10.00,"expirationDate":"%s","published":%s}"""
+                .formatted(proximoCodigo(), LocalDateTime.now().plusDays(30).withNano(0), publicado);
+        return HttpRequest.newBuilder(URI.create(url + "/coupon"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(corpo))
+                .build();
+    }
+
+    private HttpRequest post(String caminho) {
+        return HttpRequest.newBuilder(URI.create(url + caminho)).POST(HttpRequest.BodyPublishers.noBody()).build();
+    }
+
+    private HttpResponse<String> enviar(HttpRequest request) {
+        try {
+            return http.send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Prefixo aleatório de 2 caracteres por execução + sequência em base 36, para rodar várias vezes contra a mesma base
+     */
+    private String proximoCodigo() {
+        int valor = sequenciaCodigos.getAndIncrement();
+        char[] code = new char[4];
+        for (int i = 3; i >= 0; i--) {
+            code[i] = ALFABETO[valor % 36];
+            valor /= 36;
+        }
+        return prefixoCodigos + new String(code);
+    }
+
+    private Operacao sortearOperacao(int sorteio) {
+        for (Map.Entry<Operacao, Integer> entrada : mix.entrySet()) {
+            sorteio -= entrada.getValue();
+            if (sorteio < 0) {
+                return entrada.getKey();
+            }
+        }
+        throw new IllegalStateException("Mix sem pesos");
+    }
+
+    private static UUID idDe(HttpResponse<String> resposta) {
+        JsonNode corpo = JSON.readTree(resposta.body());
+        return UUID.fromString(corpo.path("id").asString());
+    }
+
+    private static Map<Operacao, Integer> lerMix(String mix) {
+        Map<Operacao, Integer> pesos = new EnumMap<>(Operacao.class);
+        for (String parte : mix.split(",")) {
+            String[] chaveValor = parte.trim().split(":");
+            pesos.put(Operacao.valueOf(chaveValor[0].trim().toUpperCase()), Integer.parseInt(chaveValor[1].trim()));
+        }
+        return pesos;
+    }
+}
@@ -0,0 +1,34 @@
+package com.coupon.cupom.carga;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Sorteio com distribuição de Zipf sobre as posições 0..n-1: a posição k é escolhida com
+ * probabilidade proporcional a 1/(k+1)^s, então as primeiras posições concentram o tráfego.
+ */
+public final class Zipf {
+
+    private final double[] acumulada;
+
+    public Zipf(int n, double s) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("n deve ser positivo");
+        }
+        acumulada = new double[n];
+        double soma = 0;
+        for (int k = 0; k < n; k++) {
+            soma += 1 / Math.pow(k + 1, s);
+            acumulada[k] = soma;
+        }
+        for (int k = 0; k < n; k++) {
+            acumulada[k] /= soma;
+        }
+        acumulada[n - 1] = 1;
+    }
+
+    public int proximo(RandomGenerator random) {
+        int posicao = Arrays.binarySearch(acumulada, random.nextDouble());
+        return posicao >= 0 ? posicao : -posicao - 1;
+    }
+}